@@ -44,7 +44,7 @@ public class UserMarshaller extends AbstractMarshaller {
 
 	@Override
 	public int sizeEstimate(Object object) {
-		OptionalInt size = this.marshaller.size(object);
+		OptionalInt size = this.marshaller.estimateSize(object);
 		return size.isPresent() ? size.getAsInt() : super.sizeEstimate(object);
 	}
 
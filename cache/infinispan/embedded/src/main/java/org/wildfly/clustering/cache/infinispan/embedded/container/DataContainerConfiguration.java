@@ -33,6 +33,11 @@ public class DataContainerConfiguration implements Matchable<DataContainerConfig
 			.immutable()
 			.build();
 
+	/** Attribute defining the fraction of the maximum heap size, above which the passivation thresholds of the data container are lowered. */
+	static final AttributeDefinition<Double> HEAP_USAGE_THRESHOLD = AttributeDefinition.builder("heap-usage-threshold", null, Double.class)
+			.immutable()
+			.build();
+
 	private final AttributeSet attributes;
 
 	DataContainerConfiguration(AttributeSet attributes) {
@@ -60,6 +65,14 @@ public class DataContainerConfiguration implements Matchable<DataContainerConfig
 		return this.attributes.attribute(IDLE_TIMEOUT).get();
 	}
 
+	/**
+	 * Returns the fraction of the maximum heap size, above which the count and idle thresholds of the data container are dynamically lowered, following garbage collection.
+	 * @return a fraction of the maximum heap size, or null, if passivation thresholds do not adapt to heap pressure.
+	 */
+	public Double heapUsageThreshold() {
+		return this.attributes.attribute(HEAP_USAGE_THRESHOLD).get();
+	}
+
 	@Override
 	public boolean matches(DataContainerConfiguration configuration) {
 		return this.attributes.matches(configuration.attributes);
@@ -30,7 +30,7 @@ public class DataContainerConfigurationBuilder implements Builder<DataContainerC
 	}
 
 	DataContainerConfigurationBuilder() {
-		this.attributes = new AttributeSet(DataContainerConfiguration.class, DataContainerConfiguration.EVICTABLE, DataContainerConfiguration.IDLE_TIMEOUT);
+		this.attributes = new AttributeSet(DataContainerConfiguration.class, DataContainerConfiguration.EVICTABLE, DataContainerConfiguration.IDLE_TIMEOUT, DataContainerConfiguration.HEAP_USAGE_THRESHOLD);
 	}
 
 	/**
@@ -54,6 +54,21 @@ public class DataContainerConfigurationBuilder implements Builder<DataContainerC
 		return this;
 	}
 
+	/**
+	 * Specifies the fraction of the maximum heap size, above which the count and idle thresholds of the data container are dynamically lowered, following garbage collection.
+	 * While heap usage remains above this threshold, the coldest evictable entries are passivated in bounded batches.
+	 * @param threshold a fraction of the maximum heap size, between 0 and 1 (exclusive)
+	 * @return a reference to this builder
+	 * @throws IllegalArgumentException if the threshold is not between 0 and 1 (exclusive)
+	 */
+	public DataContainerConfigurationBuilder heapUsageThreshold(double threshold) {
+		if ((threshold <= 0) || (threshold >= 1)) {
+			throw new IllegalArgumentException(Double.toString(threshold));
+		}
+		this.attributes.attribute(DataContainerConfiguration.HEAP_USAGE_THRESHOLD).set(threshold);
+		return this;
+	}
+
 	@Override
 	public DataContainerConfiguration create() {
 		return new DataContainerConfiguration(this.attributes);
@@ -72,6 +72,9 @@ public class DataContainerFactory extends AbstractNamedCacheComponentFactory imp
 
 		boolean hasSize = memory.maxSize() != null;
 		if (offHeap) {
+			if (segmented && !hasSize && SegmentedOffHeapEvictableDataContainer.ENABLED) {
+				return new SegmentedOffHeapEvictableDataContainer(this.basicComponentRegistry, this.configuration, this::createAndStartOffHeapConcurrentMap);
+			}
 			return segmented ? new SegmentedBoundedOffHeapDataContainer(segments, memory.maxCount(), hasSize) : new BoundedOffHeapDataContainer(memory.maxCount(), hasSize);
 		}
 		if (hasSize) {
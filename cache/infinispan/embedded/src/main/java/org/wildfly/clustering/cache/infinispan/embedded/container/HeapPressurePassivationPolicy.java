@@ -0,0 +1,234 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.embedded.container;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import org.wildfly.clustering.function.BooleanSupplier;
+
+/**
+ * Passivation policy that adapts the count and idle thresholds of a data container to heap pressure.
+ * Following each garbage collection, compares the heap usage remaining after collection against a configured fraction of the maximum heap size.
+ * While above this threshold, the effective count threshold is lowered to a bounded batch below the number of entries it currently bounds, such that the coldest evictable entries are passivated, and the effective idle threshold is halved, such that the longest idle entries are passivated sooner.
+ * Once heap usage subsides, the count threshold is restored to its configured value in a single step, since raising it passivates nothing, and the idle threshold is doubled until restored to its configured value.
+ * @author Paul Ferraro
+ * @param <K> the cache key type
+ * @param <V> the cache value type
+ */
+class HeapPressurePassivationPolicy<K, V> implements NotificationListener, AutoCloseable {
+	// Type of notification emitted by HotSpot garbage collector MBeans
+	static final String GARBAGE_COLLECTION_NOTIFICATION = "com.sun.management.gc.notification";
+	// Maximum number of entries passivated per adjustment
+	static final int BATCH_SIZE = 128;
+	// Limits adjustment of thresholds to 1/16 of their configured values
+	static final int MAX_REDUCTION_SHIFT = 4;
+
+	private static final System.Logger LOGGER = System.getLogger(HeapPressurePassivationPolicy.class.getName());
+
+	private final Duration idleTimeout;
+	private final Executor executor;
+	private final AtomicBoolean adjusting = new AtomicBoolean();
+	private final List<NotificationEmitter> emitters;
+	private final BooleanSupplier heapUsageThresholdExceeded;
+
+	private volatile long maxCount;
+	private volatile Duration effectiveIdleTimeout;
+	private volatile boolean pressure;
+	private volatile Cache<K, V> cache;
+
+	/**
+	 * Creates a passivation policy.
+	 * @param configuration the data container configuration
+	 * @param maxCount the configured count threshold, or a non-positive value, if the data container is not bounded by count
+	 * @param executor the executor with which to adjust thresholds
+	 */
+	HeapPressurePassivationPolicy(DataContainerConfiguration configuration, long maxCount, Executor executor) {
+		this(configuration, maxCount, executor, (configuration.heapUsageThreshold() != null) ? ManagementFactory.getGarbageCollectorMXBeans().stream().filter(NotificationEmitter.class::isInstance).map(NotificationEmitter.class::cast).toList() : List.of(), heapUsageThresholdExceeded(configuration.heapUsageThreshold()));
+	}
+
+	/**
+	 * Creates a passivation policy.
+	 * @param configuration the data container configuration
+	 * @param maxCount the configured count threshold, or a non-positive value, if the data container is not bounded by count
+	 * @param executor the executor with which to adjust thresholds
+	 * @param emitters the emitters of garbage collection notifications
+	 * @param heapUsageThresholdExceeded indicates whether heap usage following the most recent garbage collection exceeds the configured threshold
+	 */
+	HeapPressurePassivationPolicy(DataContainerConfiguration configuration, long maxCount, Executor executor, List<NotificationEmitter> emitters, BooleanSupplier heapUsageThresholdExceeded) {
+		this.idleTimeout = configuration.idleTimeout();
+		this.effectiveIdleTimeout = this.idleTimeout;
+		this.maxCount = maxCount;
+		this.executor = executor;
+		this.emitters = emitters;
+		this.heapUsageThresholdExceeded = heapUsageThresholdExceeded;
+	}
+
+	/**
+	 * Starts adapting the thresholds of the specified cache to heap pressure, if so configured.
+	 * @param cache the Caffeine cache of a data container
+	 */
+	void start(Cache<K, V> cache) {
+		this.cache = cache;
+		for (NotificationEmitter emitter : this.emitters) {
+			emitter.addNotificationListener(this, notification -> notification.getType().equals(GARBAGE_COLLECTION_NOTIFICATION), null);
+		}
+	}
+
+	@Override
+	public void close() {
+		for (NotificationEmitter emitter : this.emitters) {
+			try {
+				emitter.removeNotificationListener(this);
+			} catch (ListenerNotFoundException e) {
+				// Not started
+			}
+		}
+	}
+
+	/**
+	 * Returns the effective idle threshold, which may be lower than the configured idle timeout while under heap pressure.
+	 * @return the effective idle threshold, or null, if idle entries are never evicted.
+	 */
+	Duration getIdleTimeout() {
+		return this.effectiveIdleTimeout;
+	}
+
+	/**
+	 * Indicates whether heap usage following the most recent garbage collection exceeded the configured threshold.
+	 * @return true, if the heap is under pressure, false otherwise.
+	 */
+	boolean isUnderPressure() {
+		return this.pressure;
+	}
+
+	/**
+	 * Updates the configured count threshold, e.g. following a resize of the data container.
+	 * @param maxCount the configured count threshold
+	 */
+	void setMaxCount(long maxCount) {
+		this.maxCount = maxCount;
+	}
+
+	@Override
+	public void handleNotification(Notification notification, Object handback) {
+		// Avoid blocking notification thread, and skip if an adjustment is already pending
+		if (this.adjusting.compareAndSet(false, true)) {
+			this.executor.execute(this::adjust);
+		}
+	}
+
+	private void adjust() {
+		try {
+			boolean pressure = this.heapUsageThresholdExceeded.getAsBoolean();
+			this.pressure = pressure;
+			Cache<K, V> cache = this.cache;
+			long maxCount = this.maxCount;
+			if (maxCount > 0) {
+				Policy.Eviction<K, V> eviction = cache.policy().eviction().orElseThrow(IllegalStateException::new);
+				long maximum = eviction.getMaximum();
+				// Weighted size excludes non-evictable entries
+				long size = eviction.weightedSize().orElseGet(cache::estimatedSize);
+				long target = adjustCount(maxCount, maximum, size, pressure);
+				if (target != maximum) {
+					LOGGER.log(System.Logger.Level.DEBUG, "Adjusting count threshold from {0} to {1}", maximum, target);
+					// Lowering the maximum evicts, and thus passivates, the coldest evictable entries
+					eviction.setMaximum(target);
+				}
+			}
+			Duration idleTimeout = this.idleTimeout;
+			if (idleTimeout != null) {
+				Duration current = this.effectiveIdleTimeout;
+				Duration target = adjustIdleTimeout(idleTimeout, current, pressure);
+				if (!target.equals(current)) {
+					LOGGER.log(System.Logger.Level.DEBUG, "Adjusting idle threshold from {0} to {1}", current, target);
+					this.effectiveIdleTimeout = target;
+					if (target.compareTo(current) < 0) {
+						// Apply reduced threshold to the longest idle entries, which would otherwise only observe it on their next access
+						cache.policy().expireVariably().ifPresent(expiration -> shorten(expiration, current, current.minus(target)));
+					}
+				}
+			}
+		} finally {
+			this.adjusting.set(false);
+		}
+	}
+
+	/**
+	 * Computes the next count threshold.
+	 * While under pressure, each adjustment lowers the threshold to {@value #BATCH_SIZE} below the lesser of the current threshold and the current size, such that each adjustment passivates entries even if the container is not full, but never below 1/16 of the configured threshold.
+	 * Otherwise, the configured threshold is restored.
+	 * @param maxCount the configured count threshold
+	 * @param maximum the current count threshold
+	 * @param size the current number of entries bounded by the count threshold
+	 * @param pressure indicates whether the heap is under pressure
+	 * @return the next count threshold
+	 */
+	static long adjustCount(long maxCount, long maximum, long size, boolean pressure) {
+		return pressure ? Math.max(maxCount >> MAX_REDUCTION_SHIFT, Math.min(maximum, size) - BATCH_SIZE) : maxCount;
+	}
+
+	/**
+	 * Computes the next idle threshold.
+	 * While under pressure, each adjustment halves the current threshold, but never below 1/16 of the configured threshold.
+	 * Otherwise, the current threshold is doubled, but never above the configured threshold.
+	 * @param idleTimeout the configured idle threshold
+	 * @param current the current idle threshold
+	 * @param pressure indicates whether the heap is under pressure
+	 * @return the next idle threshold
+	 */
+	static Duration adjustIdleTimeout(Duration idleTimeout, Duration current, boolean pressure) {
+		return pressure ? max(idleTimeout.dividedBy(1L << MAX_REDUCTION_SHIFT), current.dividedBy(2)) : min(idleTimeout, current.multipliedBy(2));
+	}
+
+	private static <K, V> void shorten(Policy.VarExpiration<K, V> expiration, Duration previousIdleTimeout, Duration reduction) {
+		for (Map.Entry<K, V> entry : expiration.oldest(BATCH_SIZE).entrySet()) {
+			K key = entry.getKey();
+			expiration.getExpiresAfter(key).filter(remaining -> remaining.compareTo(previousIdleTimeout) <= 0).ifPresent(remaining -> expiration.setExpiresAfter(key, max(Duration.ZERO, remaining.minus(reduction))));
+		}
+	}
+
+	private static BooleanSupplier heapUsageThresholdExceeded(Double threshold) {
+		if (threshold == null) return BooleanSupplier.of(false);
+		List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> (pool.getType() == MemoryType.HEAP) && pool.isCollectionUsageThresholdSupported()).toList();
+		return () -> {
+			long max = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+			if (max <= 0) return false;
+			long used = 0;
+			for (MemoryPoolMXBean pool : pools) {
+				// Usage following the most recent collection approximates the live set
+				MemoryUsage usage = pool.getCollectionUsage();
+				if (usage != null) {
+					used += usage.getUsed();
+				}
+			}
+			return used > max * threshold;
+		};
+	}
+
+	private static Duration min(Duration duration1, Duration duration2) {
+		return (duration1.compareTo(duration2) <= 0) ? duration1 : duration2;
+	}
+
+	private static Duration max(Duration duration1, Duration duration2) {
+		return (duration1.compareTo(duration2) >= 0) ? duration1 : duration2;
+	}
+}
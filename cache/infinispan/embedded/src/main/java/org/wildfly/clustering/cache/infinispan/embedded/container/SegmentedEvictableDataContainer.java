@@ -5,6 +5,7 @@
 
 package org.wildfly.clustering.cache.infinispan.embedded.container;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -38,6 +39,8 @@ import org.infinispan.container.impl.PeekableTouchableCaffeineMap;
 import org.infinispan.container.impl.PeekableTouchableContainerMap;
 import org.infinispan.container.impl.PeekableTouchableMap;
 import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.impl.BasicComponentRegistry;
 import org.infinispan.factories.impl.ComponentRef;
 import org.wildfly.clustering.cache.caffeine.CacheConfiguration;
@@ -54,6 +57,7 @@ import org.wildfly.clustering.function.Supplier;
 public class SegmentedEvictableDataContainer<K, V> extends DefaultSegmentedDataContainer<K, V> {
 
 	private final Executor executor;
+	private final HeapPressurePassivationPolicy<K, InternalCacheEntry<K, V>> policy;
 	private final Cache<K, InternalCacheEntry<K, V>> evictionCache;
 	private final PeekableTouchableMap<K, V> entries;
 
@@ -79,17 +83,55 @@ public class SegmentedEvictableDataContainer<K, V> extends DefaultSegmentedDataC
 		};
 		Supplier<DataContainerConfigurationBuilder> factory = DataContainerConfigurationBuilder::new;
 		DataContainerConfiguration container = Optional.ofNullable(configuration.module(DataContainerConfiguration.class)).orElseGet(factory.thenApply(Builder::create));
+		this.executor = registry.getComponent(KnownComponentNames.NON_BLOCKING_EXECUTOR, Executor.class).running();
+		HeapPressurePassivationPolicy<K, InternalCacheEntry<K, V>> policy = new HeapPressurePassivationPolicy<>(container, configuration.memory().maxCount(), this.executor);
 		CacheConfiguration.Builder<K, InternalCacheEntry<K, V>> builder = CacheConfiguration.builder();
 		if (configuration.memory().maxCount() > 0) {
 			builder.withMaxWeight(configuration.memory().maxCount()).evictableWhen(container.evictable());
 		}
-		Optional.ofNullable(container.idleTimeout()).ifPresent(builder::evictAfter);
+		if (container.idleTimeout() != null) {
+			// Idle threshold may be lowered under heap pressure
+			builder.evictAfter(entry -> policy.getIdleTimeout());
+		}
 		Optional.ofNullable(registry.getComponent(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR, ScheduledExecutorService.class)).map(ComponentRef::running).ifPresent(builder::withExecutor);
-		this.executor = registry.getComponent(KnownComponentNames.NON_BLOCKING_EXECUTOR, Executor.class).running();
+		this.policy = policy;
 		this.evictionCache = new CacheFactory<K, InternalCacheEntry<K, V>>().apply(builder.whenEvicted(evictionListener).whenRemoved(removalListener).build());
 		this.entries = new PeekableTouchableCaffeineMap<>(this.evictionCache);
 	}
 
+	/**
+	 * Starts adapting passivation thresholds to heap pressure, if so configured.
+	 */
+	@Start
+	public void startPassivationPolicy() {
+		this.policy.start(this.evictionCache);
+	}
+
+	/**
+	 * Stops adapting passivation thresholds to heap pressure.
+	 */
+	@Stop
+	public void stopPassivationPolicy() {
+		this.policy.close();
+	}
+
+	/**
+	 * Returns the effective duration after which evictable idle entries are evicted, which may be lower than the configured idle timeout while the heap is under pressure.
+	 * The effective count threshold is reported by {@link #capacity()}.
+	 * @return the effective idle threshold, or null, if idle entries are never evicted.
+	 */
+	public Duration idleThreshold() {
+		return this.policy.getIdleTimeout();
+	}
+
+	/**
+	 * Indicates whether heap usage following the most recent garbage collection exceeded the configured heap usage threshold.
+	 * @return true, if passivation thresholds are currently lowered due to heap pressure, false otherwise.
+	 */
+	public boolean isUnderHeapPressure() {
+		return this.policy.isUnderPressure();
+	}
+
 	void handleEviction(InternalCacheEntry<K, V> entry, CompletableFuture<Void> future) {
 		handleEviction(entry, this.orderer, this.passivator.running(), this.evictionManager, this, this.executor, future);
 	}
@@ -256,6 +298,7 @@ public class SegmentedEvictableDataContainer<K, V> extends DefaultSegmentedDataC
 
 	@Override
 	public void resize(long newSize) {
+		this.policy.setMaxCount(newSize);
 		this.evictionCache.policy().eviction().get().setMaximum(newSize);
 	}
 
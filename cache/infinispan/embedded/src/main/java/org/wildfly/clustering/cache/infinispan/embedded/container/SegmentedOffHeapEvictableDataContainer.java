@@ -0,0 +1,195 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.embedded.container;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.DefaultSegmentedDataContainer;
+import org.infinispan.container.impl.PeekableTouchableMap;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.impl.BasicComponentRegistry;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.marshall.persistence.PersistenceMarshaller;
+import org.wildfly.clustering.cache.caffeine.CacheConfiguration;
+import org.wildfly.clustering.cache.caffeine.CacheFactory;
+import org.wildfly.clustering.function.BiPredicate;
+import org.wildfly.clustering.function.Supplier;
+
+/**
+ * Segmented data container that stores its entries off-heap, with support for selective and time-based eviction.
+ * The marshalled key, value, and metadata of each entry are stored in native memory by a {@link org.infinispan.container.offheap.OffHeapConcurrentMap} per segment, and are only materialized when read.
+ * Only the eviction index remains on-heap, i.e. a Caffeine cache mapping each key to whether or not it is evictable, which drives count-based and idle-time-based eviction in the same manner as {@link SegmentedEvictableDataContainer}.
+ * Until validated against the targeted Infinispan version, this container is only used if enabled via the {@value #ENABLED_PROPERTY} system property.
+ * @author Paul Ferraro
+ */
+public class SegmentedOffHeapEvictableDataContainer extends DefaultSegmentedDataContainer<WrappedBytes, WrappedBytes> {
+	/** Name of the system property that enables the use of this container */
+	static final String ENABLED_PROPERTY = "org.wildfly.clustering.cache.infinispan.embedded.container.offheap.evictable";
+	/** Indicates whether this container is used for segmented off-heap caches with count-based eviction */
+	static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private static final System.Logger LOGGER = System.getLogger(SegmentedOffHeapEvictableDataContainer.class.getName());
+
+	private final Executor executor;
+	private final Predicate<Object> evictable;
+	private final ComponentRef<PersistenceMarshaller> marshaller;
+	private final Cache<WrappedBytes, Boolean> evictionIndex;
+
+	SegmentedOffHeapEvictableDataContainer(BasicComponentRegistry registry, Configuration configuration, java.util.function.Supplier<PeekableTouchableMap<WrappedBytes, WrappedBytes>> mapFactory) {
+		super(mapFactory, configuration.clustering().hash().numSegments());
+		Supplier<DataContainerConfigurationBuilder> factory = DataContainerConfigurationBuilder::new;
+		DataContainerConfiguration container = Optional.ofNullable(configuration.module(DataContainerConfiguration.class)).orElseGet(factory.thenApply(Builder::create));
+		this.evictable = container.evictable();
+		this.marshaller = registry.getComponent(KnownComponentNames.PERSISTENCE_MARSHALLER, PersistenceMarshaller.class);
+		CacheConfiguration.Builder<WrappedBytes, Boolean> builder = CacheConfiguration.builder();
+		if (configuration.memory().maxCount() > 0) {
+			builder.withMaxWeight(configuration.memory().maxCount());
+			if (this.evictable != org.wildfly.clustering.function.Predicate.of(true)) {
+				builder.evictableWhen(BiPredicate.latter(Boolean::booleanValue));
+			}
+		}
+		Optional.ofNullable(container.idleTimeout()).ifPresent(builder::evictAfter);
+		Optional.ofNullable(registry.getComponent(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR, ScheduledExecutorService.class)).map(ComponentRef::running).ifPresent(builder::withExecutor);
+		this.executor = registry.getComponent(KnownComponentNames.NON_BLOCKING_EXECUTOR, Executor.class).running();
+		// Removal listener runs on the thread that triggered eviction, which may hold the lock of an off-heap segment, thus evict asynchronously
+		this.evictionIndex = new CacheFactory<WrappedBytes, Boolean>().apply(builder.whenRemoved((key, value) -> this.executor.execute(() -> this.evicted(key))).build());
+	}
+
+	private void evicted(WrappedBytes key) {
+		int segment = this.getSegmentForKey(key);
+		PeekableTouchableMap<WrappedBytes, WrappedBytes> map = this.maps.get(segment);
+		if (map != null) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			map.compute(key, (k, entry) -> {
+				// Entry was removed, or was re-written, and thus re-indexed, concurrently with its eviction from the index
+				// N.B. Reads only record access for keys that are already indexed, and never re-index
+				if ((entry == null) || this.evictionIndex.asMap().containsKey(k)) return entry;
+				if (this.passivator.isRunning()) {
+					// Schedule an eviction to happen after the segment lock is released
+					handleEviction(entry, this.orderer, this.passivator.running(), this.evictionManager, this, this.executor, future);
+				}
+				this.computeEntryRemoved(segment, k, entry);
+				return null;
+			});
+			future.complete(null);
+		}
+	}
+
+	private Boolean isEvictable(WrappedBytes key) {
+		if (this.evictable == org.wildfly.clustering.function.Predicate.of(true)) return Boolean.TRUE;
+		try {
+			return this.evictable.test(this.marshaller.running().objectFromByteBuffer(key.getBytes(), key.backArrayOffset(), key.getLength()));
+		} catch (IOException | ClassNotFoundException e) {
+			LOGGER.log(System.Logger.Level.WARNING, e.getLocalizedMessage(), e);
+			return Boolean.TRUE;
+		}
+	}
+
+	@Override
+	protected void computeEntryWritten(int segment, WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
+		super.computeEntryWritten(segment, key, value);
+		// Record write within eviction index, determining evictability only once per key
+		this.evictionIndex.asMap().compute(key, (k, verdict) -> (verdict != null) ? verdict : this.isEvictable(k));
+	}
+
+	@Override
+	protected void computeEntryRemoved(int segment, WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
+		super.computeEntryRemoved(segment, key, value);
+		this.evictionIndex.invalidate(key);
+	}
+
+	@Override
+	protected void putEntryInMap(PeekableTouchableMap<WrappedBytes, WrappedBytes> map, int segment, WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> ice) {
+		map.compute(key, (k, v) -> {
+			this.computeEntryWritten(segment, k, ice);
+			return ice;
+		});
+	}
+
+	@Override
+	protected InternalCacheEntry<WrappedBytes, WrappedBytes> removeEntryInMap(PeekableTouchableMap<WrappedBytes, WrappedBytes> map, int segment, Object key) {
+		ByRef<InternalCacheEntry<WrappedBytes, WrappedBytes>> ref = new ByRef<>(null);
+		// N.B. OffHeapConcurrentMap only guarantees atomicity of compute(...)
+		map.compute((WrappedBytes) key, (k, prev) -> {
+			if (prev != null) {
+				this.computeEntryRemoved(segment, k, prev);
+				ref.set(prev);
+			}
+			return null;
+		});
+		return ref.get();
+	}
+
+	@Override
+	public InternalCacheEntry<WrappedBytes, WrappedBytes> get(Object key) {
+		return this.get(this.getSegmentForKey(key), key);
+	}
+
+	@Override
+	public InternalCacheEntry<WrappedBytes, WrappedBytes> get(int segment, Object key) {
+		InternalCacheEntry<WrappedBytes, WrappedBytes> entry = super.get(segment, key);
+		if (entry != null) {
+			// Record access within eviction index
+			this.evictionIndex.getIfPresent((WrappedBytes) key);
+		}
+		return entry;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		this.evictionIndex.invalidateAll();
+	}
+
+	@Override
+	public void clear(IntSet segments) {
+		super.clear(segments);
+		this.clearEvictionIndex(segments);
+	}
+
+	@Override
+	public void removeSegments(IntSet segments) {
+		super.removeSegments(segments);
+		this.clearEvictionIndex(segments);
+	}
+
+	private void clearEvictionIndex(IntSet segments) {
+		this.evictionIndex.asMap().keySet().removeIf(key -> segments.contains(this.getSegmentForKey(key)));
+	}
+
+	@Override
+	public long capacity() {
+		return this.evictionIndex.policy().eviction().orElseThrow(UnsupportedOperationException::new).getMaximum();
+	}
+
+	@Override
+	public void resize(long newSize) {
+		this.evictionIndex.policy().eviction().orElseThrow(UnsupportedOperationException::new).setMaximum(newSize);
+	}
+
+	@Override
+	public long evictionSize() {
+		return this.evictionIndex.policy().eviction().orElseThrow(UnsupportedOperationException::new).weightedSize().orElse(this.evictionIndex.estimatedSize());
+	}
+
+	@Override
+	public void cleanUp() {
+		this.evictionIndex.cleanUp();
+	}
+}
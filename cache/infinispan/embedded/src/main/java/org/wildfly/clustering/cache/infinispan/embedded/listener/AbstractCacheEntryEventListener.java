@@ -46,10 +46,17 @@ public abstract class AbstractCacheEntryEventListener<K, V> implements Function<
 	}
 
 	private AbstractCacheEntryEventListener(Cache<K, V> cache, Consumer<CacheEntryEvent<K, V>> consumer, Class<?> consumerClass) {
+		this(consumer, GlobalComponentRegistry.componentOf(cache.getCacheManager(), BlockingManager.class), consumerClass);
+	}
+
+	private AbstractCacheEntryEventListener(Consumer<CacheEntryEvent<K, V>> consumer, BlockingManager manager, Class<?> consumerClass) {
+		this(consumer, manager.asExecutor(consumerClass.getName()), manager.nonBlockingExecutor());
+	}
+
+	AbstractCacheEntryEventListener(Consumer<CacheEntryEvent<K, V>> consumer, Executor blockingExecutor, Executor nonBlockingExecutor) {
 		this.consumer = consumer;
-		BlockingManager manager = GlobalComponentRegistry.componentOf(cache.getCacheManager(), BlockingManager.class);
-		this.blockingExecutor = manager.asExecutor(consumerClass.getName());
-		this.nonBlockingExecutor = manager.nonBlockingExecutor();
+		this.blockingExecutor = blockingExecutor;
+		this.nonBlockingExecutor = nonBlockingExecutor;
 	}
 
 	Executor getBlockingExecutor() {
@@ -0,0 +1,106 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.embedded.listener;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.executors.BlockingResource;
+import org.infinispan.commons.executors.NonBlockingResource;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.wildfly.clustering.function.BiConsumer;
+import org.wildfly.clustering.function.Runner;
+
+/**
+ * Generic event listener whose completion requires event consumption, where events received by non-blocking threads are consumed in batches by a single blocking task.
+ * This avoids submitting a blocking task per event during bursts of events, e.g. the mass passivation of entries following eviction.
+ * Events received by threads that allow blocking operations are consumed directly.
+ * @author Paul Ferraro
+ * @param <K> cache key type
+ * @param <V> cache value type
+ */
+public class BatchingCacheEntryEventListener<K, V> extends AbstractCacheEntryEventListener<K, V> {
+	// Maximum number of events consumed per blocking task
+	static final int BATCH_SIZE = 128;
+
+	private final Queue<Map.Entry<CacheEntryEvent<K, V>, CompletableFuture<Void>>> events = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	/**
+	 * Creates a batching cache event listener.
+	 * @param cache the target cache
+	 * @param consumer a consumer of a cache entry
+	 */
+	public BatchingCacheEntryEventListener(Cache<K, V> cache, BiConsumer<K, V> consumer) {
+		super(cache, consumer);
+	}
+
+	BatchingCacheEntryEventListener(BiConsumer<K, V> consumer, Executor blockingExecutor, Executor nonBlockingExecutor) {
+		super(consumer.composeUnary(CacheEntryEvent::getKey, CacheEntryEvent::getValue), blockingExecutor, nonBlockingExecutor);
+	}
+
+	@Override
+	public CompletionStage<Void> apply(CacheEntryEvent<K, V> event) {
+		ThreadGroup group = Thread.currentThread().getThreadGroup();
+		// Consume directly if current thread allows blocking operations
+		if (group instanceof BlockingResource) {
+			return CompletableFuture.runAsync(() -> this.getConsumer().accept(event), Runnable::run);
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		this.events.add(new AbstractMap.SimpleImmutableEntry<>(event, future));
+		this.schedule();
+		// Subscribe on non-blocking thread, if current thread was non-blocking
+		return (group instanceof NonBlockingResource) ? future.thenRunAsync(Runner.of(), this.getNonBlockingExecutor()) : future;
+	}
+
+	private void schedule() {
+		// Skip if a batch is already pending
+		if (this.draining.compareAndSet(false, true)) {
+			try {
+				this.getBlockingExecutor().execute(this::drain);
+			} catch (RejectedExecutionException e) {
+				// Allow subsequent events to schedule a batch
+				this.draining.set(false);
+				// Otherwise pending events would never complete
+				Map.Entry<CacheEntryEvent<K, V>, CompletableFuture<Void>> entry = this.events.poll();
+				while (entry != null) {
+					entry.getValue().completeExceptionally(e);
+					entry = this.events.poll();
+				}
+			}
+		}
+	}
+
+	private void drain() {
+		try {
+			for (int i = 0; i < BATCH_SIZE; ++i) {
+				Map.Entry<CacheEntryEvent<K, V>, CompletableFuture<Void>> entry = this.events.poll();
+				if (entry == null) break;
+				CompletableFuture<Void> future = entry.getValue();
+				try {
+					this.getConsumer().accept(entry.getKey());
+					future.complete(null);
+				} catch (RuntimeException | Error e) {
+					future.completeExceptionally(e);
+				}
+			}
+		} finally {
+			this.draining.set(false);
+		}
+		// Re-schedule if events remain, or were received concurrently with completion of this batch
+		if (!this.events.isEmpty()) {
+			this.schedule();
+		}
+	}
+}
@@ -13,6 +13,7 @@ import org.wildfly.clustering.function.BiConsumer;
 /**
  * Registers listeners for pre-passivate and post-activate events.
  * Listener completion will require event consumption.
+ * Events received by non-blocking threads, e.g. during mass passivation, are consumed in batches by a blocking executor.
  * @author Paul Ferraro
  * @param <K> the cache key type
  * @param <V> the cache value type
@@ -26,6 +27,6 @@ public class PassivationCacheEventListenerRegistrar<K, V> extends CacheEventList
 	 * @param postActivate a consumer of post-activate events
 	 */
 	public PassivationCacheEventListenerRegistrar(Cache<K, V> cache, BiConsumer<K, V> prePassivate, BiConsumer<K, V> postActivate) {
-		super(cache, List.of(new PrePassivateListener<>(new BlockingCacheEntryEventListener<>(cache, prePassivate)), new PostActivateListener<>(new BlockingCacheEntryEventListener<>(cache, postActivate))));
+		super(cache, List.of(new PrePassivateListener<>(new BatchingCacheEntryEventListener<>(cache, prePassivate)), new PostActivateListener<>(new BatchingCacheEntryEventListener<>(cache, postActivate))));
 	}
 }
@@ -0,0 +1,281 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.embedded;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheType;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.wildfly.clustering.cache.infinispan.embedded.container.DataContainerConfigurationBuilder;
+import org.wildfly.clustering.context.Context;
+
+/**
+ * Integration test that validates eviction of off-heap entries configured via {@link org.wildfly.clustering.cache.infinispan.embedded.container.DataContainerConfiguration}.
+ * Validates only cache types using a segmented data container, i.e. {@link org.wildfly.clustering.cache.infinispan.embedded.container.SegmentedOffHeapEvictableDataContainer}, which is enabled for this test via the failsafe configuration of this module.
+ * Since off-heap entries are materialized when read, values are compared by equality, rather than identity.
+ * @author Paul Ferraro
+ */
+public class OffHeapEvictionCacheITCase {
+	private static final String CLUSTER_NAME = "ISPN";
+	private static final int CAPACITY = 10;
+	private static final Duration IDLE_THRESHOLD = Duration.ofSeconds(1);
+	private static final Class<?> EVICTABLE = Integer.class;
+	private static final int THREADS = 4;
+	private static final int ITERATIONS = 1000;
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	@ParameterizedTest
+	@EnumSource(value = CacheType.class, names = { "REPLICATION", "DISTRIBUTION" })
+	public void test(CacheType type) {
+		int excess = CAPACITY;
+		int size = CAPACITY + excess;
+		List<Map.Entry<Object, String>> nonEvictable = new ArrayList<>(CAPACITY);
+		for (int i = 0; i < CAPACITY; ++i) {
+			nonEvictable.add(Map.entry(Integer.toString(i), Integer.toString(i)));
+		}
+		List<Map.Entry<Object, String>> evictable = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			evictable.add(Map.entry(i, Integer.toString(i)));
+		}
+
+		this.run(type, builder -> builder.addModule(DataContainerConfigurationBuilder.class).evictable(EVICTABLE::isInstance).idleTimeout(IDLE_THRESHOLD), (cache, entries) -> {
+			// Add evictable entries to capacity
+			for (Map.Entry<Object, String> entry : evictable.subList(0, excess)) {
+				cache.put(entry.getKey(), entry.getValue());
+				// Encourage distinct ages
+				Thread.sleep(1);
+			}
+			// Time after which evictable entries will be considered idle
+			Instant idleTime = Instant.now().plus(IDLE_THRESHOLD);
+
+			// Verify that nothing was evicted yet, since we are at capacity
+			assertThat(entries).isEmpty();
+
+			// Add non-evictable entries - should have no effect on capacity
+			for (Map.Entry<Object, String> entry : nonEvictable) {
+				cache.put(entry.getKey(), entry.getValue());
+			}
+			// Verify that nothing was evicted yet, since we are still at capacity
+			assertThat(entries).isEmpty();
+
+			// Add excess evictable entries - eviction from the off-heap container is asynchronous
+			for (Map.Entry<Object, String> entry : evictable.subList(excess, size)) {
+				cache.put(entry.getKey(), entry.getValue());
+				// Encourage distinct ages
+				Thread.sleep(1);
+			}
+
+			// Verify that excess evictable entries were evicted according to age
+			List<Map.Entry<Object, String>> evictedEntries = new LinkedList<>();
+			for (int i = 0; i < excess; ++i) {
+				Map.Entry<Object, String> evictedEntry = entries.poll(TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+				assertThat(evictedEntry).isNotNull();
+				evictedEntries.add(evictedEntry);
+			}
+			evictedEntries.forEach(evicted -> assertThat(evicted.getKey()).asInstanceOf(InstanceOfAssertFactories.INTEGER).isLessThan(excess));
+			for (Map.Entry<Object, String> entry : evictable.subList(0, excess)) {
+				assertThat(cache.get(entry.getKey())).isNull();
+			}
+
+			// Read remaining evictable entries so that they are no longer idle
+			for (Map.Entry<Object, String> entry : evictable.subList(excess, evictable.size())) {
+				assertThat(cache.get(entry.getKey())).isEqualTo(entry.getValue());
+			}
+
+			// Time after which evictable entries will be considered idle again, plus some grace period
+			Instant evictTime = Instant.now().plus(IDLE_THRESHOLD.multipliedBy(4));
+
+			// Allow original idle time to pass
+			Thread.sleep(Math.max(0, Duration.between(Instant.now(), idleTime).toMillis()));
+
+			// Verify nothing was evicted yet
+			assertThat(entries.poll()).isNull();
+
+			// Remove non-evictable entries
+			for (Map.Entry<Object, String> entry : nonEvictable) {
+				assertThat(cache.remove(entry.getKey())).isEqualTo(entry.getValue());
+			}
+
+			// Verify that idle evictable entries are no longer present and that the corresponding events were fired
+			for (Map.Entry<Object, String> entry : evictable.subList(excess, evictable.size())) {
+				Map.Entry<Object, String> evictedEntry = entries.poll(Duration.between(Instant.now(), evictTime).toNanos(), TimeUnit.NANOSECONDS);
+				assertThat(evictedEntry).isNotNull();
+				assertThat(evictedEntry.getValue()).isEqualTo(entry.getValue());
+
+				assertThat(cache.get(entry.getKey())).isNull();
+			}
+			// Verify nothing else was evicted
+			assertThat(entries.poll()).isNull();
+
+			// Cache should be empty at this point
+			for (Map.Entry<Object, String> entry : evictable) {
+				assertThat(cache.get(entry.getKey())).isNull();
+			}
+			assertThat(cache.getAdvancedCache().getDataContainer().evictionSize()).isZero();
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = CacheType.class, names = { "REPLICATION", "DISTRIBUTION" })
+	public void passivation(CacheType type) {
+		int size = CAPACITY * 2;
+
+		this.run(type, builder -> builder.persistence().passivation(true).addSoftIndexFileStore(), (cache, entries) -> {
+			for (int i = 0; i < size; ++i) {
+				cache.put(i, Integer.toString(i));
+			}
+
+			// Verify that excess entries were evicted
+			for (int i = 0; i < size - CAPACITY; ++i) {
+				assertThat(entries.poll(TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)).isNotNull();
+			}
+			InternalDataContainer<Object, String> container = getDataContainer(cache);
+			awaitConsistency(container);
+			assertThat(container.sizeIncludingExpired()).isEqualTo(CAPACITY);
+
+			// Verify that evicted entries were passivated, and can thus be activated
+			for (int i = 0; i < size; ++i) {
+				assertThat(cache.get(i)).isEqualTo(Integer.toString(i));
+			}
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = CacheType.class, names = { "REPLICATION", "DISTRIBUTION" })
+	public void concurrent(CacheType type) {
+		int keys = CAPACITY * 4;
+
+		this.run(type, builder -> { }, (cache, entries) -> {
+			ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+			try {
+				List<Future<Void>> futures = new ArrayList<>(THREADS);
+				for (int i = 0; i < THREADS; ++i) {
+					futures.add(executor.submit(() -> {
+						ThreadLocalRandom random = ThreadLocalRandom.current();
+						for (int j = 0; j < ITERATIONS; ++j) {
+							Integer key = random.nextInt(keys);
+							// Writes re-index entries concurrently with their eviction
+							if (random.nextBoolean()) {
+								cache.put(key, key.toString());
+							} else {
+								String value = cache.get(key);
+								if (value != null) {
+									assertThat(value).isEqualTo(key.toString());
+								}
+							}
+						}
+						return null;
+					}));
+				}
+				for (Future<Void> future : futures) {
+					future.get();
+				}
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+
+			// Verify that the eviction index and off-heap entries converge, and respect capacity
+			InternalDataContainer<Object, String> container = getDataContainer(cache);
+			awaitConsistency(container);
+			assertThat(container.evictionSize()).isLessThanOrEqualTo(CAPACITY);
+			assertThat((long) container.sizeIncludingExpired()).isEqualTo(container.evictionSize());
+			for (int i = 0; i < keys; ++i) {
+				String value = cache.get(i);
+				if (value != null) {
+					assertThat(value).isEqualTo(Integer.toString(i));
+				}
+			}
+		});
+	}
+
+	private static InternalDataContainer<Object, String> getDataContainer(Cache<Object, String> cache) {
+		return (InternalDataContainer<Object, String>) cache.getAdvancedCache().getDataContainer();
+	}
+
+	private static void awaitConsistency(InternalDataContainer<?, ?> container) throws InterruptedException {
+		// Off-heap entries are removed asynchronously following their eviction from the index
+		Instant timeout = Instant.now().plus(TIMEOUT);
+		container.cleanUp();
+		while ((container.sizeIncludingExpired() != container.evictionSize()) && Instant.now().isBefore(timeout)) {
+			Thread.sleep(10);
+			container.cleanUp();
+		}
+	}
+
+	private void run(CacheType type, Consumer<ConfigurationBuilder> configurator, CacheTask task) {
+		String cacheName = type.name();
+		ConfigurationBuilder builder = new ConfigurationBuilder();
+		configurator.accept(builder);
+		builder.clustering().cacheType(type).memory().storage(StorageType.OFF_HEAP).maxCount(CAPACITY).whenFull(EvictionStrategy.REMOVE);
+		try (Context<EmbeddedCacheManager> context = new EmbeddedCacheManagerContext(CLUSTER_NAME, "member1")) {
+			EmbeddedCacheManager manager = context.get();
+			manager.defineConfiguration(cacheName, builder.build());
+			Cache<Object, String> cache = manager.getCache(cacheName);
+			cache.start();
+			BlockingQueue<Map.Entry<Object, String>> entries = new LinkedBlockingDeque<>();
+			Object listener = new EvictionEventListener<>(entries);
+			cache.addListener(listener);
+			try {
+				task.accept(cache, entries);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				cache.removeListener(listener);
+				cache.stop();
+			}
+		}
+	}
+
+	private interface CacheTask {
+		void accept(Cache<Object, String> cache, BlockingQueue<Map.Entry<Object, String>> entries) throws InterruptedException;
+	}
+
+	@Listener
+	private static class EvictionEventListener<K, V> {
+		private final Queue<Map.Entry<K, V>> entries;
+
+		EvictionEventListener(Queue<Map.Entry<K, V>> entries) {
+			this.entries = entries;
+		}
+
+		@CacheEntriesEvicted
+		public void cacheEntriesEvicted(CacheEntriesEvictedEvent<K, V> event) {
+			if (!event.isPre()) {
+				event.getEntries().entrySet().forEach(this.entries::add);
+			}
+		}
+	}
+}
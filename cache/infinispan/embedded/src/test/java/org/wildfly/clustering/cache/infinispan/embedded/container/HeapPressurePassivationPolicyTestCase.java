@@ -0,0 +1,150 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.embedded.container;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link HeapPressurePassivationPolicy}, whose heap pressure is simulated rather than induced via garbage collection.
+ * @author Paul Ferraro
+ */
+public class HeapPressurePassivationPolicyTestCase {
+
+	@Test
+	public void adjustCount() {
+		long maxCount = 10_000;
+		long floor = maxCount >> HeapPressurePassivationPolicy.MAX_REDUCTION_SHIFT;
+
+		// Each reduction is bounded by the batch size
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, maxCount, maxCount, true)).isEqualTo(maxCount - HeapPressurePassivationPolicy.BATCH_SIZE);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, 5_000, 5_000, true)).isEqualTo(5_000 - HeapPressurePassivationPolicy.BATCH_SIZE);
+		// Reductions are relative to the current size, if less than the current threshold
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, maxCount, 2_000, true)).isEqualTo(2_000 - HeapPressurePassivationPolicy.BATCH_SIZE);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, 5_000, 2_000, true)).isEqualTo(2_000 - HeapPressurePassivationPolicy.BATCH_SIZE);
+		// Reductions never exceed 1/16 of the configured threshold
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, floor + 1, floor + 1, true)).isEqualTo(floor);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, floor, floor, true)).isEqualTo(floor);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, maxCount, floor, true)).isEqualTo(floor);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, maxCount, 0, true)).isEqualTo(floor);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(100, 100, 100, true)).isEqualTo(100 >> HeapPressurePassivationPolicy.MAX_REDUCTION_SHIFT);
+
+		// Configured threshold is restored in a single step
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, floor, floor, false)).isEqualTo(maxCount);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, maxCount, 2_000, false)).isEqualTo(maxCount);
+		assertThat(HeapPressurePassivationPolicy.adjustCount(maxCount, maxCount, maxCount, false)).isEqualTo(maxCount);
+	}
+
+	@Test
+	public void adjustIdleTimeout() {
+		Duration idleTimeout = Duration.ofMinutes(16);
+
+		// Each reduction halves the threshold, but never below 1/16 of the configured threshold
+		Duration current = idleTimeout;
+		for (long minutes : new long[] { 8, 4, 2, 1, 1 }) {
+			current = HeapPressurePassivationPolicy.adjustIdleTimeout(idleTimeout, current, true);
+			assertThat(current).isEqualTo(Duration.ofMinutes(minutes));
+		}
+
+		// Each restoration doubles the threshold, but never above the configured threshold
+		for (long minutes : new long[] { 2, 4, 8, 16, 16 }) {
+			current = HeapPressurePassivationPolicy.adjustIdleTimeout(idleTimeout, current, false);
+			assertThat(current).isEqualTo(Duration.ofMinutes(minutes));
+		}
+	}
+
+	@Test
+	public void handleNotification() {
+		int maxCount = 1_000;
+		Duration idleTimeout = Duration.ofMinutes(16);
+		AtomicBoolean pressure = new AtomicBoolean();
+		DataContainerConfiguration configuration = new DataContainerConfigurationBuilder(null).idleTimeout(idleTimeout).heapUsageThreshold(0.5).create();
+		Cache<Integer, Integer> cache = Caffeine.newBuilder().executor(Runnable::run).maximumSize(maxCount).build();
+		for (int i = 0; i < maxCount; ++i) {
+			cache.put(i, i);
+		}
+		Policy.Eviction<Integer, Integer> eviction = cache.policy().eviction().orElseThrow();
+
+		try (HeapPressurePassivationPolicy<Integer, Integer> policy = new HeapPressurePassivationPolicy<>(configuration, maxCount, Runnable::run, List.of(), pressure::get)) {
+			policy.start(cache);
+
+			// No pressure, no adjustment
+			policy.handleNotification(null, null);
+			assertThat(policy.isUnderPressure()).isFalse();
+			assertThat(eviction.getMaximum()).isEqualTo(maxCount);
+			assertThat(policy.getIdleTimeout()).isEqualTo(idleTimeout);
+
+			pressure.set(true);
+			policy.handleNotification(null, null);
+			assertThat(policy.isUnderPressure()).isTrue();
+			assertThat(eviction.getMaximum()).isEqualTo(maxCount - HeapPressurePassivationPolicy.BATCH_SIZE);
+			assertThat(policy.getIdleTimeout()).isEqualTo(idleTimeout.dividedBy(2));
+			cache.cleanUp();
+			// Coldest entries were evicted
+			assertThat(cache.estimatedSize()).isEqualTo(maxCount - HeapPressurePassivationPolicy.BATCH_SIZE);
+
+			// Sustained pressure reduces thresholds further, until they reach their floor
+			for (int i = 0; i < 10; ++i) {
+				policy.handleNotification(null, null);
+			}
+			assertThat(eviction.getMaximum()).isEqualTo(maxCount >> HeapPressurePassivationPolicy.MAX_REDUCTION_SHIFT);
+			assertThat(policy.getIdleTimeout()).isEqualTo(idleTimeout.dividedBy(1L << HeapPressurePassivationPolicy.MAX_REDUCTION_SHIFT));
+
+			pressure.set(false);
+			policy.handleNotification(null, null);
+			assertThat(policy.isUnderPressure()).isFalse();
+			assertThat(eviction.getMaximum()).isEqualTo(maxCount);
+			assertThat(policy.getIdleTimeout()).isEqualTo(idleTimeout.dividedBy(1L << (HeapPressurePassivationPolicy.MAX_REDUCTION_SHIFT - 1)));
+
+			// Resize is observed by subsequent adjustments
+			policy.setMaxCount(maxCount * 2);
+			policy.handleNotification(null, null);
+			assertThat(eviction.getMaximum()).isEqualTo(maxCount * 2);
+		}
+	}
+
+	@Test
+	public void handleNotificationPartiallyFull() {
+		int maxCount = 10_000;
+		int size = 2_000;
+		AtomicBoolean pressure = new AtomicBoolean(true);
+		DataContainerConfiguration configuration = new DataContainerConfigurationBuilder(null).heapUsageThreshold(0.5).create();
+		Cache<Integer, Integer> cache = Caffeine.newBuilder().executor(Runnable::run).maximumSize(maxCount).build();
+		for (int i = 0; i < size; ++i) {
+			cache.put(i, i);
+		}
+		Policy.Eviction<Integer, Integer> eviction = cache.policy().eviction().orElseThrow();
+
+		try (HeapPressurePassivationPolicy<Integer, Integer> policy = new HeapPressurePassivationPolicy<>(configuration, maxCount, Runnable::run, List.of(), pressure::get)) {
+			policy.start(cache);
+
+			// Threshold is lowered below the current size, rather than below the configured threshold
+			policy.handleNotification(null, null);
+			assertThat(eviction.getMaximum()).isEqualTo(size - HeapPressurePassivationPolicy.BATCH_SIZE);
+			cache.cleanUp();
+			// Entries were evicted by the first adjustment
+			assertThat(cache.estimatedSize()).isEqualTo(size - HeapPressurePassivationPolicy.BATCH_SIZE);
+
+			// Each subsequent adjustment evicts another batch
+			policy.handleNotification(null, null);
+			cache.cleanUp();
+			assertThat(cache.estimatedSize()).isEqualTo(size - 2 * HeapPressurePassivationPolicy.BATCH_SIZE);
+
+			pressure.set(false);
+			policy.handleNotification(null, null);
+			assertThat(eviction.getMaximum()).isEqualTo(maxCount);
+		}
+	}
+}
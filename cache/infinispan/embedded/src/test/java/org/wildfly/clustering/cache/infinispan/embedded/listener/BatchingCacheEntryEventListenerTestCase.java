@@ -0,0 +1,109 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.embedded.listener;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.function.BiConsumer;
+
+/**
+ * Unit test for {@link BatchingCacheEntryEventListener}.
+ * @author Paul Ferraro
+ */
+public class BatchingCacheEntryEventListenerTestCase {
+
+	private static final String FAILURE = "fail";
+
+	private final List<String> consumed = new LinkedList<>();
+	private final BiConsumer<String, String> consumer = (key, value) -> {
+		if (key.equals(FAILURE)) {
+			throw new IllegalStateException();
+		}
+		this.consumed.add(key);
+	};
+	private final Queue<Runnable> tasks = new LinkedList<>();
+	private final Executor blockingExecutor = mock(Executor.class);
+	private final BatchingCacheEntryEventListener<String, String> listener = new BatchingCacheEntryEventListener<>(this.consumer, this.blockingExecutor, Runnable::run);
+
+	@Test
+	public void batch() {
+		doAnswer(invocation -> this.tasks.add(invocation.getArgument(0))).when(this.blockingExecutor).execute(any());
+
+		int size = BatchingCacheEntryEventListener.BATCH_SIZE + 1;
+		List<CompletionStage<Void>> stages = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			stages.add(this.listener.apply(createEvent(Integer.toString(i))));
+		}
+
+		// Events are consumed by a single blocking task
+		assertThat(this.tasks).hasSize(1);
+		assertThat(this.consumed).isEmpty();
+
+		// Task consumes a single batch, then reschedules
+		this.tasks.poll().run();
+		assertThat(this.consumed).hasSize(BatchingCacheEntryEventListener.BATCH_SIZE);
+		for (int i = 0; i < BatchingCacheEntryEventListener.BATCH_SIZE; ++i) {
+			assertThat(this.consumed.get(i)).isEqualTo(Integer.toString(i));
+			assertThat(stages.get(i)).isCompleted();
+		}
+		assertThat(stages.get(BatchingCacheEntryEventListener.BATCH_SIZE)).isNotDone();
+		assertThat(this.tasks).hasSize(1);
+
+		this.tasks.poll().run();
+		assertThat(this.consumed).hasSize(size).last().isEqualTo(Integer.toString(BatchingCacheEntryEventListener.BATCH_SIZE));
+		assertThat(stages.get(BatchingCacheEntryEventListener.BATCH_SIZE)).isCompleted();
+		assertThat(this.tasks).isEmpty();
+
+		// Failure to consume an event does not affect other events of the batch
+		CompletionStage<Void> failed = this.listener.apply(createEvent(FAILURE));
+		CompletionStage<Void> completed = this.listener.apply(createEvent("bar"));
+		assertThat(this.tasks).hasSize(1);
+
+		this.tasks.poll().run();
+		assertThat(failed).isCompletedExceptionally();
+		assertThat(completed).isCompleted();
+		assertThat(this.consumed).hasSize(size + 1).last().isEqualTo("bar");
+		assertThat(this.tasks).isEmpty();
+	}
+
+	@Test
+	public void rejected() {
+		doThrow(RejectedExecutionException.class).when(this.blockingExecutor).execute(any());
+
+		// Pending events must complete if batch was rejected
+		CompletionStage<Void> rejected = this.listener.apply(createEvent("foo"));
+		assertThat(rejected).isCompletedExceptionally();
+		assertThat(this.consumed).isEmpty();
+
+		// Subsequent events must schedule a new batch
+		doAnswer(invocation -> this.tasks.add(invocation.getArgument(0))).when(this.blockingExecutor).execute(any());
+
+		CompletionStage<Void> stage = this.listener.apply(createEvent("bar"));
+		assertThat(this.tasks).hasSize(1);
+
+		this.tasks.poll().run();
+		assertThat(stage).isCompleted();
+		assertThat(this.consumed).containsExactly("bar");
+	}
+
+	private static CacheEntryEvent<String, String> createEvent(String value) {
+		CacheEntryEvent<String, String> event = mock(CacheEntryEvent.class);
+		doReturn(value).when(event).getKey();
+		doReturn(value).when(event).getValue();
+		return event;
+	}
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.persistence.jdbc;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Predicate;
+
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
+
+import org.infinispan.commons.configuration.ConfiguredBy;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.marshall.persistence.PersistenceMarshaller;
+import org.infinispan.persistence.jdbc.common.DatabaseType;
+import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.MarshallableEntryFactory;
+import org.infinispan.persistence.spi.MarshalledValue;
+import org.infinispan.persistence.spi.NonBlockingStore;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.util.concurrent.BlockingManager;
+import org.reactivestreams.Publisher;
+
+/**
+ * Alternative to org.infinispan.persistence.jdbc.stringbased.JdbcStringBasedStore that does not require a key-to-string mapper.
+ * Other differences include:
+ * <ul>
+ * <li>Keys are stored in their marshalled binary form, within a primary key column.</li>
+ * <li>Writes and removals from {@link #batch(int, Publisher, Publisher)} are applied via multi-row statements within a single transaction.</li>
+ * <li>Each entry is stored with its segment, within an indexed column, allowing {@link #publishEntries(IntSet, Predicate, boolean)} to query segments in parallel.</li>
+ * <li>Each entry is stored with its expiration time, within an indexed column, allowing {@link #purgeExpired()} to locate expired keys via the index and delete them page by page.</li>
+ * <li>Keys are filtered before values are unmarshalled.</li>
+ * </ul>
+ *
+ * @author Paul Ferraro
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+@ConfiguredBy(JdbcCacheStoreConfiguration.class)
+public class JdbcCacheStore<K, V> implements NonBlockingStore<K, V> {
+	private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+	interface SQLFunction<R> {
+		R apply(Connection connection) throws SQLException;
+	}
+
+	private volatile ConnectionFactory connectionFactory;
+	private volatile JdbcTable table;
+	private volatile BlockingManager blockingManager;
+	private volatile PersistenceMarshaller marshaller;
+	private volatile MarshallableEntryFactory<K, V> entryFactory;
+	private volatile TimeService timeService;
+	private volatile boolean segmented;
+	private volatile int batchSize;
+
+	/**
+	 * Creates a JDBC cache store.
+	 */
+	public JdbcCacheStore() {
+	}
+
+	@Override
+	public Set<Characteristic> characteristics() {
+		// N.B. we must return a new, mutable instance, since this value may be modified by PersistenceManagerImpl
+		return EnumSet.of(Characteristic.BULK_READ, Characteristic.EXPIRATION, Characteristic.SEGMENTABLE, Characteristic.SHAREABLE);
+	}
+
+	@Override
+	public CompletionStage<Void> start(InitializationContext context) {
+		JdbcCacheStoreConfiguration configuration = context.getConfiguration();
+		this.blockingManager = context.getBlockingManager();
+		this.marshaller = context.getPersistenceMarshaller();
+		this.entryFactory = context.getMarshallableEntryFactory();
+		this.timeService = context.getTimeService();
+		this.segmented = configuration.segmented();
+		this.batchSize = configuration.maxBatchSize();
+		String tableName = configuration.tableNamePrefix() + '_' + context.getCache().getName().replaceAll("\\W", "_");
+		return this.blockingManager.runBlocking(() -> {
+			ConnectionFactory factory = ConnectionFactory.getConnectionFactory(configuration.connectionFactory().connectionFactoryClass());
+			factory.start(configuration.connectionFactory(), factory.getClass().getClassLoader());
+			Connection connection = factory.getConnection();
+			try {
+				DatabaseType dialect = (configuration.dialect() != null) ? configuration.dialect() : JdbcTable.dialect(connection.getMetaData());
+				JdbcTable table = new JdbcTable(tableName, dialect);
+				if (configuration.createOnStart()) {
+					table.create(connection);
+				}
+				this.table = table;
+			} catch (SQLException e) {
+				throw new PersistenceException(e);
+			} finally {
+				factory.releaseConnection(connection);
+			}
+			this.connectionFactory = factory;
+		}, "jdbc-store-start");
+	}
+
+	@Override
+	public CompletionStage<Void> stop() {
+		ConnectionFactory factory = this.connectionFactory;
+		return (factory != null) ? this.blockingManager.runBlocking(factory::stop, "jdbc-store-stop") : CompletableFutures.completedNull();
+	}
+
+	private <R> CompletionStage<R> execute(SQLFunction<R> function, String traceId) {
+		return this.blockingManager.supplyBlocking(() -> this.execute(function), traceId);
+	}
+
+	private <R> R execute(SQLFunction<R> function) {
+		Connection connection = this.connectionFactory.getConnection();
+		try {
+			return function.apply(connection);
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			this.connectionFactory.releaseConnection(connection);
+		}
+	}
+
+	private byte[] marshal(Object object) {
+		try {
+			return this.marshaller.objectToByteBuffer(object);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PersistenceException(e);
+		}
+	}
+
+	private Object unmarshal(byte[] bytes) {
+		try {
+			return this.marshaller.objectFromByteBuffer(bytes);
+		} catch (IOException | ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private JdbcTable.Entry createRow(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
+		return new JdbcTable.Entry(this.marshal(entry.getKey()), segment, this.marshal(entry.getMarshalledValue()), entry.expiryTime());
+	}
+
+	private MarshallableEntry<K, V> createEntry(K key, byte[] value) {
+		if (value == null) {
+			return this.entryFactory.create(key);
+		}
+		MarshalledValue marshalledValue = (MarshalledValue) this.unmarshal(value);
+		return this.entryFactory.create(key, marshalledValue.getValueBytes(), marshalledValue.getMetadataBytes(), marshalledValue.getInternalMetadataBytes(), marshalledValue.getCreated(), marshalledValue.getLastUsed());
+	}
+
+	@SuppressWarnings("unchecked")
+	private MarshallableEntry<K, V> createEntry(byte[] key) {
+		return this.entryFactory.create((K) this.unmarshal(key));
+	}
+
+	@Override
+	public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
+		byte[] marshalledKey = this.marshal(key);
+		long now = this.timeService.wallClockTime();
+		return this.execute(connection -> this.table.select(connection, marshalledKey, now), "jdbc-store-load").thenApply(row -> {
+			@SuppressWarnings("unchecked")
+			K typedKey = (K) key;
+			return (row != null) ? this.createEntry(typedKey, row.value()) : null;
+		});
+	}
+
+	@Override
+	public CompletionStage<Boolean> containsKey(int segment, Object key) {
+		byte[] marshalledKey = this.marshal(key);
+		long now = this.timeService.wallClockTime();
+		return this.execute(connection -> this.table.contains(connection, marshalledKey, now), "jdbc-store-contains-key");
+	}
+
+	@Override
+	public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
+		return this.write(List.of(), List.of(this.createRow(segment, entry)));
+	}
+
+	@Override
+	public CompletionStage<Boolean> delete(int segment, Object key) {
+		byte[] marshalledKey = this.marshal(key);
+		return this.execute(connection -> this.table.delete(connection, marshalledKey), "jdbc-store-delete");
+	}
+
+	@Override
+	public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublisher<Object>> removePublisher, Publisher<SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) {
+		// Marshal on the calling thread, then apply all removals and writes via multi-row statements within a single transaction
+		return Flowable.fromPublisher(removePublisher)
+				.flatMap(Flowable::fromPublisher, publisherCount)
+				.map(this::marshal)
+				.toList()
+				.zipWith(Flowable.fromPublisher(writePublisher).flatMap(sp -> Flowable.fromPublisher(sp).map(entry -> this.createRow(sp.getSegment(), entry)), publisherCount).toList(), Map::entry)
+				.toCompletionStage()
+				.thenCompose(entry -> this.write(entry.getKey(), entry.getValue()));
+	}
+
+	private CompletionStage<Void> write(Collection<byte[]> removals, Collection<JdbcTable.Entry> writes) {
+		if (removals.isEmpty() && writes.isEmpty()) return CompletableFutures.completedNull();
+		return this.<Void>execute(connection -> {
+			this.table.write(connection, removals, writes, this.batchSize);
+			return null;
+		}, "jdbc-store-write");
+	}
+
+	@Override
+	public Flowable<K> publishKeys(IntSet segments, Predicate<? super K> filter) {
+		return this.publishEntries(segments, filter, false).map(MarshallableEntry::getKey);
+	}
+
+	@Override
+	public Flowable<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predicate<? super K> filter, boolean includeValues) {
+		long now = this.timeService.wallClockTime();
+		// Query each segment independently via the segment index
+		Flowable<OptionalInt> partitions = this.segmented ? Flowable.fromIterable(segments).map(OptionalInt::of) : Flowable.just(OptionalInt.empty());
+		return partitions.flatMap(segment -> this.blockingManager.blockingPublisher(this.publishEntries(segment, filter, includeValues, now)), PARALLELISM);
+	}
+
+	private Flowable<MarshallableEntry<K, V>> publishEntries(OptionalInt segment, Predicate<? super K> filter, boolean includeValues, long now) {
+		Flowable<JdbcTable.Entry> rows = Flowable.using(this.connectionFactory::getConnection, connection -> Flowable.generate(() -> this.table.select(connection, segment, includeValues, now, this.batchSize), (cursor, emitter) -> {
+			JdbcTable.Entry row = cursor.next();
+			if (row != null) {
+				emitter.onNext(row);
+			} else {
+				emitter.onComplete();
+			}
+		}, JdbcTable.Cursor::close), this.connectionFactory::releaseConnection);
+		// Filter by key before unmarshalling value
+		return rows.mapOptional(row -> {
+			@SuppressWarnings("unchecked")
+			K key = (K) this.unmarshal(row.key());
+			return ((filter == null) || filter.test(key)) ? Optional.of(this.createEntry(key, row.value())) : Optional.empty();
+		});
+	}
+
+	@Override
+	public Publisher<MarshallableEntry<K, V>> purgeExpired() {
+		// Emit only the keys of purged rows, as they are deleted, page by page
+		Flowable<byte[]> keys = Flowable.using(this.connectionFactory::getConnection, connection -> Flowable.<byte[]>create(emitter -> {
+			this.table.purge(connection, this.timeService.wallClockTime(), this.batchSize, emitter::onNext);
+			emitter.onComplete();
+		}, BackpressureStrategy.BUFFER), this.connectionFactory::releaseConnection);
+		return Flowable.fromPublisher(this.blockingManager.blockingPublisher(keys)).map(this::createEntry);
+	}
+
+	@Override
+	public CompletionStage<Void> clear() {
+		return this.<Void>execute(connection -> {
+			this.table.clear(connection);
+			return null;
+		}, "jdbc-store-clear");
+	}
+
+	@Override
+	public CompletionStage<Boolean> isAvailable() {
+		return this.execute(connection -> connection.isValid(0), "jdbc-store-available").exceptionally(e -> false);
+	}
+
+	@Override
+	public CompletionStage<Long> size(IntSet segments) {
+		long now = this.timeService.wallClockTime();
+		return this.execute(connection -> {
+			// Count all requested segments via a single query
+			return this.table.count(connection, this.segmented ? segments.toIntArray() : null, now);
+		}, "jdbc-store-size");
+	}
+
+	@Override
+	public CompletionStage<Void> addSegments(IntSet segments) {
+		return CompletableFutures.completedNull();
+	}
+
+	@Override
+	public CompletionStage<Void> removeSegments(IntSet segments) {
+		// Only invoked for segmented, unshared stores
+		return this.<Void>execute(connection -> {
+			this.table.delete(connection, segments.iterator());
+			return null;
+		}, "jdbc-store-remove-segments");
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.persistence.jdbc;
+
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.cache.AsyncStoreConfiguration;
+import org.infinispan.persistence.jdbc.common.configuration.AbstractJdbcStoreConfiguration;
+import org.infinispan.persistence.jdbc.common.configuration.ConnectionFactoryConfiguration;
+
+/**
+ * The configuration of a JDBC cache store.
+ * @author Paul Ferraro
+ */
+@BuiltBy(JdbcCacheStoreConfigurationBuilder.class)
+@ConfigurationFor(JdbcCacheStore.class)
+public class JdbcCacheStoreConfiguration extends AbstractJdbcStoreConfiguration<JdbcCacheStoreConfiguration> {
+	enum Element {
+		JDBC_STORE
+	}
+
+	static final AttributeDefinition<String> TABLE_NAME_PREFIX = AttributeDefinition.builder("table-name-prefix", "ispn", String.class).immutable().build();
+	static final AttributeDefinition<Boolean> CREATE_ON_START = AttributeDefinition.builder("create-on-start", Boolean.TRUE).immutable().build();
+
+	/**
+	 * Creates the configuration of a JDBC cache store.
+	 * @param attributes the set of attributes
+	 * @param async asynchronous store configuration
+	 * @param connectionFactory the connection factory configuration
+	 */
+	public JdbcCacheStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, ConnectionFactoryConfiguration connectionFactory) {
+		super(Element.JDBC_STORE, attributes, async, connectionFactory);
+	}
+
+	/**
+	 * Returns the prefix of the table name used by this store, to which the cache name is appended.
+	 * @return the prefix of the table name used by this store
+	 */
+	public String tableNamePrefix() {
+		return this.attributes.attribute(TABLE_NAME_PREFIX).get();
+	}
+
+	/**
+	 * Indicates whether or not the table should be created, if it does not already exist, when this store starts.
+	 * @return true, if the table should be created on start, false otherwise.
+	 */
+	public boolean createOnStart() {
+		return this.attributes.attribute(CREATE_ON_START).get();
+	}
+
+	@Override
+	public String toString() {
+		return "JdbcStoreConfiguration{attributes=" + this.attributes + ", connectionFactory=" + this.connectionFactory() + '}';
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.persistence.jdbc;
+
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.persistence.jdbc.common.configuration.AbstractJdbcStoreConfiguration;
+import org.infinispan.persistence.jdbc.common.configuration.AbstractJdbcStoreConfigurationBuilder;
+
+/**
+ * Builds a JDBC cache store configuration.
+ * @author Paul Ferraro
+ */
+public class JdbcCacheStoreConfigurationBuilder extends AbstractJdbcStoreConfigurationBuilder<JdbcCacheStoreConfiguration, JdbcCacheStoreConfigurationBuilder> {
+
+	/**
+	 * Creates a builder for a JDBC cache store configuration.
+	 * @param builder the parent builder
+	 */
+	public JdbcCacheStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
+		super(builder, new AttributeSet(JdbcCacheStoreConfiguration.class, AbstractJdbcStoreConfiguration.attributeDefinitionSet(), JdbcCacheStoreConfiguration.TABLE_NAME_PREFIX, JdbcCacheStoreConfiguration.CREATE_ON_START));
+	}
+
+	/**
+	 * Defines the prefix of the table name used by this store, to which the cache name is appended.
+	 * @param prefix a table name prefix
+	 * @return a reference to this builder
+	 */
+	public JdbcCacheStoreConfigurationBuilder tableNamePrefix(String prefix) {
+		this.attributes.attribute(JdbcCacheStoreConfiguration.TABLE_NAME_PREFIX).set(prefix);
+		return this;
+	}
+
+	/**
+	 * Indicates whether or not the table should be created, if it does not already exist, when this store starts.
+	 * @param create indicates whether or not to create the table on start
+	 * @return a reference to this builder
+	 */
+	public JdbcCacheStoreConfigurationBuilder createOnStart(boolean create) {
+		this.attributes.attribute(JdbcCacheStoreConfiguration.CREATE_ON_START).set(create);
+		return this;
+	}
+
+	@Override
+	public JdbcCacheStoreConfiguration create() {
+		return new JdbcCacheStoreConfiguration(this.attributes.protect(), this.async.create(), (this.connectionFactory != null) ? this.connectionFactory.create() : null);
+	}
+
+	@Override
+	public JdbcCacheStoreConfigurationBuilder self() {
+		return this;
+	}
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.persistence.jdbc;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+
+import org.infinispan.persistence.jdbc.common.DatabaseType;
+
+/**
+ * Encapsulates the SQL used by {@link JdbcCacheStore} against a table of the form:
+ * <pre>
+ * id BINARY PRIMARY KEY, segment INTEGER (indexed), expiration BIGINT (indexed, null if immortal), data BINARY
+ * </pre>
+ * Keys and values are stored in their marshalled binary form, thus the table is agnostic of the key type.
+ * @author Paul Ferraro
+ */
+public class JdbcTable {
+	private static final String ID = "id";
+	private static final String SEGMENT = "segment";
+	private static final String EXPIRATION = "expiration";
+	private static final String DATA = "data";
+	private static final String NOT_EXPIRED = "(" + EXPIRATION + " IS NULL OR " + EXPIRATION + " > ?)";
+	// Lowest common limit of the number of elements of an IN clause, i.e. Oracle
+	private static final int MAX_IN_ELEMENTS = 1000;
+	// Lowest common limit of the number of parameters of a statement, i.e. SQL Server, divided by the number of columns
+	private static final int MAX_UPSERT_ROWS = 2000 / 4;
+
+	/**
+	 * A table row.
+	 * @param key the marshalled key
+	 * @param segment the segment of the key
+	 * @param value the marshalled value, or null, if values were not requested
+	 * @param expiration the expiration timestamp in milliseconds since the epoch, or a negative value if immortal
+	 */
+	public record Entry(byte[] key, int segment, byte[] value, long expiration) {
+	}
+
+	/**
+	 * A forward-only cursor over a set of table rows.
+	 */
+	public interface Cursor extends AutoCloseable {
+		/**
+		 * Returns the next row of this cursor, or null, if no rows remain.
+		 * @return the next row of this cursor, or null, if no rows remain.
+		 * @throws SQLException if the next row could not be read
+		 */
+		Entry next() throws SQLException;
+
+		@Override
+		void close() throws SQLException;
+	}
+
+	private final String name;
+	private final DatabaseType dialect;
+	private final String selectSQL;
+	private final String containsSQL;
+	private final String deleteSQL;
+	private final String deleteSegmentSQL;
+	private final String selectExpiredSQL;
+	private final String deleteExpiredSQL;
+
+	/**
+	 * Creates a table using the specified name and dialect.
+	 * @param name the table name
+	 * @param dialect the database dialect, or null, if unknown
+	 */
+	public JdbcTable(String name, DatabaseType dialect) {
+		this.name = name;
+		this.dialect = dialect;
+		this.selectSQL = String.format("SELECT %s, %s, %s FROM %s WHERE %s = ? AND %s", SEGMENT, DATA, EXPIRATION, name, ID, NOT_EXPIRED);
+		this.containsSQL = String.format("SELECT 1 FROM %s WHERE %s = ? AND %s", name, ID, NOT_EXPIRED);
+		this.deleteSQL = String.format("DELETE FROM %s WHERE %s = ?", name, ID);
+		this.deleteSegmentSQL = String.format("DELETE FROM %s WHERE %s = ?", name, SEGMENT);
+		this.selectExpiredSQL = String.format("SELECT %s FROM %s WHERE %s <= ?", ID, name, EXPIRATION);
+		// Only delete rows that remain expired, i.e. that were not refreshed since they were selected
+		this.deleteExpiredSQL = String.format("DELETE FROM %s WHERE %s = ? AND %s <= ?", name, ID, EXPIRATION);
+	}
+
+	/**
+	 * Guesses the dialect of the database described by the specified meta data.
+	 * @param metaData database meta data
+	 * @return a database dialect, or null, if the database is not recognized
+	 * @throws SQLException if the meta data could not be read
+	 */
+	public static DatabaseType dialect(DatabaseMetaData metaData) throws SQLException {
+		String product = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT);
+		if (product.contains("h2")) return DatabaseType.H2;
+		if (product.contains("postgres")) return DatabaseType.POSTGRES;
+		if (product.contains("mariadb")) return DatabaseType.MARIA_DB;
+		if (product.contains("mysql")) return DatabaseType.MYSQL;
+		if (product.contains("oracle")) return DatabaseType.ORACLE;
+		if (product.contains("microsoft")) return DatabaseType.SQL_SERVER;
+		if (product.contains("db2")) return DatabaseType.DB2;
+		return null;
+	}
+
+	private static String upsert(String name, DatabaseType dialect, int rows) {
+		String columns = String.join(", ", ID, SEGMENT, EXPIRATION, DATA);
+		String values = String.join(", ", Collections.nCopies(rows, "(?, ?, ?, ?)"));
+		return switch ((dialect != null) ? dialect : DatabaseType.SQL_SERVER) {
+			case H2 -> String.format("MERGE INTO %s (%s) KEY (%s) VALUES %s", name, columns, ID, values);
+			case POSTGRES -> String.format("INSERT INTO %1$s (%2$s) VALUES %7$s ON CONFLICT (%3$s) DO UPDATE SET %4$s = EXCLUDED.%4$s, %5$s = EXCLUDED.%5$s, %6$s = EXCLUDED.%6$s", name, columns, ID, SEGMENT, EXPIRATION, DATA, values);
+			case MYSQL, MARIA_DB -> String.format("INSERT INTO %1$s (%2$s) VALUES %6$s ON DUPLICATE KEY UPDATE %3$s = VALUES(%3$s), %4$s = VALUES(%4$s), %5$s = VALUES(%5$s)", name, columns, SEGMENT, EXPIRATION, DATA, values);
+			case ORACLE -> String.format("MERGE INTO %1$s t USING (%7$s) s ON (t.%3$s = s.%3$s) WHEN MATCHED THEN UPDATE SET t.%4$s = s.%4$s, t.%5$s = s.%5$s, t.%6$s = s.%6$s WHEN NOT MATCHED THEN INSERT (%2$s) VALUES (s.%3$s, s.%4$s, s.%5$s, s.%6$s)", name, columns, ID, SEGMENT, EXPIRATION, DATA, String.join(" UNION ALL ", Collections.nCopies(rows, String.format("SELECT ? %s, ? %s, ? %s, ? %s FROM dual", ID, SEGMENT, EXPIRATION, DATA))));
+			// SQL:2003 MERGE
+			default -> String.format("MERGE INTO %1$s t USING (VALUES %8$s) s (%2$s) ON (t.%3$s = s.%3$s) WHEN MATCHED THEN UPDATE SET %4$s = s.%4$s, %5$s = s.%5$s, %6$s = s.%6$s WHEN NOT MATCHED THEN INSERT (%2$s) VALUES (s.%3$s, s.%4$s, s.%5$s, s.%6$s)%7$s", name, columns, ID, SEGMENT, EXPIRATION, DATA, (dialect == DatabaseType.SQL_SERVER) ? ";" : "", values);
+		};
+	}
+
+	private static String parameters(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
+	}
+
+	private String keyType() {
+		return switch ((this.dialect != null) ? this.dialect : DatabaseType.SQL_SERVER) {
+			case POSTGRES -> "BYTEA";
+			case ORACLE -> "RAW(255)";
+			case DB2 -> "VARCHAR(255) FOR BIT DATA";
+			default -> "VARBINARY(255)";
+		};
+	}
+
+	private String dataType() {
+		return switch ((this.dialect != null) ? this.dialect : DatabaseType.SQL_SERVER) {
+			case H2 -> "VARBINARY";
+			case POSTGRES -> "BYTEA";
+			case MYSQL, MARIA_DB -> "LONGBLOB";
+			case SQL_SERVER -> "VARBINARY(MAX)";
+			default -> "BLOB";
+		};
+	}
+
+	/**
+	 * Returns the name of this table.
+	 * @return the name of this table.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Indicates whether or not this table exists.
+	 * @param connection a database connection
+	 * @return true, if this table exists, false otherwise.
+	 * @throws SQLException if the database meta data could not be read
+	 */
+	public boolean exists(Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		String name = metaData.storesUpperCaseIdentifiers() ? this.name.toUpperCase(Locale.ROOT) : metaData.storesLowerCaseIdentifiers() ? this.name.toLowerCase(Locale.ROOT) : this.name;
+		try (ResultSet tables = metaData.getTables(null, null, name, new String[] { "TABLE" })) {
+			return tables.next();
+		}
+	}
+
+	/**
+	 * Creates this table, along with its segment and expiration indexes, if it does not already exist.
+	 * @param connection a database connection
+	 * @throws SQLException if the table could not be created
+	 */
+	public void create(Connection connection) throws SQLException {
+		if (!this.exists(connection)) {
+			try (Statement statement = connection.createStatement()) {
+				statement.executeUpdate(String.format("CREATE TABLE %s (%s %s NOT NULL, %s INTEGER NOT NULL, %s BIGINT, %s %s NOT NULL, PRIMARY KEY (%s))", this.name, ID, this.keyType(), SEGMENT, EXPIRATION, DATA, this.dataType(), ID));
+				statement.executeUpdate(String.format("CREATE INDEX %1$s_%2$s ON %1$s (%2$s)", this.name, SEGMENT));
+				statement.executeUpdate(String.format("CREATE INDEX %1$s_%2$s ON %1$s (%2$s)", this.name, EXPIRATION));
+			}
+		}
+	}
+
+	/**
+	 * Returns the unexpired row with the specified key.
+	 * @param connection a database connection
+	 * @param key a marshalled key
+	 * @param now the current time in milliseconds since the epoch
+	 * @return the row with the specified key, or null, if no such row exists or has expired
+	 * @throws SQLException if the row could not be read
+	 */
+	public Entry select(Connection connection, byte[] key, long now) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(this.selectSQL)) {
+			statement.setBytes(1, key);
+			statement.setLong(2, now);
+			try (ResultSet result = statement.executeQuery()) {
+				if (!result.next()) return null;
+				long expiration = result.getLong(3);
+				return new Entry(key, result.getInt(1), result.getBytes(2), result.wasNull() ? -1L : expiration);
+			}
+		}
+	}
+
+	/**
+	 * Indicates whether or not an unexpired row with the specified key exists.
+	 * @param connection a database connection
+	 * @param key a marshalled key
+	 * @param now the current time in milliseconds since the epoch
+	 * @return true, if an unexpired row exists, false otherwise
+	 * @throws SQLException if the query failed
+	 */
+	public boolean contains(Connection connection, byte[] key, long now) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(this.containsSQL)) {
+			statement.setBytes(1, key);
+			statement.setLong(2, now);
+			try (ResultSet result = statement.executeQuery()) {
+				return result.next();
+			}
+		}
+	}
+
+	/**
+	 * Applies the specified removals and writes within a single transaction.
+	 * Removals and writes are each applied via multi-row statements of at most the specified number of rows.
+	 * @param connection a database connection
+	 * @param removals a collection of marshalled keys to remove
+	 * @param writes a collection of rows to insert or update
+	 * @param batchSize the maximum number of rows per statement
+	 * @throws SQLException if the transaction failed
+	 */
+	public void write(Connection connection, Collection<byte[]> removals, Collection<Entry> writes, int batchSize) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		if (autoCommit) {
+			connection.setAutoCommit(false);
+		}
+		try {
+			List<byte[]> keys = List.copyOf(removals);
+			int deleteSize = Math.min(batchSize, MAX_IN_ELEMENTS);
+			for (int offset = 0; offset < keys.size(); offset += deleteSize) {
+				List<byte[]> chunk = keys.subList(offset, Math.min(keys.size(), offset + deleteSize));
+				try (PreparedStatement statement = connection.prepareStatement(String.format("DELETE FROM %s WHERE %s IN (%s)", this.name, ID, parameters(chunk.size())))) {
+					int index = 1;
+					for (byte[] key : chunk) {
+						statement.setBytes(index++, key);
+					}
+					statement.executeUpdate();
+				}
+			}
+			// A multi-row upsert may not affect the same row more than once, so retain only the last write per key
+			Map<ByteBuffer, Entry> uniqueWrites = new LinkedHashMap<>();
+			for (Entry entry : writes) {
+				uniqueWrites.put(ByteBuffer.wrap(entry.key()), entry);
+			}
+			List<Entry> rows = List.copyOf(uniqueWrites.values());
+			int upsertSize = Math.min(batchSize, MAX_UPSERT_ROWS);
+			for (int offset = 0; offset < rows.size(); offset += upsertSize) {
+				List<Entry> chunk = rows.subList(offset, Math.min(rows.size(), offset + upsertSize));
+				try (PreparedStatement statement = connection.prepareStatement(upsert(this.name, this.dialect, chunk.size()))) {
+					int index = 1;
+					for (Entry entry : chunk) {
+						statement.setBytes(index++, entry.key());
+						statement.setInt(index++, entry.segment());
+						if (entry.expiration() >= 0) {
+							statement.setLong(index++, entry.expiration());
+						} else {
+							statement.setNull(index++, Types.BIGINT);
+						}
+						statement.setBytes(index++, entry.value());
+					}
+					statement.executeUpdate();
+				}
+			}
+			connection.commit();
+		} catch (SQLException | RuntimeException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			if (autoCommit) {
+				connection.setAutoCommit(true);
+			}
+		}
+	}
+
+	/**
+	 * Deletes the row with the specified key.
+	 * @param connection a database connection
+	 * @param key a marshalled key
+	 * @return true, if a row was deleted, false otherwise
+	 * @throws SQLException if the delete failed
+	 */
+	public boolean delete(Connection connection, byte[] key) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(this.deleteSQL)) {
+			statement.setBytes(1, key);
+			return statement.executeUpdate() > 0;
+		}
+	}
+
+	/**
+	 * Deletes all rows within the specified segments using a single JDBC batch.
+	 * @param connection a database connection
+	 * @param segments an iterator over a set of segments
+	 * @throws SQLException if the delete failed
+	 */
+	public void delete(Connection connection, PrimitiveIterator.OfInt segments) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(this.deleteSegmentSQL)) {
+			while (segments.hasNext()) {
+				statement.setInt(1, segments.nextInt());
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	/**
+	 * Deletes all rows of this table.
+	 * @param connection a database connection
+	 * @throws SQLException if the delete failed
+	 */
+	public void clear(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("DELETE FROM " + this.name);
+		}
+	}
+
+	/**
+	 * Counts the unexpired rows of the specified segments.
+	 * @param connection a database connection
+	 * @param segments an array of segments, or null, to count the rows of all segments
+	 * @param now the current time in milliseconds since the epoch
+	 * @return the number of unexpired rows
+	 * @throws SQLException if the query failed
+	 */
+	public long count(Connection connection, int[] segments, long now) throws SQLException {
+		if (segments == null) {
+			return this.count(connection, String.format("SELECT COUNT(*) FROM %s WHERE %s", this.name, NOT_EXPIRED), new int[0], now);
+		}
+		long count = 0;
+		// Some databases limit the number of elements of an IN clause
+		for (int offset = 0; offset < segments.length; offset += MAX_IN_ELEMENTS) {
+			int[] chunk = Arrays.copyOfRange(segments, offset, Math.min(segments.length, offset + MAX_IN_ELEMENTS));
+			count += this.count(connection, String.format("SELECT COUNT(*) FROM %s WHERE %s IN (%s) AND %s", this.name, SEGMENT, parameters(chunk.length), NOT_EXPIRED), chunk, now);
+		}
+		return count;
+	}
+
+	private long count(Connection connection, String sql, int[] segments, long now) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			int index = 1;
+			for (int segment : segments) {
+				statement.setInt(index++, segment);
+			}
+			statement.setLong(index, now);
+			try (ResultSet result = statement.executeQuery()) {
+				return result.next() ? result.getLong(1) : 0L;
+			}
+		}
+	}
+
+	/**
+	 * Opens a cursor over the unexpired rows of the specified segment.
+	 * The returned cursor must be closed by the caller.
+	 * @param connection a database connection
+	 * @param segment a segment, or empty, to select the rows of all segments
+	 * @param includeValues indicates whether or not to read the data column
+	 * @param now the current time in milliseconds since the epoch
+	 * @param fetchSize a hint for the number of rows to fetch per round trip
+	 * @return a cursor over the selected rows
+	 * @throws SQLException if the query failed
+	 */
+	public Cursor select(Connection connection, OptionalInt segment, boolean includeValues, long now, int fetchSize) throws SQLException {
+		String columns = includeValues ? String.join(", ", ID, SEGMENT, EXPIRATION, DATA) : String.join(", ", ID, SEGMENT, EXPIRATION);
+		String sql = segment.isPresent() ? String.format("SELECT %s FROM %s WHERE %s = ? AND %s", columns, this.name, SEGMENT, NOT_EXPIRED) : String.format("SELECT %s FROM %s WHERE %s", columns, this.name, NOT_EXPIRED);
+		PreparedStatement statement = connection.prepareStatement(sql);
+		try {
+			int index = 1;
+			if (segment.isPresent()) {
+				statement.setInt(index++, segment.getAsInt());
+			}
+			statement.setLong(index, now);
+			statement.setFetchSize(fetchSize);
+			ResultSet result = statement.executeQuery();
+			return new Cursor() {
+				@Override
+				public Entry next() throws SQLException {
+					if (!result.next()) return null;
+					long expiration = result.getLong(3);
+					boolean immortal = result.wasNull();
+					return new Entry(result.getBytes(1), result.getInt(2), includeValues ? result.getBytes(4) : null, immortal ? -1L : expiration);
+				}
+
+				@Override
+				public void close() throws SQLException {
+					try {
+						result.close();
+					} finally {
+						statement.close();
+					}
+				}
+			};
+		} catch (SQLException | RuntimeException e) {
+			statement.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Removes all rows that expired as of the specified time, notifying the specified consumer of the key of each removed row.
+	 * Expired keys are located via the expiration index, in pages of at most the specified size.
+	 * Each page is removed via a batch of conditional deletes, such that rows refreshed after they were selected are retained.
+	 * @param connection a database connection
+	 * @param now the current time in milliseconds since the epoch
+	 * @param pageSize the maximum number of keys to select and delete per round trip
+	 * @param purged a consumer of the marshalled keys of removed rows
+	 * @throws SQLException if the purge failed
+	 */
+	public void purge(Connection connection, long now, int pageSize, Consumer<byte[]> purged) throws SQLException {
+		try (PreparedStatement select = connection.prepareStatement(this.selectExpiredSQL); PreparedStatement delete = connection.prepareStatement(this.deleteExpiredSQL)) {
+			select.setLong(1, now);
+			select.setMaxRows(pageSize);
+			select.setFetchSize(pageSize);
+			List<byte[]> keys = new ArrayList<>(pageSize);
+			do {
+				keys.clear();
+				try (ResultSet result = select.executeQuery()) {
+					while (result.next()) {
+						keys.add(result.getBytes(1));
+					}
+				}
+				if (!keys.isEmpty()) {
+					for (byte[] key : keys) {
+						delete.setBytes(1, key);
+						delete.setLong(2, now);
+						delete.addBatch();
+					}
+					int[] counts = delete.executeBatch();
+					for (int i = 0; i < counts.length; ++i) {
+						if ((counts[i] > 0) || (counts[i] == Statement.SUCCESS_NO_INFO)) {
+							purged.accept(keys.get(i));
+						}
+					}
+				}
+				// Rows that were deleted or refreshed will not be selected again
+			} while (keys.size() == pageSize);
+		}
+	}
+}
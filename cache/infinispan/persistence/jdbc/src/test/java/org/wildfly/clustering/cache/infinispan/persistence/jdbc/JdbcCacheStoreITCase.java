@@ -0,0 +1,117 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.persistence.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Integration test for {@link JdbcCacheStore} using an in-memory H2 database.
+ * @author Paul Ferraro
+ */
+public class JdbcCacheStoreITCase {
+	private static final int SIZE = 100;
+
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	public void test(boolean segmented) throws IOException, InterruptedException, SQLException {
+		String cacheName = segmented ? "segmented" : "unsegmented";
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setUrl("jdbc:h2:mem:" + this.getClass().getSimpleName() + ";DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+
+		ConfigurationBuilder builder = new ConfigurationBuilder();
+		builder.persistence().addStore(JdbcCacheStoreConfigurationBuilder.class)
+				.segmented(segmented)
+				.maxBatchSize(SIZE / 3)
+				.connectionFactory(DataSourceConnectionFactoryConfigurationBuilder.class).withDataSource(dataSource)
+				;
+		try (EmbeddedCacheManager manager = new DefaultCacheManager(new GlobalConfigurationBuilder().nonClusteredDefault().build(), true)) {
+			manager.defineConfiguration(cacheName, builder.build());
+			Cache<String, Integer> cache = manager.getCache(cacheName);
+			try {
+				Map<String, Integer> entries = IntStream.range(0, SIZE).boxed().collect(Collectors.toMap(Object::toString, Integer::valueOf));
+				cache.putAll(entries);
+
+				try (Connection connection = dataSource.getConnection()) {
+					assertThat(count(connection, "ispn_" + cacheName)).isEqualTo(SIZE);
+				}
+
+				// Verify entries are loaded from store
+				cache.getAdvancedCache().getDataContainer().clear();
+				assertThat(cache.size()).isEqualTo(SIZE);
+				Set<String> keys = cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD).keySet().stream().collect(Collectors.toSet());
+				assertThat(keys).isEmpty();
+				assertThat(cache.keySet().stream().collect(Collectors.toSet())).containsExactlyInAnyOrderElementsOf(entries.keySet());
+				for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+					assertThat(cache.get(entry.getKey())).isEqualTo(entry.getValue());
+				}
+
+				// Verify updates and removals
+				assertThat(cache.replace("0", 0, -1)).isTrue();
+				assertThat(cache.remove("1")).isEqualTo(1);
+				cache.getAdvancedCache().getDataContainer().clear();
+				assertThat(cache.get("0")).isEqualTo(-1);
+				assertThat(cache.get("1")).isNull();
+				assertThat(cache.containsKey("2")).isTrue();
+				assertThat(cache.size()).isEqualTo(SIZE - 1);
+
+				// Verify expired entries are purged from the store, spanning multiple pages
+				Map<String, Integer> expiring = IntStream.range(SIZE, SIZE + SIZE / 2).boxed().collect(Collectors.toMap(Object::toString, Integer::valueOf));
+				cache.putAll(expiring, 1, TimeUnit.MILLISECONDS);
+				cache.put("unexpired", SIZE, 1, TimeUnit.HOURS);
+				Thread.sleep(10);
+				// Ensure expired entries remain only within the store
+				cache.getAdvancedCache().getDataContainer().clear();
+				try (Connection connection = dataSource.getConnection()) {
+					assertThat(count(connection, "ispn_" + cacheName)).isEqualTo(SIZE + expiring.size());
+				}
+				cache.getAdvancedCache().getExpirationManager().processExpiration();
+				try (Connection connection = dataSource.getConnection()) {
+					assertThat(count(connection, "ispn_" + cacheName)).isEqualTo(SIZE);
+				}
+				assertThat(cache.get("unexpired")).isEqualTo(SIZE);
+				assertThat(cache.size()).isEqualTo(SIZE);
+
+				cache.clear();
+				assertThat(cache.size()).isZero();
+				try (Connection connection = dataSource.getConnection()) {
+					assertThat(count(connection, "ispn_" + cacheName)).isZero();
+				}
+			} finally {
+				cache.stop();
+			}
+		}
+	}
+
+	private static int count(Connection connection, String table) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			try (ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+				return result.next() ? result.getInt(1) : 0;
+			}
+		}
+	}
+}
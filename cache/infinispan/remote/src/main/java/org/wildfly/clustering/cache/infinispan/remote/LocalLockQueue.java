@@ -0,0 +1,156 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.remote;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A JVM-local queue of transactions waiting to lock a given key.
+ * Only the transaction at the head of the queue for a given key contends for the corresponding remote lock.
+ * Subsequent transactions wait locally until the preceding transaction either releases its position,
+ * or hands off the remote lock it still holds, via a lease, to its successor.
+ * @param <K> the key type
+ * @param <L> the lease type
+ * @author Paul Ferraro
+ */
+class LocalLockQueue<K, L> {
+
+	private final Map<K, Deque<Waiter<L>>> queues = new ConcurrentHashMap<>();
+
+	/**
+	 * A position within the queue of a given key.
+	 * @param <L> the lease type
+	 */
+	static class Waiter<L> {
+		private final Object owner;
+		private final CompletableFuture<L> turn = new CompletableFuture<>();
+		private final CompletableFuture<Boolean> acquisition = new CompletableFuture<>();
+		// Written and read by the enqueuing thread only
+		private boolean queued;
+		private boolean head;
+
+		Waiter(Object owner) {
+			this.owner = owner;
+		}
+
+		/**
+		 * Returns a stage that completes when this waiter reaches the head of its queue.
+		 * The stage completes with the lease of a remote lock handed off by the preceding waiter, or null, if the remote lock must be acquired.
+		 * @return a completion stage
+		 */
+		CompletableFuture<L> getTurn() {
+			return this.turn;
+		}
+
+		/**
+		 * Returns a stage that completes when the owner of this waiter completes its attempt to acquire the remote lock.
+		 * The stage completes with true, if the remote lock was acquired, or false otherwise.
+		 * @return a completion stage
+		 */
+		CompletableFuture<Boolean> getAcquisition() {
+			return this.acquisition;
+		}
+	}
+
+	/**
+	 * Enqueues the specified owner for the specified key.
+	 * @param key a key
+	 * @param owner the owner of a lock, e.g. a transaction identifier
+	 * @return a waiter, or null, if the specified owner is already queued for the specified key
+	 */
+	Waiter<L> enqueue(K key, Object owner) {
+		Waiter<L> waiter = new Waiter<>(owner);
+		this.queues.compute(key, (k, existing) -> {
+			Deque<Waiter<L>> queue = (existing != null) ? existing : new ArrayDeque<>();
+			for (Waiter<L> queued : queue) {
+				if (queued.owner.equals(owner)) {
+					return queue;
+				}
+			}
+			queue.addLast(waiter);
+			waiter.queued = true;
+			waiter.head = (queue.size() == 1);
+			return queue;
+		});
+		if (!waiter.queued) {
+			return null;
+		}
+		if (waiter.head) {
+			waiter.turn.complete(null);
+		}
+		return waiter;
+	}
+
+	/**
+	 * Returns the lock acquisition stage of the specified owner, if it is already queued for the specified key.
+	 * @param key a key
+	 * @param owner the owner of a lock, e.g. a transaction identifier
+	 * @return the lock acquisition stage of the queued owner, or a stage completed with false, if the specified owner is not queued for the specified key
+	 */
+	CompletableFuture<Boolean> acquisition(K key, Object owner) {
+		AtomicReference<Waiter<L>> result = new AtomicReference<>();
+		this.queues.computeIfPresent(key, (k, queue) -> {
+			for (Waiter<L> queued : queue) {
+				if (queued.owner.equals(owner)) {
+					result.setPlain(queued);
+				}
+			}
+			return queue;
+		});
+		Waiter<L> waiter = result.getPlain();
+		return (waiter != null) ? waiter.acquisition : CompletableFuture.completedFuture(Boolean.FALSE);
+	}
+
+	/**
+	 * Removes the specified waiter from the queue of the specified key, advancing the turn of its successor, if necessary.
+	 * This method is idempotent.
+	 * @param key a key
+	 * @param waiter a waiter for the specified key
+	 */
+	void release(K key, Waiter<L> waiter) {
+		AtomicReference<Waiter<L>> successor = new AtomicReference<>();
+		this.queues.computeIfPresent(key, (k, queue) -> {
+			if (queue.peekFirst() == waiter) {
+				queue.removeFirst();
+				successor.setPlain(queue.peekFirst());
+			} else {
+				queue.remove(waiter);
+			}
+			return !queue.isEmpty() ? queue : null;
+		});
+		Waiter<L> next = successor.getPlain();
+		if (next != null) {
+			next.turn.complete(null);
+		}
+	}
+
+	/**
+	 * Hands off the remote lock held by the specified waiter to its successor, if one exists.
+	 * If a successor exists, the specified waiter is removed from the queue of the specified key, and the turn of its successor completes with the specified lease.
+	 * If the turn of the successor was already completed, e.g. exceptionally, by a timeout, the lock was not handed off, and remains the responsibility of the caller.
+	 * @param key a key
+	 * @param waiter the waiter at the head of the queue for the specified key
+	 * @param lease the lease of the remote lock held by the specified waiter
+	 * @return true, if the lock was handed off, false otherwise.
+	 */
+	boolean handOff(K key, Waiter<L> waiter, L lease) {
+		AtomicReference<Waiter<L>> successor = new AtomicReference<>();
+		this.queues.computeIfPresent(key, (k, queue) -> {
+			if ((queue.size() > 1) && (queue.peekFirst() == waiter)) {
+				queue.removeFirst();
+				successor.setPlain(queue.peekFirst());
+			}
+			return queue;
+		});
+		Waiter<L> next = successor.getPlain();
+		return (next != null) && next.turn.complete(lease);
+	}
+}
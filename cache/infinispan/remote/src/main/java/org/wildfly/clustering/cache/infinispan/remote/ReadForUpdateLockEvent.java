@@ -0,0 +1,50 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.remote;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the acquisition of a read-for-update lock by a {@link ReadForUpdateRemoteCache}.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.cache.infinispan.remote.ReadForUpdateLock")
+@Label("Read-For-Update Lock")
+@Description("Acquisition of a read-for-update lock on a remote cache entry")
+@Category({ "WildFly", "Clustering", "Cache" })
+@StackTrace(false)
+class ReadForUpdateLockEvent extends Event {
+	@Label("Cache")
+	String cache;
+
+	@Label("Retries")
+	@Description("The number of attempts to lock an entry already locked by another transaction")
+	int retries;
+
+	@Label("Outcome")
+	@Description("Whether the entry was locked, already locked by the current transaction, handed off by a preceding local transaction, or could not be locked")
+	String outcome;
+
+	/**
+	 * Commits this event, if enabled and its threshold was exceeded.
+	 * @param cache the cache name
+	 * @param retries the number of retries
+	 * @param outcome the outcome of the lock acquisition
+	 */
+	void record(String cache, int retries, String outcome) {
+		if (this.shouldCommit()) {
+			this.cache = cache;
+			this.retries = retries;
+			this.outcome = outcome;
+			this.commit();
+		}
+	}
+}
@@ -20,9 +20,11 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
@@ -60,6 +62,8 @@ import org.wildfly.clustering.function.Supplier;
  */
 public class ReadForUpdateRemoteCache<K, V> extends RemoteCacheDecorator<K, V> {
 	static final System.Logger LOGGER = System.getLogger(ReadForUpdateRemoteCache.class.getName());
+	// Maximum number of consecutive local hand offs of a remote lock, after which the lock is released to contenders from other clients
+	static final int MAX_HAND_OFFS = 8;
 
 	private static final Synchronization UNSUCCESSFUL = new Synchronization() {
 		@Override
@@ -71,10 +75,22 @@ public class ReadForUpdateRemoteCache<K, V> extends RemoteCacheDecorator<K, V> {
 		}
 	};
 	private static final Xid INITIAL_TX_ID = RemoteXid.create(UUID.randomUUID());
+	private static final long INITIAL_BACK_OFF = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long MAX_BACK_OFF = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final int MAX_BACK_OFF_SHIFT = Long.numberOfLeadingZeros(INITIAL_BACK_OFF) - Long.numberOfLeadingZeros(MAX_BACK_OFF) + 1;
 
 	interface SynchronizationFactory extends Function<Xid, CompletableFuture<Synchronization>>, Synchronization {
 	}
 
+	/**
+	 * The lease of a remote lock, i.e. the value of its TX entry, and the earliest time at which this entry might expire.
+	 * @param id the identifier of the transaction that created the TX entry
+	 * @param expiration the earliest expiration time of the TX entry
+	 * @param handOffs the number of consecutive local hand offs of this lease
+	 */
+	private record Lease(Xid id, Instant expiration, int handOffs) {
+	}
+
 	private final InternalRemoteCache<K, V> cache;
 	private final BiFunction<K, Transaction, CompletableFuture<Synchronization>> syncFactory;
 	private final TransactionContextFactory contextFactory;
@@ -106,19 +122,50 @@ public class ReadForUpdateRemoteCache<K, V> extends RemoteCacheDecorator<K, V> {
 	private ReadForUpdateRemoteCache(RemoteCacheContainer container, InternalRemoteCache<K, V> cache, int maxRetries, TransactionContextFactory contextFactory) {
 		this(container, cache, contextFactory, new BiFunction<>() {
 			private final RemoteCache<TransactionKey<K>, Xid> putCache = (RemoteCache<TransactionKey<K>, Xid>) cache.noFlags().withFlags(Flag.FORCE_RETURN_VALUE, Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD);
-			private final RemoteCache<TransactionKey<K>, Xid> removeCache = (RemoteCache<TransactionKey<K>, Xid>) cache.noFlags().withFlags(Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD);
+			private final RemoteCache<TransactionKey<K>, Xid> writeCache = (RemoteCache<TransactionKey<K>, Xid>) cache.noFlags().withFlags(Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD);
 			private final Duration maxTxDuration = Duration.ofMillis(cache.getRemoteCacheContainer().getConfiguration().transactionTimeout());
+			// Only hand off a lock whose entry will not expire before its lifespan can be extended
+			private final Duration minHandOffDuration = this.maxTxDuration.dividedBy(2);
+			private final LocalLockQueue<K, Lease> queue = new LocalLockQueue<>();
 
 			@Override
 			public CompletableFuture<Synchronization> apply(K key, Transaction suspendedTx) {
 				RemoteCache<TransactionKey<K>, Xid> putCache = this.putCache;
-				RemoteCache<TransactionKey<K>, Xid> removeCache = this.removeCache;
+				RemoteCache<TransactionKey<K>, Xid> writeCache = this.writeCache;
+				LocalLockQueue<K, Lease> queue = this.queue;
 				TransactionKey<K> currentTxKey = new TransactionKey<>(key);
 				Xid currentTxId = (suspendedTx instanceof IdentifiedTransaction identified) ? identified.getId() : ((TransactionImpl) suspendedTx).getXid();
-				long maxTxDurationMillis = this.maxTxDuration.toMillis();
-				Instant timeout = Instant.now().plus(this.maxTxDuration);
+				Duration maxTxDuration = this.maxTxDuration;
+				Duration minHandOffDuration = this.minHandOffDuration;
+				long maxTxDurationMillis = maxTxDuration.toMillis();
+				Instant timeout = Instant.now().plus(maxTxDuration);
 				AtomicInteger retries = new AtomicInteger(0);
-				return new SynchronizationFactory() {
+				String cacheName = cache.getName();
+				ReadForUpdateLockEvent event = new ReadForUpdateLockEvent();
+				event.begin();
+				// Only a single local transaction per key contends for the remote lock
+				LocalLockQueue.Waiter<Lease> waiter = queue.enqueue(key, currentTxId);
+				if (waiter == null) {
+					// Current transaction already holds, or is acquiring, the lock for this key
+					// Wait for any in-flight acquisition, and retry if it was unsuccessful or if the current transaction is no longer queued
+					return queue.acquisition(key, currentTxId).thenCompose(locked -> {
+						if (!locked) {
+							return this.apply(key, suspendedTx);
+						}
+						LOGGER.log(System.Logger.Level.TRACE, "{0} already locked for read by {1}", key, currentTxId);
+						event.record(cacheName, 0, "reentrant");
+						return CompletableFutures.completedNull();
+					});
+				}
+				Runnable release = () -> queue.release(key, waiter);
+				// The lease of the remote lock held by the current transaction
+				AtomicReference<Lease> lease = new AtomicReference<>();
+				Supplier<CompletableFuture<Xid>> put = () -> {
+					// Server-side expiration of this entry cannot precede its lifespan relative to the time of this request
+					lease.set(new Lease(currentTxId, Instant.now().plus(maxTxDuration), 0));
+					return putCache.putIfAbsentAsync(currentTxKey, currentTxId, maxTxDurationMillis, TimeUnit.MILLISECONDS);
+				};
+				SynchronizationFactory factory = new SynchronizationFactory() {
 					@Override
 					public CompletableFuture<Synchronization> apply(Xid txId) {
 						if (txId == null) {
@@ -127,30 +174,41 @@ public class ReadForUpdateRemoteCache<K, V> extends RemoteCacheDecorator<K, V> {
 							} else {
 								LOGGER.log(System.Logger.Level.TRACE, "Locked {0} for read by {1} after {2} retries", key, currentTxId, retries);
 							}
+							event.record(cacheName, retries.get(), "locked");
 							return CompletableFuture.completedFuture(this);
 						}
 						if (txId != INITIAL_TX_ID) {
 							if (currentTxId.equals(txId)) {
 								LOGGER.log(System.Logger.Level.TRACE, "{0} already locked for read by {1}", key, currentTxId);
+								event.record(cacheName, retries.get(), "reentrant");
 								return CompletableFutures.completedNull();
 							}
-							if (retries.incrementAndGet() > maxRetries) {
+							int retry = retries.incrementAndGet();
+							if (retry > maxRetries) {
 								LOGGER.log(System.Logger.Level.TRACE, "Failed to lock {0} for read by {1} after {2} retries", key, currentTxId, maxRetries);
+								event.record(cacheName, maxRetries, "unsuccessful");
 								return CompletableFuture.completedFuture(UNSUCCESSFUL);
 							}
-							if (Instant.now().isAfter(timeout)) {
+							long delay = backOff(retry);
+							// Fail now if the next attempt would not occur before the timeout
+							if (Instant.now().plusNanos(delay).isAfter(timeout)) {
 								LOGGER.log(System.Logger.Level.DEBUG, "Failed to lock {0} for read by {1} after {2} ms", key, currentTxId, maxTxDurationMillis);
+								event.record(cacheName, retries.get(), "timeout");
 								return CompletableFuture.failedFuture(new TimeoutException());
 							}
 							if (Thread.currentThread().isInterrupted()) {
+								event.record(cacheName, retries.get(), "interrupted");
 								return CompletableFuture.failedFuture(new InterruptedException());
 							}
-							Thread.yield();
+							if (delay > 0) {
+								LOGGER.log(System.Logger.Level.TRACE, "Retrying lock of {0} for read by {1} in {2} ns", key, currentTxId, delay);
+								return CompletableFuture.supplyAsync(put, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)).thenCompose(UnaryOperator.identity()).thenCompose(this);
+							}
 						} else {
 							LOGGER.log(System.Logger.Level.TRACE, "Locking {0} for read by {1}", key, currentTxId);
 						}
 						// Create mortal tx entry for key, if possible
-						return putCache.putIfAbsentAsync(currentTxKey, currentTxId, maxTxDurationMillis, TimeUnit.MILLISECONDS).thenCompose(this);
+						return put.get().thenCompose(this);
 					}
 
 					@Override
@@ -160,13 +218,60 @@ public class ReadForUpdateRemoteCache<K, V> extends RemoteCacheDecorator<K, V> {
 
 					@Override
 					public void afterCompletion(int status) {
-						// Remove TX entry (outside of TX scope) without blocking
+						Lease currentLease = lease.get();
+						// Lock was already handed off
+						if (currentLease == null) return;
+						// Hand off or remove TX entry (outside of TX scope) without blocking
 						try (Context<Transaction> context = contextFactory.suspendWithContext()) {
+							// Retain remote lock if another local transaction is waiting for it, unless it was already handed off too many times in succession
+							if ((currentLease.handOffs() < MAX_HAND_OFFS) && Instant.now().plus(minHandOffDuration).isBefore(currentLease.expiration()) && queue.handOff(key, waiter, currentLease)) {
+								LOGGER.log(System.Logger.Level.TRACE, "Handed off lock of {0} for read by {1} to next local transaction", key, currentTxId);
+								lease.set(null);
+								return;
+							}
 							LOGGER.log(System.Logger.Level.TRACE, "Unlocking {0} for read by {1}", key, currentTxId);
-							removeCache.removeAsync(currentTxKey, currentTxId);
+							// Wake next local waiter, if any, once entry is removed
+							writeCache.removeAsync(currentTxKey, currentLease.id()).whenComplete((removed, exception) -> release.run());
+						}
+					}
+				};
+				// N.B. A turn completed by a timeout can no longer be completed by a hand off
+				CompletableFuture<Lease> turn = waiter.getTurn().orTimeout(maxTxDurationMillis, TimeUnit.MILLISECONDS);
+				if (!turn.isDone()) {
+					LOGGER.log(System.Logger.Level.TRACE, "{0} waiting to lock {1} for read behind another local transaction", currentTxId, key);
+				}
+				return turn.whenComplete((ignore, exception) -> {
+					if (exception != null) {
+						LOGGER.log(System.Logger.Level.DEBUG, "Failed to lock {0} for read by {1} after {2} ms", key, currentTxId, maxTxDurationMillis);
+						event.record(cacheName, retries.get(), "timeout");
+					}
+				}).thenCompose(inheritedLease -> {
+					if (inheritedLease == null) {
+						return factory.apply(INITIAL_TX_ID);
+					}
+					// Preceding local transaction handed off its remote lock, so no need to contend for it
+					LOGGER.log(System.Logger.Level.TRACE, "Locked {0} for read by {1} via hand off", key, currentTxId);
+					event.record(cacheName, 0, "handed-off");
+					// Extend lifespan of inherited TX entry, without waiting for the response
+					lease.set(new Lease(inheritedLease.id(), Instant.now().plus(maxTxDuration), inheritedLease.handOffs() + 1));
+					writeCache.putAsync(currentTxKey, inheritedLease.id(), maxTxDurationMillis, TimeUnit.MILLISECONDS).whenComplete((previous, exception) -> {
+						if (exception != null) {
+							LOGGER.log(System.Logger.Level.WARNING, exception.getLocalizedMessage(), exception);
 						}
+					});
+					return CompletableFuture.<Synchronization>completedFuture(factory);
+				}).whenComplete((synchronization, exception) -> {
+					// Release our local position unless we hold the remote lock, which is released on transaction completion
+					if ((exception != null) || (synchronization == null) || (synchronization == UNSUCCESSFUL)) {
+						release.run();
+					}
+					// Notify any reentrant reads waiting for this acquisition
+					if (exception != null) {
+						waiter.getAcquisition().completeExceptionally(exception);
+					} else {
+						waiter.getAcquisition().complete(synchronization != UNSUCCESSFUL);
 					}
-				}.apply(INITIAL_TX_ID);
+				});
 			}
 		});
 	}
@@ -183,6 +288,19 @@ public class ReadForUpdateRemoteCache<K, V> extends RemoteCacheDecorator<K, V> {
 		this.syncFactory = syncFactory;
 	}
 
+	/**
+	 * Returns the delay, in nanoseconds, preceding the specified retry of a lock attempt.
+	 * The first retry is immediate, subsequent retries use exponential back-off with full jitter.
+	 * @param retry the retry number
+	 * @return a delay in nanoseconds
+	 */
+	static long backOff(int retry) {
+		if (retry <= 1) return 0L;
+		// Limit shift distance to avoid overflow
+		long ceiling = Long.min(INITIAL_BACK_OFF << Integer.min(retry - 2, MAX_BACK_OFF_SHIFT), MAX_BACK_OFF);
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
 	@Override
 	public CompletableFuture<V> getAsync(K key) {
 		return this.readForUpdateAsync(RemoteCache::getAsync, key);
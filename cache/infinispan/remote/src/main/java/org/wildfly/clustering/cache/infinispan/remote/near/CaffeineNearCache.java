@@ -6,6 +6,7 @@ package org.wildfly.clustering.cache.infinispan.remote.near;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.github.benmanes.caffeine.cache.Cache;
 
@@ -18,9 +19,13 @@ import org.infinispan.client.hotrod.near.NearCache;
  * @param <V> cache value type
  * @author Paul Ferraro
  */
-public class CaffeineNearCache<K, V> implements NearCache<K, V> {
+public class CaffeineNearCache<K, V> implements NearCache<K, V>, NearCacheStatistics {
 
 	private final Map<K, MetadataValue<V>> map;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
 
 	/**
 	 * Creates a near cache backed by a Caffeine cache.
@@ -37,12 +42,12 @@ public class CaffeineNearCache<K, V> implements NearCache<K, V> {
 
 	@Override
 	public boolean remove(K key) {
-		return this.map.remove(key) != null;
+		return this.recordInvalidation(this.map.remove(key) != null);
 	}
 
 	@Override
 	public boolean remove(K key, MetadataValue<V> value) {
-		return this.map.remove(key, value);
+		return this.recordInvalidation(this.map.remove(key, value));
 	}
 
 	@Override
@@ -52,7 +57,9 @@ public class CaffeineNearCache<K, V> implements NearCache<K, V> {
 
 	@Override
 	public MetadataValue<V> get(K key) {
-		return this.map.get(key);
+		MetadataValue<V> value = this.map.get(key);
+		((value != null) ? this.hits : this.misses).increment();
+		return value;
 	}
 
 	@Override
@@ -65,8 +72,48 @@ public class CaffeineNearCache<K, V> implements NearCache<K, V> {
 		return this.map.size();
 	}
 
+	@Override
+	public long getSize() {
+		return this.map.size();
+	}
+
+	@Override
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	@Override
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	@Override
+	public long getEvictions() {
+		return this.evictions.sum();
+	}
+
+	@Override
+	public long getInvalidations() {
+		return this.invalidations.sum();
+	}
+
+	/**
+	 * Records the eviction of an entry from the Caffeine cache backing this near cache.
+	 * Intended to be invoked by the eviction listener of that cache.
+	 */
+	public void recordEviction() {
+		this.evictions.increment();
+	}
+
 	@Override
 	public Iterator<Map.Entry<K, MetadataValue<V>>> iterator() {
 		return this.map.entrySet().iterator();
 	}
+
+	private boolean recordInvalidation(boolean removed) {
+		if (removed) {
+			this.invalidations.increment();
+		}
+		return removed;
+	}
 }
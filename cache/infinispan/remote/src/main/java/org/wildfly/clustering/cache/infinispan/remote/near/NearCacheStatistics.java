@@ -0,0 +1,52 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.clustering.cache.infinispan.remote.near;
+
+/**
+ * Exposes the statistics of a near cache.
+ * @author Paul Ferraro
+ */
+public interface NearCacheStatistics {
+
+	/**
+	 * Returns the number of reads satisfied by this near cache.
+	 * @return the number of near cache hits
+	 */
+	long getHits();
+
+	/**
+	 * Returns the number of reads not satisfied by this near cache, i.e. that required a remote read.
+	 * @return the number of near cache misses
+	 */
+	long getMisses();
+
+	/**
+	 * Returns the number of entries evicted from this near cache, due to size or idle thresholds.
+	 * @return the number of near cache evictions
+	 */
+	long getEvictions();
+
+	/**
+	 * Returns the number of entries removed from this near cache, due to a local or remote modification.
+	 * @return the number of near cache invalidations
+	 */
+	long getInvalidations();
+
+	/**
+	 * Returns the number of entries in this near cache.
+	 * @return the number of near cache entries
+	 */
+	long getSize();
+
+	/**
+	 * Returns the ratio of near cache hits to total reads, or 0 if this near cache was never read.
+	 * @return a ratio between 0 and 1, inclusive.
+	 */
+	default double getHitRatio() {
+		long hits = this.getHits();
+		long reads = hits + this.getMisses();
+		return (reads > 0) ? (double) hits / reads : 0d;
+	}
+}
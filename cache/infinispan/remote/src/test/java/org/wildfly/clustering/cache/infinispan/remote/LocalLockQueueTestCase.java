@@ -0,0 +1,119 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.cache.infinispan.remote;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link LocalLockQueue}.
+ * @author Paul Ferraro
+ */
+public class LocalLockQueueTestCase {
+
+	@Test
+	public void test() {
+		LocalLockQueue<UUID, String> queue = new LocalLockQueue<>();
+		UUID key = UUID.randomUUID();
+		UUID otherKey = UUID.randomUUID();
+
+		LocalLockQueue.Waiter<String> waiter1 = queue.enqueue(key, "tx1");
+		assertThat(waiter1).isNotNull();
+		assertThat(waiter1.getTurn()).isCompleted();
+
+		// Same owner is already queued
+		assertThat(queue.enqueue(key, "tx1")).isNull();
+
+		LocalLockQueue.Waiter<String> waiter2 = queue.enqueue(key, "tx2");
+		LocalLockQueue.Waiter<String> waiter3 = queue.enqueue(key, "tx3");
+		assertThat(waiter2.getTurn()).isNotCompleted();
+		assertThat(waiter3.getTurn()).isNotCompleted();
+
+		// Other keys are independent
+		LocalLockQueue.Waiter<String> otherWaiter = queue.enqueue(otherKey, "tx2");
+		assertThat(otherWaiter.getTurn()).isCompleted();
+
+		// Release of a non-head waiter does not advance the queue
+		queue.release(key, waiter2);
+		assertThat(waiter3.getTurn()).isNotCompleted();
+
+		queue.release(key, waiter1);
+		assertThat(waiter3.getTurn()).isCompleted();
+
+		// Release is idempotent
+		queue.release(key, waiter1);
+
+		LocalLockQueue.Waiter<String> waiter4 = queue.enqueue(key, "tx4");
+		assertThat(waiter4.getTurn()).isNotCompleted();
+
+		queue.release(key, waiter3);
+		assertThat(waiter4.getTurn()).isCompleted();
+
+		queue.release(key, waiter4);
+		queue.release(otherKey, otherWaiter);
+
+		// Queue is empty, so next waiter proceeds immediately
+		assertThat(queue.enqueue(key, "tx1").getTurn()).isCompleted();
+	}
+
+	@Test
+	public void handOff() {
+		LocalLockQueue<UUID, String> queue = new LocalLockQueue<>();
+		UUID key = UUID.randomUUID();
+
+		LocalLockQueue.Waiter<String> waiter1 = queue.enqueue(key, "tx1");
+		assertThat(waiter1.getTurn()).isCompletedWithValue(null);
+
+		// Nothing to hand off to
+		assertThat(queue.handOff(key, waiter1, "lease")).isFalse();
+
+		LocalLockQueue.Waiter<String> waiter2 = queue.enqueue(key, "tx2");
+		LocalLockQueue.Waiter<String> waiter3 = queue.enqueue(key, "tx3");
+
+		// Only the head of the queue can hand off
+		assertThat(queue.handOff(key, waiter2, "lease")).isFalse();
+		assertThat(waiter3.getTurn()).isNotCompleted();
+
+		assertThat(queue.handOff(key, waiter1, "lease")).isTrue();
+		assertThat(waiter2.getTurn()).isCompletedWithValue("lease");
+		assertThat(waiter3.getTurn()).isNotCompleted();
+
+		// Successor that already gave up cannot accept a hand off
+		waiter3.getTurn().cancel(false);
+		assertThat(queue.handOff(key, waiter2, "lease")).isFalse();
+		queue.release(key, waiter3);
+
+		assertThat(queue.enqueue(key, "tx4").getTurn()).isCompletedWithValue(null);
+	}
+
+	@Test
+	public void acquisition() {
+		LocalLockQueue<UUID, String> queue = new LocalLockQueue<>();
+		UUID key = UUID.randomUUID();
+
+		// Owner is not queued
+		assertThat(queue.acquisition(key, "tx1")).isCompletedWithValue(false);
+
+		LocalLockQueue.Waiter<String> waiter1 = queue.enqueue(key, "tx1");
+		LocalLockQueue.Waiter<String> waiter2 = queue.enqueue(key, "tx2");
+
+		// Acquisition stage of a queued owner completes when its owner completes it
+		assertThat(queue.acquisition(key, "tx1")).isNotCompleted().isSameAs(waiter1.getAcquisition());
+		assertThat(queue.acquisition(key, "tx2")).isNotCompleted().isSameAs(waiter2.getAcquisition());
+
+		waiter1.getAcquisition().complete(true);
+		assertThat(queue.acquisition(key, "tx1")).isCompletedWithValue(true);
+
+		queue.release(key, waiter1);
+		assertThat(queue.acquisition(key, "tx1")).isCompletedWithValue(false);
+
+		queue.release(key, waiter2);
+		assertThat(queue.acquisition(key, "tx2")).isCompletedWithValue(false);
+	}
+}
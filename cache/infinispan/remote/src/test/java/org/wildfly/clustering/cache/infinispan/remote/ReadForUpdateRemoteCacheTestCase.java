@@ -9,12 +9,16 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.AdditionalMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 import javax.transaction.xa.Xid;
@@ -42,6 +46,14 @@ import org.wildfly.clustering.cache.infinispan.remote.transaction.TransactionKey
  */
 public class ReadForUpdateRemoteCacheTestCase {
 
+	@Test
+	public void backOff() {
+		assertThat(ReadForUpdateRemoteCache.backOff(1)).isZero();
+		for (int retry = 2; retry < 100; ++retry) {
+			assertThat(ReadForUpdateRemoteCache.backOff(retry)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(100));
+		}
+	}
+
 	@Test
 	public void getAsync() throws SystemException, InvalidTransactionException {
 		InternalRemoteCache<UUID, String> cache = mock(InternalRemoteCache.class);
@@ -87,6 +99,8 @@ public class ReadForUpdateRemoteCacheTestCase {
 		doReturn(CompletableFuture.completedFuture(null)).when(cache).getAsync(missingKey);
 		doReturn(CompletableFuture.failedFuture(exception)).when(cache).getAsync(exceptionKey);
 
+		doReturn(CompletableFuture.completedFuture(true)).when(txRemoveCache).removeAsync(txKey, txId);
+
 		RemoteCache<UUID, String> subject = new ReadForUpdateRemoteCache<>(container, cache);
 
 		verify(cache, atLeastOnce()).noFlags();
@@ -160,6 +174,198 @@ public class ReadForUpdateRemoteCacheTestCase {
 		}
 	}
 
+	@Test
+	public void getAsyncHandOff() throws SystemException, InvalidTransactionException {
+		InternalRemoteCache<UUID, String> cache = mock(InternalRemoteCache.class);
+		InternalRemoteCache<TransactionKey<UUID>, Xid> txPutCache = mock(InternalRemoteCache.class);
+		InternalRemoteCache<TransactionKey<UUID>, Xid> txWriteCache = mock(InternalRemoteCache.class);
+		RemoteCacheContainer container = mock(RemoteCacheContainer.class);
+		Configuration configuration = mock(Configuration.class);
+		TransactionManager tm = mock(TransactionManager.class);
+		TransactionImpl tx1 = new TransactionImpl() { };
+		XidImpl tx1Id = RemoteXid.create(UUID.randomUUID());
+		tx1.setXid(tx1Id);
+		TransactionImpl tx2 = new TransactionImpl() { };
+		XidImpl tx2Id = RemoteXid.create(UUID.randomUUID());
+		tx2.setXid(tx2Id);
+
+		UUID key = UUID.randomUUID();
+		String value = "foo";
+		TransactionKey<UUID> txKey = new TransactionKey<>(key);
+		long transactionTimeout = 10000L;
+
+		doReturn(container).when(cache).getRemoteCacheContainer();
+		doReturn(tm).when(cache).getTransactionManager();
+		doReturn(configuration).when(container).getConfiguration();
+		doReturn(transactionTimeout).when(configuration).transactionTimeout();
+		doReturn(tx1).when(tm).getTransaction();
+		doReturn(tx1, tx2, tx1).when(tm).suspend();
+		doReturn(cache).when(cache).noFlags();
+		doReturn(txPutCache).when(cache).withFlags(aryEq(new Flag[] { Flag.FORCE_RETURN_VALUE, Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD }));
+		doReturn(txWriteCache).when(cache).withFlags(aryEq(new Flag[] { Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD }));
+
+		doReturn(CompletableFuture.completedFuture(null)).when(txPutCache).putIfAbsentAsync(txKey, tx1Id, transactionTimeout, TimeUnit.MILLISECONDS);
+		doReturn(CompletableFuture.completedFuture(tx1Id)).when(txWriteCache).putAsync(txKey, tx1Id, transactionTimeout, TimeUnit.MILLISECONDS);
+		doReturn(CompletableFuture.completedFuture(true)).when(txWriteCache).removeAsync(txKey, tx1Id);
+		doReturn(CompletableFuture.completedFuture(value)).when(cache).getAsync(key);
+
+		RemoteCache<UUID, String> subject = new ReadForUpdateRemoteCache<>(container, cache);
+
+		assertThat(subject.getAsync(key)).isCompletedWithValue(value);
+		assertThat(tx1.getEnlistedSynchronization()).hasSize(1);
+
+		// Second local transaction waits for first, without contending for remote lock
+		CompletableFuture<String> result = subject.getAsync(key);
+
+		assertThat(result).isNotCompleted();
+		verify(txPutCache, never()).putIfAbsentAsync(txKey, tx2Id, transactionTimeout, TimeUnit.MILLISECONDS);
+
+		// Completion of first transaction hands off remote lock to second transaction
+		tx1.getEnlistedSynchronization().iterator().next().afterCompletion(Status.STATUS_COMMITTED);
+
+		assertThat(result).isCompletedWithValue(value);
+		assertThat(tx2.getEnlistedSynchronization()).hasSize(1);
+
+		verify(txPutCache, never()).putIfAbsentAsync(txKey, tx2Id, transactionTimeout, TimeUnit.MILLISECONDS);
+		verify(txWriteCache, never()).removeAsync(any(), any());
+		// Lifespan of inherited lock is extended
+		verify(txWriteCache).putAsync(txKey, tx1Id, transactionTimeout, TimeUnit.MILLISECONDS);
+
+		// Completion of last local transaction removes remote lock
+		tx2.getEnlistedSynchronization().iterator().next().afterCompletion(Status.STATUS_COMMITTED);
+
+		verify(txWriteCache).removeAsync(txKey, tx1Id);
+	}
+
+	@Test
+	public void getAsyncReentrant() throws SystemException, InvalidTransactionException {
+		InternalRemoteCache<UUID, String> cache = mock(InternalRemoteCache.class);
+		InternalRemoteCache<TransactionKey<UUID>, Xid> txPutCache = mock(InternalRemoteCache.class);
+		InternalRemoteCache<TransactionKey<UUID>, Xid> txRemoveCache = mock(InternalRemoteCache.class);
+		RemoteCacheContainer container = mock(RemoteCacheContainer.class);
+		Configuration configuration = mock(Configuration.class);
+		TransactionManager tm = mock(TransactionManager.class);
+		TransactionImpl tx = new TransactionImpl() { };
+		XidImpl txId = RemoteXid.create(UUID.randomUUID());
+		tx.setXid(txId);
+
+		UUID key = UUID.randomUUID();
+		String value = "foo";
+		TransactionKey<UUID> txKey = new TransactionKey<>(key);
+		long transactionTimeout = 1000L;
+
+		doReturn(container).when(cache).getRemoteCacheContainer();
+		doReturn(tm).when(cache).getTransactionManager();
+		doReturn(configuration).when(container).getConfiguration();
+		doReturn(transactionTimeout).when(configuration).transactionTimeout();
+		doReturn(tx).when(tm).getTransaction();
+		doReturn(tx).when(tm).suspend();
+		doReturn(cache).when(cache).noFlags();
+		doReturn(txPutCache).when(cache).withFlags(aryEq(new Flag[] { Flag.FORCE_RETURN_VALUE, Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD }));
+		doReturn(txRemoveCache).when(cache).withFlags(aryEq(new Flag[] { Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD }));
+
+		CompletableFuture<Xid> future = new CompletableFuture<>();
+
+		doReturn(future).when(txPutCache).putIfAbsentAsync(txKey, txId, transactionTimeout, TimeUnit.MILLISECONDS);
+		doReturn(CompletableFuture.completedFuture(value)).when(cache).getAsync(key);
+		doReturn(CompletableFuture.completedFuture(true)).when(txRemoveCache).removeAsync(txKey, txId);
+
+		RemoteCache<UUID, String> subject = new ReadForUpdateRemoteCache<>(container, cache);
+
+		CompletableFuture<String> result = subject.getAsync(key);
+		// Reentrant read while lock acquisition is still in flight
+		CompletableFuture<String> reentrantResult = subject.getAsync(key);
+
+		assertThat(result).isNotCompleted();
+		// Reentrant read must not proceed without the lock
+		assertThat(reentrantResult).isNotCompleted();
+		verify(txPutCache).putIfAbsentAsync(txKey, txId, transactionTimeout, TimeUnit.MILLISECONDS);
+		verify(cache, never()).getAsync(key);
+
+		future.complete(null);
+
+		assertThat(result).isCompletedWithValue(value);
+		assertThat(reentrantResult).isCompletedWithValue(value);
+		// Only the first read registers a synchronization
+		assertThat(tx.getEnlistedSynchronization()).hasSize(1);
+		verify(txPutCache).putIfAbsentAsync(txKey, txId, transactionTimeout, TimeUnit.MILLISECONDS);
+
+		// Subsequent reentrant read proceeds immediately
+		assertThat(subject.getAsync(key)).isCompletedWithValue(value);
+		assertThat(tx.getEnlistedSynchronization()).hasSize(1);
+
+		tx.getEnlistedSynchronization().iterator().next().afterCompletion(Status.STATUS_COMMITTED);
+
+		verify(txRemoveCache).removeAsync(txKey, txId);
+	}
+
+	@Test
+	public void getAsyncHandOffLimit() throws SystemException, InvalidTransactionException {
+		InternalRemoteCache<UUID, String> cache = mock(InternalRemoteCache.class);
+		InternalRemoteCache<TransactionKey<UUID>, Xid> txPutCache = mock(InternalRemoteCache.class);
+		InternalRemoteCache<TransactionKey<UUID>, Xid> txWriteCache = mock(InternalRemoteCache.class);
+		RemoteCacheContainer container = mock(RemoteCacheContainer.class);
+		Configuration configuration = mock(Configuration.class);
+		TransactionManager tm = mock(TransactionManager.class);
+		List<TransactionImpl> txs = new ArrayList<>(ReadForUpdateRemoteCache.MAX_HAND_OFFS + 2);
+		for (int i = 0; i < ReadForUpdateRemoteCache.MAX_HAND_OFFS + 2; ++i) {
+			TransactionImpl tx = new TransactionImpl() { };
+			tx.setXid(RemoteXid.create(UUID.randomUUID()));
+			txs.add(tx);
+		}
+		AtomicReference<TransactionImpl> currentTx = new AtomicReference<>();
+		Xid firstTxId = txs.get(0).getXid();
+
+		UUID key = UUID.randomUUID();
+		String value = "foo";
+		TransactionKey<UUID> txKey = new TransactionKey<>(key);
+		long transactionTimeout = 10000L;
+
+		doReturn(container).when(cache).getRemoteCacheContainer();
+		doReturn(tm).when(cache).getTransactionManager();
+		doReturn(configuration).when(container).getConfiguration();
+		doReturn(transactionTimeout).when(configuration).transactionTimeout();
+		doAnswer(invocation -> currentTx.get()).when(tm).getTransaction();
+		doAnswer(invocation -> currentTx.get()).when(tm).suspend();
+		doReturn(cache).when(cache).noFlags();
+		doReturn(txPutCache).when(cache).withFlags(aryEq(new Flag[] { Flag.FORCE_RETURN_VALUE, Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD }));
+		doReturn(txWriteCache).when(cache).withFlags(aryEq(new Flag[] { Flag.SKIP_LISTENER_NOTIFICATION, Flag.SKIP_CACHE_LOAD }));
+
+		doReturn(CompletableFuture.completedFuture(null)).when(txPutCache).putIfAbsentAsync(eq(txKey), any(), eq(transactionTimeout), eq(TimeUnit.MILLISECONDS));
+		doReturn(CompletableFuture.completedFuture(firstTxId)).when(txWriteCache).putAsync(txKey, firstTxId, transactionTimeout, TimeUnit.MILLISECONDS);
+		doReturn(CompletableFuture.completedFuture(true)).when(txWriteCache).removeAsync(eq(txKey), any());
+		doReturn(CompletableFuture.completedFuture(value)).when(cache).getAsync(key);
+
+		RemoteCache<UUID, String> subject = new ReadForUpdateRemoteCache<>(container, cache);
+
+		List<CompletableFuture<String>> results = new ArrayList<>(txs.size());
+		for (TransactionImpl tx : txs) {
+			currentTx.set(tx);
+			results.add(subject.getAsync(key));
+		}
+		assertThat(results.get(0)).isCompletedWithValue(value);
+		for (CompletableFuture<String> result : results.subList(1, results.size())) {
+			assertThat(result).isNotCompleted();
+		}
+
+		// Remote lock is handed off locally, up to a limit
+		for (int i = 0; i < ReadForUpdateRemoteCache.MAX_HAND_OFFS; ++i) {
+			txs.get(i).getEnlistedSynchronization().iterator().next().afterCompletion(Status.STATUS_COMMITTED);
+			assertThat(results.get(i + 1)).isCompletedWithValue(value);
+			assertThat(results.get(i + 2)).isNotCompleted();
+		}
+		verify(txWriteCache, times(ReadForUpdateRemoteCache.MAX_HAND_OFFS)).putAsync(txKey, firstTxId, transactionTimeout, TimeUnit.MILLISECONDS);
+		verify(txWriteCache, never()).removeAsync(any(), any());
+
+		// Once the limit is reached, the remote lock is released, and the next local transaction must contend for it
+		txs.get(ReadForUpdateRemoteCache.MAX_HAND_OFFS).getEnlistedSynchronization().iterator().next().afterCompletion(Status.STATUS_COMMITTED);
+
+		verify(txWriteCache).removeAsync(txKey, firstTxId);
+		Xid lastTxId = txs.get(ReadForUpdateRemoteCache.MAX_HAND_OFFS + 1).getXid();
+		verify(txPutCache).putIfAbsentAsync(txKey, lastTxId, transactionTimeout, TimeUnit.MILLISECONDS);
+		assertThat(results.get(ReadForUpdateRemoteCache.MAX_HAND_OFFS + 1)).isCompletedWithValue(value);
+	}
+
 	@Test
 	public void getAsyncTimeout() throws SystemException, InvalidTransactionException, InterruptedException {
 		InternalRemoteCache<UUID, String> cache = mock(InternalRemoteCache.class);
@@ -220,9 +426,8 @@ public class ReadForUpdateRemoteCacheTestCase {
 		assertThat(result).isNotCompleted();
 		assertThat(tx.getEnlistedSynchronization()).isEmpty();
 
-		TimeUnit.MILLISECONDS.sleep(50L);
-
-		assertThat(result).isCompletedExceptionally();
+		// Retries are scheduled with back-off, so wait for the lock attempt to time out
+		assertThat(result).failsWithin(Duration.ofSeconds(1));
 		assertThat(tx.getEnlistedSynchronization()).isEmpty();
 
 		order.verify(txPutCache, atLeastOnce()).putIfAbsentAsync(txKey, txId, transactionTimeout, TimeUnit.MILLISECONDS);
@@ -264,6 +469,8 @@ public class ReadForUpdateRemoteCacheTestCase {
 		doReturn(future1, future2, CompletableFuture.completedFuture(txId)).when(txPutCache).putIfAbsentAsync(txKey, txId, transactionTimeout, TimeUnit.MILLISECONDS);
 		doReturn(CompletableFuture.completedFuture(value)).when(cache).getAsync(key);
 
+		doReturn(CompletableFuture.completedFuture(true)).when(txRemoveCache).removeAsync(txKey, txId);
+
 		RemoteCache<UUID, String> subject = new ReadForUpdateRemoteCache<>(container, cache, 0);
 
 		verify(cache, atLeastOnce()).noFlags();
@@ -369,6 +576,8 @@ public class ReadForUpdateRemoteCacheTestCase {
 		doReturn(CompletableFuture.completedFuture(value)).when(cache).getAllAsync(Set.of(key));
 		doReturn(CompletableFuture.failedFuture(exception)).when(cache).getAllAsync(Set.of(key, exceptionKey));
 
+		doReturn(CompletableFuture.completedFuture(true)).when(txRemoveCache).removeAsync(txKey, txId);
+
 		RemoteCache<UUID, String> subject = new ReadForUpdateRemoteCache<>(container, cache);
 
 		verify(cache, atLeastOnce()).noFlags();
@@ -491,9 +700,8 @@ public class ReadForUpdateRemoteCacheTestCase {
 		assertThat(result).isNotCompleted();
 		assertThat(tx.getEnlistedSynchronization()).isEmpty();
 
-		TimeUnit.MILLISECONDS.sleep(50L);
-
-		assertThat(result).isCompletedExceptionally();
+		// Retries are scheduled with back-off, so wait for the lock attempt to time out
+		assertThat(result).failsWithin(Duration.ofSeconds(1));
 		assertThat(tx.getEnlistedSynchronization()).isEmpty();
 
 		order.verify(txPutCache, atLeastOnce()).putIfAbsentAsync(txKey, txId, transactionTimeout, TimeUnit.MILLISECONDS);
@@ -0,0 +1,51 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.clustering.cache.infinispan.remote.near;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link CaffeineNearCache}.
+ * @author Paul Ferraro
+ */
+public class CaffeineNearCacheTestCase {
+
+	@Test
+	public void statistics() {
+		CaffeineNearCache<String, String> nearCache = new CaffeineNearCache<>(Caffeine.newBuilder().build());
+		MetadataValue<String> value = mock(MetadataValue.class);
+		MetadataValue<String> otherValue = mock(MetadataValue.class);
+
+		assertThat(nearCache.getHitRatio()).isZero();
+
+		assertThat(nearCache.get("foo")).isNull();
+		assertThat(nearCache.putIfAbsent("foo", value)).isTrue();
+		assertThat(nearCache.get("foo")).isSameAs(value);
+		assertThat(nearCache.get("foo")).isSameAs(value);
+
+		assertThat(nearCache.getHits()).isEqualTo(2);
+		assertThat(nearCache.getMisses()).isOne();
+		assertThat(nearCache.getHitRatio()).isEqualTo(2d / 3);
+		assertThat(nearCache.getSize()).isOne();
+
+		// Only removal of an existing entry counts as an invalidation
+		assertThat(nearCache.remove("bar")).isFalse();
+		assertThat(nearCache.remove("foo", otherValue)).isFalse();
+		assertThat(nearCache.getInvalidations()).isZero();
+
+		assertThat(nearCache.remove("foo")).isTrue();
+		assertThat(nearCache.getInvalidations()).isOne();
+		assertThat(nearCache.getSize()).isZero();
+
+		nearCache.recordEviction();
+		assertThat(nearCache.getEvictions()).isOne();
+	}
+}
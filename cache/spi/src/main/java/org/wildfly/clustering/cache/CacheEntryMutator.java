@@ -61,6 +61,20 @@ public interface CacheEntryMutator extends Runner {
 	 */
 	CacheEntryMutator withMaxIdle(Supplier<Duration> maxIdle);
 
+	/**
+	 * Runs the specified task, asynchronously if it is a cache entry mutator.
+	 * Allows the caller to issue several mutations concurrently, rather than sequentially.
+	 * @param task a task, typically a cache entry mutator
+	 * @return a stage that completes when the specified task completes.
+	 */
+	static CompletionStage<Void> mutateAsync(Runnable task) {
+		if (task instanceof CacheEntryMutator mutator) {
+			return mutator.runAsync();
+		}
+		task.run();
+		return CompletableFuture.completedStage(null);
+	}
+
 	/**
 	 * Returns a composite mutator that runs the specified mutators.
 	 * @param mutators a number of mutators
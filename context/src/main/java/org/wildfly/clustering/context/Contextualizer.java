@@ -4,6 +4,8 @@
  */
 package org.wildfly.clustering.context;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -199,10 +201,30 @@ public interface Contextualizer {
 
 	/**
 	 * Creates a composite contextualizer from multiple contextualizers.
+	 * Pass-through contextualizers are omitted, such that a composite of pass-through contextualizers is itself a pass-through contextualizer.
 	 * @param contextualizers a list of contextualizers.
 	 * @return a composite contextualizer
 	 */
 	static Contextualizer composite(Iterable<Contextualizer> contextualizers) {
+		List<Contextualizer> effectiveContextualizers = new ArrayList<>();
+		for (Contextualizer contextualizer : contextualizers) {
+			if (contextualizer != NONE) {
+				effectiveContextualizers.add(contextualizer);
+			}
+		}
+		return switch (effectiveContextualizers.size()) {
+			case 0 -> NONE;
+			case 1 -> effectiveContextualizers.get(0);
+			default -> compose(effectiveContextualizers);
+		};
+	}
+
+	/**
+	 * Creates a composite contextualizer from multiple contextualizers.
+	 * @param contextualizers a list of contextualizers.
+	 * @return a composite contextualizer
+	 */
+	private static Contextualizer compose(List<Contextualizer> contextualizers) {
 		return new Contextualizer() {
 			@Override
 			public Runnable contextualize(Runnable runner) {
@@ -23,7 +23,7 @@ public enum DefaultContextualizerFactory implements ContextualizerFactory {
 		this.factories.add(new ContextualizerFactory() {
 			@Override
 			public Contextualizer createContextualizer(ClassLoader loader) {
-				return Contextualizer.withContextProvider(ThreadContextClassLoaderReference.CURRENT.provide(loader));
+				return (loader != null) ? Contextualizer.withContextProvider(ThreadContextClassLoaderReference.CURRENT.provide(loader)) : Contextualizer.NONE;
 			}
 		});
 		ServiceLoader.load(ContextualizerFactory.class, ContextualizerFactory.class.getClassLoader()).forEach(DefaultContextualizerFactory.this.factories::add);
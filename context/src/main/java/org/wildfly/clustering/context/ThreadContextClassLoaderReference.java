@@ -12,7 +12,22 @@ import java.util.function.Supplier;
  */
 public class ThreadContextClassLoaderReference extends ThreadContextReference<ClassLoader> {
 	/** A context reference for the class loader of the current thread */
-	public static final ContextReference<ClassLoader> CURRENT = new ThreadContextClassLoaderReference(Thread::currentThread);
+	public static final ContextReference<ClassLoader> CURRENT = new ThreadContextClassLoaderReference(Thread::currentThread) {
+		@Override
+		public ClassLoader get() {
+			return Thread.currentThread().getContextClassLoader();
+		}
+
+		@Override
+		public void accept(ClassLoader loader) {
+			Thread.currentThread().setContextClassLoader(loader);
+		}
+
+		@Override
+		public Supplier<Context<ClassLoader>> provide(ClassLoader target) {
+			return (target != null) ? new CurrentThreadContextClassLoaderProvider(target) : super.provide(target);
+		}
+	};
 
 	/**
 	 * Constructs a context class loader reference for a given thread provider.
@@ -21,4 +36,56 @@ public class ThreadContextClassLoaderReference extends ThreadContextReference<Cl
 	public ThreadContextClassLoaderReference(Supplier<Thread> reference) {
 		super(reference, Thread::getContextClassLoader, Thread::setContextClassLoader);
 	}
+
+	/**
+	 * Provides a context that applies a target context class loader to the current thread.
+	 * The context class loader of the current thread is only switched if it differs from the target.
+	 * Since restoring the previous class loader does not depend on the thread, the restoring context is immutable, and is reused for as long as the previous class loader does not change.
+	 */
+	private static class CurrentThreadContextClassLoaderProvider implements Supplier<Context<ClassLoader>> {
+		private final ClassLoader target;
+		// Retains the most recently created restoring context
+		private volatile RestoringContext context;
+
+		CurrentThreadContextClassLoaderProvider(ClassLoader target) {
+			this.target = target;
+		}
+
+		@Override
+		public Context<ClassLoader> get() {
+			Thread thread = Thread.currentThread();
+			ClassLoader existing = thread.getContextClassLoader();
+			if (existing == this.target) return Context.empty();
+			thread.setContextClassLoader(this.target);
+			RestoringContext context = this.context;
+			if ((context == null) || (context.existing != existing)) {
+				context = new RestoringContext(this.target, existing);
+				this.context = context;
+			}
+			return context;
+		}
+	}
+
+	/**
+	 * A context that restores a previous context class loader to the current thread on close.
+	 */
+	private static class RestoringContext implements Context<ClassLoader> {
+		private final ClassLoader target;
+		private final ClassLoader existing;
+
+		RestoringContext(ClassLoader target, ClassLoader existing) {
+			this.target = target;
+			this.existing = existing;
+		}
+
+		@Override
+		public ClassLoader get() {
+			return this.target;
+		}
+
+		@Override
+		public void close() {
+			Thread.currentThread().setContextClassLoader(this.existing);
+		}
+	}
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.context;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmark comparing context class loader switching via a generic thread context reference vs {@link ThreadContextClassLoaderReference#CURRENT}.
+ * Run via: {@code java -cp <test-classpath> org.openjdk.jmh.Main ContextualizerBenchmark -prof gc}
+ * @author Paul Ferraro
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextualizerBenchmark {
+
+	private final ClassLoader target = new ClassLoader() { };
+	private final Runnable task = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
+	private Supplier<Context<ClassLoader>> genericProvider;
+	private Supplier<Context<ClassLoader>> currentProvider;
+	private Runnable genericContextualTask;
+	private Runnable contextualTask;
+
+	@Setup
+	public void setup() {
+		this.genericProvider = new ThreadContextClassLoaderReference(Thread::currentThread).provide(this.target);
+		this.currentProvider = ThreadContextClassLoaderReference.CURRENT.provide(this.target);
+		this.genericContextualTask = Contextualizer.withContextProvider(new ThreadContextClassLoaderReference(Thread::currentThread).provide(this.target)).contextualize(this.task);
+		this.contextualTask = DefaultContextualizerFactory.INSTANCE.createContextualizer(this.target).contextualize(this.task);
+		// Ensure target is not already the context class loader
+		Thread.currentThread().setContextClassLoader(ContextualizerBenchmark.class.getClassLoader());
+	}
+
+	@Benchmark
+	public void genericSwitch(Blackhole blackhole) {
+		try (Context<ClassLoader> context = this.genericProvider.get()) {
+			blackhole.consume(context.get());
+		}
+	}
+
+	@Benchmark
+	public void currentSwitch(Blackhole blackhole) {
+		try (Context<ClassLoader> context = this.currentProvider.get()) {
+			blackhole.consume(context.get());
+		}
+	}
+
+	@Benchmark
+	public void genericNestedSwitch(Blackhole blackhole) {
+		try (Context<ClassLoader> context = this.genericProvider.get()) {
+			try (Context<ClassLoader> nestedContext = this.genericProvider.get()) {
+				blackhole.consume(nestedContext.get());
+			}
+		}
+	}
+
+	@Benchmark
+	public void currentNestedSwitch(Blackhole blackhole) {
+		try (Context<ClassLoader> context = this.currentProvider.get()) {
+			try (Context<ClassLoader> nestedContext = this.currentProvider.get()) {
+				blackhole.consume(nestedContext.get());
+			}
+		}
+	}
+
+	@Benchmark
+	public void genericContextualizer() {
+		this.genericContextualTask.run();
+	}
+
+	@Benchmark
+	public void contextualizer() {
+		this.contextualTask.run();
+	}
+}
@@ -7,6 +7,7 @@ package org.wildfly.clustering.context;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -68,6 +69,47 @@ public class ContextualizerTestCase {
 		assertThat(contextRef.get()).isSameAs(original);
 	}
 
+	@Test
+	public void composite() {
+		Runnable runner = new Runnable() {
+			@Override
+			public void run() {
+			}
+		};
+
+		assertThat(Contextualizer.composite(List.of())).isSameAs(Contextualizer.NONE);
+		assertThat(Contextualizer.composite(List.of(Contextualizer.NONE, Contextualizer.NONE))).isSameAs(Contextualizer.NONE);
+		assertThat(Contextualizer.composite(List.of(Contextualizer.NONE, Contextualizer.NONE)).contextualize(runner)).isSameAs(runner);
+
+		Contextualizer contextualizer = Contextualizer.withContextProvider(new AtomicContextReference<>(new Object()).provide(new Object()));
+		assertThat(Contextualizer.composite(List.of(Contextualizer.NONE, contextualizer))).isSameAs(contextualizer);
+	}
+
+	@Test
+	public void threadContextClassLoader() {
+		ClassLoader original = Thread.currentThread().getContextClassLoader();
+		ClassLoader target = new ClassLoader() { };
+		Supplier<Context<ClassLoader>> provider = ThreadContextClassLoaderReference.CURRENT.provide(target);
+		try (Context<ClassLoader> context = provider.get()) {
+			assertThat(Thread.currentThread().getContextClassLoader()).isSameAs(target);
+			// Nested context for the same class loader should be a no-op
+			try (Context<ClassLoader> nestedContext = provider.get()) {
+				assertThat(nestedContext).isSameAs(Context.empty());
+				assertThat(Thread.currentThread().getContextClassLoader()).isSameAs(target);
+			}
+			assertThat(Thread.currentThread().getContextClassLoader()).isSameAs(target);
+		}
+		assertThat(Thread.currentThread().getContextClassLoader()).isSameAs(original);
+
+		// Restoring context should be reused
+		Context<ClassLoader> context1 = provider.get();
+		context1.close();
+		Context<ClassLoader> context2 = provider.get();
+		context2.close();
+		assertThat(context2).isSameAs(context1);
+		assertThat(Thread.currentThread().getContextClassLoader()).isSameAs(original);
+	}
+
 	static class AtomicContextReference<T> implements ContextReference<T> {
 		private final AtomicReference<T> ref;
 
@@ -5,32 +5,50 @@
 
 package org.wildfly.clustering.marshalling.jboss;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidClassException;
 import java.io.InvalidObjectException;
 import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.jboss.marshalling.ByteInput;
+import org.jboss.marshalling.ByteOutput;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
 import org.jboss.marshalling.Marshalling;
 import org.jboss.marshalling.MarshallingConfiguration;
-import org.jboss.marshalling.SimpleDataInput;
-import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.wildfly.clustering.marshalling.AbstractByteBufferMarshaller;
 import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
-import org.wildfly.clustering.marshalling.IndexSerializer;
 
 /**
  * A {@link ByteBufferMarshaller} based on JBoss Marshalling.
+ * Marshaller and unmarshaller instances, whose creation requires non-trivial setup, are pooled per marshalling configuration version and reused.
+ * River marshallers and unmarshallers clear their class and instance caches on {@link Marshaller#finish()} and {@link Unmarshaller#finish()}, respectively, so a pooled instance retains no state between uses.
  * @author Paul Ferraro
  */
 public class JBossByteBufferMarshaller extends AbstractByteBufferMarshaller {
+	// Versions of a MarshallingConfigurationRepository start at 1
+	private static final int UNVERSIONED = 0;
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
 
 	private final MarshallerFactory factory = Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader());
 	private final MarshallingConfigurationRepository repository;
 	private final MarshallingConfiguration configuration;
+	private final BlockingQueue<PooledMarshaller> marshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+	private final Map<Integer, BlockingQueue<PooledUnmarshaller>> unmarshallers = new ConcurrentHashMap<>();
+	// Caches whether a class is marshallable via an externalizer or via serialization
+	private final ClassValue<Boolean> marshallable = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> targetClass) {
+			return JBossByteBufferMarshaller.this.isMarshallable(targetClass);
+		}
+	};
 
 	/**
 	 * Creates a versioned marshaller supporting multiple marshalling configurations.
@@ -58,18 +76,28 @@ public class JBossByteBufferMarshaller extends AbstractByteBufferMarshaller {
 
 	@Override
 	public Object readFrom(InputStream input) throws IOException {
-		try (SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(input))) {
-			MarshallingConfiguration configuration = this.configuration;
-			if (this.repository != null) {
-				int version = IndexSerializer.UNSIGNED_BYTE.readInt(data);
-				configuration = this.repository.getMarshallingConfiguration(version);
-			}
-			try (Unmarshaller unmarshaller = this.factory.createUnmarshaller(configuration)) {
-				unmarshaller.start(data);
-				Object result = unmarshaller.readObject();
-				unmarshaller.finish();
-				return result;
+		int version = UNVERSIONED;
+		MarshallingConfiguration configuration = this.configuration;
+		if (this.repository != null) {
+			// Equivalent to IndexSerializer.UNSIGNED_BYTE, without the need for an intermediate DataInput
+			version = input.read();
+			if (version < 0) {
+				throw new EOFException();
 			}
+			configuration = this.repository.getMarshallingConfiguration(version);
+		}
+		BlockingQueue<PooledUnmarshaller> pool = this.unmarshallers.computeIfAbsent(version, key -> new ArrayBlockingQueue<>(POOL_SIZE));
+		PooledUnmarshaller pooled = pool.poll();
+		if (pooled == null) {
+			pooled = new PooledUnmarshaller(this.factory.createUnmarshaller(configuration));
+		}
+		boolean reusable = false;
+		try {
+			Unmarshaller unmarshaller = pooled.start(input);
+			Object result = unmarshaller.readObject();
+			unmarshaller.finish();
+			reusable = true;
+			return result;
 		} catch (ClassNotFoundException e) {
 			InvalidClassException exception = new InvalidClassException(e.getMessage());
 			exception.initCause(e);
@@ -79,19 +107,38 @@ public class JBossByteBufferMarshaller extends AbstractByteBufferMarshaller {
 			InvalidObjectException exception = new InvalidObjectException(e.getMessage());
 			exception.initCause(e);
 			throw exception;
+		} finally {
+			// Detach from input before returning to pool
+			pooled.release();
+			// Only reuse instances that completed normally, otherwise drop them, since their state is indeterminate
+			if (reusable) {
+				pool.offer(pooled);
+			}
 		}
 	}
 
 	@Override
 	public void writeTo(OutputStream output, Object value) throws IOException {
-		try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
-			if (this.repository != null) {
-				IndexSerializer.UNSIGNED_BYTE.writeInt(data, this.repository.getCurrentVersion());
-			}
-			try (Marshaller marshaller = this.factory.createMarshaller(this.configuration)) {
-				marshaller.start(data);
-				marshaller.writeObject(value);
-				marshaller.finish();
+		if (this.repository != null) {
+			// Equivalent to IndexSerializer.UNSIGNED_BYTE, without the need for an intermediate DataOutput
+			output.write(this.repository.getCurrentVersion());
+		}
+		PooledMarshaller pooled = this.marshallers.poll();
+		if (pooled == null) {
+			pooled = new PooledMarshaller(this.factory.createMarshaller(this.configuration));
+		}
+		boolean reusable = false;
+		try {
+			Marshaller marshaller = pooled.start(output);
+			marshaller.writeObject(value);
+			marshaller.finish();
+			reusable = true;
+		} finally {
+			// Detach from output before returning to pool
+			pooled.release();
+			// Only reuse instances that completed normally, otherwise drop them, since their state is indeterminate
+			if (reusable) {
+				this.marshallers.offer(pooled);
 			}
 		}
 	}
@@ -99,18 +146,101 @@ public class JBossByteBufferMarshaller extends AbstractByteBufferMarshaller {
 	@Override
 	public boolean test(Object object) {
 		if (object == null) return true;
-		Class<?> objectClass = object.getClass();
 		try {
+			// Object writers may be specific to a given instance, so are not cached
 			if (this.configuration.getObjectTable().getObjectWriter(object) != null) return true;
-			if (this.configuration.getClassExternalizerFactory().getExternalizer(objectClass) != null) return true;
-			return this.configuration.getSerializabilityChecker().isSerializable(objectClass);
 		} catch (IOException e) {
 			return false;
 		}
+		return this.marshallable.get(object.getClass());
+	}
+
+	private boolean isMarshallable(Class<?> objectClass) {
+		if (this.configuration.getClassExternalizerFactory().getExternalizer(objectClass) != null) return true;
+		return this.configuration.getSerializabilityChecker().isSerializable(objectClass);
 	}
 
 	@Override
 	public String toString() {
 		return "JBossMarshalling";
 	}
+
+	/**
+	 * A reusable marshaller, whose target output stream is reassigned on each use.
+	 */
+	private static class PooledMarshaller extends OutputStream implements ByteOutput {
+		private final Marshaller marshaller;
+		private OutputStream output;
+
+		PooledMarshaller(Marshaller marshaller) {
+			this.marshaller = marshaller;
+		}
+
+		Marshaller start(OutputStream output) throws IOException {
+			this.output = output;
+			this.marshaller.start(this);
+			return this.marshaller;
+		}
+
+		void release() {
+			this.output = null;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.output.write(b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			this.output.write(bytes, offset, length);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.output.flush();
+		}
+	}
+
+	/**
+	 * A reusable unmarshaller, whose source input stream is reassigned on each use.
+	 */
+	private static class PooledUnmarshaller extends InputStream implements ByteInput {
+		private final Unmarshaller unmarshaller;
+		private InputStream input;
+
+		PooledUnmarshaller(Unmarshaller unmarshaller) {
+			this.unmarshaller = unmarshaller;
+		}
+
+		Unmarshaller start(InputStream input) throws IOException {
+			this.input = input;
+			this.unmarshaller.start(this);
+			return this.unmarshaller;
+		}
+
+		void release() {
+			this.input = null;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return this.input.read();
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			return this.input.read(bytes, offset, length);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return this.input.available();
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			return this.input.skip(n);
+		}
+	}
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.jboss;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.marshalling.SimpleClassResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.ByteBufferOutputStream;
+
+/**
+ * Microbenchmark comparing {@link JBossByteBufferMarshaller#write(Object)}, whose buffer is pre-sized via a predicted size, vs a write whose buffer is pre-sized via the exact marshalled size.
+ * Compares both a payload of fixed size, and payloads of the same class whose sizes vary by orders of magnitude.
+ * Run via: {@code java -cp <test-classpath> org.openjdk.jmh.Main JBossByteBufferMarshallerBenchmark -prof gc}
+ * @author Paul Ferraro
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JBossByteBufferMarshallerBenchmark {
+
+	// Variable number of map entries per payload
+	private static final int[] VARIABLE_SIZES = { 1, 200, 5, 50, 2, 1000, 20, 100, 10, 500 };
+
+	private final Map<String, Object> attribute = new HashMap<>();
+	private final List<Map<String, Object>> variableAttributes = new ArrayList<>(VARIABLE_SIZES.length);
+	private ByteBufferMarshaller marshaller;
+	private int index;
+
+	@Setup
+	public void setup() {
+		ClassLoader loader = JBossByteBufferMarshallerBenchmark.class.getClassLoader();
+		this.marshaller = new JBossByteBufferMarshaller(MarshallingConfigurationBuilder.newInstance(new SimpleClassResolver(loader)).load(loader).build(), loader);
+		for (int i = 0; i < 20; ++i) {
+			this.attribute.put(UUID.randomUUID().toString(), Integer.valueOf(i));
+		}
+		for (int size : VARIABLE_SIZES) {
+			Map<String, Object> attribute = new HashMap<>();
+			for (int i = 0; i < size; ++i) {
+				attribute.put(UUID.randomUUID().toString(), Integer.valueOf(i));
+			}
+			this.variableAttributes.add(attribute);
+		}
+	}
+
+	private Map<String, Object> nextVariableAttribute() {
+		Map<String, Object> attribute = this.variableAttributes.get(this.index);
+		this.index = (this.index + 1) % this.variableAttributes.size();
+		return attribute;
+	}
+
+	@Benchmark
+	public ByteBuffer predictedSize() throws IOException {
+		return this.marshaller.write(this.attribute);
+	}
+
+	@Benchmark
+	public ByteBuffer exactSize() throws IOException {
+		return this.writeExact(this.attribute);
+	}
+
+	@Benchmark
+	public ByteBuffer predictedVariableSize() throws IOException {
+		return this.marshaller.write(this.nextVariableAttribute());
+	}
+
+	@Benchmark
+	public ByteBuffer exactVariableSize() throws IOException {
+		return this.writeExact(this.nextVariableAttribute());
+	}
+
+	private ByteBuffer writeExact(Object object) throws IOException {
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream(this.marshaller.size(object))) {
+			this.marshaller.writeTo(output, object);
+			return output.getBuffer();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.jboss;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+
+/**
+ * Validates reuse of pooled marshallers and unmarshallers by {@link JBossByteBufferMarshaller}.
+ * @author Paul Ferraro
+ */
+public class JBossByteBufferMarshallerTestCase {
+	private static final int THREADS = 8;
+	private static final int ITERATIONS = 2000;
+
+	private final ByteBufferMarshaller marshaller = new JBossMarshallingTesterFactory().getMarshaller();
+
+	@Test
+	public void concurrent() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Void>> futures = new ArrayList<>(THREADS);
+			for (int i = 0; i < THREADS; ++i) {
+				futures.add(executor.submit(new Callable<>() {
+					@Override
+					public Void call() throws IOException {
+						ThreadLocalRandom random = ThreadLocalRandom.current();
+						for (int j = 0; j < ITERATIONS; ++j) {
+							Object value = createValue(random);
+							ByteBuffer buffer = JBossByteBufferMarshallerTestCase.this.marshaller.write(value);
+							assertThat(JBossByteBufferMarshallerTestCase.this.marshaller.read(buffer)).isEqualTo(value);
+							// Interleave failed marshalling operations, whose instances must not be reused
+							if (j % 10 == 0) {
+								assertThatExceptionOfType(IOException.class).isThrownBy(() -> JBossByteBufferMarshallerTestCase.this.marshaller.write(List.of(new Object())));
+								ByteBuffer truncated = JBossByteBufferMarshallerTestCase.this.marshaller.write(value);
+								truncated.limit(truncated.limit() / 2);
+								assertThatExceptionOfType(IOException.class).isThrownBy(() -> JBossByteBufferMarshallerTestCase.this.marshaller.read(truncated));
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	static Object createValue(ThreadLocalRandom random) {
+		return switch (random.nextInt(4)) {
+			case 0 -> UUID.randomUUID().toString();
+			case 1 -> Integer.valueOf(random.nextInt());
+			case 2 -> {
+				Map<String, UUID> map = new HashMap<>();
+				for (int i = random.nextInt(20); i > 0; --i) {
+					map.put(Integer.toString(i), UUID.randomUUID());
+				}
+				yield map;
+			}
+			default -> {
+				List<Object> list = new ArrayList<>();
+				for (int i = random.nextInt(20); i > 0; --i) {
+					list.add((i % 2 == 0) ? Long.valueOf(random.nextLong()) : UUID.randomUUID().toString());
+				}
+				yield list;
+			}
+		};
+	}
+}
@@ -92,12 +92,12 @@ enum AnyField implements Field<Object> {
 		}
 	}),
 	BYTE_ARRAY(Scalar.BYTE_ARRAY),
-	SHORT_ARRAY(new PackedArrayMarshaller<>(Short.TYPE, Scalar.SHORT.cast(Short.class))),
-	INTEGER_ARRAY(new PackedArrayMarshaller<>(Integer.TYPE, Scalar.INTEGER.cast(Integer.class))),
-	LONG_ARRAY(new PackedArrayMarshaller<>(Long.TYPE, Scalar.LONG.cast(Long.class))),
-	FLOAT_ARRAY(new PackedArrayMarshaller<>(Float.TYPE, Scalar.FLOAT.cast(Float.class))),
-	DOUBLE_ARRAY(new PackedArrayMarshaller<>(Double.TYPE, Scalar.DOUBLE.cast(Double.class))),
-	CHAR_ARRAY(new PackedArrayMarshaller<>(Character.TYPE, Scalar.CHARACTER.cast(Character.class))),
+	SHORT_ARRAY(PackedArrayMarshaller.SHORT_ARRAY),
+	INTEGER_ARRAY(PackedArrayMarshaller.INTEGER_ARRAY),
+	LONG_ARRAY(PackedArrayMarshaller.LONG_ARRAY),
+	FLOAT_ARRAY(PackedArrayMarshaller.FLOAT_ARRAY),
+	DOUBLE_ARRAY(PackedArrayMarshaller.DOUBLE_ARRAY),
+	CHAR_ARRAY(PackedArrayMarshaller.CHAR_ARRAY),
 	ANY_ARRAY(new TypedArrayMarshaller(ScalarClass.ANY)),
 	PROXY(new FieldMarshaller<>() {
 		private final ScalarMarshaller<InvocationHandler> invocationHandlerMarshaller = Scalar.ANY.cast(InvocationHandler.class);
@@ -139,6 +139,7 @@ enum AnyField implements Field<Object> {
 		}
 	}),
 	LAMBDA(LambdaMarshaller.INSTANCE),
+	RECORD(RecordMarshaller.INSTANCE),
 	;
 	private static final AnyField[] VALUES = AnyField.values();
 	private static final Map<Class<?>, AnyField> FIELDS = new IdentityHashMap<>();
@@ -102,6 +102,10 @@ enum AnyMarshaller implements ProtoStreamMarshaller<Any> {
 			}
 		}
 
+		if (valueClass.isRecord() && !context.canMarshall(valueClass)) {
+			return AnyField.RECORD;
+		}
+
 		BaseMarshaller<?> marshaller = writer.findMarshaller(valueClass);
 		return hasTypeId(context, marshaller) ? AnyField.IDENTIFIED_OBJECT : AnyField.NAMED_OBJECT;
 	}
@@ -99,7 +99,7 @@ class DefaultSerializationContext extends NativeSerializationContext implements
 
 	@Override
 	public void registerMarshaller(ProtoStreamMarshaller<?> marshaller) {
-		this.context.registerMarshaller(marshaller);
+		super.registerMarshaller(marshaller);
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -163,7 +163,7 @@ class DefaultSerializationContext extends NativeSerializationContext implements
 		if (!(provider instanceof SerializationContext.InstanceMarshallerProvider)) {
 			throw new IllegalArgumentException();
 		}
-		this.context.registerMarshallerProvider(provider);
+		super.registerMarshallerProvider(provider);
 	}
 
 	@Override
@@ -171,6 +171,6 @@ class DefaultSerializationContext extends NativeSerializationContext implements
 		if (!(provider instanceof SerializationContext.InstanceMarshallerProvider)) {
 			throw new IllegalArgumentException();
 		}
-		this.context.unregisterMarshallerProvider(provider);
+		super.unregisterMarshallerProvider(provider);
 	}
 }
@@ -64,6 +64,15 @@ public interface ImmutableSerializationContext extends org.infinispan.protostrea
 	 */
 	Stream<Class<?>> stream();
 
+	/**
+	 * Returns the revision of this context, which changes whenever the schemas or marshallers registered with this context change.
+	 * Used to invalidate any state derived from this context.
+	 * @return the revision of this context
+	 */
+	default int getRevision() {
+		return 0;
+	}
+
 	/**
 	 * Returns a reader context for the specified input.
 	 * @param input an input stream
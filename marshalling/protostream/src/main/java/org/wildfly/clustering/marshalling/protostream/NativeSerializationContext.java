@@ -7,6 +7,7 @@ package org.wildfly.clustering.marshalling.protostream;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.protostream.BaseMarshaller;
 import org.infinispan.protostream.BaseMarshallerDelegate;
@@ -27,6 +28,7 @@ import org.infinispan.protostream.descriptors.GenericDescriptor;
 class NativeSerializationContext implements SerializationContext {
 
 	private final SerializationContext context;
+	private final AtomicInteger revision = new AtomicInteger();
 
 	/**
 	 * Constructs a new native serialization context decorator
@@ -36,6 +38,14 @@ class NativeSerializationContext implements SerializationContext {
 		this.context = context;
 	}
 
+	/**
+	 * Returns the revision of this context, incremented whenever a schema, marshaller, or marshaller provider is registered or unregistered.
+	 * @return the revision of this context
+	 */
+	public int getRevision() {
+		return this.revision.get();
+	}
+
 	@Override
 	public Configuration getConfiguration() {
 		return this.context.getConfiguration();
@@ -126,47 +136,56 @@ class NativeSerializationContext implements SerializationContext {
 	@Override
 	public void registerProtoFiles(FileDescriptorSource source) throws DescriptorParserException {
 		this.context.registerProtoFiles(source);
+		this.revision.incrementAndGet();
 	}
 
 	@Override
 	public void unregisterProtoFile(String fileName) {
 		this.context.unregisterProtoFile(fileName);
+		this.revision.incrementAndGet();
 	}
 
 	@Override
 	public void unregisterProtoFiles(Set<String> fileNames) {
 		this.context.unregisterProtoFiles(fileNames);
+		this.revision.incrementAndGet();
 	}
 
 	@Override
 	public void registerMarshaller(BaseMarshaller<?> marshaller) {
 		this.context.registerMarshaller(marshaller);
+		this.revision.incrementAndGet();
 	}
 
 	@Override
 	public void unregisterMarshaller(BaseMarshaller<?> marshaller) {
 		this.context.unregisterMarshaller(marshaller);
+		this.revision.incrementAndGet();
 	}
 
 	@Deprecated
 	@Override
 	public void registerMarshallerProvider(MarshallerProvider provider) {
 		this.context.registerMarshallerProvider(provider);
+		this.revision.incrementAndGet();
 	}
 
 	@Deprecated
 	@Override
 	public void unregisterMarshallerProvider(MarshallerProvider provider) {
 		this.context.unregisterMarshallerProvider(provider);
+		this.revision.incrementAndGet();
 	}
 
 	@Override
 	public void registerMarshallerProvider(org.infinispan.protostream.SerializationContext.InstanceMarshallerProvider<?> provider) {
 		this.context.registerMarshallerProvider(provider);
+		this.revision.incrementAndGet();
 	}
 
 	@Override
 	public void unregisterMarshallerProvider(org.infinispan.protostream.SerializationContext.InstanceMarshallerProvider<?> provider) {
 		this.context.unregisterMarshallerProvider(provider);
+		this.revision.incrementAndGet();
 	}
 }
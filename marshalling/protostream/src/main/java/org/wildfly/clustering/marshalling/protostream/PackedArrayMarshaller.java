@@ -7,15 +7,172 @@ package org.wildfly.clustering.marshalling.protostream;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.infinispan.protostream.descriptors.WireType;
 
 /**
  * Marshaller for <a href="https://developers.google.com/protocol-buffers/docs/encoding?hl=id#packed">packed repeated fields</a>, e.g. primitive arrays.
+ * Primitive arrays should use the dedicated marshallers, e.g. {@link #INTEGER_ARRAY}, which produce the same wire format without reflection or boxing.
  * @author Paul Ferraro
  * @param <T> the component type of this marshaller
  */
 public class PackedArrayMarshaller<T> implements ScalarMarshaller<Object> {
+	/** Marshaller for a short[], whose elements are encoded via {@link Scalar#SHORT}. */
+	static final ScalarMarshaller<short[]> SHORT_ARRAY = new AbstractPrimitiveArrayMarshaller<>(short[].class) {
+		@Override
+		short[] read(ProtoStreamReader reader, int length) throws IOException {
+			short[] values = new short[length];
+			for (int i = 0; i < length; ++i) {
+				values[i] = (short) reader.readSInt32();
+			}
+			return values;
+		}
+
+		@Override
+		int length(short[] values) {
+			return values.length;
+		}
+
+		@Override
+		void write(ProtoStreamWriter writer, short[] values) throws IOException {
+			for (short value : values) {
+				writer.writeVarint32((value << 1) ^ (value >> (Integer.SIZE - 1)));
+			}
+		}
+	};
+
+	/** Marshaller for an int[], whose elements are encoded via {@link Scalar#INTEGER}. */
+	static final ScalarMarshaller<int[]> INTEGER_ARRAY = new AbstractPrimitiveArrayMarshaller<>(int[].class) {
+		@Override
+		int[] read(ProtoStreamReader reader, int length) throws IOException {
+			int[] values = new int[length];
+			for (int i = 0; i < length; ++i) {
+				values[i] = reader.readSInt32();
+			}
+			return values;
+		}
+
+		@Override
+		int length(int[] values) {
+			return values.length;
+		}
+
+		@Override
+		void write(ProtoStreamWriter writer, int[] values) throws IOException {
+			for (int value : values) {
+				writer.writeVarint32((value << 1) ^ (value >> (Integer.SIZE - 1)));
+			}
+		}
+	};
+
+	/** Marshaller for a long[], whose elements are encoded via {@link Scalar#LONG}. */
+	static final ScalarMarshaller<long[]> LONG_ARRAY = new AbstractPrimitiveArrayMarshaller<>(long[].class) {
+		@Override
+		long[] read(ProtoStreamReader reader, int length) throws IOException {
+			long[] values = new long[length];
+			for (int i = 0; i < length; ++i) {
+				values[i] = reader.readSInt64();
+			}
+			return values;
+		}
+
+		@Override
+		int length(long[] values) {
+			return values.length;
+		}
+
+		@Override
+		void write(ProtoStreamWriter writer, long[] values) throws IOException {
+			for (long value : values) {
+				writer.writeVarint64((value << 1) ^ (value >> (Long.SIZE - 1)));
+			}
+		}
+	};
+
+	/** Marshaller for a float[], whose elements are encoded via {@link Scalar#FLOAT}. */
+	static final ScalarMarshaller<float[]> FLOAT_ARRAY = new AbstractPrimitiveArrayMarshaller<>(float[].class) {
+		@Override
+		float[] read(ProtoStreamReader reader, int length) throws IOException {
+			float[] values = new float[length];
+			for (int i = 0; i < length; ++i) {
+				values[i] = reader.readFloat();
+			}
+			return values;
+		}
+
+		@Override
+		int length(float[] values) {
+			return values.length;
+		}
+
+		@Override
+		void write(ProtoStreamWriter writer, float[] values) throws IOException {
+			byte[] bytes = new byte[Math.min(values.length, FIXED_WIDTH_CHUNK_SIZE) * Float.BYTES];
+			ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+			for (int offset = 0; offset < values.length; offset += FIXED_WIDTH_CHUNK_SIZE) {
+				int length = Math.min(values.length - offset, FIXED_WIDTH_CHUNK_SIZE);
+				buffer.asFloatBuffer().put(values, offset, length);
+				writer.writeRawBytes(bytes, 0, length * Float.BYTES);
+			}
+		}
+	};
+
+	/** Marshaller for a double[], whose elements are encoded via {@link Scalar#DOUBLE}. */
+	static final ScalarMarshaller<double[]> DOUBLE_ARRAY = new AbstractPrimitiveArrayMarshaller<>(double[].class) {
+		@Override
+		double[] read(ProtoStreamReader reader, int length) throws IOException {
+			double[] values = new double[length];
+			for (int i = 0; i < length; ++i) {
+				values[i] = reader.readDouble();
+			}
+			return values;
+		}
+
+		@Override
+		int length(double[] values) {
+			return values.length;
+		}
+
+		@Override
+		void write(ProtoStreamWriter writer, double[] values) throws IOException {
+			byte[] bytes = new byte[Math.min(values.length, FIXED_WIDTH_CHUNK_SIZE) * Double.BYTES];
+			ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+			for (int offset = 0; offset < values.length; offset += FIXED_WIDTH_CHUNK_SIZE) {
+				int length = Math.min(values.length - offset, FIXED_WIDTH_CHUNK_SIZE);
+				buffer.asDoubleBuffer().put(values, offset, length);
+				writer.writeRawBytes(bytes, 0, length * Double.BYTES);
+			}
+		}
+	};
+
+	/** Marshaller for a char[], whose elements are encoded via {@link Scalar#CHARACTER}. */
+	static final ScalarMarshaller<char[]> CHAR_ARRAY = new AbstractPrimitiveArrayMarshaller<>(char[].class) {
+		@Override
+		char[] read(ProtoStreamReader reader, int length) throws IOException {
+			char[] values = new char[length];
+			for (int i = 0; i < length; ++i) {
+				values[i] = (char) reader.readUInt32();
+			}
+			return values;
+		}
+
+		@Override
+		int length(char[] values) {
+			return values.length;
+		}
+
+		@Override
+		void write(ProtoStreamWriter writer, char[] values) throws IOException {
+			for (char value : values) {
+				writer.writeVarint32(value);
+			}
+		}
+	};
+
+	// Maximum number of fixed-width elements encoded per bulk write
+	private static final int FIXED_WIDTH_CHUNK_SIZE = 512;
 
 	private final Class<T> componentType;
 	private final ScalarMarshaller<T> element;
@@ -61,4 +218,47 @@ public class PackedArrayMarshaller<T> implements ScalarMarshaller<Object> {
 	public WireType getWireType() {
 		return WireType.LENGTH_DELIMITED;
 	}
+
+	/**
+	 * A packed array marshaller specialized for a given primitive array type.
+	 * @param <A> the primitive array type
+	 */
+	private abstract static class AbstractPrimitiveArrayMarshaller<A> implements ScalarMarshaller<A> {
+		private final Class<A> arrayClass;
+
+		AbstractPrimitiveArrayMarshaller(Class<A> arrayClass) {
+			this.arrayClass = arrayClass;
+		}
+
+		abstract A read(ProtoStreamReader reader, int length) throws IOException;
+
+		abstract int length(A array);
+
+		abstract void write(ProtoStreamWriter writer, A array) throws IOException;
+
+		@Override
+		public A readFrom(ProtoStreamReader reader) throws IOException {
+			int length = reader.readUInt32();
+			if (!reader.getRepeatedFieldPredicate().test(length)) {
+				throw new ArrayIndexOutOfBoundsException(length);
+			}
+			return this.read(reader, length);
+		}
+
+		@Override
+		public void writeTo(ProtoStreamWriter writer, A array) throws IOException {
+			writer.writeVarint32(this.length(array));
+			this.write(writer, array);
+		}
+
+		@Override
+		public Class<? extends A> getJavaClass() {
+			return this.arrayClass;
+		}
+
+		@Override
+		public WireType getWireType() {
+			return WireType.LENGTH_DELIMITED;
+		}
+	}
 }
@@ -10,11 +10,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.Optional;
 import java.util.OptionalInt;
 
 import org.infinispan.protostream.ProtobufTagMarshaller.ReadContext;
 import org.infinispan.protostream.ProtobufTagMarshaller.WriteContext;
+import org.infinispan.protostream.descriptors.WireType;
 import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
 
 /**
@@ -24,6 +27,7 @@ import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
 public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 
 	private final ImmutableSerializationContext context;
+	private volatile MarshallabilityCache cache;
 
 	/**
 	 * Constructs a new ProtoStream marshaller using the specified context
@@ -32,6 +36,7 @@ public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 	public ProtoStreamByteBufferMarshaller(ImmutableSerializationContext context) {
 		// N.B. Marshallers in WildFly require TCCL to resolve org.jboss.weld.Container
 		this.context = context;
+		this.cache = new MarshallabilityCache(context.getRevision());
 	}
 
 	@Override
@@ -44,9 +49,17 @@ public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 
 	@Override
 	public boolean test(Object object) {
-		if ((object == null) || (object instanceof Class)) return true;
+		if (object == null) return true;
 		Class<?> targetClass = object.getClass();
-		if (AnyField.fromJavaType(targetClass) != null) return true;
+		MarshallabilityCache cache = this.cache;
+		int revision = this.context.getRevision();
+		if (cache.revision != revision) {
+			// Serialization context changed since verdicts were cached
+			cache = new MarshallabilityCache(revision);
+			this.cache = cache;
+		}
+		if (cache.get(targetClass)) return true;
+		// Verdicts for the following depend on the object, not just its class
 		if (targetClass.isArray()) {
 			for (int i = 0; i < Array.getLength(object); ++i) {
 				if (!this.test(Array.get(object, i))) return false;
@@ -56,14 +69,41 @@ public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 		if (Proxy.isProxyClass(targetClass)) {
 			return this.test(Proxy.getInvocationHandler(object));
 		}
+		if (object instanceof Record record) {
+			// Records without a registered marshaller are marshalled via their components
+			Object[] components = RecordMarshaller.INSTANCE.getComponents(record);
+			if (components == null) return false;
+			for (Object component : components) {
+				if (!this.test(component)) return false;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Determines whether all instances of the specified class are marshallable.
+	 * @param targetClass a class
+	 * @param cache the cache of class verdicts
+	 * @return true, if all instances of the specified class are marshallable, false if unmarshallable, or if the verdict depends on the instance.
+	 */
+	private boolean isMarshallable(Class<?> targetClass, MarshallabilityCache cache) {
+		if ((targetClass == Class.class) || (AnyField.fromJavaType(targetClass) != null)) return true;
+		if (targetClass.isArray()) {
+			// Elements of arrays of primitive or final types share the same verdict
+			Class<?> componentType = targetClass.getComponentType();
+			return componentType.isPrimitive() || (Modifier.isFinal(componentType.getModifiers()) && !Proxy.isProxyClass(componentType) && cache.get(componentType));
+		}
+		if (Proxy.isProxyClass(targetClass)) return false;
 		if (targetClass.isSynthetic()) {
 			return Serializable.class.isAssignableFrom(targetClass);
 		}
-		while (targetClass != null) {
-			if (this.context.canMarshall(targetClass)) {
+		Class<?> superClass = targetClass;
+		while (superClass != null) {
+			if (this.context.canMarshall(superClass)) {
 				return true;
 			}
-			targetClass = targetClass.getSuperclass();
+			superClass = superClass.getSuperclass();
 		}
 		return false;
 	}
@@ -76,6 +116,49 @@ public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 		return marshaller.readFrom(reader).get();
 	}
 
+	@Override
+	public Optional<Class<?>> readTypeFrom(InputStream input) throws IOException {
+		ReadContext context = this.context.createReadContext(input);
+		ProtoStreamReader reader = new DefaultProtoStreamReader(context, this.context);
+		while (!reader.isAtEnd()) {
+			int tag = reader.readTag();
+			AnyField field = AnyField.fromIndex(WireType.getTagFieldNumber(tag));
+			if (field != null) {
+				return readType(reader, field);
+			}
+			reader.skipField(tag);
+		}
+		return Optional.empty();
+	}
+
+	private static Optional<Class<?>> readType(ProtoStreamReader reader, AnyField field) throws IOException {
+		Class<?> type = switch (field) {
+			// Type precedes the value of typed objects and enums
+			case IDENTIFIED_OBJECT, IDENTIFIED_ENUM -> ScalarClass.ID.readFrom(reader);
+			case NAMED_OBJECT, NAMED_ENUM -> ScalarClass.NAME.readFrom(reader);
+			case RECORD -> ScalarClass.ANY.readFrom(reader);
+			case BOOLEAN, BYTE, SHORT, INTEGER, LONG, FLOAT, DOUBLE, CHARACTER, STRING -> field.getMarshaller().getJavaClass();
+			case BOOLEAN_ARRAY, BYTE_ARRAY, SHORT_ARRAY, INTEGER_ARRAY, LONG_ARRAY, FLOAT_ARRAY, DOUBLE_ARRAY, CHAR_ARRAY -> field.getMarshaller().getJavaClass();
+			// The class of a reference, proxy, lambda, or the component class of an object array is only known once unmarshalled
+			default -> null;
+		};
+		return Optional.<Class<?>>ofNullable(type).filter(ProtoStreamByteBufferMarshaller::isExact);
+	}
+
+	/**
+	 * Indicates whether the specified type is necessarily the exact type of the value, i.e. it cannot be a superclass of the unmarshalled value.
+	 * The type of an identified or named object is that of the marshaller of the value, which may be a superclass of the value.
+	 * @param type a type
+	 * @return true, if the specified type cannot have subclasses, false otherwise.
+	 */
+	private static boolean isExact(Class<?> type) {
+		if (type.isArray()) {
+			return type.getComponentType().isPrimitive();
+		}
+		// N.B. Enum constants with a class body are subclasses of their enum type, but cannot implement additional interfaces
+		return Modifier.isFinal(type.getModifiers()) || type.isEnum() || type.isRecord();
+	}
+
 	@Override
 	public void writeTo(OutputStream output, Object object) throws IOException {
 		WriteContext context = this.context.createWriteContext(output);
@@ -88,4 +171,20 @@ public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 	public String toString() {
 		return "ProtoStream";
 	}
+
+	/**
+	 * Caches the marshallability of a class for a given revision of the serialization context.
+	 */
+	private class MarshallabilityCache extends ClassValue<Boolean> {
+		final int revision;
+
+		MarshallabilityCache(int revision) {
+			this.revision = revision;
+		}
+
+		@Override
+		protected Boolean computeValue(Class<?> targetClass) {
+			return ProtoStreamByteBufferMarshaller.this.isMarshallable(targetClass, this);
+		}
+	}
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.infinispan.protostream.descriptors.WireType;
+
+/**
+ * Marshaller for a {@link Record} for which no marshaller was registered.
+ * Writes the record class, followed by each non-default component value, using a stable hash of the component name as its field index.
+ * Components whose type has a known scalar encoding are written directly, all others are written as {@link Any}.
+ * Thus, records may evolve by adding, removing, or reordering components: unknown fields are skipped, and components missing from the stream assume their default value.
+ * Records whose component names yield conflicting field indexes are rejected.
+ * The marshalling metadata of each record class is computed lazily on first use.
+ * @author Paul Ferraro
+ */
+enum RecordMarshaller implements FieldMarshaller<Record> {
+	INSTANCE;
+
+	// Field indexes are confined to values whose tag encodes to at most 3 bytes
+	private static final int MAX_FIELD_INDEX = (1 << 18) - 1;
+	// Field indexes reserved by the protobuf specification
+	private static final int MIN_RESERVED_FIELD_INDEX = 19000;
+	private static final int MAX_RESERVED_FIELD_INDEX = 19999;
+	private static final Map<Class<?>, Scalar> SCALARS = Stream.of(Scalar.BOOLEAN, Scalar.BYTE, Scalar.SHORT, Scalar.INTEGER, Scalar.LONG, Scalar.FLOAT, Scalar.DOUBLE, Scalar.CHARACTER, Scalar.STRING).collect(Collectors.toUnmodifiableMap(Scalar::getJavaClass, Function.identity()));
+	private static final ClassValue<RecordType> TYPES = new ClassValue<>() {
+		@Override
+		protected RecordType computeValue(Class<?> recordClass) {
+			return new RecordType(recordClass);
+		}
+	};
+
+	@Override
+	public Record readFrom(ProtoStreamReader reader) throws IOException {
+		Class<?> recordClass = ScalarClass.ANY.readFrom(reader);
+		if (!recordClass.isRecord()) {
+			throw new InvalidClassException(recordClass.getName(), "Not a record");
+		}
+		RecordType type = getType(recordClass);
+		RecordComponentField[] fields = type.getFields();
+		Object[] values = new Object[fields.length];
+		for (int i = 0; i < fields.length; ++i) {
+			values[i] = fields[i].getDefaultValue();
+		}
+		while (!reader.isAtEnd()) {
+			int tag = reader.readTag();
+			int position = type.getPosition(WireType.getTagFieldNumber(tag));
+			if ((position >= 0) && (WireType.fromTag(tag) == fields[position].getWireType())) {
+				values[position] = fields[position].readFrom(reader);
+			} else {
+				reader.skipField(tag);
+			}
+		}
+		return type.createRecord(values);
+	}
+
+	@Override
+	public void writeTo(ProtoStreamWriter writer, Record record) throws IOException {
+		ScalarClass.ANY.writeTo(writer, record.getClass());
+		for (RecordComponentField field : getType(record.getClass()).getFields()) {
+			field.writeTo(writer, record);
+		}
+	}
+
+	@Override
+	public Class<? extends Record> getJavaClass() {
+		return Record.class;
+	}
+
+	@Override
+	public WireType getWireType() {
+		return ScalarClass.ANY.getWireType();
+	}
+
+	/**
+	 * Returns the component values of the specified record.
+	 * @param record a record
+	 * @return an array of component values, or null, if the record cannot be marshalled via its components
+	 */
+	Object[] getComponents(Record record) {
+		RecordComponentField[] fields;
+		try {
+			fields = getType(record.getClass()).getFields();
+		} catch (InvalidClassException e) {
+			return null;
+		}
+		Object[] values = new Object[fields.length];
+		for (int i = 0; i < fields.length; ++i) {
+			values[i] = fields[i].apply(record);
+		}
+		return values;
+	}
+
+	private static RecordType getType(Class<?> recordClass) throws InvalidClassException {
+		try {
+			return TYPES.get(recordClass);
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			// Conflicting field indexes, or inaccessible record, e.g. whose package is not open to this module
+			InvalidClassException exception = new InvalidClassException(recordClass.getName(), e.getMessage());
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Returns the field index of the record component with the specified name.
+	 * The index is derived from the hash code of the name, whose computation is specified by {@link String#hashCode()}, and is thus stable across JVMs.
+	 * @param name a record component name
+	 * @return a valid field index, excluding reserved indexes
+	 */
+	static int getFieldIndex(String name) {
+		int reserved = MAX_RESERVED_FIELD_INDEX - MIN_RESERVED_FIELD_INDEX + 1;
+		int index = Math.floorMod(name.hashCode(), MAX_FIELD_INDEX - reserved) + 1;
+		return (index < MIN_RESERVED_FIELD_INDEX) ? index : index + reserved;
+	}
+
+	private static class RecordType {
+		private final RecordComponentField[] fields;
+		// Maps field index to component position
+		private final Map<Integer, Integer> positions;
+		// (Object[])Object
+		private final MethodHandle constructor;
+
+		RecordType(Class<?> recordClass) {
+			RecordComponent[] components = recordClass.getRecordComponents();
+			this.fields = new RecordComponentField[components.length];
+			this.positions = new HashMap<>();
+			Class<?>[] parameterTypes = new Class<?>[components.length];
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(recordClass, MethodHandles.lookup());
+				for (int i = 0; i < components.length; ++i) {
+					parameterTypes[i] = components[i].getType();
+					int index = getFieldIndex(components[i].getName());
+					Integer conflict = this.positions.putIfAbsent(index, i);
+					if (conflict != null) {
+						throw new IllegalArgumentException(String.format("Record components %s and %s have conflicting field indexes", components[conflict].getName(), components[i].getName()));
+					}
+					this.fields[i] = new RecordComponentField(index, parameterTypes[i], lookup.unreflect(components[i].getAccessor()));
+				}
+				MethodHandle constructor = lookup.findConstructor(recordClass, MethodType.methodType(void.class, parameterTypes));
+				this.constructor = constructor.asType(constructor.type().generic()).asSpreader(Object[].class, components.length);
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		RecordComponentField[] getFields() {
+			return this.fields;
+		}
+
+		/**
+		 * Returns the position of the component with the specified field index.
+		 * @param index a field index
+		 * @return the component position, or -1 if no such component exists
+		 */
+		int getPosition(int index) {
+			return this.positions.getOrDefault(index, -1);
+		}
+
+		Record createRecord(Object[] values) throws IOException {
+			try {
+				return (Record) (Object) this.constructor.invokeExact(values);
+			} catch (IOException | RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static class RecordComponentField implements Function<Record, Object> {
+		private final int index;
+		// (Object)Object
+		private final MethodHandle accessor;
+		private final Scalar scalar;
+		private final Object defaultValue;
+
+		RecordComponentField(int index, Class<?> type, MethodHandle accessor) {
+			this.index = index;
+			this.accessor = accessor.asType(MethodType.genericMethodType(1));
+			this.scalar = SCALARS.get(MethodType.methodType(type).wrap().returnType());
+			this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+		}
+
+		Object getDefaultValue() {
+			return this.defaultValue;
+		}
+
+		WireType getWireType() {
+			return (this.scalar != null) ? this.scalar.getWireType() : Scalar.ANY.getWireType();
+		}
+
+		@Override
+		public Object apply(Record record) {
+			try {
+				return this.accessor.invokeExact((Object) record);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		Object readFrom(ProtoStreamReader reader) throws IOException {
+			return (this.scalar != null) ? this.scalar.readFrom(reader) : reader.readAny();
+		}
+
+		void writeTo(ProtoStreamWriter writer, Record record) throws IOException {
+			Object value = this.apply(record);
+			// Omit null references and primitive default values
+			if ((value != null) && !value.equals(this.defaultValue)) {
+				if (this.scalar != null) {
+					writer.writeTag(this.index, this.scalar.getWireType());
+					this.scalar.writeTo(writer, value);
+				} else {
+					writer.writeAny(this.index, value);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+
+/**
+ * A function that reads a member of an object via a method handle.
+ * @param <T> the source object type
+ * @param <R> the member type
+ * @author Paul Ferraro
+ */
+class MemberHandle<T, R> implements Function<T, R> {
+	private static final MethodType TYPE = MethodType.genericMethodType(1);
+
+	private final MethodHandle handle;
+
+	/**
+	 * Creates a function for the specified member handle.
+	 * @param handle a method handle accepting a single object parameter and returning the member value.
+	 */
+	MemberHandle(MethodHandle handle) {
+		this.handle = handle.asType(TYPE);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public R apply(T object) {
+		try {
+			return (R) this.handle.invokeExact((Object) object);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
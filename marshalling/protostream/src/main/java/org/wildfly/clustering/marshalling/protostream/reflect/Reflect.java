@@ -40,22 +40,8 @@ final class Reflect {
 		Field field = findField(sourceClass, fieldType);
 		try {
 			MethodHandle handle = privateLookup(sourceClass).findGetter(field.getDeclaringClass(), field.getName(), field.getType());
-			return new Function<>() {
-				@Override
-				public R apply(T object) {
-					try {
-						return fieldType.cast(handle.invoke(object));
-					} catch (Throwable e) {
-						if (e instanceof RuntimeException exception) {
-							throw exception;
-						}
-						if (e instanceof RuntimeException error) {
-							throw error;
-						}
-						throw new IllegalStateException(e);
-					}
-				}
-			};
+			// Cast to requested field type
+			return new MemberHandle<>(handle.asType(MethodType.methodType(fieldType, field.getDeclaringClass())));
 		} catch (NoSuchFieldException | IllegalAccessException e) {
 			throw new IllegalStateException(e);
 		}
@@ -102,23 +88,7 @@ final class Reflect {
 
 	static <T, R> Function<T, R> findMethodHandle(Class<? extends T> sourceClass, String name, MethodType type) {
 		try {
-			MethodHandle handle = MethodHandles.lookup().findVirtual(sourceClass, name, type);
-			return new Function<>() {
-				@Override
-				public R apply(T value) {
-					try {
-						return (R) handle.invoke(value);
-					} catch (Throwable e) {
-						if (e instanceof RuntimeException exception) {
-							throw exception;
-						}
-						if (e instanceof RuntimeException error) {
-							throw error;
-						}
-						throw new IllegalStateException(e);
-					}
-				}
-			};
+			return new MemberHandle<>(MethodHandles.lookup().findVirtual(sourceClass, name, type));
 		} catch (NoSuchMethodException | IllegalAccessException e) {
 			throw new IllegalStateException(e);
 		}
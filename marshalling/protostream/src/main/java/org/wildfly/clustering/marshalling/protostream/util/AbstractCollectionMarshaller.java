@@ -6,13 +6,20 @@
 package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
+import java.io.StreamCorruptedException;
 import java.util.Collection;
+import java.util.List;
 
+import org.infinispan.protostream.descriptors.WireType;
+import org.wildfly.clustering.function.IntFunction;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamMarshaller;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamWriter;
 
 /**
  * Abstract collection marshaller that writes the elements of the collection.
+ * If all elements are non-null and of the same immutable scalar type, the element type is written once, followed by the elements themselves, without reference tracking.
+ * Otherwise, or if the homogeneous format is not enabled, each element is written as an arbitrary object.
  * @author Paul Ferraro
  * @param <E> the collection element type
  * @param <T> the collection type of this marshaller
@@ -21,21 +28,46 @@ public abstract class AbstractCollectionMarshaller<E, T extends Collection<E>> i
 	/** Index of the repeated element field */
 	protected static final int ELEMENT_INDEX = 1;
 
+	// Indexes of the fields of a homogeneous collection, reserved such that they cannot conflict with those of subclasses
+	private static final int SIZE_INDEX = 13;
+	private static final int ELEMENT_TYPE_INDEX = 14;
+	private static final int HOMOGENEOUS_ELEMENT_INDEX = 15;
+
 	private final Class<? extends T> collectionClass;
+	private final boolean homogeneous;
 
 	/**
 	 * Creates a collection marshaller for the specified implementation class.
 	 * @param collectionClass the collection implementation class.
 	 */
 	protected AbstractCollectionMarshaller(Class<? extends T> collectionClass) {
+		this(collectionClass, HomogeneousElementType.ENABLED);
+	}
+
+	/**
+	 * Creates a collection marshaller for the specified implementation class.
+	 * @param collectionClass the collection implementation class.
+	 * @param homogeneous indicates whether to write collections of a common scalar element type using the homogeneous format
+	 */
+	AbstractCollectionMarshaller(Class<? extends T> collectionClass, boolean homogeneous) {
 		this.collectionClass = collectionClass;
+		this.homogeneous = homogeneous;
 	}
 
 	@Override
 	public void writeTo(ProtoStreamWriter writer, T collection) throws IOException {
 		synchronized (collection) { // Avoid ConcurrentModificationException
-			for (E element : collection) {
-				writer.writeAny(ELEMENT_INDEX, element);
+			HomogeneousElementType type = this.homogeneous ? HomogeneousElementType.of(collection) : null;
+			if (type != null) {
+				writer.writeUInt32(SIZE_INDEX, collection.size());
+				writer.writeUInt32(ELEMENT_TYPE_INDEX, type.getId());
+				for (E element : collection) {
+					type.writeTo(writer, HOMOGENEOUS_ELEMENT_INDEX, element);
+				}
+			} else {
+				for (E element : collection) {
+					writer.writeAny(ELEMENT_INDEX, element);
+				}
 			}
 		}
 	}
@@ -44,4 +76,97 @@ public abstract class AbstractCollectionMarshaller<E, T extends Collection<E>> i
 	public Class<? extends T> getJavaClass() {
 		return this.collectionClass;
 	}
+
+	/**
+	 * Reads the element fields of a collection written by {@link AbstractCollectionMarshaller#writeTo(ProtoStreamWriter, Collection)}.
+	 * @param <E> the collection element type
+	 * @param <C> the collection type
+	 */
+	protected static class ElementReader<E, C extends Collection<E>> {
+		private final ProtoStreamReader reader;
+		private final IntFunction<C> factory;
+		private C collection;
+		private List<E> elements;
+		private HomogeneousElementType type;
+
+		/**
+		 * Creates a reader of elements into a collection created by the specified factory, pre-sized via the size of the collection, if known.
+		 * @param reader a ProtoStream reader
+		 * @param factory a collection factory
+		 */
+		protected ElementReader(ProtoStreamReader reader, IntFunction<C> factory) {
+			this.reader = reader;
+			this.factory = factory;
+		}
+
+		/**
+		 * Creates a reader of elements into the specified collection.
+		 * @param reader a ProtoStream reader
+		 * @param collection the target collection
+		 */
+		protected ElementReader(ProtoStreamReader reader, C collection) {
+			this(reader, IntFunction.of(collection));
+			this.collection = collection;
+		}
+
+		/**
+		 * Reads the field with the specified tag, if it is an element field.
+		 * @param tag a field tag
+		 * @return true, if the field was read, false if the field is not an element field.
+		 * @throws IOException if the field could not be read
+		 */
+		@SuppressWarnings("unchecked")
+		protected boolean readField(int tag) throws IOException {
+			switch (WireType.getTagFieldNumber(tag)) {
+				case ELEMENT_INDEX -> this.add((E) this.reader.readAny());
+				case SIZE_INDEX -> {
+					int size = this.reader.readUInt32();
+					if (!this.reader.getRepeatedFieldPredicate().test(size)) {
+						throw new ArrayIndexOutOfBoundsException(size);
+					}
+					if ((this.collection == null) && (this.elements == null)) {
+						this.collection = this.factory.apply(size);
+					}
+				}
+				case ELEMENT_TYPE_INDEX -> this.type = HomogeneousElementType.fromId(this.reader.readUInt32());
+				case HOMOGENEOUS_ELEMENT_INDEX -> {
+					if (this.type == null) {
+						throw new StreamCorruptedException();
+					}
+					this.add((E) this.type.readFrom(this.reader));
+				}
+				default -> {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the collection containing the elements read thus far.
+		 * @return the collection containing the elements read thus far.
+		 */
+		protected C getCollection() {
+			if (this.collection == null) {
+				List<E> elements = this.elements;
+				this.collection = this.factory.apply((elements != null) ? elements.size() : 0);
+				if (elements != null) {
+					this.collection.addAll(elements);
+				}
+			}
+			return this.collection;
+		}
+
+		private void add(E element) {
+			if (this.collection == null) {
+				// Size is not yet known, collect elements
+				if (this.elements == null) {
+					this.elements = this.reader.repeatedElementCollector();
+				}
+				this.elements.add(element);
+			} else {
+				this.collection.add(element);
+			}
+		}
+	}
 }
@@ -7,13 +7,19 @@ package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
 import java.util.AbstractMap;
+import java.util.List;
 import java.util.Map;
 
+import org.infinispan.protostream.descriptors.WireType;
+import org.wildfly.clustering.marshalling.protostream.Any;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamMarshaller;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamWriter;
 
 /**
  * Abstract marshaller for a {@link Map} that writes the entries of the map.
+ * If all keys and/or all values are non-null and of the same immutable scalar type, that type is written once, followed by alternating keys and values, without reference tracking for the homogeneous side.
+ * Otherwise, or if the homogeneous format is not enabled, each entry is written as a map entry.
  * @author Paul Ferraro
  * @param <K> the map key type
  * @param <V> the map value type
@@ -23,27 +29,130 @@ public abstract class AbstractMapMarshaller<K, V, T extends Map<K, V>> implement
 	/** Index of the repeated entry field */
 	protected static final int ENTRY_INDEX = 1;
 
+	// Indexes of the fields of a homogeneous map, reserved such that they cannot conflict with those of subclasses
+	private static final int KEY_TYPE_INDEX = 12;
+	private static final int VALUE_TYPE_INDEX = 13;
+	private static final int KEY_INDEX = 14;
+	private static final int VALUE_INDEX = 15;
+
 	private final Class<? extends T> mapClass;
+	private final boolean homogeneous;
 
 	/**
 	 * Creates a new map marshaller for the specified implementation class.
 	 * @param mapClass the map implementation class
 	 */
 	public AbstractMapMarshaller(Class<? extends T> mapClass) {
+		this(mapClass, HomogeneousElementType.ENABLED);
+	}
+
+	/**
+	 * Creates a new map marshaller for the specified implementation class.
+	 * @param mapClass the map implementation class
+	 * @param homogeneous indicates whether to write maps with keys and/or values of a common scalar type using the homogeneous format
+	 */
+	AbstractMapMarshaller(Class<? extends T> mapClass, boolean homogeneous) {
 		this.mapClass = mapClass;
+		this.homogeneous = homogeneous;
 	}
 
 	@Override
 	public void writeTo(ProtoStreamWriter writer, T map) throws IOException {
 		synchronized (map) { // Avoid ConcurrentModificationException
-			for (Map.Entry<K, V> entry : map.entrySet()) {
-				writer.writeObject(ENTRY_INDEX, new AbstractMap.SimpleEntry<>(entry));
+			HomogeneousElementType keyType = this.homogeneous ? HomogeneousElementType.of(map.keySet()) : null;
+			HomogeneousElementType valueType = this.homogeneous ? HomogeneousElementType.of(map.values()) : null;
+			if ((keyType != null) || (valueType != null)) {
+				if (keyType != null) {
+					writer.writeUInt32(KEY_TYPE_INDEX, keyType.getId());
+				}
+				if (valueType != null) {
+					writer.writeUInt32(VALUE_TYPE_INDEX, valueType.getId());
+				}
+				for (Map.Entry<K, V> entry : map.entrySet()) {
+					writeTo(writer, KEY_INDEX, keyType, entry.getKey());
+					writeTo(writer, VALUE_INDEX, valueType, entry.getValue());
+				}
+			} else {
+				for (Map.Entry<K, V> entry : map.entrySet()) {
+					writer.writeObject(ENTRY_INDEX, new AbstractMap.SimpleEntry<>(entry));
+				}
 			}
 		}
 	}
 
+	private static void writeTo(ProtoStreamWriter writer, int index, HomogeneousElementType type, Object value) throws IOException {
+		if (type != null) {
+			type.writeTo(writer, index, value);
+		} else {
+			// Use a NULL marker, since a null field would otherwise be indistinguishable from an absent field
+			writer.writeAny(index, (value != null) ? value : Any.NULL);
+		}
+	}
+
 	@Override
 	public Class<? extends T> getJavaClass() {
 		return this.mapClass;
 	}
+
+	/**
+	 * Reads the entry fields of a map written by {@link AbstractMapMarshaller#writeTo(ProtoStreamWriter, Map)}.
+	 * @param <K> the map key type
+	 * @param <V> the map value type
+	 */
+	protected static class EntryReader<K, V> {
+		private final ProtoStreamReader reader;
+		private final List<Map.Entry<K, V>> entries;
+		private HomogeneousElementType keyType;
+		private HomogeneousElementType valueType;
+		private K key;
+
+		/**
+		 * Creates a reader of map entries.
+		 * @param reader a ProtoStream reader
+		 */
+		protected EntryReader(ProtoStreamReader reader) {
+			this.reader = reader;
+			this.entries = reader.repeatedElementCollector();
+		}
+
+		/**
+		 * Reads the field with the specified tag, if it is an entry field.
+		 * @param tag a field tag
+		 * @return true, if the field was read, false if the field is not an entry field.
+		 * @throws IOException if the field could not be read
+		 */
+		@SuppressWarnings("unchecked")
+		protected boolean readField(int tag) throws IOException {
+			switch (WireType.getTagFieldNumber(tag)) {
+				case ENTRY_INDEX -> this.entries.add(this.reader.readObject(AbstractMap.SimpleEntry.class));
+				case KEY_TYPE_INDEX -> this.keyType = HomogeneousElementType.fromId(this.reader.readUInt32());
+				case VALUE_TYPE_INDEX -> this.valueType = HomogeneousElementType.fromId(this.reader.readUInt32());
+				case KEY_INDEX -> this.key = (K) this.read(this.keyType);
+				case VALUE_INDEX -> {
+					this.entries.add(new AbstractMap.SimpleEntry<>(this.key, (V) this.read(this.valueType)));
+					this.key = null;
+				}
+				default -> {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the entries read thus far.
+		 * @return a list of map entries
+		 */
+		protected List<Map.Entry<K, V>> getEntries() {
+			return this.entries;
+		}
+
+		private Object read(HomogeneousElementType type) throws IOException {
+			if (type != null) {
+				return type.readFrom(this.reader);
+			}
+			Object value = this.reader.readAny();
+			return (value != Any.NULL) ? value : null;
+		}
+	}
 }
@@ -9,7 +9,6 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.function.Supplier;
 
-import org.infinispan.protostream.descriptors.WireType;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
 
 /**
@@ -34,18 +33,13 @@ public class CollectionMarshaller<E, T extends Collection<E>> extends AbstractCo
 
 	@Override
 	public T readFrom(ProtoStreamReader reader) throws IOException {
-		T collection = this.factory.get();
+		ElementReader<E, T> elementReader = new ElementReader<>(reader, this.factory.get());
 		while (!reader.isAtEnd()) {
 			int tag = reader.readTag();
-			int index = WireType.getTagFieldNumber(tag);
-			switch (index) {
-				case ELEMENT_INDEX -> {
-					@SuppressWarnings("unchecked") E element = (E) reader.readAny();
-					collection.add(element);
-				}
-				default -> reader.skipField(tag);
+			if (!elementReader.readField(tag)) {
+				reader.skipField(tag);
 			}
 		}
-		return collection;
+		return elementReader.getCollection();
 	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream.util;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamWriter;
+import org.wildfly.clustering.marshalling.protostream.Scalar;
+
+/**
+ * Enumerates the immutable scalar element types for which a collection or map can write its type once, rather than per element.
+ * Elements of these types are written directly via their scalar marshaller, bypassing the {@link org.wildfly.clustering.marshalling.protostream.Any} wrapper and its reference tracking.
+ * The identifier of each type is derived from its ordinal, thus new types must only ever be appended.
+ * As members that predate this format would read homogeneous elements as unknown fields, this format is only written if enabled via the {@value #ENABLED_PROPERTY} system property, e.g. once all members of a cluster were upgraded.
+ * This format is always readable, regardless of whether it is enabled.
+ * @author Paul Ferraro
+ */
+enum HomogeneousElementType {
+	BOOLEAN(Scalar.BOOLEAN),
+	BYTE(Scalar.BYTE),
+	SHORT(Scalar.SHORT),
+	INTEGER(Scalar.INTEGER),
+	LONG(Scalar.LONG),
+	FLOAT(Scalar.FLOAT),
+	DOUBLE(Scalar.DOUBLE),
+	CHARACTER(Scalar.CHARACTER),
+	STRING(Scalar.STRING),
+	;
+	/** Name of the system property that enables the writing of homogeneous collections and maps */
+	static final String ENABLED_PROPERTY = "org.wildfly.clustering.marshalling.protostream.homogeneous";
+	/** Indicates whether collections and maps are written using the homogeneous format, by default */
+	static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private static final HomogeneousElementType[] VALUES = values();
+	private static final Map<Class<?>, HomogeneousElementType> TYPES = Stream.of(VALUES).collect(Collectors.toUnmodifiableMap(HomogeneousElementType::getJavaClass, Function.identity()));
+
+	private final Scalar scalar;
+
+	HomogeneousElementType(Scalar scalar) {
+		this.scalar = scalar;
+	}
+
+	/**
+	 * Returns the common element type of the specified values, if all values are non-null and of the same supported type.
+	 * @param values a number of values
+	 * @return the common element type of the specified values, or null, if the values are empty, contain null, or are not of the same supported type.
+	 */
+	static HomogeneousElementType of(Iterable<?> values) {
+		Class<?> commonClass = null;
+		for (Object value : values) {
+			if (value == null) return null;
+			Class<?> valueClass = value.getClass();
+			if (commonClass == null) {
+				commonClass = valueClass;
+			} else if (commonClass != valueClass) {
+				return null;
+			}
+		}
+		return (commonClass != null) ? TYPES.get(commonClass) : null;
+	}
+
+	/**
+	 * Returns the element type with the specified identifier.
+	 * @param id an element type identifier
+	 * @return the element type with the specified identifier
+	 * @throws StreamCorruptedException if the identifier is not valid
+	 */
+	static HomogeneousElementType fromId(int id) throws StreamCorruptedException {
+		if (id < 1 || id > VALUES.length) {
+			throw new StreamCorruptedException(Integer.toString(id));
+		}
+		return VALUES[id - 1];
+	}
+
+	/**
+	 * Returns the identifier of this element type.
+	 * @return the identifier of this element type.
+	 */
+	int getId() {
+		return this.ordinal() + 1;
+	}
+
+	Class<?> getJavaClass() {
+		return this.scalar.getJavaClass();
+	}
+
+	/**
+	 * Writes the specified element to the specified field.
+	 * @param writer a ProtoStream writer
+	 * @param index a field index
+	 * @param element an element of this type
+	 * @throws IOException if the element could not be written
+	 */
+	void writeTo(ProtoStreamWriter writer, int index, Object element) throws IOException {
+		writer.writeTag(index, this.scalar.getWireType());
+		this.scalar.writeTo(writer, element);
+	}
+
+	/**
+	 * Reads an element of this type from the current field.
+	 * @param reader a ProtoStream reader
+	 * @return the element that was read
+	 * @throws IOException if the element could not be read
+	 */
+	Object readFrom(ProtoStreamReader reader) throws IOException {
+		return this.scalar.readFrom(reader);
+	}
+}
@@ -7,7 +7,6 @@ package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
 import java.lang.invoke.VarHandle;
-import java.util.AbstractMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,15 +37,19 @@ public class LinkedHashMapMarshaller<K, V> extends AbstractMapMarshaller<K, V, L
 	@Override
 	public LinkedHashMap<K, V> readFrom(ProtoStreamReader reader) throws IOException {
 		boolean accessOrder = false;
-		List<Map.Entry<K, V>> entries = reader.repeatedElementCollector();
+		EntryReader<K, V> entryReader = new EntryReader<>(reader);
 		while (!reader.isAtEnd()) {
 			int tag = reader.readTag();
 			switch (WireType.getTagFieldNumber(tag)) {
-				case ENTRY_INDEX -> entries.add(reader.readObject(AbstractMap.SimpleEntry.class));
 				case ACCESS_ORDER_INDEX -> accessOrder = reader.readBool();
-				default -> reader.skipField(tag);
+				default -> {
+					if (!entryReader.readField(tag)) {
+						reader.skipField(tag);
+					}
+				}
 			}
 		}
+		List<Map.Entry<K, V>> entries = entryReader.getEntries();
 		LinkedHashMap<K, V> map = new LinkedHashMap<>(entries.size(), 0.75f, accessOrder);
 		for (Map.Entry<K, V> entry : entries) {
 			map.put(entry.getKey(), entry.getValue());
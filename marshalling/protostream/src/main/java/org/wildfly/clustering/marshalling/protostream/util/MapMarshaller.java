@@ -6,11 +6,9 @@
 package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
-import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
 
-import org.infinispan.protostream.descriptors.WireType;
 import org.wildfly.clustering.function.IntFunction;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
 
@@ -29,22 +27,31 @@ public class MapMarshaller<K, V, T extends Map<K, V>> extends AbstractMapMarshal
 	 * Creates a marshaller for a map.
 	 * @param factory a map factory
 	 */
-	@SuppressWarnings("unchecked")
 	public MapMarshaller(IntFunction<T> factory) {
-		super((Class<T>) factory.apply(0).getClass());
+		this(factory, HomogeneousElementType.ENABLED);
+	}
+
+	/**
+	 * Creates a marshaller for a map.
+	 * @param factory the map factory
+	 * @param homogeneous indicates whether to write using the homogeneous format
+	 */
+	@SuppressWarnings("unchecked")
+	MapMarshaller(IntFunction<T> factory, boolean homogeneous) {
+		super((Class<T>) factory.apply(0).getClass(), homogeneous);
 		this.factory = factory;
 	}
 
 	@Override
 	public T readFrom(ProtoStreamReader reader) throws IOException {
-		List<Map.Entry<K, V>> entries = reader.repeatedElementCollector();
+		EntryReader<K, V> entryReader = new EntryReader<>(reader);
 		while (!reader.isAtEnd()) {
 			int tag = reader.readTag();
-			switch (WireType.getTagFieldNumber(tag)) {
-				case ENTRY_INDEX -> entries.add(reader.readObject(AbstractMap.SimpleEntry.class));
-				default -> reader.skipField(tag);
+			if (!entryReader.readField(tag)) {
+				reader.skipField(tag);
 			}
 		}
+		List<Map.Entry<K, V>> entries = entryReader.getEntries();
 		T map = this.factory.apply(entries.size());
 		for (Map.Entry<K, V> entry : entries) {
 			map.put(entry.getKey(), entry.getValue());
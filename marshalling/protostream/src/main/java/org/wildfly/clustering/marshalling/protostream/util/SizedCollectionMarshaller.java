@@ -7,9 +7,7 @@ package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
 
-import org.infinispan.protostream.descriptors.WireType;
 import org.wildfly.clustering.function.IntFunction;
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
 
@@ -27,25 +25,30 @@ public class SizedCollectionMarshaller<E, T extends Collection<E>> extends Abstr
 	 * Creates a marshaller for a collection.
 	 * @param factory the collection factory
 	 */
-	@SuppressWarnings("unchecked")
 	public SizedCollectionMarshaller(IntFunction<T> factory) {
-		super((Class<T>) factory.apply(0).getClass());
-		this.factory = factory;
+		this(factory, HomogeneousElementType.ENABLED);
 	}
 
+	/**
+	 * Creates a marshaller for a collection.
+	 * @param factory the collection factory
+	 * @param homogeneous indicates whether to write using the homogeneous format
+	 */
 	@SuppressWarnings("unchecked")
+	SizedCollectionMarshaller(IntFunction<T> factory, boolean homogeneous) {
+		super((Class<T>) factory.apply(0).getClass(), homogeneous);
+		this.factory = factory;
+	}
+
 	@Override
 	public T readFrom(ProtoStreamReader reader) throws IOException {
-		List<E> elements = reader.repeatedElementCollector();
+		ElementReader<E, T> elementReader = new ElementReader<>(reader, this.factory);
 		while (!reader.isAtEnd()) {
 			int tag = reader.readTag();
-			switch (WireType.getTagFieldNumber(tag)) {
-				case ELEMENT_INDEX -> elements.add((E) reader.readAny());
-				default -> reader.skipField(tag);
+			if (!elementReader.readField(tag)) {
+				reader.skipField(tag);
 			}
 		}
-		T result = this.factory.apply(elements.size());
-		result.addAll(elements);
-		return result;
+		return elementReader.getCollection();
 	}
 }
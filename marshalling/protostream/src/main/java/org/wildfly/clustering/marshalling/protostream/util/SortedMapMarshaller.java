@@ -6,7 +6,6 @@
 package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
-import java.util.AbstractMap;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -46,18 +45,17 @@ public class SortedMapMarshaller<K, V, T extends SortedMap<K, V>> extends Abstra
 	public T readFrom(ProtoStreamReader reader) throws IOException {
 		FieldSetReader<Comparator<?>> comparatorReader = reader.createFieldSetReader(ComparatorMarshaller.INSTANCE, COMPARATOR_INDEX);
 		Comparator<K> comparator = (Comparator<K>) ComparatorMarshaller.INSTANCE.createInitialValue();
-		List<Map.Entry<K, V>> entries = reader.repeatedElementCollector();
+		EntryReader<K, V> entryReader = new EntryReader<>(reader);
 		while (!reader.isAtEnd()) {
 			int tag = reader.readTag();
 			int index = WireType.getTagFieldNumber(tag);
-			if (index == ENTRY_INDEX) {
-				entries.add(reader.readObject(AbstractMap.SimpleEntry.class));
-			} else if (comparatorReader.contains(index)) {
+			if (comparatorReader.contains(index)) {
 				comparator = (Comparator<K>) comparatorReader.readField(comparator);
-			} else {
+			} else if (!entryReader.readField(tag)) {
 				reader.skipField(tag);
 			}
 		}
+		List<Map.Entry<K, V>> entries = entryReader.getEntries();
 		T map = this.factory.apply(comparator);
 		for (Map.Entry<K, V> entry : entries) {
 			map.put(entry.getKey(), entry.getValue());
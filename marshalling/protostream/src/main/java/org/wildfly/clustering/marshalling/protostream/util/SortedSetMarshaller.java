@@ -7,6 +7,7 @@ package org.wildfly.clustering.marshalling.protostream.util;
 
 import java.io.IOException;
 import java.util.Comparator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.function.Function;
 
@@ -42,23 +43,19 @@ public class SortedSetMarshaller<E, T extends SortedSet<E>> extends AbstractColl
 	public T readFrom(ProtoStreamReader reader) throws IOException {
 		FieldSetReader<Comparator<?>> comparatorReader = reader.createFieldSetReader(ComparatorMarshaller.INSTANCE, COMPARATOR_INDEX);
 		Comparator<E> comparator = (Comparator<E>) ComparatorMarshaller.INSTANCE.createInitialValue();
-		T set = this.factory.apply(comparator);
+		// Comparator follows elements, so collect elements first
+		ElementReader<E, List<E>> elementReader = new ElementReader<>(reader, reader.<E>repeatedElementCollector());
 		while (!reader.isAtEnd()) {
-
 			int tag = reader.readTag();
 			int index = WireType.getTagFieldNumber(tag);
-			if (index == ELEMENT_INDEX) {
-				E element = (E) reader.readAny();
-				set.add(element);
-			} else if (comparatorReader.contains(index)) {
-				T existing = set;
+			if (comparatorReader.contains(index)) {
 				comparator = (Comparator<E>) comparatorReader.readField(comparator);
-				set = this.factory.apply(comparator);
-				set.addAll(existing);
-			} else {
+			} else if (!elementReader.readField(tag)) {
 				reader.skipField(tag);
 			}
 		}
+		T set = this.factory.apply(comparator);
+		set.addAll(elementReader.getCollection());
 		return set;
 	}
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.clustering.marshalling.ByteBufferOutputStream;
+
+/**
+ * Microbenchmark comparing the reflective {@link PackedArrayMarshaller} vs its primitive-specialized marshallers.
+ * Run via: {@code java -cp <test-classpath> org.openjdk.jmh.Main PackedArrayMarshallerBenchmark -prof gc}
+ * @author Paul Ferraro
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedArrayMarshallerBenchmark {
+	private static final int LENGTH = 1024;
+
+	private final ScalarMarshaller<Object> reflectiveIntegerArray = new PackedArrayMarshaller<>(Integer.TYPE, Scalar.INTEGER.cast(Integer.class));
+	private final ScalarMarshaller<Object> reflectiveDoubleArray = new PackedArrayMarshaller<>(Double.TYPE, Scalar.DOUBLE.cast(Double.class));
+	private final int[] integers = new int[LENGTH];
+	private final double[] doubles = new double[LENGTH];
+
+	private ImmutableSerializationContext context;
+
+	@Setup
+	public void setup() {
+		this.context = ImmutableSerializationContext.Builder.with(ProtoStreamConfiguration.Builder.with(ClassLoaderResolver.of(ClassLoader.getSystemClassLoader())).build()).build();
+		Random random = new Random();
+		for (int i = 0; i < LENGTH; ++i) {
+			this.integers[i] = random.nextInt();
+			this.doubles[i] = random.nextDouble();
+		}
+	}
+
+	@Benchmark
+	public Object reflectiveIntegerArray() throws IOException {
+		return this.read(this.reflectiveIntegerArray, this.write(this.reflectiveIntegerArray, this.integers));
+	}
+
+	@Benchmark
+	public Object specializedIntegerArray() throws IOException {
+		return this.read(PackedArrayMarshaller.INTEGER_ARRAY, this.write(PackedArrayMarshaller.INTEGER_ARRAY, this.integers));
+	}
+
+	@Benchmark
+	public Object reflectiveDoubleArray() throws IOException {
+		return this.read(this.reflectiveDoubleArray, this.write(this.reflectiveDoubleArray, this.doubles));
+	}
+
+	@Benchmark
+	public Object specializedDoubleArray() throws IOException {
+		return this.read(PackedArrayMarshaller.DOUBLE_ARRAY, this.write(PackedArrayMarshaller.DOUBLE_ARRAY, this.doubles));
+	}
+
+	private <T> ByteBuffer write(ScalarMarshaller<T> marshaller, T value) throws IOException {
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream()) {
+			ProtoStreamWriter writer = new DefaultProtoStreamWriter(this.context.createWriteContext(output), this.context);
+			marshaller.writeTo(writer, value);
+			return output.getBuffer();
+		}
+	}
+
+	private <T> T read(ScalarMarshaller<T> marshaller, ByteBuffer buffer) throws IOException {
+		ProtoStreamReader reader = new DefaultProtoStreamReader(this.context.createReadContext(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), buffer.remaining())), this.context);
+		return marshaller.readFrom(reader);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferOutputStream;
+
+/**
+ * Validates that the primitive-specialized marshallers of {@link PackedArrayMarshaller} are wire compatible with the reflective implementation.
+ * @author Paul Ferraro
+ */
+public class PackedArrayMarshallerTestCase {
+
+	private final ImmutableSerializationContext context = ImmutableSerializationContext.Builder.with(ProtoStreamConfiguration.Builder.with(ClassLoaderResolver.of(ClassLoader.getSystemClassLoader())).build()).build();
+
+	@Test
+	public void test() throws IOException {
+		this.test(PackedArrayMarshaller.SHORT_ARRAY, new PackedArrayMarshaller<>(Short.TYPE, Scalar.SHORT.cast(Short.class)), new short[] { Short.MIN_VALUE, -1, 0, 1, Short.MAX_VALUE });
+		this.test(PackedArrayMarshaller.INTEGER_ARRAY, new PackedArrayMarshaller<>(Integer.TYPE, Scalar.INTEGER.cast(Integer.class)), new int[] { Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE });
+		this.test(PackedArrayMarshaller.LONG_ARRAY, new PackedArrayMarshaller<>(Long.TYPE, Scalar.LONG.cast(Long.class)), new long[] { Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE });
+		this.test(PackedArrayMarshaller.FLOAT_ARRAY, new PackedArrayMarshaller<>(Float.TYPE, Scalar.FLOAT.cast(Float.class)), new float[] { Float.NEGATIVE_INFINITY, Float.MIN_VALUE, 0f, 1.5f, Float.MAX_VALUE, Float.NaN });
+		this.test(PackedArrayMarshaller.DOUBLE_ARRAY, new PackedArrayMarshaller<>(Double.TYPE, Scalar.DOUBLE.cast(Double.class)), new double[] { Double.NEGATIVE_INFINITY, Double.MIN_VALUE, 0d, 1.5d, Double.MAX_VALUE, Double.NaN });
+		this.test(PackedArrayMarshaller.CHAR_ARRAY, new PackedArrayMarshaller<>(Character.TYPE, Scalar.CHARACTER.cast(Character.class)), new char[] { Character.MIN_VALUE, 'a', Character.MAX_VALUE });
+
+		// Exceed bulk write chunk size
+		double[] values = new double[1500];
+		for (int i = 0; i < values.length; ++i) {
+			values[i] = i / 3d;
+		}
+		this.test(PackedArrayMarshaller.DOUBLE_ARRAY, new PackedArrayMarshaller<>(Double.TYPE, Scalar.DOUBLE.cast(Double.class)), values);
+		this.test(PackedArrayMarshaller.INTEGER_ARRAY, new PackedArrayMarshaller<>(Integer.TYPE, Scalar.INTEGER.cast(Integer.class)), new int[0]);
+	}
+
+	private <A> void test(ScalarMarshaller<A> marshaller, ScalarMarshaller<Object> reflectiveMarshaller, A array) throws IOException {
+		ByteBuffer buffer = this.write(marshaller, array);
+		assertThat(buffer).isEqualTo(this.write(reflectiveMarshaller, array));
+		assertThat(this.read(marshaller, buffer)).isEqualTo(array);
+		assertThat(this.read(reflectiveMarshaller, buffer)).isEqualTo(array);
+	}
+
+	private <T> ByteBuffer write(ScalarMarshaller<T> marshaller, T value) throws IOException {
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream()) {
+			ProtoStreamWriter writer = new DefaultProtoStreamWriter(this.context.createWriteContext(output), this.context);
+			marshaller.writeTo(writer, value);
+			return output.getBuffer();
+		}
+	}
+
+	private <T> T read(ScalarMarshaller<T> marshaller, ByteBuffer buffer) throws IOException {
+		ProtoStreamReader reader = new DefaultProtoStreamReader(this.context.createReadContext(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), buffer.remaining())), this.context);
+		return marshaller.readFrom(reader);
+	}
+}
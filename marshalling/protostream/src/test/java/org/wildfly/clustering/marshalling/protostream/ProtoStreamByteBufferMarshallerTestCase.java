@@ -0,0 +1,61 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.test.Person;
+
+/**
+ * Validates reading of the type of a marshalled object without unmarshalling it.
+ * @author Paul Ferraro
+ */
+public class ProtoStreamByteBufferMarshallerTestCase {
+
+	private final ByteBufferMarshaller marshaller = new ProtoStreamTesterFactory().getMarshaller();
+
+	@Test
+	public void readType() throws IOException {
+		this.assertType("foo", String.class);
+		this.assertType(1, Integer.class);
+		this.assertType(new int[] { 1, 2 }, int[].class);
+		this.assertType(DayOfWeek.MONDAY, DayOfWeek.class);
+		this.assertType(UUID.randomUUID(), UUID.class);
+		this.assertType(new RecordMarshallerTestCase.Empty(), RecordMarshallerTestCase.Empty.class);
+
+		// Indeterminate types
+		this.assertNoType(null);
+		this.assertNoType(new Object[] { "foo" });
+		// Type of marshaller may be a superclass of the marshalled object
+		this.assertNoType(new ArrayList<>(List.of("foo")));
+		this.assertNoType(Person.create("foo"));
+		ListenerPerson listener = new ListenerPerson();
+		listener.setName("foo");
+		this.assertNoType(listener);
+	}
+
+	private void assertType(Object value, Class<?> expected) throws IOException {
+		assertThat(this.marshaller.readType(this.marshaller.write(value))).hasValue(expected);
+	}
+
+	private void assertNoType(Object value) throws IOException {
+		assertThat(this.marshaller.readType(this.marshaller.write(value))).isEmpty();
+	}
+
+	// Subclass marshalled via the marshaller of its superclass
+	public static class ListenerPerson extends Person implements EventListener {
+		private static final long serialVersionUID = 1L;
+	}
+}
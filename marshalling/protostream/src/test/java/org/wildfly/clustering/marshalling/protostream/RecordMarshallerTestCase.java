@@ -0,0 +1,105 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferOutputStream;
+import org.wildfly.clustering.marshalling.Tester;
+
+/**
+ * Validates marshalling of records for which no marshaller was registered.
+ * @author Paul Ferraro
+ */
+public class RecordMarshallerTestCase {
+
+	private final ImmutableSerializationContext context = ImmutableSerializationContext.Builder.with(ProtoStreamConfiguration.Builder.with(ClassLoaderResolver.of(ClassLoader.getSystemClassLoader())).build()).build();
+
+	@Test
+	public void test() {
+		Tester<Object> tester = new ProtoStreamTesterFactory().createTester();
+		tester.accept(new Empty());
+		tester.accept(new Subject("foo", 1, true, 1.5d, List.of("bar", "baz"), new Subject("parent", -1, false, 0d, null, null)));
+		tester.accept(new Subject(null, 0, false, -0d, 'x', new Empty()));
+		tester.accept(new Subject("", Integer.MIN_VALUE, false, Double.NaN, Map.of(1, "one"), null));
+		tester.reject(new Subject("foo", 1, true, 1.5d, new Object(), null));
+		// "aa" and "bB" share the same hash code
+		tester.reject(new Conflict("foo", "bar"));
+	}
+
+	@Test
+	public void inaccessible() throws ReflectiveOperationException {
+		Tester<Object> tester = new ProtoStreamTesterFactory().createTester();
+		// Record whose package is exported, but not open to this module
+		// java.lang.constant.PackageDesc requires Java 21+
+		Object record = Class.forName("java.lang.constant.PackageDesc").getMethod("of", String.class).invoke(null, "foo");
+		assertThat(record).isInstanceOf(Record.class);
+		tester.reject(record);
+	}
+
+	@Test
+	public void evolution() throws IOException {
+		ByteBuffer buffer;
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream()) {
+			ProtoStreamWriter writer = new DefaultProtoStreamWriter(this.context.createWriteContext(output), this.context);
+			writer.writeTag(AnyField.RECORD.getIndex(), AnyField.RECORD.getMarshaller().getWireType());
+			ScalarClass.ANY.writeTo(writer, Subject.class);
+			// Components in an order other than that of the canonical constructor
+			writer.writeBool(RecordMarshaller.getFieldIndex("flag"), true);
+			writer.writeString(RecordMarshaller.getFieldIndex("name"), "foo");
+			// Component with mismatched wire type
+			writer.writeString(RecordMarshaller.getFieldIndex("value"), "bar");
+			// Unknown component
+			writer.writeUInt32(RecordMarshaller.getFieldIndex("unknown"), 1);
+			buffer = output.getBuffer();
+		}
+		ProtoStreamReader reader = new DefaultProtoStreamReader(this.context.createReadContext(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), buffer.remaining())), this.context);
+		assertThat(AnyMarshaller.INSTANCE.readFrom(reader).get()).isEqualTo(new Subject("foo", 0, true, 0d, null, null));
+	}
+
+	@Test
+	public void fieldIndex() {
+		assertThat(RecordMarshaller.getFieldIndex("name")).isEqualTo(RecordMarshaller.getFieldIndex("name")).isNotEqualTo(RecordMarshaller.getFieldIndex("value"));
+		for (String name : new String[] { "", "a", "name", "value", "aa", "\uffff\uffff\uffff" }) {
+			int index = RecordMarshaller.getFieldIndex(name);
+			assertThat(index).isBetween(1, (1 << 18) - 1);
+			// Reserved by protobuf
+			assertThat(index).isNotIn(IntStream.rangeClosed(19000, 19999).boxed().toList());
+		}
+	}
+
+	@Test
+	public void compact() throws IOException {
+		// Default component values are omitted
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream()) {
+			ProtoStreamWriter writer = new DefaultProtoStreamWriter(this.context.createWriteContext(output), this.context);
+			RecordMarshaller.INSTANCE.writeTo(writer, new Subject(null, 0, false, 0d, null, null));
+			ByteBuffer buffer = output.getBuffer();
+			try (ByteBufferOutputStream expectedOutput = new ByteBufferOutputStream()) {
+				ProtoStreamWriter expectedWriter = new DefaultProtoStreamWriter(this.context.createWriteContext(expectedOutput), this.context);
+				ScalarClass.ANY.writeTo(expectedWriter, Subject.class);
+				assertThat(buffer).isEqualTo(expectedOutput.getBuffer());
+			}
+		}
+	}
+
+	record Empty() {
+	}
+
+	record Subject(String name, int value, boolean flag, double score, Object attachment, Record parent) {
+	}
+
+	record Conflict(String aa, String bB) {
+	}
+}
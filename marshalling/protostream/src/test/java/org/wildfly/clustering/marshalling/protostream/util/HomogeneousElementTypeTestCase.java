@@ -0,0 +1,122 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling.protostream.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamTesterFactory;
+import org.wildfly.clustering.marshalling.protostream.SerializationContext;
+import org.wildfly.clustering.marshalling.protostream.SerializationContextInitializer;
+
+/**
+ * Validates marshalling of collections and maps using the homogeneous format, and its compatibility with the per-element format.
+ * @author Paul Ferraro
+ */
+public class HomogeneousElementTypeTestCase {
+
+	// Writes the format understood by members that predate the homogeneous format
+	private final ByteBufferMarshaller legacy = new ProtoStreamTesterFactory(new HomogeneousSerializationContextInitializer(false)).getMarshaller();
+	private final ByteBufferMarshaller homogeneous = new ProtoStreamTesterFactory(new HomogeneousSerializationContextInitializer(true)).getMarshaller();
+
+	@Test
+	public void collection() throws IOException {
+		// Homogeneous
+		this.test(new ArrayList<>(List.of("foo", "bar", "foo")));
+		this.test(new ArrayList<>(List.of(1, 2, 3)));
+		this.test(new ArrayList<>(List.of(Boolean.TRUE, Boolean.FALSE)));
+		this.test(new ArrayList<>(List.of('a', 'b')));
+		this.test(new ArrayList<>(List.of(1.5d, 2.5d)));
+		// Mixed
+		this.test(new ArrayList<>(List.of("foo", 1, 2L)));
+		this.test(new ArrayList<>(List.of(UUID.randomUUID(), UUID.randomUUID())));
+		// Null-containing
+		this.test(new ArrayList<>(Arrays.asList("foo", null, "bar")));
+		this.test(new ArrayList<>(Arrays.asList((Object) null)));
+		// Empty
+		this.test(new ArrayList<>());
+
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 100; ++i) {
+			strings.add(Integer.toString(i));
+		}
+		// Verify that homogeneous format was used
+		assertThat(this.homogeneous.write(strings).remaining()).isLessThan(this.legacy.write(strings).remaining());
+	}
+
+	@Test
+	public void map() throws IOException {
+		// Homogeneous keys and values
+		this.test(new HashMap<>(Map.of("foo", 1, "bar", 2)));
+		this.test(new HashMap<>(Map.of(1L, "foo", 2L, "bar")));
+		// Homogeneous keys, mixed values
+		this.test(new HashMap<>(Map.of("foo", 1, "bar", "baz", "qux", UUID.randomUUID())));
+		// Mixed keys, homogeneous values
+		this.test(new HashMap<>(Map.of(1, "foo", "bar", "baz", UUID.randomUUID(), "qux")));
+		// Mixed keys and values
+		this.test(new HashMap<>(Map.of(1, "foo", "bar", 2)));
+		// Null-containing
+		Map<Object, Object> map = new HashMap<>();
+		map.put("foo", null);
+		map.put("bar", 1);
+		this.test(map);
+		map = new HashMap<>();
+		map.put(null, "foo");
+		map.put("bar", "baz");
+		this.test(map);
+		map = new HashMap<>();
+		map.put(null, null);
+		map.put(1, 2);
+		this.test(map);
+		// Empty
+		this.test(new HashMap<>());
+
+		Map<String, Integer> integers = new HashMap<>();
+		for (int i = 0; i < 100; ++i) {
+			integers.put(Integer.toString(i), i);
+		}
+		// Verify that homogeneous format was used
+		assertThat(this.homogeneous.write(integers).remaining()).isLessThan(this.legacy.write(integers).remaining());
+	}
+
+	private void test(Object value) throws IOException {
+		// Round trip of homogeneous format
+		assertThat(this.homogeneous.read(this.homogeneous.write(value))).isEqualTo(value);
+		// Round trip of legacy format
+		ByteBuffer buffer = this.legacy.write(value);
+		assertThat(this.legacy.read(buffer.duplicate())).isEqualTo(value);
+		// Legacy format must remain readable by a marshaller that writes the homogeneous format
+		assertThat(this.homogeneous.read(buffer)).isEqualTo(value);
+	}
+
+	private static class HomogeneousSerializationContextInitializer implements SerializationContextInitializer {
+		private final boolean homogeneous;
+
+		HomogeneousSerializationContextInitializer(boolean homogeneous) {
+			this.homogeneous = homogeneous;
+		}
+
+		@Override
+		public void registerSchema(SerializationContext context) {
+		}
+
+		@Override
+		public void registerMarshallers(SerializationContext context) {
+			context.registerMarshaller(new SizedCollectionMarshaller<>(ArrayList::new, this.homogeneous));
+			context.registerMarshaller(new MapMarshaller<>(HashMap::new, this.homogeneous));
+		}
+	}
+}
@@ -8,6 +8,7 @@ package org.wildfly.clustering.marshalling;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -17,11 +18,18 @@ import org.wildfly.clustering.context.ThreadContextClassLoaderReference;
 
 /**
  * An abstract byte buffer marshaller that performs read/writing within a specified ClassLoader context.
+ * Buffers are pre-sized using the observed marshalled sizes of previously written objects of the same class, so that {@link #write(Object)} marshals its object only once.
+ * The exact marshalled size, via {@link #size(Object)}, is only computed if explicitly requested.
  * @author Paul Ferraro
  */
 public abstract class AbstractByteBufferMarshaller implements ByteBufferMarshaller {
 
+	// Buffers whose unused capacity exceeds this fraction of their content, expressed as a power of 2, i.e. 1/4, are trimmed
+	// This exceeds the headroom of a predicted size, so that accurately predicted buffers are not copied
+	private static final int MAX_EXCESS_CAPACITY_SHIFT = 2;
+
 	private final Supplier<Context<ClassLoader>> contextProvider;
+	private final BufferSizePredictor predictor = new BufferSizePredictor();
 
 	/**
 	 * Constructs a new byte buffer marshaller using the specified context class loader.
@@ -41,10 +49,20 @@ public abstract class AbstractByteBufferMarshaller implements ByteBufferMarshall
 	@Override
 	public ByteBuffer write(Object object) throws IOException {
 		try (Context<ClassLoader> context = this.contextProvider.get()) {
-			return ByteBufferMarshaller.super.write(object);
+			ByteBuffer buffer = ByteBufferMarshaller.super.write(object);
+			int size = buffer.remaining();
+			this.predictor.record(object, size);
+			// Since the predicted size is only an estimate, avoid retaining an oversized buffer, as marshalled values may be retained indefinitely
+			int excess = buffer.capacity() - size;
+			return (buffer.hasArray() && (excess > (size >> MAX_EXCESS_CAPACITY_SHIFT))) ? ByteBuffer.wrap(Arrays.copyOfRange(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.arrayOffset() + buffer.limit())) : buffer;
 		}
 	}
 
+	@Override
+	public OptionalInt estimateSize(Object object) {
+		return this.predictor.predict(object);
+	}
+
 	@Override
 	public OptionalInt size(Object object) {
 		AtomicInteger size = new AtomicInteger();
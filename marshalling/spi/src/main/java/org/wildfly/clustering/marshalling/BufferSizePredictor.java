@@ -0,0 +1,52 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling;
+
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Predicts the marshalled size of an object based on an exponentially weighted moving average of the marshalled sizes of previous objects of the same class.
+ * Used to pre-size the buffer of a marshalling operation without first computing the exact marshalled size, which would otherwise require marshalling the object twice.
+ * @author Paul Ferraro
+ */
+class BufferSizePredictor {
+	// Weight of each new sample, expressed as a power of 2, i.e. 1/8
+	private static final int SAMPLE_WEIGHT_SHIFT = 3;
+	// Headroom added to the moving average, expressed as a power of 2, i.e. 1/8, to reduce the likelihood of buffer resizing
+	private static final int HEADROOM_SHIFT = 3;
+
+	private final ClassValue<AtomicInteger> averages = new ClassValue<>() {
+		@Override
+		protected AtomicInteger computeValue(Class<?> type) {
+			return new AtomicInteger();
+		}
+	};
+
+	/**
+	 * Returns the predicted marshalled size of the specified object, if any objects of the same class were previously recorded.
+	 * @param object an object to be marshalled
+	 * @return the predicted marshalled size of the specified object, or empty, if no prediction is possible.
+	 */
+	OptionalInt predict(Object object) {
+		if (object == null) return OptionalInt.empty();
+		int average = this.averages.get(object.getClass()).getOpaque();
+		return (average > 0) ? OptionalInt.of(average + (average >> HEADROOM_SHIFT)) : OptionalInt.empty();
+	}
+
+	/**
+	 * Records the actual marshalled size of the specified object.
+	 * @param object a marshalled object
+	 * @param size the marshalled size of the specified object
+	 */
+	void record(Object object, int size) {
+		if (object == null) return;
+		AtomicInteger average = this.averages.get(object.getClass());
+		int previous = average.getOpaque();
+		// Lost updates from concurrent writes are harmless, since this is only an estimate
+		average.setOpaque((previous > 0) ? previous + ((size - previous) >> SAMPLE_WEIGHT_SHIFT) : size);
+	}
+}
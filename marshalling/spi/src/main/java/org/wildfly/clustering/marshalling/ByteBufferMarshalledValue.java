@@ -12,6 +12,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.locks.StampedLock;
 
@@ -205,6 +206,30 @@ public class ByteBufferMarshalledValue<V> implements MarshalledValue<V, ByteBuff
 		}
 	}
 
+	@Override
+	public Optional<Class<?>> getType(ByteBufferMarshaller marshaller) throws IOException {
+		long stamp = this.lock.tryOptimisticRead();
+		try {
+			V object = this.object;
+			ByteBuffer buffer = this.buffer;
+			if (!this.lock.validate(stamp)) {
+				// Retry with pessimistic read lock
+				stamp = this.lock.readLock();
+				object = this.object;
+				buffer = this.buffer;
+			}
+			if (object != null) {
+				return Optional.of(object.getClass());
+			}
+			// Read type information from the head of the buffer, leaving it intact for a subsequent unmarshal
+			return (buffer != null) ? marshaller.readType(buffer.duplicate()) : Optional.empty();
+		} finally {
+			if (StampedLock.isLockStamp(stamp)) {
+				this.lock.unlock(stamp);
+			}
+		}
+	}
+
 	@Override
 	public int hashCode() {
 		long stamp = this.lock.tryOptimisticRead();
@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Optional;
 import java.util.OptionalInt;
 
 /**
@@ -34,25 +35,60 @@ public interface ByteBufferMarshaller extends Marshaller<Object, ByteBuffer> {
 	 */
 	void writeTo(OutputStream output, Object object) throws IOException;
 
+	/**
+	 * Reads the class of the object marshalled to the specified input stream, without unmarshalling the object itself, if supported by this marshaller.
+	 * By default, returns an empty value.
+	 * @param input an input stream
+	 * @return the class of the marshalled object, if it can be determined from the head of the stream
+	 * @throws IOException if the type information could not be read
+	 */
+	default Optional<Class<?>> readTypeFrom(@SuppressWarnings("unused") InputStream input) throws IOException {
+		return Optional.empty();
+	}
+
 	@Override
 	default Object read(ByteBuffer buffer) throws IOException {
-		try (InputStream input = buffer.hasArray() ? new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()) : new ByteBufferInputStream(buffer)) {
-			return this.readFrom(input);
+		UnmarshalEvent event = new UnmarshalEvent();
+		event.begin();
+		int size = buffer.remaining();
+		try (InputStream input = buffer.hasArray() ? new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), size) : new ByteBufferInputStream(buffer)) {
+			Object result = this.readFrom(input);
+			if (event.shouldCommit()) {
+				event.type = (result != null) ? result.getClass().getName() : null;
+				event.size = size;
+				event.commit();
+			}
+			return result;
+		}
+	}
+
+	@Override
+	default Optional<Class<?>> readType(ByteBuffer buffer) throws IOException {
+		try (InputStream input = buffer.hasArray() ? new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()) : new ByteBufferInputStream(buffer.duplicate())) {
+			return this.readTypeFrom(input);
 		}
 	}
 
 	@Override
 	default ByteBuffer write(Object object) throws IOException {
-		OptionalInt size = this.size(object);
+		MarshalEvent event = new MarshalEvent();
+		event.begin();
+		OptionalInt size = this.estimateSize(object);
 		try (ByteBufferOutputStream output = new ByteBufferOutputStream(size)) {
 			this.writeTo(output, object);
 			ByteBuffer buffer = output.getBuffer();
+			if (event.shouldCommit()) {
+				event.type = (object != null) ? object.getClass().getName() : null;
+				event.size = buffer.remaining();
+				event.commit();
+			}
 			if (Logger.INSTANCE.isLoggable(System.Logger.Level.DEBUG)) {
 				if (size.isPresent()) {
 					int predictedSize = size.getAsInt();
 					int actualSize = buffer.remaining();
 					if (predictedSize < actualSize) {
-						Logger.INSTANCE.log(System.Logger.Level.DEBUG, "Buffer size prediction too small for {0} ({1}), predicted = {2}, actual = {3}", object, (object != null) ? object.getClass().getCanonicalName() : null, predictedSize, actualSize);
+						// Estimated sizes are routinely too small for objects of variable size
+						Logger.INSTANCE.log(System.Logger.Level.TRACE, "Buffer size prediction too small for {0} ({1}), predicted = {2}, actual = {3}", object, (object != null) ? object.getClass().getCanonicalName() : null, predictedSize, actualSize);
 					}
 				} else {
 					Logger.INSTANCE.log(System.Logger.Level.DEBUG, "Buffer size prediction missing for {0} ({1})", object, (object != null) ? object.getClass().getCanonicalName() : null);
@@ -70,4 +106,15 @@ public interface ByteBufferMarshaller extends Marshaller<Object, ByteBuffer> {
 	default OptionalInt size(@SuppressWarnings("unused") Object object) {
 		return OptionalInt.empty();
 	}
+
+	/**
+	 * Returns an estimate of the marshalled size of the specified object, with which to pre-size the buffer of {@link #write(Object)}.
+	 * Unlike {@link #size(Object)}, an estimate need not be exact, but should be cheap to compute.
+	 * By default, returns the value of {@link #size(Object)}.
+	 * @param object the object whose marshalled size is to be estimated
+	 * @return the estimated marshalled size of the specified object.
+	 */
+	default OptionalInt estimateSize(Object object) {
+		return this.size(object);
+	}
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the marshalling of an object to a buffer.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.marshalling.Marshal")
+@Label("Marshal")
+@Description("Marshalling of an object to a buffer")
+@Category({ "WildFly", "Clustering", "Marshalling" })
+@StackTrace(false)
+class MarshalEvent extends Event {
+	@Label("Type")
+	@Description("The class of the marshalled object")
+	String type;
+
+	@Label("Size")
+	@DataAmount(DataAmount.BYTES)
+	int size;
+}
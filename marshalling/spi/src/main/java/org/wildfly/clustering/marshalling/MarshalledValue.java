@@ -6,6 +6,7 @@
 package org.wildfly.clustering.marshalling;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Offers semantics similar to a {@link java.rmi.MarshalledObject#get()}, but supports an independent marshalling context.
@@ -21,4 +22,14 @@ public interface MarshalledValue<T, C> {
 	 * @throws IOException if the value could not be unmarshalled.
 	 */
 	T get(C context) throws IOException;
+
+	/**
+	 * Returns the class of the wrapped value, if it can be determined without unmarshalling.
+	 * @param context a marshalling context
+	 * @return the class of the wrapped value, if it can be determined cheaply
+	 * @throws IOException if the type information of the value could not be read
+	 */
+	default Optional<Class<?>> getType(C context) throws IOException {
+		return Optional.empty();
+	}
 }
@@ -5,6 +5,7 @@
 package org.wildfly.clustering.marshalling;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Marshaller that stores attribute values using marshalled values.
@@ -35,6 +36,12 @@ public class MarshalledValueMarshaller<V, C> implements Marshaller<V, Marshalled
 		return this.factory.createMarshalledValue(object);
 	}
 
+	@Override
+	public Optional<Class<?>> readType(MarshalledValue<V, C> value) throws IOException {
+		if (value == null) return Optional.empty();
+		return value.getType(this.factory.getMarshallingContext());
+	}
+
 	@Override
 	public boolean test(Object object) {
 		return this.factory.test(object);
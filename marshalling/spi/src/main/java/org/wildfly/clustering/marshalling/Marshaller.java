@@ -5,6 +5,7 @@
 package org.wildfly.clustering.marshalling;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.wildfly.clustering.function.Predicate;
 
@@ -37,6 +38,11 @@ public interface Marshaller<V, S> extends Predicate<Object> {
 			public T write(T value) {
 				return value;
 			}
+
+			@Override
+			public Optional<Class<?>> readType(T value) {
+				return Optional.ofNullable(value).map(Object::getClass);
+			}
 		};
 	}
 
@@ -55,4 +61,15 @@ public interface Marshaller<V, S> extends Predicate<Object> {
 	 * @throws IOException if the value could not be written
 	 */
 	S write(V value) throws IOException;
+
+	/**
+	 * Returns the class of the value of the specified marshalled form, if it can be determined without unmarshalling it, e.g. from type information within the marshalled form.
+	 * By default, returns an empty value, indicating that the class of the value can only be determined via {@link #read(Object)}.
+	 * @param value the marshalled form
+	 * @return the class of the unmarshalled value, if it can be determined cheaply
+	 * @throws IOException if the marshalled form could not be read
+	 */
+	default Optional<Class<?>> readType(S value) throws IOException {
+		return Optional.empty();
+	}
 }
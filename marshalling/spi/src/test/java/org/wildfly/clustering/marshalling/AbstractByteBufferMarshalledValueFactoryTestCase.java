@@ -96,6 +96,22 @@ public abstract class AbstractByteBufferMarshalledValueFactoryTestCase {
 		assertThat(mv.hashCode()).isEqualTo(0);
 	}
 
+	@Test
+	public void getType() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		ByteBufferMarshalledValue<UUID> mv = this.factory.createMarshalledValue(uuid);
+		assertThat(mv.getType(this.marshaller)).hasValue(UUID.class);
+
+		ByteBufferMarshalledValue<UUID> copy = this.replicate(mv);
+		// Not all marshallers can read the type of a marshalled object
+		copy.getType(this.marshaller).ifPresent(type -> assertThat(type).isSameAs(UUID.class));
+		// Reading the type must not unmarshal the value
+		assertThat(copy.peek()).isNull();
+		assertThat(copy.get(this.marshaller)).isEqualTo(uuid);
+
+		assertThat(this.factory.createMarshalledValue(null).getType(this.marshaller)).isEmpty();
+	}
+
 	@SuppressWarnings("unchecked")
 	<V> ByteBufferMarshalledValue<V> replicate(ByteBufferMarshalledValue<V> value) throws IOException {
 		OptionalInt size = this.marshaller.size(value);
@@ -0,0 +1,42 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link BufferSizePredictor}.
+ * @author Paul Ferraro
+ */
+public class BufferSizePredictorTestCase {
+
+	@Test
+	public void test() {
+		BufferSizePredictor predictor = new BufferSizePredictor();
+
+		assertThat(predictor.predict(null)).isEmpty();
+		assertThat(predictor.predict("foo")).isEmpty();
+
+		predictor.record("foo", 800);
+
+		// Predictions include headroom
+		assertThat(predictor.predict("bar")).hasValue(900);
+		// Other classes are independent
+		assertThat(predictor.predict(Integer.valueOf(1))).isEmpty();
+
+		predictor.record("bar", 1600);
+
+		// Moving average converges toward recent samples
+		assertThat(predictor.predict("baz")).hasValue(1012);
+
+		for (int i = 0; i < 100; ++i) {
+			predictor.record("baz", 1600);
+		}
+		assertThat(predictor.predict("qux").getAsInt()).isBetween(1600, 1800);
+	}
+}
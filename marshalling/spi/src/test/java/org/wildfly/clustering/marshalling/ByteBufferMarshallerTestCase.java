@@ -0,0 +1,64 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.marshalling;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for buffer sizing of {@link AbstractByteBufferMarshaller}.
+ * @author Paul Ferraro
+ */
+public class ByteBufferMarshallerTestCase {
+
+	private final ByteBufferMarshaller marshaller = new AbstractByteBufferMarshaller(ByteBufferMarshallerTestCase.class.getClassLoader()) {
+		@Override
+		public Object readFrom(InputStream input) throws IOException {
+			return input.readAllBytes();
+		}
+
+		@Override
+		public void writeTo(OutputStream output, Object object) throws IOException {
+			output.write((byte[]) object);
+		}
+
+		@Override
+		public boolean test(Object object) {
+			return object instanceof byte[];
+		}
+	};
+
+	@Test
+	public void write() throws IOException {
+		// Unpredicted buffers must not retain excessive capacity
+		assertWrite(1000);
+
+		for (int i = 0; i < 100; ++i) {
+			assertWrite(4000);
+		}
+		// Buffer sized via an accurate prediction is retained as is, including its headroom
+		ByteBuffer buffer = this.marshaller.write(new byte[4000]);
+		assertThat(buffer.capacity()).isGreaterThan(4000);
+
+		// Buffer sized via an overestimated prediction is trimmed
+		ByteBuffer trimmed = this.marshaller.write(new byte[1000]);
+		assertThat(trimmed.remaining()).isEqualTo(1000);
+		assertThat(trimmed.capacity()).isEqualTo(1000);
+	}
+
+	private void assertWrite(int size) throws IOException {
+		ByteBuffer buffer = this.marshaller.write(new byte[size]);
+		assertThat(buffer.remaining()).isEqualTo(size);
+		assertThat(buffer.capacity() - size).isLessThanOrEqualTo(size >> 2);
+		assertThat((byte[]) this.marshaller.read(buffer)).hasSize(size);
+	}
+}
@@ -5,8 +5,10 @@
 
 package org.wildfly.clustering.server.infinispan.scheduler;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -16,55 +18,67 @@ import org.wildfly.clustering.cache.infinispan.embedded.distribution.CacheStream
 import org.wildfly.clustering.function.Consumer;
 
 /**
- * Invokes a task against cache entries matching a filter.
+ * Invokes a task against cache entries whose keys match a filter.
+ * Keys are streamed first, such that the values of non-matching entries are never loaded from a cache store nor unmarshalled.
+ * The values of matching entries are then looked up in batches.
  * @author Paul Ferraro
  * @param <K> cache key type
  * @param <V> cache value type
  */
-public class CacheEntriesTask<K, V> implements Consumer<CacheStreamFilter<Map.Entry<K, V>>> {
+public class CacheEntriesTask<K, V> implements Consumer<CacheStreamFilter<K>> {
 	private final Cache<K, V> cache;
-	private final Predicate<Map.Entry<? super K, ? super V>> filter;
+	private final Predicate<? super K> filter;
 	private final Consumer<Map.Entry<K, V>> task;
+	private final int batchSize;
 
-	CacheEntriesTask(Cache<K, V> cache, Predicate<Map.Entry<? super K, ? super V>> filter, Consumer<Map.Entry<K, V>> task) {
+	CacheEntriesTask(Cache<K, V> cache, Predicate<? super K> filter, Consumer<Map.Entry<K, V>> task) {
 		this.cache = cache;
 		this.filter = filter;
 		this.task = task;
+		// Align with default distributed batch size of cache streams
+		this.batchSize = cache.getCacheConfiguration().clustering().stateTransfer().chunkSize();
 	}
 
 	/**
-	 * Creates a task that schedules entries matching the specified filter.
+	 * Creates a task that schedules entries whose keys match the specified filter.
 	 * @param <I> the cache key identifier type
 	 * @param <K> the cache key type
 	 * @param <V> the cache value type
 	 * @param cache an embedded cache
-	 * @param filter a cache entry filter
+	 * @param filter a cache key filter
 	 * @param scheduler the target scheduler
-	 * @return a task that schedules entries matching the specified filter.
+	 * @return a task that schedules entries whose keys match the specified filter.
 	 */
-	public static <I, K extends Key<I>, V> Consumer<CacheStreamFilter<Map.Entry<K, V>>> schedule(Cache<K, V> cache, Predicate<Map.Entry<? super K, ? super V>> filter, CacheEntryScheduler<K, V> scheduler) {
+	public static <I, K extends Key<I>, V> Consumer<CacheStreamFilter<K>> schedule(Cache<K, V> cache, Predicate<? super K> filter, CacheEntryScheduler<K, V> scheduler) {
 		return new CacheEntriesTask<>(cache, filter, scheduler::scheduleEntry);
 	}
 
-	/**
-	 * Creates a task that cancels entries matching the specified filter.
-	 * @param <I> the cache key identifier type
-	 * @param <K> the cache key type
-	 * @param <V> the cache value type
-	 * @param cache an embedded cache
-	 * @param filter a cache entry filter
-	 * @param scheduler the target scheduler
-	 * @return a task that cancels entries matching the specified filter.
-	 */
-	public static <I, K extends Key<I>, V> Consumer<CacheStreamFilter<Map.Entry<K, V>>> cancel(Cache<K, V> cache, Predicate<Map.Entry<? super K, ? super V>> filter, CacheEntryScheduler<K, V> scheduler) {
-		org.wildfly.clustering.function.Consumer<K> cancel = scheduler::cancelKey;
-		return new CacheEntriesTask<>(cache, filter, cancel.compose(Map.Entry::getKey));
+	@Override
+	public void accept(CacheStreamFilter<K> filter) {
+		// Cache stream filters operate on key segments, independently of the stream element type
+		@SuppressWarnings("unchecked")
+		CacheStreamFilter<Map.Entry<K, V>> entryFilter = (CacheStreamFilter<Map.Entry<K, V>>) (CacheStreamFilter<?>) filter;
+		// Iterate over filtered keys
+		try (Stream<K> stream = filter.apply(this.cache.keySet().stream()).filter(this.filter)) {
+			Iterator<K> keys = stream.iterator();
+			Set<K> batch = new HashSet<>();
+			while (keys.hasNext()) {
+				if (Thread.currentThread().isInterrupted()) return;
+				batch.add(keys.next());
+				if (batch.size() == this.batchSize) {
+					this.accept(entryFilter, batch);
+					batch = new HashSet<>();
+				}
+			}
+			if (!batch.isEmpty()) {
+				this.accept(entryFilter, batch);
+			}
+		}
 	}
 
-	@Override
-	public void accept(CacheStreamFilter<Map.Entry<K, V>> filter) {
-		// Iterate over filtered entries
-		try (Stream<Map.Entry<K, V>> stream = filter.apply(this.cache.entrySet().stream()).filter(this.filter)) {
+	private void accept(CacheStreamFilter<Map.Entry<K, V>> filter, Set<K> keys) {
+		// Look up entries of matching keys only, applying the same filter as the key stream, e.g. to restrict the lookup to local segments
+		try (Stream<Map.Entry<K, V>> stream = filter.apply(this.cache.entrySet().stream()).filterKeys(keys)) {
 			Iterator<Map.Entry<K, V>> entries = stream.iterator();
 			while (entries.hasNext()) {
 				if (Thread.currentThread().isInterrupted()) break;
@@ -0,0 +1,43 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the round trip of a command dispatched to a remote member, from send until receipt of its response.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.server.dispatcher.Dispatch")
+@Label("Command Dispatch")
+@Description("Round trip of a command dispatched to a remote member")
+@Category({ "WildFly", "Clustering", "Dispatcher" })
+@StackTrace(false)
+class CommandDispatchEvent extends Event {
+	@Label("Dispatcher")
+	String dispatcher;
+
+	@Label("Command")
+	String command;
+
+	@Label("Member")
+	String member;
+
+	@Label("Size")
+	@Description("The size of the sent message payload")
+	@DataAmount(DataAmount.BYTES)
+	int size;
+
+	@Label("Outcome")
+	@Description("Whether the command completed, failed, or was cancelled")
+	String outcome;
+}
@@ -6,6 +6,7 @@
 package org.wildfly.clustering.server.jgroups.dispatcher;
 
 import org.wildfly.clustering.context.Contextualizer;
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
 import org.wildfly.clustering.marshalling.MarshalledValueFactory;
 
 /**
@@ -15,6 +16,18 @@ import org.wildfly.clustering.marshalling.MarshalledValueFactory;
  * @author Paul Ferraro
  */
 public interface CommandDispatcherContext<CC, MC> {
+	/**
+	 * Returns the identifier of a command dispatcher.
+	 * @return the identifier of a command dispatcher.
+	 */
+	Object getId();
+
+	/**
+	 * Returns the marshaller of commands for a command dispatcher.
+	 * @return the marshaller of commands for a command dispatcher.
+	 */
+	ByteBufferMarshaller getCommandMarshaller();
+
 	/**
 	 * Returns the command context.
 	 * @return the command context.
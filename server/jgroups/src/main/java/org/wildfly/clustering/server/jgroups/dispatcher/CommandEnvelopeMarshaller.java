@@ -0,0 +1,101 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.OptionalInt;
+
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.ByteBufferOutputStream;
+import org.wildfly.clustering.marshalling.IndexSerializer;
+import org.wildfly.clustering.server.dispatcher.Command;
+
+/**
+ * Marshaller for commands, writing each command to a single envelope.
+ * An envelope consists of a header containing a marker byte and the marshalled dispatcher identifier, followed directly by the marshalled command.
+ * The header is computed once per dispatcher, so that only the command itself is marshalled per message.
+ * As members that predate this format cannot read envelopes, this format is only written if enabled via the {@value #ENABLED_PROPERTY} system property, e.g. once all members of a cluster were upgraded.
+ * Envelopes are always readable, regardless of whether this format is enabled.
+ * @param <CC> the command execution context
+ * @author Paul Ferraro
+ */
+public class CommandEnvelopeMarshaller<CC> implements CommandMarshaller<CC> {
+	/** Name of the system property that enables the writing of command envelopes */
+	static final String ENABLED_PROPERTY = "org.wildfly.clustering.server.jgroups.dispatcher.envelope";
+	/** Indicates whether commands are written using command envelopes */
+	static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+	// Distinguishes an envelope from a marshalled dispatcher identifier and command entry, whose first byte is either a marshalling version or a protobuf tag, for which 0xFF would indicate an invalid wire type
+	static final byte MARKER = (byte) 0xFF;
+
+	private final byte[] header;
+	private final ByteBufferMarshaller marshaller;
+
+	/**
+	 * Creates a marshaller of dispatched commands.
+	 * @param key the marshalled dispatcher identifier
+	 * @param marshaller the marshaller of dispatched commands
+	 */
+	public CommandEnvelopeMarshaller(ByteBuffer key, ByteBufferMarshaller marshaller) {
+		this.header = createHeader(key);
+		this.marshaller = marshaller;
+	}
+
+	@Override
+	public <R, E extends Exception> ByteBuffer marshal(Command<R, ? super CC, E> command) throws IOException {
+		OptionalInt size = this.marshaller.estimateSize(command);
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream(size.isPresent() ? OptionalInt.of(this.header.length + size.getAsInt()) : OptionalInt.empty())) {
+			output.write(this.header);
+			this.marshaller.writeTo(output, command);
+			return output.getBuffer();
+		}
+	}
+
+	/**
+	 * Reads the marshalled dispatcher identifier from the header of the specified buffer, if it contains a command envelope, advancing its position to the start of the marshalled command.
+	 * @param buffer a buffer containing a marshalled command
+	 * @return a read-only buffer containing the marshalled dispatcher identifier, or null, if the specified buffer does not contain a command envelope, in which case its position is unchanged.
+	 * @throws IOException if the header of the specified envelope is malformed
+	 */
+	static ByteBuffer readKey(ByteBuffer buffer) throws IOException {
+		if (!buffer.hasRemaining() || (buffer.get(buffer.position()) != MARKER)) return null;
+		buffer.get();
+		int length = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if (!buffer.hasRemaining() || (shift > 28)) {
+				throw new IOException("Malformed command header");
+			}
+			b = buffer.get();
+			length |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		if ((length < 0) || (length > buffer.remaining())) {
+			throw new IOException("Malformed command header");
+		}
+		ByteBuffer key = buffer.slice(buffer.position(), length).asReadOnlyBuffer();
+		buffer.position(buffer.position() + length);
+		return key;
+	}
+
+	private static byte[] createHeader(ByteBuffer key) {
+		int length = key.remaining();
+		try (ByteBufferOutputStream output = new ByteBufferOutputStream(1 + IndexSerializer.VARIABLE.size(length) + length)) {
+			output.write(MARKER);
+			try (DataOutputStream data = new DataOutputStream(output)) {
+				IndexSerializer.VARIABLE.writeInt(data, length);
+			}
+			byte[] bytes = new byte[length];
+			key.get(key.position(), bytes);
+			output.writeBytes(bytes);
+			return output.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+/**
+ * Exposes metrics for the execution of commands received by a {@link JChannelCommandDispatcherFactory}.
+ * @author Paul Ferraro
+ */
+public interface CommandExecutionMetrics {
+
+	/**
+	 * Returns the number of received commands accepted for execution, but not yet started.
+	 * @return the number of pending commands
+	 */
+	long getPendingCount();
+
+	/**
+	 * Returns the number of received commands currently executing.
+	 * @return the number of active commands
+	 */
+	long getActiveCount();
+
+	/**
+	 * Returns the number of received commands that completed execution.
+	 * @return the number of completed commands
+	 */
+	long getCompletedCount();
+
+	/**
+	 * Returns the number of received commands that were rejected by the command executor, and answered with {@link ServiceResponse#NO_SUCH_SERVICE}.
+	 * @return the number of rejected commands
+	 */
+	long getRejectedCount();
+}
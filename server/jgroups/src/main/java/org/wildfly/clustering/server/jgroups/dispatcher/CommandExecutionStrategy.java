@@ -0,0 +1,135 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.JChannel;
+import org.wildfly.clustering.context.DefaultThreadFactory;
+
+/**
+ * Strategy for executing commands received by a {@link JChannelCommandDispatcherFactory}.
+ * @author Paul Ferraro
+ */
+public interface CommandExecutionStrategy {
+
+	/**
+	 * Executes commands via the thread pool of the channel transport.
+	 */
+	CommandExecutionStrategy TRANSPORT = new CommandExecutionStrategy() {
+		@Override
+		public CommandExecutor createExecutor(JChannel channel) {
+			return new CommandExecutor() {
+				@Override
+				public void execute(Runnable task) {
+					channel.getProtocolStack().getTransport().getThreadPool().getThreadPool().execute(task);
+				}
+
+				@Override
+				public void close() {
+					// Transport thread pool is managed by the channel
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return "transport";
+		}
+	};
+
+	/**
+	 * Creates an executor of commands received via the specified channel.
+	 * @param channel the channel of a command dispatcher factory
+	 * @return an executor of commands
+	 */
+	CommandExecutor createExecutor(JChannel channel);
+
+	/**
+	 * Returns a strategy that executes each command via a new virtual thread.
+	 * Requires a runtime that supports virtual threads.
+	 * @return a command execution strategy
+	 */
+	static CommandExecutionStrategy virtualThreadPerCommand() {
+		return new CommandExecutionStrategy() {
+			@Override
+			public CommandExecutor createExecutor(JChannel channel) {
+				MethodHandle factory;
+				try {
+					factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+				} catch (NoSuchMethodException | IllegalAccessException e) {
+					throw new UnsupportedOperationException(Runtime.version().toString(), e);
+				}
+				try {
+					return of((ExecutorService) factory.invokeExact());
+				} catch (RuntimeException | Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "virtual-thread-per-command";
+			}
+		};
+	}
+
+	/**
+	 * Returns a strategy that executes commands via a dedicated pool of threads, using a bounded queue.
+	 * Commands received while the pool and its queue are saturated are rejected.
+	 * @param maxThreads the maximum number of threads
+	 * @param queueCapacity the maximum number of commands pending execution
+	 * @return a command execution strategy
+	 * @throws IllegalArgumentException if the maximum number of threads is not positive, or the queue capacity is negative
+	 */
+	static CommandExecutionStrategy bounded(int maxThreads, int queueCapacity) {
+		if (maxThreads <= 0) {
+			throw new IllegalArgumentException(Integer.toString(maxThreads));
+		}
+		if (queueCapacity < 0) {
+			throw new IllegalArgumentException(Integer.toString(queueCapacity));
+		}
+		return new CommandExecutionStrategy() {
+			@Override
+			public CommandExecutor createExecutor(JChannel channel) {
+				BlockingQueue<Runnable> queue = (queueCapacity > 0) ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+				ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, queue, new DefaultThreadFactory(JChannelCommandDispatcherFactory.class, JChannelCommandDispatcherFactory.class.getClassLoader()));
+				executor.allowCoreThreadTimeOut(true);
+				return of(executor);
+			}
+
+			@Override
+			public String toString() {
+				return String.format("bounded(threads=%d, queue=%d)", maxThreads, queueCapacity);
+			}
+		};
+	}
+
+	private static CommandExecutor of(ExecutorService executor) {
+		return new CommandExecutor() {
+			@Override
+			public void execute(Runnable task) {
+				executor.execute(task);
+			}
+
+			@Override
+			public void close() {
+				executor.shutdown();
+			}
+		};
+	}
+}
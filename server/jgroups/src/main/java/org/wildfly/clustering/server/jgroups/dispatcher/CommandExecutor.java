@@ -0,0 +1,30 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executes commands received by a {@link JChannelCommandDispatcherFactory}.
+ * @author Paul Ferraro
+ */
+public interface CommandExecutor extends Executor, AutoCloseable {
+
+	/**
+	 * Executes the specified command execution task.
+	 * @param task a command execution task
+	 * @throws java.util.concurrent.RejectedExecutionException if the specified task cannot be accepted for execution
+	 */
+	@Override
+	void execute(Runnable task);
+
+	/**
+	 * Releases any resources of this executor.
+	 * Previously submitted tasks are still executed.
+	 */
+	@Override
+	void close();
+}
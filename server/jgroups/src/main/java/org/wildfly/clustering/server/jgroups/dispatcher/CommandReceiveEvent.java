@@ -0,0 +1,36 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording a command received from a remote member, from receipt until completion of its execution.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.server.dispatcher.Receive")
+@Label("Command Receive")
+@Description("Receipt and execution of a command dispatched by a remote member")
+@Category({ "WildFly", "Clustering", "Dispatcher" })
+@StackTrace(false)
+class CommandReceiveEvent extends Event {
+	@Label("Dispatcher")
+	String dispatcher;
+
+	@Label("Command")
+	String command;
+
+	@Label("Size")
+	@Description("The size of the received message payload")
+	@DataAmount(DataAmount.BYTES)
+	int size;
+}
@@ -140,8 +140,7 @@ public class JChannelCommandDispatcher<CC, MC> implements CommandDispatcher<Chan
 			return this.execute(command);
 		}
 		ByteBuffer buffer = this.createBuffer(command);
-		Address address = member.getId();
-		return this.send(buffer, address);
+		return this.send(command, buffer, member);
 	}
 
 	@Override
@@ -154,9 +153,8 @@ public class JChannelCommandDispatcher<CC, MC> implements CommandDispatcher<Chan
 				if (this.group.getLocalMember().equals(member)) {
 					results.put(member, this.execute(command));
 				} else {
-					Address address = member.getId();
 					try {
-						CompletionStage<R> result = this.send(buffer, address);
+						CompletionStage<R> result = this.send(command, buffer, member);
 						// Don't chain - we want returned stage to throw a CancellationException when necessary.
 						result.whenComplete(new PruneCancellationTask<>(results, member));
 						results.put(member, result);
@@ -173,10 +171,28 @@ public class JChannelCommandDispatcher<CC, MC> implements CommandDispatcher<Chan
 		return results;
 	}
 
-	private <R> CompletionStage<R> send(ByteBuffer buffer, Address address) throws IOException {
+	private <R, E extends Exception> CompletionStage<R> send(Command<R, ? super CC, E> command, ByteBuffer buffer, ChannelGroupMember member) throws IOException {
+		CommandDispatchEvent event = new CommandDispatchEvent();
+		event.begin();
 		try {
+			Address address = member.getId();
 			Message message = this.createMessage(buffer, address);
 			ServiceRequest<R, MC> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), address, this.options, this.marshallingContext);
+			if (event.isEnabled()) {
+				request.whenComplete(new BiConsumer<>() {
+					@Override
+					public void accept(R result, Throwable exception) {
+						if (event.shouldCommit()) {
+							event.dispatcher = JChannelCommandDispatcher.this.id.toString();
+							event.command = command.getClass().getName();
+							event.member = member.getName();
+							event.size = message.getLength();
+							event.outcome = (exception == null) ? "completed" : (exception instanceof CancellationException) ? "cancelled" : "failed";
+							event.commit();
+						}
+					}
+				});
+			}
 			request.sendRequest(message);
 			return request;
 		} catch (Exception e) {
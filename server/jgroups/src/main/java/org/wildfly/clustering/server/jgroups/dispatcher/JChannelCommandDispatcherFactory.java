@@ -10,6 +10,7 @@ import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -73,15 +74,31 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 		 * @return a factory for creating command dispatcher specific marshaller.
 		 */
 		Function<ClassLoader, ByteBufferMarshaller> getMarshallerFactory();
+
+		/**
+		 * Returns the strategy for executing received commands.
+		 * By default, received commands execute via the thread pool of the channel transport.
+		 * @return the strategy for executing received commands.
+		 */
+		default CommandExecutionStrategy getCommandExecutionStrategy() {
+			return CommandExecutionStrategy.TRANSPORT;
+		}
 	}
 
 	private final JChannelGroup group;
 	private final Map<Object, CommandDispatcherContext<?, ?>> contexts = new ConcurrentHashMap<>();
+	// Keyed by marshalled dispatcher identifier, for commands received via envelopes
+	private final Map<ByteBuffer, CommandDispatcherContext<?, ?>> envelopeContexts = new ConcurrentHashMap<>();
 	private final BlockingExecutor executor = BlockingExecutor.newInstance(this);
 	private final ByteBufferMarshaller marshaller;
 	private final MessageDispatcher dispatcher;
 	private final Duration timeout;
 	private final Function<ClassLoader, ByteBufferMarshaller> marshallerFactory;
+	private final CommandExecutor commandExecutor;
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder started = new LongAdder();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
 
 	/**
 	 * Creates a channel-based command dispatcher factory using the specified configuration.
@@ -96,6 +113,7 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 		RSVP rsvp = stack.findProtocol(RSVP.class);
 		this.timeout = Duration.ofMillis((rsvp != null) ? rsvp.getTimeout() : stack.getTransport().getWhoHasCacheTimeout());
 		this.group = new JChannelGroup(channel);
+		this.commandExecutor = config.getCommandExecutionStrategy().createExecutor(channel);
 		RequestCorrelator correlator = new CommandDispatcherRequestCorrelator(channel, this, config);
 		this.dispatcher = new MessageDispatcher()
 				.setChannel(channel)
@@ -112,6 +130,7 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 		this.dispatcher.stop();
 		this.dispatcher.getChannel().setUpHandler(null);
 		this.group.close();
+		this.commandExecutor.close();
 	}
 
 	@Override
@@ -127,39 +146,103 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 	@Override
 	public void handle(Message request, Response response) throws Exception {
 		Callable<Object> commandTask = this.read(request);
+		LongAdder started = this.started;
+		LongAdder completed = this.completed;
 		Runnable responseTask = new Runnable() {
 			@Override
 			public void run() {
+				started.increment();
 				try {
 					response.send(commandTask.call(), false);
 				} catch (Throwable e) {
 					response.send(e, true);
+				} finally {
+					completed.increment();
 				}
 			}
 		};
+		this.submitted.increment();
 		try {
-			this.dispatcher.getChannel().getProtocolStack().getTransport().getThreadPool().getThreadPool().execute(responseTask);
+			this.commandExecutor.execute(responseTask);
 		} catch (RejectedExecutionException e) {
+			this.submitted.decrement();
+			this.rejected.increment();
 			response.send(ServiceResponse.NO_SUCH_SERVICE, false);
 		}
 	}
 
+	/**
+	 * Returns metrics for the execution of received commands.
+	 * @return metrics for the execution of received commands.
+	 */
+	public CommandExecutionMetrics getCommandExecutionMetrics() {
+		LongAdder submitted = this.submitted;
+		LongAdder started = this.started;
+		LongAdder completed = this.completed;
+		LongAdder rejected = this.rejected;
+		return new CommandExecutionMetrics() {
+			@Override
+			public long getPendingCount() {
+				// Read started count first, to avoid reporting a negative value
+				long startedCount = started.sum();
+				return Math.max(0, submitted.sum() - startedCount);
+			}
+
+			@Override
+			public long getActiveCount() {
+				long completedCount = completed.sum();
+				return Math.max(0, started.sum() - completedCount);
+			}
+
+			@Override
+			public long getCompletedCount() {
+				return completed.sum();
+			}
+
+			@Override
+			public long getRejectedCount() {
+				return rejected.sum();
+			}
+		};
+	}
+
 	private Callable<Object> read(Message message) throws IOException {
+		CommandReceiveEvent event = new CommandReceiveEvent();
+		event.begin();
 		ByteBuffer buffer = ByteBuffer.wrap(message.getArray(), message.getOffset(), message.getLength());
+		ByteBuffer key = CommandEnvelopeMarshaller.readKey(buffer);
+		if (key != null) {
+			CommandDispatcherContext<?, ?> context = this.envelopeContexts.get(key);
+			if (context == null) return NO_SUCH_SERVICE_CALLER;
+			@SuppressWarnings("unchecked")
+			Command<Object, Object, Exception> command = (Command<Object, Object, Exception>) context.getCommandMarshaller().read(buffer);
+			return this.createCommandTask(message, event, context, command);
+		}
+		// Command was not written to an envelope
 		@SuppressWarnings("unchecked")
 		Map.Entry<Object, MarshalledValue<Command<Object, Object, Exception>, Object>> entry = (Map.Entry<Object, MarshalledValue<Command<Object, Object, Exception>, Object>>) this.marshaller.read(buffer);
-		Object id = entry.getKey();
-		CommandDispatcherContext<?, ?> context = this.contexts.get(id);
+		CommandDispatcherContext<?, ?> context = this.contexts.get(entry.getKey());
 		if (context == null) return NO_SUCH_SERVICE_CALLER;
+		return this.createCommandTask(message, event, context, entry.getValue().get(context.getMarshalledValueFactory().getMarshallingContext()));
+	}
+
+	private Callable<Object> createCommandTask(Message message, CommandReceiveEvent event, CommandDispatcherContext<?, ?> context, Command<Object, Object, Exception> command) {
 		Object commandContext = context.getCommandContext();
 		Contextualizer contextualizer = context.getContextualizer();
-		MarshalledValue<Command<Object, Object, Exception>, Object> value = entry.getValue();
-		Command<Object, Object, Exception> command = value.get(context.getMarshalledValueFactory().getMarshallingContext());
-		LOGGER.log(System.Logger.Level.TRACE, "{0} received {1} command on {2}", id, command, this.group.getLocalMember());
+		LOGGER.log(System.Logger.Level.TRACE, "{0} received {1} command on {2}", context.getId(), command, this.group.getLocalMember());
 		Callable<Object> commandExecutionTask = new Callable<>() {
 			@Override
 			public Object call() throws Exception {
-				return context.getMarshalledValueFactory().createMarshalledValue(command.execute(commandContext));
+				try {
+					return context.getMarshalledValueFactory().createMarshalledValue(command.execute(commandContext));
+				} finally {
+					if (event.shouldCommit()) {
+						event.dispatcher = context.getId().toString();
+						event.command = command.getClass().getName();
+						event.size = message.getLength();
+						event.commit();
+					}
+				}
 			}
 		};
 		BlockingExecutor executor = this.executor;
@@ -181,7 +264,18 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 		ByteBufferMarshaller dispatcherMarshaller = this.marshallerFactory.apply(loader);
 		MarshalledValueFactory<ByteBufferMarshaller> factory = new ByteBufferMarshalledValueFactory(dispatcherMarshaller);
 		Contextualizer contextualizer = DefaultContextualizerFactory.INSTANCE.createContextualizer(loader);
+		ByteBuffer key = this.createKey(id);
 		CommandDispatcherContext<C, ByteBufferMarshaller> context = new CommandDispatcherContext<>() {
+			@Override
+			public Object getId() {
+				return id;
+			}
+
+			@Override
+			public ByteBufferMarshaller getCommandMarshaller() {
+				return dispatcherMarshaller;
+			}
+
 			@Override
 			public C getCommandContext() {
 				return commandContext;
@@ -200,11 +294,15 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 		if (this.contexts.putIfAbsent(id, context) != null) {
 			throw new IllegalArgumentException(id.toString());
 		}
-		CommandMarshaller<C> commandMarshaller = new CommandDispatcherMarshaller<>(this.marshaller, id, factory);
+		this.envelopeContexts.put(key, context);
+		CommandMarshaller<C> commandMarshaller = CommandEnvelopeMarshaller.ENABLED ? new CommandEnvelopeMarshaller<>(key, dispatcherMarshaller) : new CommandDispatcherMarshaller<>(this.marshaller, id, factory);
 		MessageDispatcher dispatcher = this.dispatcher;
 		ChannelGroup group = this.group;
 		Duration timeout = this.timeout;
-		Runnable closeTask = () -> this.contexts.remove(id);
+		Runnable closeTask = () -> {
+			this.envelopeContexts.remove(key);
+			this.contexts.remove(id);
+		};
 		return new JChannelCommandDispatcher<>(new JChannelCommandDispatcher.Configuration<>() {
 			@Override
 			public Object getId() {
@@ -247,4 +345,12 @@ public class JChannelCommandDispatcherFactory implements ChannelCommandDispatche
 			}
 		});
 	}
+
+	private ByteBuffer createKey(Object id) {
+		try {
+			return this.marshaller.write(id).asReadOnlyBuffer();
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferMarshalledValueFactory;
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.JBossMarshallingTesterFactory;
+import org.wildfly.clustering.server.dispatcher.Command;
+
+/**
+ * Unit test for {@link CommandEnvelopeMarshaller}.
+ * @author Paul Ferraro
+ */
+public class CommandEnvelopeMarshallerTestCase {
+
+	private final ByteBufferMarshaller marshaller = new JBossMarshallingTesterFactory().getMarshaller();
+
+	@Test
+	public void test() throws IOException {
+		ByteBuffer key = this.marshaller.write("foo");
+		CommandMarshaller<Object> commandMarshaller = new CommandEnvelopeMarshaller<>(key, this.marshaller);
+		TestCommand command = new TestCommand("bar");
+
+		ByteBuffer buffer = commandMarshaller.marshal(command);
+		// Emulate a message payload at a non-zero offset
+		byte[] payload = new byte[buffer.remaining() + 3];
+		buffer.get(buffer.position(), payload, 3, buffer.remaining());
+		ByteBuffer envelope = ByteBuffer.wrap(payload, 3, payload.length - 3);
+
+		ByteBuffer result = CommandEnvelopeMarshaller.readKey(envelope);
+		assertThat(result).isEqualTo(key);
+		assertThat(this.marshaller.read(result)).isEqualTo("foo");
+		assertThat(this.marshaller.read(envelope)).isEqualTo(command);
+	}
+
+	@Test
+	public void malformed() {
+		assertThatIOException().isThrownBy(() -> CommandEnvelopeMarshaller.readKey(ByteBuffer.wrap(new byte[] { CommandEnvelopeMarshaller.MARKER })));
+		assertThatIOException().isThrownBy(() -> CommandEnvelopeMarshaller.readKey(ByteBuffer.wrap(new byte[] { CommandEnvelopeMarshaller.MARKER, 5, 1, 2 })));
+		assertThatIOException().isThrownBy(() -> CommandEnvelopeMarshaller.readKey(ByteBuffer.wrap(new byte[] { CommandEnvelopeMarshaller.MARKER, -1, -1, -1, -1, -1, -1 })));
+	}
+
+	@Test
+	public void legacy() throws IOException {
+		assertThat(CommandEnvelopeMarshaller.readKey(ByteBuffer.allocate(0))).isNull();
+
+		// Commands that were not written to an envelope must remain readable
+		CommandMarshaller<Object> commandMarshaller = new CommandDispatcherMarshaller<>(this.marshaller, "foo", new ByteBufferMarshalledValueFactory(this.marshaller));
+		TestCommand command = new TestCommand("bar");
+
+		ByteBuffer buffer = commandMarshaller.marshal(command);
+		int position = buffer.position();
+		assertThat(CommandEnvelopeMarshaller.readKey(buffer)).isNull();
+		assertThat(buffer.position()).isEqualTo(position);
+
+		@SuppressWarnings("unchecked")
+		Map.Entry<Object, MarshalledValue<TestCommand, ByteBufferMarshaller>> entry = (Map.Entry<Object, MarshalledValue<TestCommand, ByteBufferMarshaller>>) this.marshaller.read(buffer);
+		assertThat(entry.getKey()).isEqualTo("foo");
+		assertThat(entry.getValue().get(this.marshaller)).isEqualTo(command);
+	}
+
+	record TestCommand(String value) implements Command<String, Object, RuntimeException>, Serializable {
+		@Override
+		public String execute(Object context) {
+			return this.value;
+		}
+	}
+}
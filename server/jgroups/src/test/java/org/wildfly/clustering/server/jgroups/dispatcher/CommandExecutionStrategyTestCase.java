@@ -0,0 +1,68 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.jgroups.dispatcher;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.JChannel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link CommandExecutionStrategy}.
+ * @author Paul Ferraro
+ */
+public class CommandExecutionStrategyTestCase {
+
+	@Test
+	public void bounded() throws InterruptedException {
+		assertThatIllegalArgumentException().isThrownBy(() -> CommandExecutionStrategy.bounded(0, 1));
+		assertThatIllegalArgumentException().isThrownBy(() -> CommandExecutionStrategy.bounded(1, -1));
+
+		CountDownLatch blocker = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch completed = new CountDownLatch(2);
+		try (CommandExecutor executor = CommandExecutionStrategy.bounded(1, 1).createExecutor(mock(JChannel.class))) {
+			Runnable task = () -> {
+				started.countDown();
+				try {
+					blocker.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					completed.countDown();
+				}
+			};
+			executor.execute(task);
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			// Pool thread is busy, so task is queued
+			executor.execute(task);
+			// Pool and queue are saturated
+			assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> executor.execute(task));
+
+			blocker.countDown();
+			assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	public void virtualThreadPerCommand() throws InterruptedException {
+		CommandExecutionStrategy strategy = CommandExecutionStrategy.virtualThreadPerCommand();
+		if (Runtime.version().feature() < 21) {
+			assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> strategy.createExecutor(mock(JChannel.class)));
+			return;
+		}
+		CountDownLatch completed = new CountDownLatch(1);
+		try (CommandExecutor executor = strategy.createExecutor(mock(JChannel.class))) {
+			executor.execute(completed::countDown);
+			assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+}
@@ -161,18 +161,29 @@ public class LocalSchedulerService<K> extends SimpleService implements Scheduler
 
 	@Override
 	public void run() {
-		// Iterate over ScheduledEntries until we encounter a future entry
-		Iterator<Map.Entry<K, Instant>> entries = this.entries.iterator();
-		while (entries.hasNext()) {
-			if (Thread.currentThread().isInterrupted() || this.executor.isShutdown()) return;
-			Map.Entry<K, Instant> entry = entries.next();
-			// If this is a future entry, break out of loop
-			if (entry.getValue().isAfter(Instant.now())) break;
-			K key = entry.getKey();
-			LOGGER.log(System.Logger.Level.DEBUG, "Executing task for {1} on local {0} scheduler", this.name, key);
-			// Remove only if task is successful
-			if (this.task.test(key)) {
-				entries.remove();
+		SchedulerRunEvent event = new SchedulerRunEvent();
+		event.begin();
+		try {
+			// Iterate over ScheduledEntries until we encounter a future entry
+			Iterator<Map.Entry<K, Instant>> entries = this.entries.iterator();
+			while (entries.hasNext()) {
+				if (Thread.currentThread().isInterrupted() || this.executor.isShutdown()) return;
+				Map.Entry<K, Instant> entry = entries.next();
+				// If this is a future entry, break out of loop
+				if (entry.getValue().isAfter(Instant.now())) break;
+				K key = entry.getKey();
+				LOGGER.log(System.Logger.Level.DEBUG, "Executing task for {1} on local {0} scheduler", this.name, key);
+				event.executed += 1;
+				// Remove only if task is successful
+				if (this.task.test(key)) {
+					entries.remove();
+					event.completed += 1;
+				}
+			}
+		} finally {
+			if (event.shouldCommit()) {
+				event.scheduler = this.name;
+				event.commit();
 			}
 		}
 		// Schedule next task
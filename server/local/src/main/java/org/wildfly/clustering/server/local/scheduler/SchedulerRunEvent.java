@@ -0,0 +1,35 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.local.scheduler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording a run of the scheduled task of a {@link LocalSchedulerService}, e.g. session expiration.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.server.scheduler.Run")
+@Label("Scheduler Run")
+@Description("Execution of the tasks of all entries whose scheduled time has elapsed")
+@Category({ "WildFly", "Clustering", "Scheduler" })
+@StackTrace(false)
+class SchedulerRunEvent extends Event {
+	@Label("Scheduler")
+	String scheduler;
+
+	@Label("Executed")
+	@Description("The number of executed tasks")
+	int executed;
+
+	@Label("Completed")
+	@Description("The number of successfully executed tasks, whose entries were removed")
+	int completed;
+}
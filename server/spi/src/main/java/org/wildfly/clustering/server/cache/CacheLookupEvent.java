@@ -0,0 +1,52 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.server.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event recording the lookup of an entry from a {@link CacheStrategy#CONCURRENT} cache.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.server.cache.Lookup")
+@Label("Cache Lookup")
+@Description("Lookup of a shared entry from a concurrent cache")
+@Category({ "WildFly", "Clustering", "Cache" })
+@StackTrace(false)
+class CacheLookupEvent extends Event {
+	@Label("Hit")
+	@Description("Indicates whether the entry was already referenced by another thread")
+	boolean hit;
+
+	@Label("Lock Wait")
+	@Description("The time spent waiting to acquire the lock of the entry")
+	@Timespan(Timespan.NANOSECONDS)
+	long lockWait;
+
+	/**
+	 * Returns the start time of a potentially blocking lock acquisition, if this event is enabled.
+	 * @return a start time in nanoseconds
+	 */
+	long beginWait() {
+		return this.isEnabled() ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Records the time spent acquiring a lock, if this event is enabled.
+	 * @param start the value returned by {@link #beginWait()}
+	 */
+	void endWait(long start) {
+		if (this.isEnabled()) {
+			this.lockWait += System.nanoTime() - start;
+		}
+	}
+}
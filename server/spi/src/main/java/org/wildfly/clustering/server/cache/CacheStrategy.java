@@ -73,6 +73,9 @@ public enum CacheStrategy implements CacheFactory {
 
 				@Override
 				public V computeIfAbsent(K key, BiFunction<K, Runnable, V> factory) {
+					CacheLookupEvent event = new CacheLookupEvent();
+					event.begin();
+					event.hit = true;
 					V result = null;
 					// Create lock (or increment usage) first
 					StampedLock lock = this.locks.compute(key, addLockFunction).getValue();
@@ -87,7 +90,9 @@ public enum CacheStrategy implements CacheFactory {
 						if (!lock.validate(stamp)) {
 							// Optimistic read unsuccessful or invalid (i.e. another thread holds write lock)
 							// Acquire pessimistic read lock
+							long start = event.beginWait();
 							stamp = lock.readLock();
+							event.endWait(start);
 							// Re-read with read lock
 							result = reference.getPlain();
 						}
@@ -104,7 +109,9 @@ public enum CacheStrategy implements CacheFactory {
 								if (StampedLock.isReadLockStamp(stamp)) {
 									lock.unlockRead(stamp);
 								}
+								long start = event.beginWait();
 								stamp = lock.writeLock();
+								event.endWait(start);
 							}
 							// Re-read with write lock
 							result = reference.getPlain();
@@ -112,6 +119,7 @@ public enum CacheStrategy implements CacheFactory {
 						// If still necessary, invoke factory while holding write lock
 						// Limits factory invocation to a single thread
 						if (result == null) {
+							event.hit = false;
 							// This task will be run when our reference entry is removed
 							Runnable stop = () -> {
 								// Invoke stop task while holding write lock
@@ -146,6 +154,7 @@ public enum CacheStrategy implements CacheFactory {
 						if (result == null) {
 							this.remove(key, Runner.of());
 						}
+						event.commit();
 					}
 				}
 
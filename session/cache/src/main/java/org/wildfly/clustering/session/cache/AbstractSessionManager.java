@@ -8,6 +8,7 @@ package org.wildfly.clustering.session.cache;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
@@ -23,7 +24,9 @@ import org.wildfly.clustering.session.ImmutableSessionMetaData;
 import org.wildfly.clustering.session.Session;
 import org.wildfly.clustering.session.SessionManager;
 import org.wildfly.clustering.session.SessionManagerConfiguration;
+import org.wildfly.clustering.session.SessionMetrics;
 import org.wildfly.clustering.session.SessionStatistics;
+import org.wildfly.clustering.session.cache.metrics.SessionMetricsRegistry;
 
 /**
  * An abstract {@link SessionManager} implementation that delegates most implementation details to a {@link SessionFactory}.
@@ -45,6 +48,7 @@ public abstract class AbstractSessionManager<CC, MV, AV, SC> implements SessionM
 	private final Supplier<Batch> batchFactory;
 	private final UnaryOperator<Session<SC>> wrapper;
 	private final CacheProperties properties;
+	private final SessionMetricsRegistry metrics;
 
 	/**
 	 * Configuration of a session manager.
@@ -80,6 +84,12 @@ public abstract class AbstractSessionManager<CC, MV, AV, SC> implements SessionM
 		 * @return a task to invoke on session close.
 		 */
 		Consumer<ImmutableSession> getSessionCloseTask();
+
+		/**
+		 * Returns the registry of metrics for sessions of this session manager.
+		 * @return a registry of session metrics
+		 */
+		SessionMetricsRegistry getSessionMetrics();
 	}
 
 	/**
@@ -94,11 +104,13 @@ public abstract class AbstractSessionManager<CC, MV, AV, SC> implements SessionM
 		this.expiration = configuration;
 		this.expiredSessionHandler = configuration.getExpiredSessionHandler();
 		this.sessionFactory = configuration.getSessionFactory();
+		SessionMetricsRegistry metrics = configuration.getSessionMetrics();
+		this.metrics = metrics;
 		Consumer<ImmutableSession> sessionCloseTask = configuration.getSessionCloseTask();
 		this.wrapper = new UnaryOperator<>() {
 			@Override
 			public Session<SC> apply(Session<SC> session) {
-				return new AttachedSession<>(session, sessionCloseTask);
+				return new AttachedSession<>(session, metrics::recordInvalidation, sessionCloseTask.andThen(metrics::recordClose));
 			}
 		};
 		this.properties = cacheConfiguration.getCacheProperties();
@@ -137,12 +149,18 @@ public abstract class AbstractSessionManager<CC, MV, AV, SC> implements SessionM
 	@Override
 	public CompletionStage<Session<SC>> createSessionAsync(String id, Instant creationTime) {
 		this.logger.log(System.Logger.Level.TRACE, "Creating session {0}", id);
-		return this.sessionFactory.createValueAsync(id, Map.entry(creationTime.truncatedTo(ChronoUnit.MILLIS), this.expiration.getMaxIdle())).thenApply(entry -> this.wrapper.apply(this.sessionFactory.createSession(id, entry, this.context)));
+		SessionCreateEvent event = new SessionCreateEvent();
+		event.begin();
+		CompletionStage<Session<SC>> result = this.sessionFactory.createValueAsync(id, Map.entry(creationTime.truncatedTo(ChronoUnit.MILLIS), this.expiration.getMaxIdle())).thenApply(entry -> this.wrapper.apply(this.sessionFactory.createSession(id, entry, this.context)));
+		return event.isEnabled() ? result.whenComplete((session, exception) -> event.commit()) : result;
 	}
 
 	@Override
 	public CompletionStage<Session<SC>> findSessionAsync(String id) {
 		this.logger.log(System.Logger.Level.TRACE, "Locating session {0}", id);
+		SessionFindEvent event = new SessionFindEvent();
+		event.begin();
+		long start = System.nanoTime();
 		return this.sessionFactory.findValueAsync(id).thenApply(entry -> {
 			if (entry == null) {
 				this.logger.log(System.Logger.Level.TRACE, "Session {0} not found", id);
@@ -154,7 +172,15 @@ public abstract class AbstractSessionManager<CC, MV, AV, SC> implements SessionM
 				this.expiredSessionHandler.accept(this.sessionFactory.createImmutableSession(id, metaData, this.sessionFactory.getSessionAttributesFactory().createImmutableSessionAttributes(id, entry.getValue())));
 				return null;
 			}
+			this.metrics.recordAccess(metaData);
+			this.metrics.recordAttributes(entry.getValue());
 			return this.wrapper.apply(this.sessionFactory.createSession(id, entry, this.context));
+		}).whenComplete((session, exception) -> {
+			this.metrics.recordFind(System.nanoTime() - start);
+			if (event.shouldCommit()) {
+				event.found = (session != null);
+				event.commit();
+			}
 		});
 	}
 
@@ -167,4 +193,9 @@ public abstract class AbstractSessionManager<CC, MV, AV, SC> implements SessionM
 	public SessionStatistics getStatistics() {
 		return this;
 	}
+
+	@Override
+	public Optional<SessionMetrics> getMetrics() {
+		return Optional.of(this.metrics);
+	}
 }
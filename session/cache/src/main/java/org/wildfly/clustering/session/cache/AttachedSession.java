@@ -17,19 +17,30 @@ import org.wildfly.clustering.session.Session;
  * @author Paul Ferraro
  */
 public class AttachedSession<C> extends DecoratedSession<C> {
+	private final Runnable invalidateTask;
 	private final Runnable closeTask;
 
-	AttachedSession(Session<C> session, Consumer<ImmutableSession> closeTask) {
+	AttachedSession(Session<C> session, Consumer<ImmutableSession> invalidateTask, Consumer<ImmutableSession> closeTask) {
 		super(session);
+		this.invalidateTask = Supplier.of(session).thenAccept(invalidateTask);
 		this.closeTask = Supplier.of(session).thenAccept(closeTask);
 	}
 
+	@Override
+	public void invalidate() {
+		this.invalidateTask.run();
+		super.invalidate();
+	}
+
 	@Override
 	public void close() {
+		SessionCloseEvent event = new SessionCloseEvent();
+		event.begin();
 		try {
 			super.close();
 		} finally {
 			this.closeTask.run();
+			event.commit();
 		}
 	}
 }
@@ -79,17 +79,34 @@ public class CachedSessionManager<C> extends DecoratedSessionManager<C> {
 
 	@Override
 	public CompletionStage<Session<C>> createSessionAsync(String id) {
-		return this.sessionCache.computeIfAbsent(id, this.defaultSessionCreator).thenApply(this.validator);
+		return this.computeIfAbsent(id, "create", this.defaultSessionCreator);
 	}
 
 	@Override
 	public CompletionStage<Session<C>> createSessionAsync(String id, Instant creationTime) {
-		return this.sessionCache.computeIfAbsent(id, new SessionManagerFunction<>(this.batchFactory, this.sessionCreator.composeUnary(UnaryOperator.identity(), Function.of(creationTime)))).thenApply(this.validator);
+		return this.computeIfAbsent(id, "create", new SessionManagerFunction<>(this.batchFactory, this.sessionCreator.composeUnary(UnaryOperator.identity(), Function.of(creationTime))));
 	}
 
 	@Override
 	public CompletionStage<Session<C>> findSessionAsync(String id) {
-		return this.sessionCache.computeIfAbsent(id, this.sessionFinder).thenApply(this.validator);
+		return this.computeIfAbsent(id, "find", this.sessionFinder);
+	}
+
+	private CompletionStage<Session<C>> computeIfAbsent(String id, String operation, BiFunction<String, Runnable, CompletionStage<CacheableSession<C>>> factory) {
+		SessionShareEvent event = new SessionShareEvent();
+		if (!event.isEnabled()) {
+			return this.sessionCache.computeIfAbsent(id, factory).thenApply(this.validator);
+		}
+		event.begin();
+		event.operation = operation;
+		event.hit = true;
+		return this.sessionCache.computeIfAbsent(id, new BiFunction<>() {
+			@Override
+			public CompletionStage<CacheableSession<C>> apply(String key, Runnable closeTask) {
+				event.hit = false;
+				return factory.apply(key, closeTask);
+			}
+		}).thenApply(this.validator).whenComplete((session, exception) -> event.commit());
 	}
 
 	Set<String> keySet() {
@@ -4,9 +4,13 @@
  */
 package org.wildfly.clustering.session.cache;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
 import org.wildfly.clustering.cache.CacheEntryRemover;
+import org.wildfly.clustering.function.Runner;
 import org.wildfly.clustering.server.util.Supplied;
 import org.wildfly.clustering.session.Session;
 import org.wildfly.clustering.session.SessionMetaData;
@@ -71,8 +75,14 @@ public class CompositeSession<C> extends CompositeImmutableSession implements Se
 	public void close() {
 		if (this.metaData.isValid()) {
 			LOGGER.log(System.Logger.Level.TRACE, "Closing session {0}", this.getId());
-			this.attributes.close();
-			this.metaData.close();
+			// Issue attribute and metadata mutations concurrently, then wait for both
+			CompletionStage<Void> attributes = this.attributes.closeAsync();
+			CompletionStage<Void> metaData = this.metaData.closeAsync();
+			try {
+				attributes.runAfterBoth(metaData, Runner.of()).toCompletableFuture().join();
+			} catch (CompletionException | CancellationException e) {
+				LOGGER.log(System.Logger.Level.ERROR, e.getLocalizedMessage(), e);
+			}
 		} else {
 			LOGGER.log(System.Logger.Level.DEBUG, "Destroying session {0}", this.getId());
 			this.remover.remove(this.getId());
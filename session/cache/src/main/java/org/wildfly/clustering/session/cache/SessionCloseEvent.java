@@ -0,0 +1,25 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the closing of a session, including the persistence of any changes.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.session.Close")
+@Label("Session Close")
+@Description("The closing of a session, including the persistence of any changes")
+@Category({ "WildFly", "Clustering", "Session" })
+@StackTrace(false)
+class SessionCloseEvent extends Event {
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the creation of a session by the session manager.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.session.Create")
+@Label("Session Create")
+@Description("The creation of a session by the session manager")
+@Category({ "WildFly", "Clustering", "Session" })
+@StackTrace(false)
+class SessionCreateEvent extends Event {
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the lookup of a session from the session manager.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.session.Find")
+@Label("Session Find")
+@Description("The lookup of a session from the session manager")
+@Category({ "WildFly", "Clustering", "Session" })
+@StackTrace(false)
+class SessionFindEvent extends Event {
+	@Label("Found")
+	@Description("Indicates whether a valid session was found")
+	boolean found;
+}
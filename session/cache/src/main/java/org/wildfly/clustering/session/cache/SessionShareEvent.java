@@ -0,0 +1,31 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event recording the lookup of a session shared between concurrent requests.
+ * @author Paul Ferraro
+ */
+@Name("org.wildfly.clustering.session.Share")
+@Label("Session Share")
+@Description("The lookup of a session shared between concurrent requests")
+@Category({ "WildFly", "Clustering", "Session" })
+@StackTrace(false)
+class SessionShareEvent extends Event {
+	@Label("Operation")
+	String operation;
+
+	@Label("Hit")
+	@Description("Indicates whether the session was already referenced by a concurrent request")
+	boolean hit;
+}
@@ -5,6 +5,9 @@
 
 package org.wildfly.clustering.session.cache.attributes;
 
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
 import org.wildfly.clustering.marshalling.Marshaller;
 import org.wildfly.clustering.server.immutable.Immutability;
 import org.wildfly.clustering.session.SessionManagerFactoryConfiguration;
@@ -18,6 +21,7 @@ import org.wildfly.clustering.session.SessionManagerFactoryConfiguration;
 public abstract class AbstractSessionAttributesFactoryConfiguration<V, MV> implements SessionAttributesFactoryConfiguration<V, MV> {
 	private final Immutability immutability;
 	private final Marshaller<V, MV> marshaller;
+	private final Optional<ToLongFunction<Object>> digester;
 
 	/**
 	 * Creates a session attributes factory configuration
@@ -26,8 +30,20 @@ public abstract class AbstractSessionAttributesFactoryConfiguration<V, MV> imple
 	 * @param marshaller a session attributes marshaller
 	 */
 	protected <SC> AbstractSessionAttributesFactoryConfiguration(SessionManagerFactoryConfiguration<SC> configuration, Marshaller<V, MV> marshaller) {
+		this(configuration, marshaller, Optional.empty());
+	}
+
+	/**
+	 * Creates a session attributes factory configuration
+	 * @param <SC> a session context type
+	 * @param configuration a session manager factory configuration
+	 * @param marshaller a session attributes marshaller
+	 * @param digester an optional digester used to detect changes to mutable session attributes
+	 */
+	protected <SC> AbstractSessionAttributesFactoryConfiguration(SessionManagerFactoryConfiguration<SC> configuration, Marshaller<V, MV> marshaller, Optional<ToLongFunction<Object>> digester) {
 		this.immutability = configuration.getImmutability();
 		this.marshaller = marshaller;
+		this.digester = digester;
 	}
 
 	@Override
@@ -39,4 +55,9 @@ public abstract class AbstractSessionAttributesFactoryConfiguration<V, MV> imple
 	public Immutability getImmutability() {
 		return this.immutability;
 	}
+
+	@Override
+	public Optional<ToLongFunction<Object>> getDigester() {
+		return this.digester;
+	}
 }
@@ -43,6 +43,11 @@ public class ContainerSessionAttributeActivationNotifier<CC, S, L, SC> implement
 		this.notify(object, this.provider::getPostActivateEventNotifier);
 	}
 
+	@Override
+	public boolean isInterested(Class<?> attributeClass) {
+		return this.provider.isSessionEventListener(attributeClass);
+	}
+
 	private void notify(Object object, Function<L, Consumer<S>> factory) {
 		this.provider.getSessionEventListener(this.session, object).map(factory).orElse(Consumer.of()).accept(this.session);
 	}
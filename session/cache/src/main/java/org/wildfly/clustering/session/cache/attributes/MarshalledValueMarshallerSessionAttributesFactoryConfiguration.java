@@ -5,6 +5,8 @@
 
 package org.wildfly.clustering.session.cache.attributes;
 
+import java.util.Optional;
+
 import org.wildfly.clustering.marshalling.ByteBufferMarshalledValueFactory;
 import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
 import org.wildfly.clustering.marshalling.MarshalledValue;
@@ -23,6 +25,6 @@ public class MarshalledValueMarshallerSessionAttributesFactoryConfiguration<V> e
 	 * @param configuration a session manager factory configuration
 	 */
 	public <SC> MarshalledValueMarshallerSessionAttributesFactoryConfiguration(SessionManagerFactoryConfiguration<SC> configuration) {
-		super(configuration, new MarshalledValueMarshaller<>(new ByteBufferMarshalledValueFactory(configuration.getMarshaller())));
+		super(configuration, new MarshalledValueMarshaller<>(new ByteBufferMarshalledValueFactory(configuration.getMarshaller())), configuration.isAttributeChangeDetectionEnabled() ? Optional.of(new SessionAttributeDigester(configuration.getMarshaller())) : Optional.empty());
 	}
 }
@@ -23,6 +23,11 @@ public interface SessionAttributeActivationNotifier {
 		public void postActivate(Object value) {
 			// Do nothing
 		}
+
+		@Override
+		public boolean isInterested(Class<?> attributeClass) {
+			return false;
+		}
 	};
 
 	/**
@@ -36,4 +41,14 @@ public interface SessionAttributeActivationNotifier {
 	 * @param value an attribute value
 	 */
 	void postActivate(Object value);
+
+	/**
+	 * Indicates whether attributes of the specified class may be interested in passivation/activation events.
+	 * Allows callers to skip unmarshalling of attributes whose class is known in advance.
+	 * @param attributeClass the class of an attribute value
+	 * @return true, if attributes of the specified class may be interested in passivation/activation events, false otherwise.
+	 */
+	default boolean isInterested(Class<?> attributeClass) {
+		return true;
+	}
 }
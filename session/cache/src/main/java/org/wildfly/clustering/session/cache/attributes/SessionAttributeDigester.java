@@ -0,0 +1,69 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.attributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.ToLongFunction;
+
+import org.wildfly.clustering.marshalling.ByteBufferMarshaller;
+
+/**
+ * Computes a compact digest of the marshalled form of a session attribute, used to detect whether a mutable session attribute was actually modified.
+ * The marshalled form is streamed through a 64-bit FNV-1a hash, and is never buffered.
+ * Any modification to a single byte of the marshalled form is guaranteed to change its digest.
+ * @author Paul Ferraro
+ */
+public class SessionAttributeDigester implements ToLongFunction<Object> {
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	private final ByteBufferMarshaller marshaller;
+
+	/**
+	 * Creates a digester of session attributes using the specified marshaller.
+	 * @param marshaller a session attribute marshaller
+	 */
+	public SessionAttributeDigester(ByteBufferMarshaller marshaller) {
+		this.marshaller = marshaller;
+	}
+
+	@Override
+	public long applyAsLong(Object value) {
+		try (DigestOutputStream output = new DigestOutputStream()) {
+			this.marshaller.writeTo(output, value);
+			return output.getDigest();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class DigestOutputStream extends OutputStream {
+		private long hash = FNV_OFFSET_BASIS;
+		private long size;
+
+		@Override
+		public void write(int b) {
+			this.hash = (this.hash ^ (b & 0xFF)) * FNV_PRIME;
+			this.size += 1;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			long hash = this.hash;
+			for (int i = offset; i < offset + length; ++i) {
+				hash = (hash ^ (bytes[i] & 0xFF)) * FNV_PRIME;
+			}
+			this.hash = hash;
+			this.size += length;
+		}
+
+		long getDigest() {
+			// Mix in size, to distinguish marshalled forms of different lengths
+			return (this.hash ^ this.size) * FNV_PRIME;
+		}
+	}
+}
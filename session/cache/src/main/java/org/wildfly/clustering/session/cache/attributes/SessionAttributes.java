@@ -6,6 +6,8 @@
 package org.wildfly.clustering.session.cache.attributes;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Encapsulates the lifecycle of the attributes of a session.
@@ -53,4 +55,14 @@ public interface SessionAttributes extends Map<String, Object>, AutoCloseable {
 
 	@Override
 	void close();
+
+	/**
+	 * Closes these attributes, returning a stage that completes when any resulting cache mutation completes.
+	 * Allows the mutations of the attributes and metadata of a session to be issued concurrently.
+	 * @return a stage that completes when any cache mutation completes.
+	 */
+	default CompletionStage<Void> closeAsync() {
+		this.close();
+		return CompletableFuture.completedStage(null);
+	}
 }
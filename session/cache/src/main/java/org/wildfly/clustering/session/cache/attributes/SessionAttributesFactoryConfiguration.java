@@ -5,6 +5,9 @@
 
 package org.wildfly.clustering.session.cache.attributes;
 
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
 import org.wildfly.clustering.marshalling.Marshaller;
 import org.wildfly.clustering.server.immutable.Immutability;
 
@@ -26,4 +29,12 @@ public interface SessionAttributesFactoryConfiguration<V, MV> {
 	 * @return the immutability predicate for the attributes of a session.
 	 */
 	Immutability getImmutability();
+
+	/**
+	 * Returns the digester used to detect changes to mutable session attributes, if enabled.
+	 * @return an optional digester of the marshalled form of a session attribute
+	 */
+	default Optional<ToLongFunction<Object>> getDigester() {
+		return Optional.empty();
+	}
 }
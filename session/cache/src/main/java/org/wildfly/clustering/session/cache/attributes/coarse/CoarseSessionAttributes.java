@@ -5,10 +5,15 @@
 package org.wildfly.clustering.session.cache.attributes.coarse;
 
 import java.io.NotSerializableException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
 
+import org.wildfly.clustering.cache.CacheEntryMutator;
 import org.wildfly.clustering.function.BooleanSupplier;
 import org.wildfly.clustering.function.Consumer;
 import org.wildfly.clustering.function.Predicate;
@@ -33,6 +38,9 @@ public class CoarseSessionAttributes extends AbstractSessionAttributes {
 	private final Runner setDirty;
 	private final UnaryOperator<Object> setDirtyOnMutableRead;
 	private final UnaryOperator<Object> setDirtyOnRemove;
+	private final ToLongFunction<Object> digester;
+	// Digests of the marshalled form of mutable attributes upon first read, guarded by attributes
+	private final Map<String, Long> digests = new HashMap<>();
 
 	/**
 	 * Creates a coarse-granularity session attributes object.
@@ -43,14 +51,28 @@ public class CoarseSessionAttributes extends AbstractSessionAttributes {
 	 * @param notifier a notifier of session activation/passivation
 	 */
 	public CoarseSessionAttributes(Map<String, Object> attributes, Runnable mutator, java.util.function.Predicate<Object> marshallable, java.util.function.Predicate<Object> immutable, SessionAttributeActivationNotifier notifier) {
-		this(BlockingMapReference.of(attributes), mutator, marshallable, immutable, notifier);
+		this(attributes, mutator, marshallable, immutable, null, notifier);
+	}
+
+	/**
+	 * Creates a coarse-granularity session attributes object that detects changes to mutable session attributes via the digest of their marshalled form.
+	 * @param attributes a map of session attributes
+	 * @param mutator a mutator for associated cache entry.
+	 * @param marshallable a predicate used to determine whether a given session attribute is marshallable.
+	 * @param immutable a predicate used to determine whether a given session attribute is immutable.
+	 * @param digester a digester of the marshalled form of a session attribute, or null, if any mutable session attribute that was read should be assumed to have been modified.
+	 * @param notifier a notifier of session activation/passivation
+	 */
+	public CoarseSessionAttributes(Map<String, Object> attributes, Runnable mutator, java.util.function.Predicate<Object> marshallable, java.util.function.Predicate<Object> immutable, ToLongFunction<Object> digester, SessionAttributeActivationNotifier notifier) {
+		this(BlockingMapReference.of(attributes), mutator, marshallable, immutable, digester, notifier);
 		attributes.values().forEach(this.notifier::postActivate);
 	}
 
-	private CoarseSessionAttributes(BlockingMapReference<String, Object> attributes, Runnable mutator, java.util.function.Predicate<Object> marshallable, java.util.function.Predicate<Object> immutable, SessionAttributeActivationNotifier notifier) {
+	private CoarseSessionAttributes(BlockingMapReference<String, Object> attributes, Runnable mutator, java.util.function.Predicate<Object> marshallable, java.util.function.Predicate<Object> immutable, ToLongFunction<Object> digester, SessionAttributeActivationNotifier notifier) {
 		super(attributes);
 		this.attributes = attributes;
 		this.marshallable = marshallable;
+		this.digester = digester;
 		this.notifier = notifier;
 		AtomicBoolean dirty = new AtomicBoolean(false);
 		this.mutator = mutator;
@@ -67,7 +89,15 @@ public class CoarseSessionAttributes extends AbstractSessionAttributes {
 		if (!(key instanceof String name)) return null;
 
 		// If the object is mutable, we need to mutate this value on close
-		return this.attributes.getReference(name).getWriter(this.mutable).getAndUpdate(this.setDirtyOnMutableRead);
+		// Unless we can detect whether it actually changed, via the digest of its marshalled form
+		return this.attributes.getReference(name).getWriter(this.mutable).getAndUpdate((this.digester != null) ? value -> this.digest(name, value) : this.setDirtyOnMutableRead);
+	}
+
+	private Object digest(String name, Object value) {
+		if (value != null) {
+			this.digests.computeIfAbsent(name, key -> this.digester.applyAsLong(value));
+		}
+		return value;
 	}
 
 	@Override
@@ -91,11 +121,32 @@ public class CoarseSessionAttributes extends AbstractSessionAttributes {
 
 	@Override
 	public void close() {
+		this.prepareClose().run();
+	}
+
+	@Override
+	public CompletionStage<Void> closeAsync() {
+		return CacheEntryMutator.mutateAsync(this.prepareClose());
+	}
+
+	private Runnable prepareClose() {
+		AtomicReference<Runnable> result = new AtomicReference<>(Runner.of());
 		this.attributes.getReader().read(attributes -> {
 			attributes.values().forEach(this.notifier::prePassivate);
-			if (this.isDirty.getAsBoolean()) {
-				this.mutator.run();
+			if (this.isDirty.getAsBoolean() || this.isModified(attributes)) {
+				result.setPlain(this.mutator);
 			}
 		});
+		return result.getPlain();
+	}
+
+	private boolean isModified(Map<String, Object> attributes) {
+		for (Map.Entry<String, Long> entry : this.digests.entrySet()) {
+			Object value = attributes.get(entry.getKey());
+			if ((value != null) && (this.digester.applyAsLong(value) != entry.getValue())) {
+				return true;
+			}
+		}
+		return false;
 	}
 }
@@ -7,10 +7,15 @@ package org.wildfly.clustering.session.cache.attributes.fine;
 
 import java.io.IOException;
 import java.io.NotSerializableException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
 
+import org.wildfly.clustering.cache.CacheEntryMutator;
 import org.wildfly.clustering.cache.CacheEntryMutatorFactory;
 import org.wildfly.clustering.function.Predicate;
 import org.wildfly.clustering.marshalling.Marshaller;
@@ -31,8 +36,11 @@ public class FineSessionAttributes<K, V> extends AbstractSessionAttributes {
 	private final CacheEntryMutatorFactory<K, Map<String, V>> mutatorFactory;
 	private final Predicate<Object> mutable;
 	private final SessionAttributeActivationNotifier notifier;
+	private final ToLongFunction<Object> digester;
 	// Guarded by attributes
 	private final Map<String, Object> updates = new TreeMap<>();
+	// Digests of the marshalled form of mutable attributes upon first read, guarded by attributes
+	private final Map<String, Long> digests = new HashMap<>();
 
 	/**
 	 * Creates a fine-granularity session attributes implementation.
@@ -44,17 +52,32 @@ public class FineSessionAttributes<K, V> extends AbstractSessionAttributes {
 	 * @param notifier a notifier of session attribute activation/passivation
 	 */
 	public FineSessionAttributes(K key, Map<String, Object> attributes, CacheEntryMutatorFactory<K, Map<String, V>> mutatorFactory, Marshaller<Object, V> marshaller, java.util.function.Predicate<Object> immutable, SessionAttributeActivationNotifier notifier) {
-		this(key, BlockingMapReference.of(attributes), mutatorFactory, marshaller, immutable, notifier);
+		this(key, attributes, mutatorFactory, marshaller, immutable, null, notifier);
+	}
+
+	/**
+	 * Creates a fine-granularity session attributes implementation that detects changes to mutable session attributes via the digest of their marshalled form.
+	 * @param key the session attributes cache key
+	 * @param attributes a map of session attributes
+	 * @param mutatorFactory a factory for creating a mutator of the session attributes cache entry
+	 * @param marshaller a marshaller of session attributes
+	 * @param immutable a predicate used to determine whether a given session attribute is immutable
+	 * @param digester a digester of the marshalled form of a session attribute, or null, if any mutable session attribute that was read should be assumed to have been modified.
+	 * @param notifier a notifier of session attribute activation/passivation
+	 */
+	public FineSessionAttributes(K key, Map<String, Object> attributes, CacheEntryMutatorFactory<K, Map<String, V>> mutatorFactory, Marshaller<Object, V> marshaller, java.util.function.Predicate<Object> immutable, ToLongFunction<Object> digester, SessionAttributeActivationNotifier notifier) {
+		this(key, BlockingMapReference.of(attributes), mutatorFactory, marshaller, immutable, digester, notifier);
 		attributes.values().forEach(this.notifier::postActivate);
 	}
 
-	private FineSessionAttributes(K key, BlockingMapReference<String, Object> attributes, CacheEntryMutatorFactory<K, Map<String, V>> mutatorFactory, Marshaller<Object, V> marshaller, java.util.function.Predicate<Object> immutable, SessionAttributeActivationNotifier notifier) {
+	private FineSessionAttributes(K key, BlockingMapReference<String, Object> attributes, CacheEntryMutatorFactory<K, Map<String, V>> mutatorFactory, Marshaller<Object, V> marshaller, java.util.function.Predicate<Object> immutable, ToLongFunction<Object> digester, SessionAttributeActivationNotifier notifier) {
 		super(attributes);
 		this.key = key;
 		this.attributes = attributes;
 		this.mutatorFactory = mutatorFactory;
 		this.marshaller = marshaller;
 		this.mutable = Predicate.and(Objects::nonNull, Predicate.not(immutable));
+		this.digester = digester;
 		this.notifier = notifier;
 	}
 
@@ -63,10 +86,15 @@ public class FineSessionAttributes<K, V> extends AbstractSessionAttributes {
 		if (!(key instanceof String name)) return null;
 
 		// If the object is mutable, we need to mutate this value on close
+		// Unless we can detect whether it actually changed, via the digest of its marshalled form
 		// Bypass immutability check if attribute already updates on close
 		return this.attributes.getReference(name).getWriter(this.mutable).getAndUpdate(value -> {
 			if (value != null) {
-				this.updates.put(name, value);
+				if (this.digester == null) {
+					this.updates.put(name, value);
+				} else if (!this.updates.containsKey(name)) {
+					this.digests.computeIfAbsent(name, k -> this.digester.applyAsLong(value));
+				}
 			}
 			return value;
 		});
@@ -101,18 +129,39 @@ public class FineSessionAttributes<K, V> extends AbstractSessionAttributes {
 
 	@Override
 	public void close() {
+		this.prepareClose().run();
+	}
+
+	@Override
+	public CompletionStage<Void> closeAsync() {
+		return CacheEntryMutator.mutateAsync(this.prepareClose());
+	}
+
+	private Runnable prepareClose() {
+		AtomicReference<Runnable> result = new AtomicReference<>(CacheEntryMutator.EMPTY);
 		this.attributes.getReader().read(attributes -> {
 			attributes.values().forEach(this.notifier::prePassivate);
-			if (!this.updates.isEmpty()) {
-				Map<String, V> updates = new TreeMap<>();
-				for (Map.Entry<String, Object> entry : this.updates.entrySet()) {
-					String name = entry.getKey();
-					Object value = entry.getValue();
-					updates.put(name, (value != null) ? this.write(value) : null);
+			Map<String, V> updates = new TreeMap<>();
+			for (Map.Entry<String, Object> entry : this.updates.entrySet()) {
+				String name = entry.getKey();
+				Object value = entry.getValue();
+				updates.put(name, (value != null) ? this.write(value) : null);
+			}
+			// Replicate only those mutable attributes whose marshalled form changed
+			for (Map.Entry<String, Long> entry : this.digests.entrySet()) {
+				String name = entry.getKey();
+				if (!updates.containsKey(name)) {
+					Object value = attributes.get(name);
+					if ((value != null) && (this.digester.applyAsLong(value) != entry.getValue())) {
+						updates.put(name, this.write(value));
+					}
 				}
-				this.mutatorFactory.createMutator(this.key, updates).run();
+			}
+			if (!updates.isEmpty()) {
+				result.setPlain(this.mutatorFactory.createMutator(this.key, updates));
 			}
 		});
+		return result.getPlain();
 	}
 
 	private V write(Object value) {
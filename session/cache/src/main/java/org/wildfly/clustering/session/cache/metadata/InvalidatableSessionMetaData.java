@@ -5,6 +5,9 @@
 
 package org.wildfly.clustering.session.cache.metadata;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.wildfly.clustering.session.SessionMetaData;
 
 /**
@@ -29,4 +32,13 @@ public interface InvalidatableSessionMetaData extends SessionMetaData, AutoClose
 	 */
 	@Override
 	void close();
+
+	/**
+	 * Signals the end of the transient lifecycle of this session, returning a stage that completes when any resulting cache mutation completes.
+	 * @return a stage that completes when any cache mutation completes.
+	 */
+	default CompletionStage<Void> closeAsync() {
+		this.close();
+		return CompletableFuture.completedStage(null);
+	}
 }
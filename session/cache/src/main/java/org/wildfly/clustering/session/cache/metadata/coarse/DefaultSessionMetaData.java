@@ -8,8 +8,11 @@ package org.wildfly.clustering.session.cache.metadata.coarse;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.wildfly.clustering.cache.CacheEntryMutator;
 import org.wildfly.clustering.session.cache.metadata.InvalidatableSessionMetaData;
 
 /**
@@ -74,4 +77,9 @@ public class DefaultSessionMetaData extends DefaultImmutableSessionMetaData impl
 			this.mutator.run();
 		}
 	}
+
+	@Override
+	public CompletionStage<Void> closeAsync() {
+		return this.isValid() ? CacheEntryMutator.mutateAsync(this.mutator) : CompletableFuture.completedStage(null);
+	}
 }
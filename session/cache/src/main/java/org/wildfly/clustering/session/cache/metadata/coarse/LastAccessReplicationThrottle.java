@@ -0,0 +1,138 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metadata.coarse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Defers replication of session last access times that changed by less than a fraction of the max idle duration since their last replicated value.
+ * The exact last access time of a session whose replication was deferred is retained locally, and overlays the replicated value of subsequent requests.
+ * Since any access occurring at least the configured fraction of the max idle duration after the replicated value is always replicated, a replicated last access time never lags behind the exact value by more than the max idle duration.
+ * @author Paul Ferraro
+ */
+public class LastAccessReplicationThrottle {
+	// Number of deferred replications between purges of retained last access times of expired sessions
+	private static final int PURGE_INTERVAL = 1024;
+
+	private final double threshold;
+	private final Map<String, LastAccess> accesses = new ConcurrentHashMap<>();
+	private final AtomicInteger deferrals = new AtomicInteger();
+
+	/**
+	 * Creates a throttle using the specified threshold.
+	 * @param threshold the fraction of the max idle duration that must elapse since the replicated last access time before a subsequent last access time is replicated.
+	 * @throws IllegalArgumentException if the specified threshold is not within [0, 1)
+	 */
+	public LastAccessReplicationThrottle(double threshold) {
+		if (!(threshold >= 0) || !(threshold < 1)) {
+			throw new IllegalArgumentException(Double.toString(threshold));
+		}
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Indicates whether or not this throttle defers replication of any last access time.
+	 * @return true, if this throttle defers replication of last access times, false if every last access time is replicated.
+	 */
+	public boolean isEnabled() {
+		return this.threshold > 0;
+	}
+
+	/**
+	 * Returns the identifiers of sessions whose last access time has not yet been replicated.
+	 * @return a set of session identifiers
+	 */
+	public Set<String> getDeferredSessions() {
+		return Collections.unmodifiableSet(this.accesses.keySet());
+	}
+
+	/**
+	 * Applies the locally retained last access time of the specified session, if more recent than the replicated value, to the specified values.
+	 * @param <V> the mutable values type
+	 * @param id a session identifier
+	 * @param values the mutable values of a session metadata entry
+	 * @return the specified values
+	 */
+	public <V extends MutableSessionMetaDataOffsetValues> V apply(String id, V values) {
+		LastAccess access = this.accesses.get(id);
+		if (access != null) {
+			if (access.end().isAfter(values.getLastAccessEndTime().getBasis())) {
+				values.getLastAccessStartTime().set(access.start());
+				values.getLastAccessEndTime().set(access.end());
+			} else {
+				// A more recent last access time was replicated, e.g. by another member
+				this.accesses.remove(id, access);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns a view of the specified replicated metadata entry, overlaid with the locally retained last access time of the specified session, if any.
+	 * @param <C> the session context type
+	 * @param id a session identifier
+	 * @param entry a replicated session metadata entry
+	 * @return a session metadata entry
+	 */
+	public <C> ImmutableSessionMetaDataEntry apply(String id, ContextualSessionMetaDataEntry<C> entry) {
+		return this.accesses.containsKey(id) ? new MutableSessionMetaDataEntry(entry, this.apply(id, MutableSessionMetaDataOffsetValues.from(entry))) : entry;
+	}
+
+	/**
+	 * Decorates the specified mutator such that it only runs if the specified values require replication.
+	 * Otherwise, the last access time of the specified values is retained locally.
+	 * @param id a session identifier
+	 * @param entry the replicated session metadata entry
+	 * @param values the mutable values of the specified entry
+	 * @param mutator the mutator of the replicated session metadata entry
+	 * @return a mutator that replicates the specified values only when necessary
+	 */
+	public Runnable createMutator(String id, ImmutableSessionMetaDataEntry entry, MutableSessionMetaDataOffsetValues values, Runnable mutator) {
+		return () -> {
+			if (this.isReplicationRequired(entry, values)) {
+				this.accesses.remove(id);
+				mutator.run();
+			} else {
+				this.accesses.put(id, new LastAccess(values.getLastAccessStartTime().get(), values.getLastAccessEndTime().get(), values.getMaxIdle().get()));
+				if (this.deferrals.incrementAndGet() % PURGE_INTERVAL == 0) {
+					this.purge();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Discards any locally retained last access time for the specified session.
+	 * @param id a session identifier
+	 */
+	public void remove(String id) {
+		this.accesses.remove(id);
+	}
+
+	private boolean isReplicationRequired(ImmutableSessionMetaDataEntry entry, MutableSessionMetaDataOffsetValues values) {
+		if (entry.isNew() || !values.getMaxIdle().getOffset().isZero()) return true;
+		Duration maxIdle = values.getMaxIdle().get();
+		// Last access time of an immortal session is not relevant to its expiration, but there is no interval to bound its deferral
+		if (maxIdle.isZero()) return true;
+		Duration elapsed = Duration.between(values.getLastAccessEndTime().getBasis(), values.getLastAccessEndTime().get());
+		return elapsed.toMillis() >= maxIdle.toMillis() * this.threshold;
+	}
+
+	// Discards retained last access times of sessions that expired, e.g. via another member
+	private void purge() {
+		Instant now = Instant.now();
+		this.accesses.values().removeIf(access -> access.end().plus(access.maxIdle()).isBefore(now));
+	}
+
+	private record LastAccess(Instant start, Instant end, Duration maxIdle) {
+	}
+}
@@ -8,8 +8,11 @@ package org.wildfly.clustering.session.cache.metadata.fine;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.wildfly.clustering.cache.CacheEntryMutator;
 import org.wildfly.clustering.session.cache.metadata.InvalidatableSessionMetaData;
 
 /**
@@ -76,4 +79,9 @@ public class CompositeSessionMetaData extends CompositeImmutableSessionMetaData
 			this.mutator.run();
 		}
 	}
+
+	@Override
+	public CompletionStage<Void> closeAsync() {
+		return this.isValid() ? CacheEntryMutator.mutateAsync(this.mutator) : CompletableFuture.completedStage(null);
+	}
 }
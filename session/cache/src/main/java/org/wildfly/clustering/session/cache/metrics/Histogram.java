@@ -0,0 +1,122 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.clustering.session.SessionMetrics;
+
+/**
+ * A lock-free histogram of non-negative values using log-linear buckets, in the style of an HDR histogram.
+ * Values less than 64 are recorded exactly; larger values are recorded with a relative error of at most 1/32.
+ * @author Paul Ferraro
+ */
+public class Histogram implements SessionMetrics.Distribution {
+	// Number of linear sub-buckets per power of 2, expressed in bits
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = index(Long.MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+	/**
+	 * Records the specified value.  Negative values are recorded as 0.
+	 * @param value a value
+	 */
+	public void record(long value) {
+		long recordedValue = Math.max(value, 0L);
+		this.counts.incrementAndGet(index(recordedValue));
+		this.count.increment();
+		this.sum.add(recordedValue);
+		this.min.accumulate(recordedValue);
+		this.max.accumulate(recordedValue);
+	}
+
+	@Override
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	@Override
+	public long getMin() {
+		long result = this.min.get();
+		return (result != Long.MAX_VALUE) ? result : 0L;
+	}
+
+	@Override
+	public long getMax() {
+		long result = this.max.get();
+		return (result != Long.MIN_VALUE) ? result : 0L;
+	}
+
+	@Override
+	public double getMean() {
+		long count = this.count.sum();
+		return (count > 0) ? (double) this.sum.sum() / count : 0d;
+	}
+
+	@Override
+	public long getValueAtPercentile(double percentile) {
+		if (!(percentile >= 0d && percentile <= 100d)) {
+			throw new IllegalArgumentException(Double.toString(percentile));
+		}
+		// Snapshot bucket counts, since they may change concurrently
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			counts[i] = this.counts.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0L;
+		}
+		long rank = Math.max((long) Math.ceil(percentile * total / 100d), 1L);
+		long cumulativeCount = 0;
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			cumulativeCount += counts[i];
+			if (cumulativeCount >= rank) {
+				return Math.min(highestEquivalentValue(i), this.getMax());
+			}
+		}
+		return this.getMax();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, min=%d, mean=%.1f, p50=%d, p99=%d, max=%d", this.getCount(), this.getMin(), this.getMean(), this.getValueAtPercentile(50), this.getValueAtPercentile(99), this.getMax());
+	}
+
+	/**
+	 * Returns the index of the bucket for the specified non-negative value.
+	 * @param value a non-negative value
+	 * @return a bucket index
+	 */
+	static int index(long value) {
+		int shift = Math.max(Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS, 0);
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	/**
+	 * Returns the largest value that would be recorded in the bucket with the specified index.
+	 * @param index a bucket index
+	 * @return the largest value of the bucket
+	 */
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+		// N.B. For the last bucket, this overflows to Long.MIN_VALUE, whose predecessor is Long.MAX_VALUE
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
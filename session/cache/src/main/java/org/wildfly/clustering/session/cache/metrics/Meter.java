@@ -0,0 +1,93 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free meter that computes a one minute exponentially-weighted moving average rate of events.
+ * The average is updated lazily, at most once per tick interval, by whichever thread first observes an elapsed tick.
+ * @author Paul Ferraro
+ */
+public class Meter {
+	private static final long TICK_INTERVAL_SECONDS = 5;
+	private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(TICK_INTERVAL_SECONDS);
+	private static final double ALPHA = 1d - Math.exp(-(double) TICK_INTERVAL_SECONDS / TimeUnit.MINUTES.toSeconds(1));
+	// Beyond this many idle ticks, the residual rate is negligible
+	private static final long MAX_TICKS = 1000;
+
+	private final LongSupplier ticker;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder uncounted = new LongAdder();
+	private final AtomicLong lastTick;
+	private volatile double rate = Double.NaN;
+
+	/**
+	 * Creates a meter using the system nano time.
+	 */
+	public Meter() {
+		this(System::nanoTime);
+	}
+
+	/**
+	 * Creates a meter using the specified nanosecond ticker.
+	 * @param ticker a source of nanosecond time
+	 */
+	Meter(LongSupplier ticker) {
+		this.ticker = ticker;
+		this.lastTick = new AtomicLong(ticker.getAsLong());
+	}
+
+	/**
+	 * Records the occurrence of an event.
+	 */
+	public void mark() {
+		this.tickIfNecessary();
+		this.count.increment();
+		this.uncounted.increment();
+	}
+
+	/**
+	 * Returns the total number of recorded events.
+	 * @return the number of events
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/**
+	 * Returns the one minute exponentially-weighted moving average of events per second.
+	 * @return the rate of events per second
+	 */
+	public double getRate() {
+		this.tickIfNecessary();
+		double rate = this.rate;
+		return !Double.isNaN(rate) ? rate : 0d;
+	}
+
+	private void tickIfNecessary() {
+		long lastTick = this.lastTick.get();
+		long age = this.ticker.getAsLong() - lastTick;
+		if (age >= TICK_INTERVAL) {
+			long ticks = age / TICK_INTERVAL;
+			// Only the thread that advances the tick updates the rate
+			if (this.lastTick.compareAndSet(lastTick, lastTick + ticks * TICK_INTERVAL)) {
+				for (long i = 0; i < Math.min(ticks, MAX_TICKS); ++i) {
+					this.tick();
+				}
+			}
+		}
+	}
+
+	private void tick() {
+		double instantRate = (double) this.uncounted.sumThenReset() / TICK_INTERVAL_SECONDS;
+		double rate = this.rate;
+		this.rate = !Double.isNaN(rate) ? rate + ALPHA * (instantRate - rate) : instantRate;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.wildfly.clustering.marshalling.ByteBufferMarshalledValue;
+import org.wildfly.clustering.session.ImmutableSession;
+import org.wildfly.clustering.session.ImmutableSessionMetaData;
+import org.wildfly.clustering.session.SessionMetrics;
+
+/**
+ * Records the metrics of the sessions of a deployment.
+ * All recording methods are lock-free, and are safe to invoke concurrently.
+ * @author Paul Ferraro
+ */
+public class SessionMetricsRegistry implements SessionMetrics {
+
+	private final Supplier<Instant> clock;
+	private final Histogram lifetime = new Histogram();
+	private final Histogram interArrivalTime = new Histogram();
+	private final Histogram attributeCount = new Histogram();
+	private final Histogram attributeSize = new Histogram();
+	private final Histogram findTime = new Histogram();
+	private final Histogram expirationLag = new Histogram();
+	private final Meter expirations;
+	private final LongAdder passivations = new LongAdder();
+	private final LongAdder activations = new LongAdder();
+
+	/**
+	 * Creates a session metrics registry.
+	 */
+	public SessionMetricsRegistry() {
+		this(Instant::now, new Meter());
+	}
+
+	SessionMetricsRegistry(Supplier<Instant> clock, Meter expirations) {
+		this.clock = clock;
+		this.expirations = expirations;
+	}
+
+	/**
+	 * Records the time spent locating a session.
+	 * @param nanos a duration in nanoseconds
+	 */
+	public void recordFind(long nanos) {
+		this.findTime.record(nanos);
+	}
+
+	/**
+	 * Records a request for the session with the specified meta data, prior to updating its last access time.
+	 * @param metaData the meta data of a session
+	 */
+	public void recordAccess(ImmutableSessionMetaData metaData) {
+		metaData.getLastAccessStartTime().ifPresent(lastAccessStartTime -> this.interArrivalTime.record(Duration.between(lastAccessStartTime, this.clock.get()).toMillis()));
+	}
+
+	/**
+	 * Records the marshalled size of the specified session attributes value, if known.
+	 * A value is sized if it is a marshalled value, or a map of marshalled values.
+	 * @param value the cache value of the attributes of a session
+	 */
+	public void recordAttributes(Object value) {
+		long size = sizeOf(value);
+		if (size >= 0) {
+			this.attributeSize.record(size);
+		}
+	}
+
+	/**
+	 * Records the closing of the specified session.
+	 * @param session a session
+	 */
+	public void recordClose(ImmutableSession session) {
+		if (session.isValid()) {
+			this.attributeCount.record(session.getAttributes().size());
+		}
+	}
+
+	/**
+	 * Records the pending invalidation of the specified session.
+	 * @param session a session
+	 */
+	public void recordInvalidation(ImmutableSession session) {
+		if (session.isValid()) {
+			this.lifetime.record(Duration.between(session.getMetaData().getCreationTime(), this.clock.get()).toMillis());
+		}
+	}
+
+	/**
+	 * Records the expiration of the specified session.
+	 * @param session an expired session
+	 */
+	public void recordExpiration(ImmutableSession session) {
+		ImmutableSessionMetaData metaData = session.getMetaData();
+		Instant creationTime = metaData.getCreationTime();
+		this.expirations.mark();
+		this.lifetime.record(Duration.between(creationTime, metaData.getLastAccessTime().orElse(creationTime)).toMillis());
+		metaData.getExpirationTime().ifPresent(expirationTime -> this.expirationLag.record(Duration.between(expirationTime, this.clock.get()).toMillis()));
+	}
+
+	/**
+	 * Records the passivation of a session.
+	 */
+	public void recordPassivation() {
+		this.passivations.increment();
+	}
+
+	/**
+	 * Records the activation of a session.
+	 */
+	public void recordActivation() {
+		this.activations.increment();
+	}
+
+	@Override
+	public Distribution getSessionLifetime() {
+		return this.lifetime;
+	}
+
+	@Override
+	public Distribution getRequestInterArrivalTime() {
+		return this.interArrivalTime;
+	}
+
+	@Override
+	public Distribution getAttributeCount() {
+		return this.attributeCount;
+	}
+
+	@Override
+	public Distribution getAttributeSize() {
+		return this.attributeSize;
+	}
+
+	@Override
+	public Distribution getFindTime() {
+		return this.findTime;
+	}
+
+	@Override
+	public long getExpirationCount() {
+		return this.expirations.getCount();
+	}
+
+	@Override
+	public double getExpirationRate() {
+		return this.expirations.getRate();
+	}
+
+	@Override
+	public Distribution getExpirationLag() {
+		return this.expirationLag;
+	}
+
+	@Override
+	public long getPassivationCount() {
+		return this.passivations.sum();
+	}
+
+	@Override
+	public long getActivationCount() {
+		return this.activations.sum();
+	}
+
+	private static long sizeOf(Object value) {
+		if (value instanceof ByteBufferMarshalledValue<?> marshalledValue) {
+			OptionalInt size = marshalledValue.size();
+			return size.isPresent() ? size.getAsInt() : -1L;
+		}
+		if (value instanceof Map<?, ?> map) {
+			long total = 0L;
+			for (Object mapValue : map.values()) {
+				if (!(mapValue instanceof ByteBufferMarshalledValue<?> marshalledValue)) {
+					return -1L;
+				}
+				OptionalInt size = marshalledValue.size();
+				if (size.isEmpty()) {
+					return -1L;
+				}
+				total += size.getAsInt();
+			}
+			return total;
+		}
+		return -1L;
+	}
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.wildfly.clustering.context.Context;
 import org.wildfly.clustering.context.DefaultThreadFactory;
@@ -81,6 +82,12 @@ public abstract class AbstractSessionManagerITCase<P extends SessionManagerParam
 					this.verifySession(manager1, sessionId, Map.of("foo", foo, "bar", bar));
 					this.verifySession(manager2, sessionId, Map.of("foo", foo, "bar", bar));
 
+					try (Stream<String> sessions1 = manager1.getStatistics().streamSessions(1)) {
+						try (Stream<String> sessions2 = manager2.getStatistics().streamSessions(1)) {
+							assertThat(Stream.concat(sessions1, sessions2)).contains(sessionId);
+						}
+					}
+
 					this.updateSession(manager1, sessionId, Map.of("foo", MapEntry.of(foo, null), "bar", Map.entry(bar, 0)));
 
 					for (int i = 1; i <= 20; i += 2) {
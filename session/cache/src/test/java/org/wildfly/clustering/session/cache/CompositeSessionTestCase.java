@@ -7,6 +7,9 @@ package org.wildfly.clustering.session.cache;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 import org.wildfly.clustering.cache.CacheEntryRemover;
@@ -75,15 +78,31 @@ public class CompositeSessionTestCase {
 	@Test
 	public void close() {
 		doReturn(true, false).when(this.metaData).isValid();
+		CompletableFuture<Void> attributesStage = new CompletableFuture<>();
+		CompletableFuture<Void> metaDataStage = new CompletableFuture<>();
+		doReturn(attributesStage).when(this.attributes).closeAsync();
+		doReturn(metaDataStage).when(this.metaData).closeAsync();
 
 		InOrder order = inOrder(this.metaData, this.attributes, this.remover);
 
-		// Verify that session is mutated when closed
-		this.session.close();
+		// Verify that session mutations are issued concurrently when closed
+		CompletableFuture<Void> result = CompletableFuture.runAsync(this.session::close);
+
+		verify(this.attributes, timeout(1000)).closeAsync();
+		verify(this.metaData, timeout(1000)).closeAsync();
+		assertThat(result).isNotDone();
+
+		attributesStage.complete(null);
+
+		assertThat(result).isNotDone();
+
+		metaDataStage.complete(null);
+
+		assertThat(result).succeedsWithin(Duration.ofSeconds(1));
 
 		order.verify(this.metaData).isValid();
-		order.verify(this.attributes).close();
-		order.verify(this.metaData).close();
+		order.verify(this.attributes).closeAsync();
+		order.verify(this.metaData).closeAsync();
 		verifyNoInteractions(this.remover);
 
 		// Verify that session is removed if invalid
@@ -0,0 +1,45 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.attributes;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ObjectInputFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.java.JavaByteBufferMarshaller;
+
+/**
+ * Unit test for {@link SessionAttributeDigester}.
+ * @author Paul Ferraro
+ */
+public class SessionAttributeDigesterTestCase {
+
+	@Test
+	public void test() {
+		ToLongFunction<Object> digester = new SessionAttributeDigester(new JavaByteBufferMarshaller(SessionAttributeDigesterTestCase.class.getClassLoader(), ObjectInputFilter.Config.createFilter("*")));
+
+		List<String> value = new ArrayList<>(List.of("foo"));
+		long digest = digester.applyAsLong(value);
+
+		// Digest is deterministic for an unmodified value
+		assertThat(digester.applyAsLong(value)).isEqualTo(digest);
+		assertThat(digester.applyAsLong(new ArrayList<>(List.of("foo")))).isEqualTo(digest);
+
+		// Digest changes upon modification
+		value.set(0, "bar");
+		assertThat(digester.applyAsLong(value)).isNotEqualTo(digest);
+
+		value.set(0, "foo");
+		assertThat(digester.applyAsLong(value)).isEqualTo(digest);
+
+		value.add("bar");
+		assertThat(digester.applyAsLong(value)).isNotEqualTo(digest);
+	}
+}
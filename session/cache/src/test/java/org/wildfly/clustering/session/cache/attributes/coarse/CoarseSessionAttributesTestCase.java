@@ -11,6 +11,7 @@ import static org.mockito.Mockito.*;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.ToLongFunction;
 
 import org.junit.jupiter.api.Test;
 import org.wildfly.clustering.function.Predicate;
@@ -236,6 +237,65 @@ public class CoarseSessionAttributesTestCase {
 		verifyNoMoreInteractions(notifier);
 	}
 
+	@Test
+	public void getUnmodifiedMutableAttribute() {
+		UUID exists = UUID.randomUUID();
+		Map<String, Object> map = new TreeMap<>(Map.of("exists", exists));
+		Runnable mutator = mock(Runnable.class);
+		Predicate<Object> marshallable = mock(Predicate.class);
+		Predicate<Object> immutable = mock(Predicate.class);
+		ToLongFunction<Object> digester = mock(ToLongFunction.class);
+		SessionAttributeActivationNotifier notifier = mock(SessionAttributeActivationNotifier.class);
+
+		try (SessionAttributes attributes = new CoarseSessionAttributes(map, mutator, marshallable, immutable, digester, notifier)) {
+
+			verifyNoInteractions(digester);
+
+			doReturn(false).when(immutable).test(exists);
+			doReturn(1L).when(digester).applyAsLong(exists);
+
+			assertThat(attributes.get("exists")).isSameAs(exists);
+			assertThat(attributes.get("exists")).isSameAs(exists);
+
+			verifyNoInteractions(mutator);
+			// Verify digest is only computed on first read
+			verify(digester).applyAsLong(exists);
+			verifyNoMoreInteractions(digester);
+		}
+
+		// Session should not be dirty, since marshalled form of attribute did not change
+		verifyNoInteractions(mutator);
+		verify(digester, times(2)).applyAsLong(exists);
+		verifyNoMoreInteractions(digester);
+	}
+
+	@Test
+	public void getModifiedMutableAttribute() {
+		UUID exists = UUID.randomUUID();
+		Map<String, Object> map = new TreeMap<>(Map.of("exists", exists));
+		Runnable mutator = mock(Runnable.class);
+		Predicate<Object> marshallable = mock(Predicate.class);
+		Predicate<Object> immutable = mock(Predicate.class);
+		ToLongFunction<Object> digester = mock(ToLongFunction.class);
+		SessionAttributeActivationNotifier notifier = mock(SessionAttributeActivationNotifier.class);
+
+		try (SessionAttributes attributes = new CoarseSessionAttributes(map, mutator, marshallable, immutable, digester, notifier)) {
+
+			doReturn(false).when(immutable).test(exists);
+			doReturn(1L, 2L).when(digester).applyAsLong(exists);
+
+			assertThat(attributes.get("exists")).isSameAs(exists);
+
+			verifyNoInteractions(mutator);
+		}
+
+		// Session should be dirty, since marshalled form of attribute changed
+		verify(mutator).run();
+		verifyNoMoreInteractions(mutator);
+		verify(digester, times(2)).applyAsLong(exists);
+		verifyNoMoreInteractions(digester);
+	}
+
 	@Test
 	public void getImmutableAttribute() {
 		UUID exists = UUID.randomUUID();
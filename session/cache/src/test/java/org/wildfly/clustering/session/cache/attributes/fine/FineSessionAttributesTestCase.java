@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.ToLongFunction;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -122,6 +123,55 @@ public class FineSessionAttributesTestCase {
 		assertThat(updates.get("mutable")).isSameAs(marshalledMutable);
 	}
 
+	@Test
+	public void getDigestedAttribute() throws IOException {
+		UUID unmodified = UUID.randomUUID();
+		UUID modified = UUID.randomUUID();
+		Map<String, Object> map = Map.of("unmodified", unmodified, "modified", modified);
+		ToLongFunction<Object> digester = mock(ToLongFunction.class);
+
+		doReturn(false).when(this.immutability).test(any());
+		doReturn(1L).when(digester).applyAsLong(unmodified);
+		doReturn(1L, 2L).when(digester).applyAsLong(modified);
+
+		UUID marshalledModified = UUID.randomUUID();
+		ArgumentCaptor<Map<String, Object>> capturedUpdates = ArgumentCaptor.captor();
+		CacheEntryMutator mutator = mock(CacheEntryMutator.class);
+		try (SessionAttributes attributes = new FineSessionAttributes<>("id", new TreeMap<>(map), this.mutatorFactory, this.marshaller, this.immutability, digester, this.notifier)) {
+			doReturn(marshalledModified).when(this.marshaller).write(modified);
+			doReturn(mutator).when(this.mutatorFactory).createMutator(eq("id"), capturedUpdates.capture());
+
+			assertThat(attributes.get("unmodified")).isSameAs(unmodified);
+			assertThat(attributes.get("modified")).isSameAs(modified);
+			assertThat(attributes.get("modified")).isSameAs(modified);
+
+			// Digests are computed on first read only
+			verify(digester).applyAsLong(unmodified);
+			verify(digester).applyAsLong(modified);
+			verifyNoInteractions(this.marshaller);
+			verifyNoInteractions(this.mutatorFactory);
+		}
+
+		verify(mutator).run();
+
+		// Only attributes whose marshalled form changed should have been updated
+		Map<String, Object> updates = capturedUpdates.getValue();
+		assertThat(updates.keySet()).containsExactly("modified");
+		assertThat(updates.get("modified")).isSameAs(marshalledModified);
+		verify(this.marshaller, never()).write(unmodified);
+
+		reset(this.mutatorFactory);
+
+		// Verify read-only request, whose mutable attributes were not modified, does not write
+		doReturn(3L).when(digester).applyAsLong(modified);
+		try (SessionAttributes attributes = new FineSessionAttributes<>("id", new TreeMap<>(map), this.mutatorFactory, this.marshaller, this.immutability, digester, this.notifier)) {
+			assertThat(attributes.get("unmodified")).isSameAs(unmodified);
+			assertThat(attributes.get("modified")).isSameAs(modified);
+		}
+
+		verifyNoInteractions(this.mutatorFactory);
+	}
+
 	@Test
 	public void removeAttribute() {
 		UUID foo = UUID.randomUUID();
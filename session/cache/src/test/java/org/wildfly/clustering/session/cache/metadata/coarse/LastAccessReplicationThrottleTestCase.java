@@ -0,0 +1,141 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metadata.coarse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.session.ImmutableSessionMetaData;
+
+/**
+ * Unit test for {@link LastAccessReplicationThrottle}.
+ * @author Paul Ferraro
+ */
+public class LastAccessReplicationThrottleTestCase {
+	private static final String ID = "foo";
+
+	@Test
+	public void threshold() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new LastAccessReplicationThrottle(-0.1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new LastAccessReplicationThrottle(1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new LastAccessReplicationThrottle(Double.NaN));
+		assertThat(new LastAccessReplicationThrottle(0).isEnabled()).isFalse();
+		assertThat(new LastAccessReplicationThrottle(0.5).isEnabled()).isTrue();
+	}
+
+	@Test
+	public void disabled() {
+		LastAccessReplicationThrottle throttle = new LastAccessReplicationThrottle(0);
+		ContextualSessionMetaDataEntry<Object> entry = createEntry(Instant.now().minus(Duration.ofMinutes(1)).truncatedTo(ChronoUnit.MILLIS));
+
+		Runnable mutator = mock(Runnable.class);
+		MutableSessionMetaDataOffsetValues values = MutableSessionMetaDataOffsetValues.from(entry);
+		access(values, entry.getLastAccessEndTime().get().plusSeconds(1));
+		throttle.createMutator(ID, entry, values, mutator).run();
+
+		verify(mutator).run();
+		assertThat(throttle.getDeferredSessions()).isEmpty();
+	}
+
+	@Test
+	public void enabled() {
+		LastAccessReplicationThrottle throttle = new LastAccessReplicationThrottle(0.5);
+		// Max idle of 10 minutes, replicated once less than half of max idle elapses
+		ContextualSessionMetaDataEntry<Object> entry = createEntry(Instant.now().minus(Duration.ofMinutes(5)).truncatedTo(ChronoUnit.MILLIS));
+		Instant replicated = entry.getLastAccessEndTime().get();
+
+		// Access within threshold is deferred
+		Runnable mutator = mock(Runnable.class);
+		MutableSessionMetaDataOffsetValues values = throttle.apply(ID, MutableSessionMetaDataOffsetValues.from(entry));
+		Instant deferred = replicated.plus(Duration.ofMinutes(1));
+		access(values, deferred);
+		throttle.createMutator(ID, entry, values, mutator).run();
+
+		verifyNoInteractions(mutator);
+		assertThat(throttle.getDeferredSessions()).containsExactly(ID);
+
+		// Subsequent requests observe exact last access time
+		MutableSessionMetaDataOffsetValues subsequentValues = throttle.apply(ID, MutableSessionMetaDataOffsetValues.from(entry));
+		assertThat(subsequentValues.getLastAccessEndTime().get()).isEqualTo(deferred);
+		ImmutableSessionMetaData metaData = new DefaultImmutableSessionMetaData(throttle.apply(ID, entry));
+		assertThat(metaData.getLastAccessTime()).contains(deferred);
+		assertThat(metaData.getExpirationTime()).contains(deferred.plus(entry.getMaxIdle()));
+		// Replicated entry remains unchanged
+		assertThat(entry.getLastAccessEndTime().get()).isEqualTo(replicated);
+
+		// Access beyond threshold is replicated
+		access(subsequentValues, replicated.plus(Duration.ofMinutes(5)));
+		throttle.createMutator(ID, entry, subsequentValues, mutator).run();
+
+		verify(mutator).run();
+		assertThat(throttle.getDeferredSessions()).isEmpty();
+	}
+
+	@Test
+	public void maxIdle() {
+		LastAccessReplicationThrottle throttle = new LastAccessReplicationThrottle(0.5);
+		ContextualSessionMetaDataEntry<Object> entry = createEntry(Instant.now().minus(Duration.ofMinutes(5)).truncatedTo(ChronoUnit.MILLIS));
+
+		// Changes to max idle are always replicated
+		Runnable mutator = mock(Runnable.class);
+		MutableSessionMetaDataOffsetValues values = throttle.apply(ID, MutableSessionMetaDataOffsetValues.from(entry));
+		access(values, entry.getLastAccessEndTime().get().plusSeconds(1));
+		values.getMaxIdle().set(Duration.ofMinutes(20));
+		throttle.createMutator(ID, entry, values, mutator).run();
+
+		verify(mutator).run();
+		assertThat(throttle.getDeferredSessions()).isEmpty();
+	}
+
+	@Test
+	public void newSession() {
+		LastAccessReplicationThrottle throttle = new LastAccessReplicationThrottle(0.5);
+		DefaultSessionMetaDataEntry<Object> entry = new DefaultSessionMetaDataEntry<>(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+		entry.setMaxIdle(Duration.ofMinutes(10));
+
+		// Initial access of a new session is always replicated
+		Runnable mutator = mock(Runnable.class);
+		MutableSessionMetaDataOffsetValues values = throttle.apply(ID, MutableSessionMetaDataOffsetValues.from(entry));
+		access(values, entry.getCreationTime().plusSeconds(1));
+		throttle.createMutator(ID, entry, values, mutator).run();
+
+		verify(mutator).run();
+		assertThat(throttle.getDeferredSessions()).isEmpty();
+	}
+
+	@Test
+	public void remove() {
+		LastAccessReplicationThrottle throttle = new LastAccessReplicationThrottle(0.5);
+		ContextualSessionMetaDataEntry<Object> entry = createEntry(Instant.now().minus(Duration.ofMinutes(5)).truncatedTo(ChronoUnit.MILLIS));
+
+		MutableSessionMetaDataOffsetValues values = throttle.apply(ID, MutableSessionMetaDataOffsetValues.from(entry));
+		access(values, entry.getLastAccessEndTime().get().plusSeconds(1));
+		throttle.createMutator(ID, entry, values, mock(Runnable.class)).run();
+		assertThat(throttle.getDeferredSessions()).containsExactly(ID);
+
+		throttle.remove(ID);
+		assertThat(throttle.getDeferredSessions()).isEmpty();
+		assertThat(throttle.apply(ID, entry)).isSameAs(entry);
+	}
+
+	private static ContextualSessionMetaDataEntry<Object> createEntry(Instant lastAccessEndTime) {
+		DefaultSessionMetaDataEntry<Object> entry = new DefaultSessionMetaDataEntry<>(lastAccessEndTime.minus(Duration.ofMinutes(1)));
+		entry.setMaxIdle(Duration.ofMinutes(10));
+		entry.getLastAccessStartTime().set(lastAccessEndTime.minusSeconds(1));
+		entry.getLastAccessEndTime().set(lastAccessEndTime);
+		return entry;
+	}
+
+	private static void access(MutableSessionMetaDataOffsetValues values, Instant endTime) {
+		values.getLastAccessStartTime().set(endTime.minusSeconds(1));
+		values.getLastAccessEndTime().set(endTime);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metrics;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link Histogram}.
+ * @author Paul Ferraro
+ */
+public class HistogramTestCase {
+
+	@Test
+	public void empty() {
+		Histogram histogram = new Histogram();
+		assertThat(histogram.getCount()).isZero();
+		assertThat(histogram.getMin()).isZero();
+		assertThat(histogram.getMax()).isZero();
+		assertThat(histogram.getMean()).isZero();
+		assertThat(histogram.getValueAtPercentile(99)).isZero();
+		assertThatIllegalArgumentException().isThrownBy(() -> histogram.getValueAtPercentile(-1));
+		assertThatIllegalArgumentException().isThrownBy(() -> histogram.getValueAtPercentile(101));
+		assertThatIllegalArgumentException().isThrownBy(() -> histogram.getValueAtPercentile(Double.NaN));
+	}
+
+	@Test
+	public void index() {
+		long previousValue = -1;
+		int previousIndex = -1;
+		for (long value : new long[] { 0, 1, 31, 32, 63, 64, 65, 127, 128, 1000, 1_000_000, Integer.MAX_VALUE, Long.MAX_VALUE / 2, Long.MAX_VALUE }) {
+			int index = Histogram.index(value);
+			// Buckets are monotonic
+			assertThat(index).isGreaterThanOrEqualTo(previousIndex);
+			long highest = Histogram.highestEquivalentValue(index);
+			assertThat(highest).isGreaterThanOrEqualTo(value);
+			// Relative error is bounded
+			assertThat((double) (highest - value)).isLessThanOrEqualTo(value / 32d);
+			if (index > previousIndex) {
+				assertThat(Histogram.highestEquivalentValue(index - 1)).isLessThan(value);
+			}
+			previousValue = value;
+			previousIndex = index;
+		}
+		assertThat(previousValue).isEqualTo(Long.MAX_VALUE);
+		assertThat(Histogram.highestEquivalentValue(Histogram.index(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void record() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 1000; ++i) {
+			histogram.record(i);
+		}
+		histogram.record(-5);
+
+		assertThat(histogram.getCount()).isEqualTo(1001);
+		assertThat(histogram.getMin()).isZero();
+		assertThat(histogram.getMax()).isEqualTo(1000);
+		assertThat(histogram.getMean()).isCloseTo(500.0d, within(1d));
+		assertThat(histogram.getValueAtPercentile(0)).isZero();
+		assertThat(histogram.getValueAtPercentile(50)).isBetween(500L, 500L + 500L / 32);
+		assertThat(histogram.getValueAtPercentile(99)).isBetween(990L, 990L + 990L / 32);
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000);
+	}
+
+	@Test
+	public void concurrent() throws InterruptedException {
+		Histogram histogram = new Histogram();
+		int threads = 4;
+		int values = 10_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int i = 0; i < threads; ++i) {
+				executor.execute(() -> {
+					for (int j = 0; j < values; ++j) {
+						histogram.record(j);
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(histogram.getCount()).isEqualTo(threads * values);
+		assertThat(histogram.getMax()).isEqualTo(values - 1);
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(values - 1);
+	}
+}
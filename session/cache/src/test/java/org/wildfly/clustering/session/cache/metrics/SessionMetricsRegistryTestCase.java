@@ -0,0 +1,144 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.cache.metrics;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.ByteBufferMarshalledValue;
+import org.wildfly.clustering.session.ImmutableSession;
+import org.wildfly.clustering.session.ImmutableSessionMetaData;
+
+/**
+ * Unit test for {@link SessionMetricsRegistry}.
+ * @author Paul Ferraro
+ */
+public class SessionMetricsRegistryTestCase {
+	private final Instant now = Instant.now();
+	private final AtomicLong ticker = new AtomicLong();
+	private final SessionMetricsRegistry metrics = new SessionMetricsRegistry(() -> this.now, new Meter(this.ticker::get));
+
+	@Test
+	public void recordAccess() {
+		ImmutableSessionMetaData metaData = mock(ImmutableSessionMetaData.class);
+
+		doReturn(Optional.empty()).when(metaData).getLastAccessStartTime();
+
+		this.metrics.recordAccess(metaData);
+
+		assertThat(this.metrics.getRequestInterArrivalTime().getCount()).isZero();
+
+		doReturn(Optional.of(this.now.minusSeconds(10))).when(metaData).getLastAccessStartTime();
+
+		this.metrics.recordAccess(metaData);
+
+		assertThat(this.metrics.getRequestInterArrivalTime().getCount()).isOne();
+		assertThat(this.metrics.getRequestInterArrivalTime().getMax()).isEqualTo(10_000L);
+	}
+
+	@Test
+	public void recordAttributes() {
+		this.metrics.recordAttributes(new ByteBufferMarshalledValue<>(ByteBuffer.allocate(100)));
+		this.metrics.recordAttributes(Map.of("a", new ByteBufferMarshalledValue<>(ByteBuffer.allocate(10)), "b", new ByteBufferMarshalledValue<>(ByteBuffer.allocate(20))));
+		// Unknown sizes are not recorded
+		this.metrics.recordAttributes(Map.of("a", new Object()));
+		this.metrics.recordAttributes(new Object());
+
+		assertThat(this.metrics.getAttributeSize().getCount()).isEqualTo(2);
+		assertThat(this.metrics.getAttributeSize().getMin()).isEqualTo(30);
+		assertThat(this.metrics.getAttributeSize().getMax()).isEqualTo(100);
+	}
+
+	@Test
+	public void recordClose() {
+		ImmutableSession session = mock(ImmutableSession.class);
+
+		doReturn(false).when(session).isValid();
+
+		this.metrics.recordClose(session);
+
+		verify(session, never()).getAttributes();
+		assertThat(this.metrics.getAttributeCount().getCount()).isZero();
+
+		doReturn(true).when(session).isValid();
+		doReturn(Map.of("a", 1, "b", 2)).when(session).getAttributes();
+
+		this.metrics.recordClose(session);
+
+		assertThat(this.metrics.getAttributeCount().getCount()).isOne();
+		assertThat(this.metrics.getAttributeCount().getMax()).isEqualTo(2);
+	}
+
+	@Test
+	public void recordInvalidation() {
+		ImmutableSession session = mock(ImmutableSession.class);
+		ImmutableSessionMetaData metaData = mock(ImmutableSessionMetaData.class);
+
+		doReturn(true).when(session).isValid();
+		doReturn(metaData).when(session).getMetaData();
+		doReturn(this.now.minusSeconds(60)).when(metaData).getCreationTime();
+
+		this.metrics.recordInvalidation(session);
+
+		assertThat(this.metrics.getSessionLifetime().getCount()).isOne();
+		assertThat(this.metrics.getSessionLifetime().getMax()).isEqualTo(60_000L);
+	}
+
+	@Test
+	public void recordExpiration() {
+		ImmutableSession session = mock(ImmutableSession.class);
+		ImmutableSessionMetaData metaData = mock(ImmutableSessionMetaData.class);
+		Instant creationTime = this.now.minusSeconds(600);
+		Instant lastAccessTime = this.now.minusSeconds(300);
+
+		doReturn(metaData).when(session).getMetaData();
+		doReturn(creationTime).when(metaData).getCreationTime();
+		doReturn(Optional.of(lastAccessTime)).when(metaData).getLastAccessTime();
+		doReturn(Optional.of(lastAccessTime.plus(Duration.ofMinutes(4)))).when(metaData).getExpirationTime();
+
+		assertThat(this.metrics.getExpirationRate()).isZero();
+
+		for (int i = 0; i < 50; ++i) {
+			this.metrics.recordExpiration(session);
+		}
+
+		assertThat(this.metrics.getExpirationCount()).isEqualTo(50);
+		assertThat(this.metrics.getSessionLifetime().getMax()).isEqualTo(300_000L);
+		assertThat(this.metrics.getExpirationLag().getMax()).isEqualTo(60_000L);
+
+		// Rate is only updated after each tick interval
+		assertThat(this.metrics.getExpirationRate()).isZero();
+
+		this.ticker.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+		assertThat(this.metrics.getExpirationRate()).isEqualTo(10d);
+
+		// Rate decays while idle
+		this.ticker.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+		assertThat(this.metrics.getExpirationRate()).isBetween(0d, 10d / Math.E);
+		assertThat(this.metrics.getExpirationCount()).isEqualTo(50);
+	}
+
+	@Test
+	public void passivation() {
+		this.metrics.recordPassivation();
+		this.metrics.recordPassivation();
+		this.metrics.recordActivation();
+
+		assertThat(this.metrics.getPassivationCount()).isEqualTo(2);
+		assertThat(this.metrics.getActivationCount()).isOne();
+	}
+}
@@ -33,6 +33,11 @@ public interface ContainerProvider<CC, S, L, SC> {
 			return Optional.empty();
 		}
 
+		@Override
+		default boolean isSessionEventListener(Class<?> attributeClass) {
+			return false;
+		}
+
 		@Override
 		default Consumer<S> getPostActivateEventNotifier(Void listener) {
 			return Consumer.of();
@@ -58,6 +63,11 @@ public interface ContainerProvider<CC, S, L, SC> {
 			return Optional.ofNullable(attribute).filter(listenerClass::isInstance).map(listenerClass::cast);
 		}
 
+		@Override
+		default boolean isSessionEventListener(Class<?> attributeClass) {
+			return this.getSessionEventListenerClass().isAssignableFrom(attributeClass);
+		}
+
 		/**
 		 * Returns the specification type of the session event listener implemented by interested session attributes.
 		 * @return the specification type of the session event listener implemented by interested session attributes.
@@ -107,6 +117,17 @@ public interface ContainerProvider<CC, S, L, SC> {
 	 */
 	Optional<L> getSessionEventListener(S session, Object attribute);
 
+	/**
+	 * Indicates whether attributes of the specified class may be container specific activation/passivation listeners.
+	 * Used to avoid unmarshalling session attributes that could never be notified of activation/passivation events.
+	 * By default, conservatively returns true.
+	 * @param attributeClass the class of a session attribute
+	 * @return true, if attributes of the specified class may be activation/passivation listeners, false otherwise.
+	 */
+	default boolean isSessionEventListener(Class<?> attributeClass) {
+		return true;
+	}
+
 	/**
 	 * Returns the pre-passivation event notifier for the specified session event listener.
 	 * @param listener the specification listener
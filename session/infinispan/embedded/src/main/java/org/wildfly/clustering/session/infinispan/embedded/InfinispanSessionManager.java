@@ -114,10 +114,33 @@ public class InfinispanSessionManager<DC, MV, AV, SC> extends AbstractSessionMan
 		return getLocalSessions(this.cache);
 	}
 
+	@Override
+	public Stream<String> streamActiveSessions(int pageSize) {
+		// Omit passivated sessions
+		return streamLocalSessions(this.cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD), pageSize);
+	}
+
+	@Override
+	public Stream<String> streamSessions(int pageSize) {
+		return streamLocalSessions(this.cache, pageSize);
+	}
+
 	private static Set<String> getLocalSessions(Cache<Key<String>, ?> cache) {
 		CacheStreamFilter<Key<String>> filter = CacheStreamFilter.local(cache);
 		try (Stream<Key<String>> keys = filter.apply(cache.keySet().stream())) {
 			return keys.filter(SessionCacheKeyFilter.META_DATA).map(Key::getId).collect(Collectors.toUnmodifiableSet());
 		}
 	}
+
+	/**
+	 * Returns a parallel stream of the identifiers of sessions whose primary owner is the local member.
+	 * Keys are processed per segment in parallel and retrieved in batches of the specified size.
+	 * @param cache a session cache
+	 * @param pageSize the maximum number of keys to retrieve per batch
+	 * @return a parallel stream of session identifiers
+	 */
+	private static Stream<String> streamLocalSessions(Cache<Key<String>, ?> cache, int pageSize) {
+		CacheStreamFilter<Key<String>> filter = CacheStreamFilter.local(cache);
+		return filter.apply(cache.keySet().stream()).parallel().parallelDistribution().distributedBatchSize(pageSize).filter(SessionCacheKeyFilter.META_DATA).map(Key::getId);
+	}
 }
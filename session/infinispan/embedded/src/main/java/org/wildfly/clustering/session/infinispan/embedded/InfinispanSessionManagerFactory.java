@@ -19,6 +19,9 @@ import org.infinispan.Cache;
 import org.wildfly.clustering.cache.CacheProperties;
 import org.wildfly.clustering.cache.infinispan.embedded.EmbeddedCacheConfiguration;
 import org.wildfly.clustering.cache.infinispan.embedded.distribution.CacheStreamFilter;
+import org.wildfly.clustering.cache.infinispan.embedded.listener.ListenerRegistration;
+import org.wildfly.clustering.cache.infinispan.embedded.listener.PostActivateCacheEventListenerRegistrar;
+import org.wildfly.clustering.cache.infinispan.embedded.listener.PostPassivateCacheEventListenerRegistrar;
 import org.wildfly.clustering.context.DefaultThreadFactory;
 import org.wildfly.clustering.function.BiFunction;
 import org.wildfly.clustering.function.Consumer;
@@ -58,6 +61,7 @@ import org.wildfly.clustering.session.cache.attributes.SessionAttributeActivatio
 import org.wildfly.clustering.session.cache.attributes.SessionAttributesFactory;
 import org.wildfly.clustering.session.cache.metadata.SessionMetaDataFactory;
 import org.wildfly.clustering.session.cache.metadata.coarse.ContextualSessionMetaDataEntry;
+import org.wildfly.clustering.session.cache.metrics.SessionMetricsRegistry;
 import org.wildfly.clustering.session.container.ContainerProvider;
 import org.wildfly.clustering.session.infinispan.embedded.attributes.CoarseSessionAttributesFactory;
 import org.wildfly.clustering.session.infinispan.embedded.attributes.CompositeContainerSessionAttributeActivationNotifier;
@@ -107,6 +111,9 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 	private final Function<CC, String> contextIdentifier;
 	private final AtomicInteger counter = new AtomicInteger();
 	private final Map<String, Map.Entry<CC, SessionManager<SC>>> managers = new ConcurrentHashMap<>();
+	private final SessionMetricsRegistry metrics = new SessionMetricsRegistry();
+	private final ListenerRegistration passivationListenerRegistration;
+	private final ListenerRegistration activationListenerRegistration;
 
 	/**
 	 * Creates a session manager factory.
@@ -120,7 +127,7 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 		this.contextIdentifier = provider::getId;
 		EmbeddedCacheConfiguration cacheConfiguration = configuration.getCacheConfiguration();
 		this.configuration = cacheConfiguration;
-		SessionMetaDataFactory<ContextualSessionMetaDataEntry<SC>> metaDataFactory = new InfinispanSessionMetaDataFactory<>(this.configuration);
+		SessionMetaDataFactory<ContextualSessionMetaDataEntry<SC>> metaDataFactory = new InfinispanSessionMetaDataFactory<>(this.configuration, configuration.getSessionManagerFactoryConfiguration().getLastAccessReplicationThreshold());
 		@SuppressWarnings("unchecked")
 		SessionAttributesFactory<CC, Object> attributesFactory = (SessionAttributesFactory<CC, Object>) this.createSessionAttributesFactory(configuration, provider);
 		this.factory = new CompositeSessionFactory<>(new SessionFactoryConfiguration<>() {
@@ -145,6 +152,7 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 			}
 		});
 		ConsumerRegistry<ImmutableSession> expirationListenerRegistry = ConsumerRegistry.newInstance();
+		expirationListenerRegistry.register(this.metrics::recordExpiration);
 		Predicate<String> expirationTask = new SessionExpirationTask<>(this.factory, cacheConfiguration.getBatchFactory(), expirationListenerRegistry);
 		this.managerRegistrarFactory = new Function<>() {
 			@Override
@@ -163,6 +171,10 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 			}
 		};
 		Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<SC>> cache = cacheConfiguration.getCache();
+		SessionMetricsRegistry metrics = this.metrics;
+		boolean passivating = !cacheConfiguration.getCacheProperties().isPersistent();
+		this.passivationListenerRegistration = passivating ? new PostPassivateCacheEventListenerRegistrar<>(cache, key -> metrics.recordPassivation()).register(SessionMetaDataKey.class) : ListenerRegistration.EMPTY;
+		this.activationListenerRegistration = passivating ? new PostActivateCacheEventListenerRegistrar<>(cache, (key, value) -> metrics.recordActivation()).register(SessionMetaDataKey.class) : ListenerRegistration.EMPTY;
 		@SuppressWarnings("resource")
 		SchedulerService<String, Instant> localScheduler = new LocalSchedulerService<>(new LocalSchedulerService.Configuration<>() {
 			@Override
@@ -190,13 +202,13 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 			public void start() {
 				super.start();
 				// Schedule locally-owned entries
-				CacheEntriesTask.schedule(cache, SessionCacheEntryFilter.META_DATA.cast(), this).accept(CacheStreamFilter.local(cache));
+				CacheEntriesTask.schedule(cache, SessionCacheKeyFilter.META_DATA, this).accept(CacheStreamFilter.local(cache));
 			}
 		};
 		CacheContainerCommandDispatcherFactory dispatcherFactory = configuration.getCommandDispatcherFactory();
-		Consumer<CacheStreamFilter<Map.Entry<SessionMetaDataKey, ContextualSessionMetaDataEntry<SC>>>> scheduleTask = CacheEntriesTask.schedule(cache, SessionCacheEntryFilter.META_DATA.cast(), cacheEntryScheduler);
+		Consumer<CacheStreamFilter<SessionMetaDataKey>> scheduleTask = CacheEntriesTask.schedule(cache, SessionCacheKeyFilter.META_DATA, cacheEntryScheduler);
 		Consumer<CacheStreamFilter<SessionMetaDataKey>> cancelTask = CacheKeysTask.cancel(cache, SessionCacheKeyFilter.META_DATA, cacheEntryScheduler);
-		this.scheduler = !dispatcherFactory.getGroup().isSingleton() ? new PrimaryOwnerSchedulerService<>(new PrimaryOwnerSchedulerService.Configuration<String, ExpirationMetaData, Map.Entry<SessionMetaDataKey, ContextualSessionMetaDataEntry<SC>>, SessionMetaDataKey>() {
+		this.scheduler = !dispatcherFactory.getGroup().isSingleton() ? new PrimaryOwnerSchedulerService<>(new PrimaryOwnerSchedulerService.Configuration<String, ExpirationMetaData, SessionMetaDataKey, SessionMetaDataKey>() {
 			@Override
 			public SchedulerService<String, ExpirationMetaData> getScheduler() {
 				return cacheEntryScheduler;
@@ -218,7 +230,7 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 			}
 
 			@Override
-			public Consumer<CacheStreamFilter<Map.Entry<SessionMetaDataKey, ContextualSessionMetaDataEntry<SC>>>> getScheduleTask() {
+			public Consumer<CacheStreamFilter<SessionMetaDataKey>> getScheduleTask() {
 				return scheduleTask;
 			}
 
@@ -241,6 +253,7 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 		IdentifierFactoryService<String> identifierFactory = new AffinityIdentifierFactoryService<>(configuration.getIdentifierFactory(), cacheConfiguration.getCache());
 		Registrar<SessionManager<SC>> registrar = this.managerRegistrarFactory.apply(configuration);
 		SchedulerService<String, ExpirationMetaData> scheduler = this.scheduler;
+		SessionMetricsRegistry metrics = this.metrics;
 		return new CachedSessionManager<>(new InfinispanSessionManager<>(new InfinispanSessionManager.Configuration<CC, ContextualSessionMetaDataEntry<SC>, Object, SC>() {
 			@Override
 			public IdentifierFactoryService<String> getIdentifierFactory() {
@@ -276,6 +289,11 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 			public Scheduler<String, ExpirationMetaData> getExpirationScheduler() {
 				return scheduler;
 			}
+
+			@Override
+			public SessionMetricsRegistry getSessionMetrics() {
+				return metrics;
+			}
 		}), CacheStrategy.CONCURRENT) {
 			private final AtomicReference<Registration> registration = new AtomicReference<>();
 
@@ -308,7 +326,8 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 	private <S, L> SessionAttributesFactory<CC, ?> createSessionAttributesFactory(Configuration<SC> configuration, ContainerProvider<CC, S, L, SC> provider) {
 		boolean marshalling = configuration.getCacheConfiguration().getCacheProperties().isMarshalling();
 		BiFunction<ImmutableSession, CC, SessionAttributeActivationNotifier> persistenceNotifierFactory = (session, context) -> Optional.ofNullable(this.findSessionManager(context)).<SessionAttributeActivationNotifier>map(manager -> new ContainerSessionAttributeActivationNotifier<>(provider, provider.getSession(manager, session, context))).orElse(SessionAttributeActivationNotifier.SILENT);
-		Function<String, SessionAttributeActivationNotifier> passivationNotifierFactory = sessionId -> new CompositeContainerSessionAttributeActivationNotifier<>(provider, this.managers.values(), sessionId);
+		// Omit passivation/activation notifications entirely if container does not emit such events
+		Function<String, SessionAttributeActivationNotifier> passivationNotifierFactory = (provider instanceof ContainerProvider.VoidEventListener) ? Function.of(null) : sessionId -> new CompositeContainerSessionAttributeActivationNotifier<>(provider, this.managers.values(), sessionId);
 		return switch (configuration.getSessionManagerFactoryConfiguration().getAttributePersistenceStrategy()) {
 			case FINE -> marshalling ? new FineSessionAttributesFactory<>(new MarshalledValueMarshallerSessionAttributesFactoryConfiguration<>(configuration.getSessionManagerFactoryConfiguration()), persistenceNotifierFactory, passivationNotifierFactory, configuration.getCacheConfiguration()) : new FineSessionAttributesFactory<>(new IdentityMarshallerSessionAttributesFactoryConfiguration<>(configuration.getSessionManagerFactoryConfiguration()), persistenceNotifierFactory, passivationNotifierFactory, configuration.getCacheConfiguration());
 			case COARSE -> marshalling ? new CoarseSessionAttributesFactory<>(new MarshalledValueMarshallerSessionAttributesFactoryConfiguration<>(configuration.getSessionManagerFactoryConfiguration()), persistenceNotifierFactory, passivationNotifierFactory, configuration.getCacheConfiguration()) : new CoarseSessionAttributesFactory<>(new IdentityMarshallerSessionAttributesFactoryConfiguration<>(configuration.getSessionManagerFactoryConfiguration()), persistenceNotifierFactory, passivationNotifierFactory, configuration.getCacheConfiguration());
@@ -317,6 +336,8 @@ public class InfinispanSessionManagerFactory<CC, SC> implements SessionManagerFa
 
 	@Override
 	public void close() {
+		this.activationListenerRegistration.close();
+		this.passivationListenerRegistration.close();
 		this.scheduler.close();
 		this.factory.close();
 	}
@@ -12,6 +12,7 @@ import java.util.TreeMap;
 import java.util.concurrent.CompletionStage;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
 
 import org.infinispan.Cache;
 import org.wildfly.clustering.cache.CacheEntryMutator;
@@ -52,6 +53,7 @@ public class CoarseSessionAttributesFactory<C, V> implements SessionAttributesFa
 	private final Marshaller<Map<String, Object>, V> marshaller;
 	private final CacheProperties properties;
 	private final Immutability immutability;
+	private final ToLongFunction<Object> digester;
 	private final CacheEntryMutatorFactory<SessionAttributesKey, V> mutatorFactory;
 	private final BiFunction<ImmutableSession, C, SessionAttributeActivationNotifier> persistenceNotifierFactory;
 	private final Function<String, SessionAttributeActivationNotifier> passivationNotifierFactory;
@@ -71,6 +73,7 @@ public class CoarseSessionAttributesFactory<C, V> implements SessionAttributesFa
 		this.silentCache = infinispan.getSilentWriteCache();
 		this.marshaller = configuration.getMarshaller();
 		this.immutability = configuration.getImmutability();
+		this.digester = configuration.getDigester().orElse(null);
 		this.properties = infinispan.getCacheProperties();
 		this.mutatorFactory = infinispan.getCacheEntryMutatorFactory();
 		this.persistenceNotifierFactory = persistenceNotifierFactory;
@@ -144,7 +147,7 @@ public class CoarseSessionAttributesFactory<C, V> implements SessionAttributesFa
 		try {
 			Runnable mutator = (this.properties.isTransactional() && metaData.getLastAccessTime().isEmpty()) ? CacheEntryMutator.EMPTY : this.mutatorFactory.createMutator(new SessionAttributesKey(id), this.marshaller.write(attributes));
 			SessionAttributeActivationNotifier notifier = this.properties.isPersistent() ? this.persistenceNotifierFactory.apply(new CompositeImmutableSession(id, metaData, attributes), context) : SessionAttributeActivationNotifier.SILENT;
-			return new CoarseSessionAttributes(attributes, mutator, this.properties.isMarshalling() ? this.marshaller : Predicate.of(true) , this.immutability, notifier);
+			return new CoarseSessionAttributes(attributes, mutator, this.properties.isMarshalling() ? this.marshaller : Predicate.of(true) , this.immutability, this.digester, notifier);
 		} catch (IOException e) {
 			throw new IllegalStateException(e);
 		}
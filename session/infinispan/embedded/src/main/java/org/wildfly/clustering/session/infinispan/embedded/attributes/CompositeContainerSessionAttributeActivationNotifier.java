@@ -49,7 +49,14 @@ public class CompositeContainerSessionAttributeActivationNotifier<CC, S, L, SC>
 		this.notify(SessionAttributeActivationNotifier::postActivate, value);
 	}
 
+	@Override
+	public boolean isInterested(Class<?> attributeClass) {
+		return this.provider.isSessionEventListener(attributeClass);
+	}
+
 	private void notify(BiConsumer<SessionAttributeActivationNotifier, Object> notification, Object value) {
+		// Avoid session lookups for uninterested attributes
+		if ((value == null) || !this.isInterested(value.getClass())) return;
 		// We don't know the container context associated with the session, so try them all
 		// If the session is shared across contexts, then an event will be triggered for each
 		for (Map.Entry<CC, SessionManager<SC>> entry : this.managers) {
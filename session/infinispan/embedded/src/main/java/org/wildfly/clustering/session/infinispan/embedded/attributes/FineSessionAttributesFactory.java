@@ -14,6 +14,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 import org.infinispan.Cache;
 import org.wildfly.clustering.cache.CacheEntryMutatorFactory;
@@ -52,6 +53,7 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 	private final Cache<SessionAttributesKey, Map<String, V>> silentCache;
 	private final Marshaller<Object, V> marshaller;
 	private final Predicate<Object> immutability;
+	private final ToLongFunction<Object> digester;
 	private final CacheProperties properties;
 	private final CacheEntryMutatorFactory<SessionAttributesKey, Map<String, V>> mutatorFactory;
 	private final BiFunction<ImmutableSession, C, SessionAttributeActivationNotifier> persistenceNotifierFactory;
@@ -72,6 +74,7 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 		this.silentCache = infinispan.getSilentWriteCache();
 		this.marshaller = configuration.getMarshaller();
 		this.immutability = configuration.getImmutability();
+		this.digester = configuration.getDigester().orElse(null);
 		this.properties = infinispan.getCacheProperties();
 		this.mutatorFactory = infinispan.getCacheEntryMutatorFactory(SessionAttributeMapComputeFunction::new);
 		this.persistenceNotifierFactory = persistenceNotifierFactory;
@@ -147,7 +150,7 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 	@Override
 	public SessionAttributes createSessionAttributes(String id, Map<String, Object> attributes, ImmutableSessionMetaData metaData, C context) {
 		SessionAttributeActivationNotifier notifier = this.properties.isPersistent() ? this.persistenceNotifierFactory.apply(new CompositeImmutableSession(id, metaData, attributes), context) : SessionAttributeActivationNotifier.SILENT;
-		return new FineSessionAttributes<>(new SessionAttributesKey(id), attributes, this.mutatorFactory, this.marshaller, this.immutability, notifier);
+		return new FineSessionAttributes<>(new SessionAttributesKey(id), attributes, this.mutatorFactory, this.marshaller, this.immutability, this.digester, notifier);
 	}
 
 	private void cascadeEvict(SessionMetaDataKey key) {
@@ -166,12 +169,19 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 		String id = key.getId();
 		SessionAttributeActivationNotifier notifier = this.passivationNotifierFactory.apply(id);
 		if (notifier != null) {
-			for (Map.Entry<String, V> entry : attributes.entrySet()) {
-				try {
-					notification.accept(notifier, this.marshaller.read(entry.getValue()));
-				} catch (IOException e) {
-					LOGGER.log(System.Logger.Level.WARNING, e.getLocalizedMessage(), e);
+			notify(notification, notifier, this.marshaller, attributes.values());
+		}
+	}
+
+	static <V> void notify(BiConsumer<SessionAttributeActivationNotifier, Object> notification, SessionAttributeActivationNotifier notifier, Marshaller<Object, V> marshaller, Iterable<V> values) {
+		for (V value : values) {
+			try {
+				// Skip unmarshalling of attributes whose class precludes interest in passivation/activation events
+				if (marshaller.readType(value).map(notifier::isInterested).orElse(Boolean.TRUE)) {
+					notification.accept(notifier, marshaller.read(value));
 				}
+			} catch (IOException e) {
+				LOGGER.log(System.Logger.Level.WARNING, e.getLocalizedMessage(), e);
 			}
 		}
 	}
@@ -7,15 +7,32 @@ package org.wildfly.clustering.session.infinispan.embedded.metadata;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.infinispan.Cache;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
 import org.wildfly.clustering.cache.CacheEntryMutator;
 import org.wildfly.clustering.cache.CacheEntryMutatorFactory;
 import org.wildfly.clustering.cache.CacheProperties;
+import org.wildfly.clustering.cache.batch.Batch;
 import org.wildfly.clustering.cache.infinispan.embedded.EmbeddedCacheConfiguration;
+import org.wildfly.clustering.cache.infinispan.embedded.distribution.KeyDistribution;
+import org.wildfly.clustering.cache.infinispan.embedded.listener.EventListenerRegistrar;
+import org.wildfly.clustering.cache.infinispan.embedded.listener.ListenerRegistration;
+import org.wildfly.clustering.context.DefaultThreadFactory;
 import org.wildfly.clustering.function.Consumer;
 import org.wildfly.clustering.function.Function;
 import org.wildfly.clustering.session.ImmutableSessionMetaData;
@@ -25,35 +42,63 @@ import org.wildfly.clustering.session.cache.metadata.coarse.ContextualSessionMet
 import org.wildfly.clustering.session.cache.metadata.coarse.DefaultImmutableSessionMetaData;
 import org.wildfly.clustering.session.cache.metadata.coarse.DefaultSessionMetaData;
 import org.wildfly.clustering.session.cache.metadata.coarse.DefaultSessionMetaDataEntry;
+import org.wildfly.clustering.session.cache.metadata.coarse.LastAccessReplicationThrottle;
 import org.wildfly.clustering.session.cache.metadata.coarse.MutableSessionMetaDataEntry;
 import org.wildfly.clustering.session.cache.metadata.coarse.MutableSessionMetaDataOffsetValues;
 import org.wildfly.clustering.session.cache.metadata.coarse.SessionMetaDataEntryFunction;
 
 /**
  * A factory for creating session metadata.
+ * If configured with a last access replication threshold, replication of last access times is deferred via a {@link LastAccessReplicationThrottle}.
+ * Deferred last access times are replicated when the primary owner of the associated session changes, or when this factory is closed.
  * @param <C> the session context type
  * @author Paul Ferraro
  */
+@Listener(observation = Listener.Observation.POST)
 public class InfinispanSessionMetaDataFactory<C> implements SessionMetaDataFactory<ContextualSessionMetaDataEntry<C>> {
+	private static final System.Logger LOGGER = System.getLogger(InfinispanSessionMetaDataFactory.class.getName());
+	private static final ThreadFactory THREAD_FACTORY = new DefaultThreadFactory(InfinispanSessionMetaDataFactory.class, InfinispanSessionMetaDataFactory.class.getClassLoader());
 
+	private final Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> cache;
 	private final Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> readForUpdateCache;
 	private final Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> tryReadForUpdateCache;
 	private final Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> writeOnlyCache;
 	private final Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> silentWriteCache;
 	private final CacheProperties properties;
 	private final CacheEntryMutatorFactory<SessionMetaDataKey, MutableSessionMetaDataOffsetValues> mutatorFactory;
+	private final Supplier<Batch> batchFactory;
+	private final LastAccessReplicationThrottle throttle;
+	private final ExecutorService executor;
+	private final ListenerRegistration topologyChangeListenerRegistration;
+	private final Duration stopTimeout;
 
 	/**
-	 * Creates a session metadata factory.
+	 * Creates a session metadata factory that replicates every last access time.
 	 * @param configuration the configuration of the associated cache
 	 */
 	public InfinispanSessionMetaDataFactory(EmbeddedCacheConfiguration configuration) {
+		this(configuration, 0);
+	}
+
+	/**
+	 * Creates a session metadata factory.
+	 * @param configuration the configuration of the associated cache
+	 * @param lastAccessReplicationThreshold the fraction of the max idle duration that must elapse since the replicated last access time before a subsequent last access time is replicated
+	 */
+	public InfinispanSessionMetaDataFactory(EmbeddedCacheConfiguration configuration, double lastAccessReplicationThreshold) {
+		this.cache = configuration.getCache();
 		this.readForUpdateCache = configuration.getReadForUpdateCache();
 		this.tryReadForUpdateCache = configuration.getTryReadForUpdateCache();
 		this.writeOnlyCache = configuration.getWriteOnlyCache();
 		this.silentWriteCache = configuration.getSilentWriteCache();
 		this.properties = configuration.getCacheProperties();
 		this.mutatorFactory = configuration.getCacheEntryMutatorFactory(SessionMetaDataEntryFunction::new);
+		this.batchFactory = configuration.getBatchFactory();
+		this.stopTimeout = configuration.getStopTimeout();
+		this.throttle = new LastAccessReplicationThrottle(lastAccessReplicationThreshold);
+		// Deferred last access times must be replicated before a new primary owner schedules expiration of their sessions
+		this.executor = this.throttle.isEnabled() ? Executors.newSingleThreadExecutor(THREAD_FACTORY) : null;
+		this.topologyChangeListenerRegistration = (this.executor != null) ? new EventListenerRegistrar(this.cache, List.of(this)).register() : ListenerRegistration.EMPTY;
 	}
 
 	@Override
@@ -84,22 +129,81 @@ public class InfinispanSessionMetaDataFactory<C> implements SessionMetaDataFacto
 	}
 
 	private CompletionStage<Void> deleteAsync(Cache<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> cache, String id) {
+		this.throttle.remove(id);
 		return cache.removeAsync(new SessionMetaDataKey(id)).thenAccept(Consumer.of());
 	}
 
 	@Override
 	public ImmutableSessionMetaData createImmutableSessionMetaData(String id, ContextualSessionMetaDataEntry<C> entry) {
-		return new DefaultImmutableSessionMetaData(entry);
+		return new DefaultImmutableSessionMetaData(this.throttle.isEnabled() ? this.throttle.apply(id, entry) : entry);
 	}
 
 	@Override
 	public InvalidatableSessionMetaData createSessionMetaData(String id, ContextualSessionMetaDataEntry<C> entry) {
 		MutableSessionMetaDataOffsetValues offsetValues = !this.properties.isTransactional() || !entry.isNew() ? MutableSessionMetaDataOffsetValues.from(entry) : null;
-		Runnable mutator = (offsetValues != null) ? this.mutatorFactory.createMutator(new SessionMetaDataKey(id), offsetValues) : CacheEntryMutator.EMPTY;
+		Runnable mutator = (offsetValues != null) ? this.createMutator(id, entry, offsetValues) : CacheEntryMutator.EMPTY;
 		return new DefaultSessionMetaData((offsetValues != null) ? new MutableSessionMetaDataEntry(entry, offsetValues) : entry, mutator);
 	}
 
+	private Runnable createMutator(String id, ContextualSessionMetaDataEntry<C> entry, MutableSessionMetaDataOffsetValues values) {
+		Runnable mutator = this.mutatorFactory.createMutator(new SessionMetaDataKey(id), values);
+		return this.throttle.isEnabled() ? this.throttle.createMutator(id, entry, this.throttle.apply(id, values), mutator) : mutator;
+	}
+
+	/**
+	 * Handler for topology changed events.
+	 * Replicates deferred last access times of sessions whose primary owner changed.
+	 * The returned stage completes only once these are replicated, so that the new primary owner does not schedule expiration using a stale last access time.
+	 * Handles post-topology change events only, since replication requires the new topology to be installed.
+	 * @param event a topology changed event
+	 * @return a stage that completes when deferred last access times were replicated
+	 */
+	@TopologyChanged
+	public CompletionStage<Void> topologyChanged(TopologyChangedEvent<SessionMetaDataKey, ContextualSessionMetaDataEntry<C>> event) {
+		KeyDistribution oldDistribution = KeyDistribution.forConsistentHash(this.cache, event.getWriteConsistentHashAtStart());
+		KeyDistribution newDistribution = KeyDistribution.forConsistentHash(this.cache, event.getWriteConsistentHashAtEnd());
+		List<String> ids = this.throttle.getDeferredSessions().stream().filter(id -> {
+			SessionMetaDataKey key = new SessionMetaDataKey(id);
+			return !Objects.equals(oldDistribution.getPrimaryOwner(key), newDistribution.getPrimaryOwner(key));
+		}).toList();
+		if (!ids.isEmpty()) {
+			LOGGER.log(System.Logger.Level.DEBUG, "{0} replicating deferred last access times of {1} sessions", this.cache.getName(), ids.size());
+			try {
+				return CompletableFuture.runAsync(() -> ids.forEach(this::replicate), this.executor);
+			} catch (RejectedExecutionException e) {
+				// Ignore
+			}
+		}
+		return CompletableFuture.completedStage(null);
+	}
+
+	private void replicate(String id) {
+		SessionMetaDataKey key = new SessionMetaDataKey(id);
+		try (Batch batch = this.batchFactory.get()) {
+			ContextualSessionMetaDataEntry<C> entry = this.cache.get(key);
+			if (entry != null) {
+				MutableSessionMetaDataOffsetValues values = this.throttle.apply(id, MutableSessionMetaDataOffsetValues.from(entry));
+				this.mutatorFactory.createMutator(key, values).run();
+			}
+			this.throttle.remove(id);
+		} catch (RuntimeException e) {
+			LOGGER.log(System.Logger.Level.WARNING, e.getLocalizedMessage(), e);
+		}
+	}
+
 	@Override
 	public void close() {
+		this.topologyChangeListenerRegistration.close();
+		if (this.executor != null) {
+			try {
+				// Run any pending replication tasks, otherwise their topology change events would never complete
+				this.executor.shutdownNow().forEach(Runnable::run);
+				this.executor.awaitTermination(this.stopTimeout.toMillis(), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// Replicate any remaining deferred last access times, since our local values are about to be lost
+			List.copyOf(this.throttle.getDeferredSessions()).forEach(this::replicate);
+		}
 	}
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.clustering.session.infinispan.embedded.attributes;
+
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.EventListener;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.marshalling.Marshaller;
+import org.wildfly.clustering.session.cache.attributes.SessionAttributeActivationNotifier;
+
+/**
+ * Unit test for passivation/activation notifications of {@link FineSessionAttributesFactory}.
+ * @author Paul Ferraro
+ */
+public class FineSessionAttributesFactoryTestCase {
+
+	@Test
+	public void notifyInterested() throws IOException {
+		Marshaller<Object, String> marshaller = mock(Marshaller.class);
+		SessionAttributeActivationNotifier notifier = mock(SessionAttributeActivationNotifier.class);
+		Object uninterested = "uninterested";
+		Object interested = new EventListener() { };
+		Object unknown = new Object();
+
+		doReturn(Optional.of(String.class)).when(marshaller).readType("uninterested");
+		doReturn(Optional.of(EventListener.class)).when(marshaller).readType("interested");
+		doReturn(Optional.empty()).when(marshaller).readType("unknown");
+		doReturn(Optional.empty()).when(marshaller).readType("corrupt");
+		doReturn(false).when(notifier).isInterested(String.class);
+		doReturn(true).when(notifier).isInterested(EventListener.class);
+		doReturn(uninterested).when(marshaller).read("uninterested");
+		doReturn(interested).when(marshaller).read("interested");
+		doReturn(unknown).when(marshaller).read("unknown");
+		doThrow(IOException.class).when(marshaller).read("corrupt");
+
+		FineSessionAttributesFactory.notify(SessionAttributeActivationNotifier::prePassivate, notifier, marshaller, List.of("uninterested", "corrupt", "interested", "unknown"));
+
+		// Attributes whose class precludes interest are never unmarshalled
+		verify(marshaller, never()).read("uninterested");
+		verify(notifier, never()).prePassivate(uninterested);
+
+		// Attributes of interested or unknown class are unmarshalled and notified, despite failure to unmarshal other attributes
+		verify(notifier).prePassivate(interested);
+		verify(notifier).prePassivate(unknown);
+		verify(notifier, never()).postActivate(any());
+	}
+}
@@ -4,12 +4,16 @@
  */
 package org.wildfly.clustering.session.infinispan.remote;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.Closeables;
 import org.wildfly.clustering.cache.Key;
 import org.wildfly.clustering.cache.infinispan.remote.RemoteCacheConfiguration;
 import org.wildfly.clustering.function.Consumer;
@@ -29,6 +33,9 @@ import org.wildfly.clustering.session.infinispan.remote.metadata.SessionCreation
  */
 public class HotRodSessionManager<C, MV, AV, SC> extends AbstractSessionManager<C, MV, AV, SC> {
 	private static final System.Logger LOGGER = System.getLogger(HotRodSessionManager.class.getCanonicalName());
+	private static final int DEFAULT_PAGE_SIZE = 1000;
+	// Server-side converter that strips values from iterated entries, as used by RemoteCache.keySet()
+	private static final String KEY_ONLY_CONVERTER_FACTORY = "org.infinispan.server.hotrod.HotRodServer$ToEmptyBytesKeyValueFilterConverter";
 
 	private final RemoteCache<Key<String>, ?> cache;
 	private final SessionFactory<C, MV, AV, SC> factory;
@@ -40,7 +47,7 @@ public class HotRodSessionManager<C, MV, AV, SC> extends AbstractSessionManager<
 		@Override
 		default java.util.function.Consumer<ImmutableSession> getExpiredSessionHandler() {
 			Consumer<String> remover = this.getSessionFactory()::removeAsync;
-			return this.getExpirationListener().andThen(remover.compose(ImmutableSession::getId));
+			return this.getExpirationListener().andThen(this.getSessionMetrics()::recordExpiration).andThen(remover.compose(ImmutableSession::getId));
 		}
 
 		@Override
@@ -64,11 +71,13 @@ public class HotRodSessionManager<C, MV, AV, SC> extends AbstractSessionManager<
 		super.start();
 
 		// Purge orphan session entries due to expiration while no client listener was registered.
-		for (String id : this.getSessions()) {
-			if (!this.cache.containsKey(new SessionAccessMetaDataKey(id))) {
-				LOGGER.log(System.Logger.Level.DEBUG, "Purging orphan entries for expired session {0}", id);
-				this.factory.purge(id);
-			}
+		try (Stream<String> sessions = this.streamSessions(DEFAULT_PAGE_SIZE)) {
+			sessions.forEach(id -> {
+				if (!this.cache.containsKey(new SessionAccessMetaDataKey(id))) {
+					LOGGER.log(System.Logger.Level.DEBUG, "Purging orphan entries for expired session {0}", id);
+					this.factory.purge(id);
+				}
+			});
 		}
 	}
 
@@ -84,4 +93,21 @@ public class HotRodSessionManager<C, MV, AV, SC> extends AbstractSessionManager<
 			return keys.filter(SessionCreationMetaDataKey.class::isInstance).map(Key::getId).collect(Collectors.toUnmodifiableSet());
 		}
 	}
+
+	@Override
+	public Stream<String> streamActiveSessions(int pageSize) {
+		// There is no distinction between active vs passive sessions
+		return this.streamSessions(pageSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Keys are iterated sequentially, retrieving at most the specified number of keys per remote invocation.
+	 * Values are never transferred.
+	 */
+	@Override
+	public Stream<String> streamSessions(int pageSize) {
+		CloseableIterator<Map.Entry<Object, Object>> entries = this.cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).retrieveEntries(KEY_ONLY_CONVERTER_FACTORY, null, null, pageSize);
+		return Closeables.stream(entries, false, Long.MAX_VALUE, Spliterator.NONNULL).map(Map.Entry::getKey).filter(SessionCreationMetaDataKey.class::isInstance).map(SessionCreationMetaDataKey.class::cast).map(Key::getId);
+	}
 }
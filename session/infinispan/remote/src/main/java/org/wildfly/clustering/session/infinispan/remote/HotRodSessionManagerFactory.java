@@ -5,13 +5,19 @@
 package org.wildfly.clustering.session.infinispan.remote;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+import org.infinispan.client.hotrod.RemoteCache;
+import org.wildfly.clustering.cache.Key;
 import org.wildfly.clustering.cache.infinispan.remote.RemoteCacheConfiguration;
 import org.wildfly.clustering.function.BiFunction;
 import org.wildfly.clustering.function.Consumer;
@@ -36,10 +42,13 @@ import org.wildfly.clustering.session.cache.attributes.SessionAttributeActivatio
 import org.wildfly.clustering.session.cache.attributes.SessionAttributesFactory;
 import org.wildfly.clustering.session.cache.metadata.SessionMetaDataFactory;
 import org.wildfly.clustering.session.cache.metadata.fine.SessionMetaDataEntry;
+import org.wildfly.clustering.session.cache.metrics.SessionMetricsRegistry;
 import org.wildfly.clustering.session.container.ContainerProvider;
 import org.wildfly.clustering.session.infinispan.remote.attributes.CoarseSessionAttributesFactory;
 import org.wildfly.clustering.session.infinispan.remote.attributes.FineSessionAttributesFactory;
+import org.wildfly.clustering.session.infinispan.remote.attributes.SessionAttributesKey;
 import org.wildfly.clustering.session.infinispan.remote.metadata.HotRodSessionMetaDataFactory;
+import org.wildfly.clustering.session.infinispan.remote.metadata.SessionCreationMetaDataKey;
 
 /**
  * Factory for creating session managers.
@@ -49,6 +58,8 @@ import org.wildfly.clustering.session.infinispan.remote.metadata.HotRodSessionMe
  */
 public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactory<CC, SC> {
 
+	// The maximum number of concurrent reads when warming up the near cache
+	static final int WARM_UP_CONCURRENCY = 32;
 	private static final System.Logger LOGGER = System.getLogger(HotRodSessionManagerFactory.class.getName());
 
 	/**
@@ -67,6 +78,14 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 		 * @return the configuration for the associated cache.
 		 */
 		RemoteCacheConfiguration getCacheConfiguration();
+
+		/**
+		 * Returns the near cache factory of the associated cache, if one was configured, whose session identifiers are used to warm up its near cache.
+		 * @return an optional near cache factory
+		 */
+		default Optional<SessionManagerNearCacheFactory> getNearCacheFactory() {
+			return Optional.empty();
+		}
 	}
 
 	private final RemoteCacheConfiguration configuration;
@@ -74,6 +93,8 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 	private final SessionFactory<CC, SessionMetaDataEntry<SC>, Object, SC> sessionFactory;
 	private final Function<CC, String> contextIdentifier;
 	private final Map<String, SessionManager<SC>> managers = new ConcurrentHashMap<>();
+	private final SessionMetricsRegistry metrics = new SessionMetricsRegistry();
+	private final Optional<SessionManagerNearCacheFactory> nearCacheFactory;
 
 	/**
 	 * Creates a session manager factory.
@@ -86,10 +107,12 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 		LOGGER.log(System.Logger.Level.DEBUG, "{0} configured for {1} container", this.getClass().getSimpleName(), provider);
 		this.contextIdentifier = provider::getId;
 		this.configuration = configuration.getCacheConfiguration();
+		this.nearCacheFactory = configuration.getNearCacheFactory();
 		SessionMetaDataFactory<SessionMetaDataEntry<SC>> metaDataFactory = new HotRodSessionMetaDataFactory<>(this.configuration);
 		@SuppressWarnings("unchecked")
 		SessionAttributesFactory<CC, Object> attributesFactory = (SessionAttributesFactory<CC, Object>) this.createSessionAttributesFactory(configuration, provider);
 		ConsumerRegistry<ImmutableSession> expirationListenerRegistry = ConsumerRegistry.newInstance();
+		expirationListenerRegistry.register(this.metrics::recordExpiration);
 		this.sessionFactory = new HotRodSessionFactory<>(new HotRodSessionFactory.Configuration<>() {
 			@Override
 			public SessionMetaDataFactory<SessionMetaDataEntry<SC>> getSessionMetaDataFactory() {
@@ -132,6 +155,54 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 				};
 			}
 		};
+		this.nearCacheFactory.map(SessionManagerNearCacheFactory::loadSessionIdentifiers).ifPresent(this::warmUp);
+	}
+
+	/**
+	 * Asynchronously prefetches the entries of the specified sessions into the near cache.
+	 * @param ids a collection of session identifiers
+	 */
+	private void warmUp(Collection<String> ids) {
+		if (ids.isEmpty()) return;
+		LOGGER.log(System.Logger.Level.DEBUG, "Warming up near cache of {0} with {1} sessions", this.configuration.getCache().getName(), ids.size());
+		warmUp(this.configuration.getCache(), ids, WARM_UP_CONCURRENCY);
+	}
+
+	/**
+	 * Asynchronously reads the entries of the specified sessions, using at most the specified number of concurrent reads.
+	 * Entries are read individually, since, unlike bulk reads, single key reads populate the near cache.
+	 * Access metadata entries are not read, since reading an entry with a max-idle expiration resets its idle time, and would thus extend the lifetime of idle sessions.
+	 * @param cache a remote cache
+	 * @param ids a collection of session identifiers
+	 * @param concurrency the maximum number of concurrent reads
+	 */
+	static void warmUp(RemoteCache<Key<String>, Object> cache, Collection<String> ids, int concurrency) {
+		Iterator<Key<String>> keys = ids.stream().<Key<String>>flatMap(id -> Stream.of(new SessionCreationMetaDataKey(id), new SessionAttributesKey(id))).iterator();
+		for (int i = 0; i < concurrency; ++i) {
+			warmUp(cache, keys);
+		}
+	}
+
+	private static void warmUp(RemoteCache<Key<String>, Object> cache, Iterator<Key<String>> keys) {
+		while (true) {
+			Key<String> key = null;
+			synchronized (keys) {
+				if (keys.hasNext()) {
+					key = keys.next();
+				}
+			}
+			if (key == null) return;
+			CompletableFuture<?> read = cache.getWithMetadataAsync(key).whenComplete((value, exception) -> {
+				if (exception != null) {
+					LOGGER.log(System.Logger.Level.DEBUG, exception.getLocalizedMessage(), exception);
+				}
+			});
+			// Continue with next key on completion of an outstanding read, or immediately, e.g. if served by the near cache
+			if (!read.isDone()) {
+				read.whenComplete((value, exception) -> warmUp(cache, keys));
+				return;
+			}
+		}
 	}
 
 	SessionManager<SC> findSessionManager(CC context) {
@@ -144,6 +215,7 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 		SessionFactory<CC, SessionMetaDataEntry<SC>, Object, SC> sessionFactory = this.sessionFactory;
 		IdentifierFactoryService<String> identifierFactory = new SimpleIdentifierFactoryService<>(configuration.getIdentifierFactory());
 		Registrar<SessionManager<SC>> registrar = this.managerRegistrarFactory.apply(configuration);
+		SessionMetricsRegistry metrics = this.metrics;
 		return new CachedSessionManager<>(new HotRodSessionManager<>(new HotRodSessionManager.Configuration<CC, SessionMetaDataEntry<SC>, Object, SC>() {
 			@Override
 			public IdentifierFactoryService<String> getIdentifierFactory() {
@@ -174,6 +246,11 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 			public RemoteCacheConfiguration getCacheConfiguration() {
 				return cacheConfiguration;
 			}
+
+			@Override
+			public SessionMetricsRegistry getSessionMetrics() {
+				return metrics;
+			}
 		}), CacheStrategy.CONCURRENT) {
 			private final AtomicReference<Registration> registration = new AtomicReference<>();
 
@@ -196,6 +273,7 @@ public class HotRodSessionManagerFactory<CC, SC> implements SessionManagerFactor
 
 	@Override
 	public void close() {
+		this.nearCacheFactory.ifPresent(SessionManagerNearCacheFactory::storeSessionIdentifiers);
 		this.sessionFactory.close();
 	}
 
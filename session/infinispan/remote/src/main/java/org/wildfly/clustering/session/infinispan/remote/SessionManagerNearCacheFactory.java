@@ -5,12 +5,22 @@
 
 package org.wildfly.clustering.session.infinispan.remote;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
@@ -24,6 +34,7 @@ import org.wildfly.clustering.cache.Key;
 import org.wildfly.clustering.cache.caffeine.CacheConfiguration;
 import org.wildfly.clustering.cache.caffeine.CacheFactory;
 import org.wildfly.clustering.cache.infinispan.remote.near.CaffeineNearCache;
+import org.wildfly.clustering.cache.infinispan.remote.near.NearCacheStatistics;
 import org.wildfly.clustering.server.eviction.EvictionConfiguration;
 import org.wildfly.clustering.session.infinispan.remote.attributes.SessionAttributesKey;
 import org.wildfly.clustering.session.infinispan.remote.metadata.SessionAccessMetaDataKey;
@@ -31,18 +42,66 @@ import org.wildfly.clustering.session.infinispan.remote.metadata.SessionCreation
 
 /**
  * A near-cache factory based on max-active-sessions.
+ * Optionally stores the identifiers of the sessions within its near caches on shutdown, with which to warm up the near cache on startup.
  * @author Paul Ferraro
  */
 public class SessionManagerNearCacheFactory implements NearCacheFactory {
+	private static final System.Logger LOGGER = System.getLogger(SessionManagerNearCacheFactory.class.getName());
 
 	private final EvictionConfiguration configuration;
+	private final Optional<Path> sessionIdentifiersPath;
+	private final List<CaffeineNearCache<?, ?>> nearCaches = new CopyOnWriteArrayList<>();
+	private final NearCacheStatistics statistics = new NearCacheStatistics() {
+		@Override
+		public long getHits() {
+			return this.sum(NearCacheStatistics::getHits);
+		}
+
+		@Override
+		public long getMisses() {
+			return this.sum(NearCacheStatistics::getMisses);
+		}
+
+		@Override
+		public long getEvictions() {
+			return this.sum(NearCacheStatistics::getEvictions);
+		}
+
+		@Override
+		public long getInvalidations() {
+			return this.sum(NearCacheStatistics::getInvalidations);
+		}
+
+		@Override
+		public long getSize() {
+			return this.sum(NearCacheStatistics::getSize);
+		}
+
+		private long sum(ToLongFunction<NearCacheStatistics> statistic) {
+			return SessionManagerNearCacheFactory.this.nearCaches.stream().mapToLong(statistic).sum();
+		}
+	};
 
 	/**
 	 * Creates the near cache factory for this session manager.
 	 * @param configuration the eviction configuration
 	 */
 	public SessionManagerNearCacheFactory(EvictionConfiguration configuration) {
+		this(configuration, Optional.empty());
+	}
+
+	/**
+	 * Creates the near cache factory for this session manager, whose cached session identifiers are stored within the specified file on shutdown.
+	 * @param configuration the eviction configuration
+	 * @param sessionIdentifiersPath a file in which to store the identifiers of cached sessions
+	 */
+	public SessionManagerNearCacheFactory(EvictionConfiguration configuration, Path sessionIdentifiersPath) {
+		this(configuration, Optional.of(sessionIdentifiersPath));
+	}
+
+	private SessionManagerNearCacheFactory(EvictionConfiguration configuration, Optional<Path> sessionIdentifiersPath) {
 		this.configuration = configuration;
+		this.sessionIdentifiersPath = sessionIdentifiersPath;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -52,6 +111,7 @@ public class SessionManagerNearCacheFactory implements NearCacheFactory {
 		OptionalInt maxSize = this.configuration.getSizeThreshold();
 		Optional<Duration> idleThreshold = this.configuration.getIdleThreshold();
 		AtomicReference<Cache<Key<String>, MetadataValue<V>>> reference = new AtomicReference<>();
+		AtomicReference<CaffeineNearCache<K, V>> nearCacheReference = new AtomicReference<>();
 		if (maxSize.isPresent() || idleThreshold.isPresent()) {
 			maxSize.ifPresent(builder::withMaxWeight);
 			idleThreshold.ifPresent(builder::evictAfter);
@@ -63,6 +123,7 @@ public class SessionManagerNearCacheFactory implements NearCacheFactory {
 						removedConsumer.accept(key, value);
 
 						if ((cause == RemovalCause.EXPIRED) || (cause == RemovalCause.SIZE)) {
+							nearCacheReference.get().recordEviction();
 							if (key instanceof SessionCreationMetaDataKey creationMetaDataKey) {
 								String id = creationMetaDataKey.getId();
 								reference.get().invalidateAll(List.of(new SessionAccessMetaDataKey(id), new SessionAttributesKey(id)));
@@ -74,6 +135,71 @@ public class SessionManagerNearCacheFactory implements NearCacheFactory {
 		}
 		Cache<K, MetadataValue<V>> cache = new CacheFactory<K, MetadataValue<V>>().apply(builder.build());
 		reference.set((Cache<Key<String>, MetadataValue<V>>) cache);
-		return new CaffeineNearCache<>(cache);
+		CaffeineNearCache<K, V> nearCache = new CaffeineNearCache<>(cache);
+		nearCacheReference.set(nearCache);
+		this.nearCaches.add(nearCache);
+		return nearCache;
+	}
+
+	/**
+	 * Returns the statistics of the near caches created by this factory.
+	 * @return near cache statistics
+	 */
+	public NearCacheStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * Returns the identifiers of the sessions within the near caches created by this factory.
+	 * @return a set of session identifiers
+	 */
+	public Set<String> getSessionIdentifiers() {
+		Set<String> ids = new LinkedHashSet<>();
+		for (CaffeineNearCache<?, ?> nearCache : this.nearCaches) {
+			Iterator<? extends Map.Entry<?, ?>> entries = nearCache.iterator();
+			while (entries.hasNext()) {
+				if (entries.next().getKey() instanceof SessionCreationMetaDataKey key) {
+					ids.add(key.getId());
+				}
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Stores the identifiers of the sessions within the near caches created by this factory, if a file was configured.
+	 * Intended to be invoked on shutdown.
+	 */
+	public void storeSessionIdentifiers() {
+		this.sessionIdentifiersPath.ifPresent(path -> {
+			Set<String> ids = this.getSessionIdentifiers();
+			try {
+				Files.write(path, ids, StandardCharsets.UTF_8);
+				LOGGER.log(System.Logger.Level.DEBUG, "Stored {0} session identifiers to {1}", ids.size(), path);
+			} catch (IOException e) {
+				LOGGER.log(System.Logger.Level.WARNING, e.getLocalizedMessage(), e);
+			}
+		});
+	}
+
+	/**
+	 * Loads, and then deletes, any session identifiers previously stored by {@link #storeSessionIdentifiers()}.
+	 * Intended to be invoked on startup, to warm up the near cache.
+	 * @return a set of session identifiers, possibly empty
+	 */
+	public Set<String> loadSessionIdentifiers() {
+		Path path = this.sessionIdentifiersPath.filter(Files::exists).orElse(null);
+		if (path == null) return Set.of();
+		try {
+			Set<String> ids = new LinkedHashSet<>(Files.readAllLines(path, StandardCharsets.UTF_8));
+			ids.remove("");
+			// Stored identifiers are only valid for a single startup
+			Files.delete(path);
+			LOGGER.log(System.Logger.Level.DEBUG, "Loaded {0} session identifiers from {1}", ids.size(), path);
+			return ids;
+		} catch (IOException e) {
+			LOGGER.log(System.Logger.Level.WARNING, e.getLocalizedMessage(), e);
+			return Set.of();
+		}
 	}
 }
@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CompletionStage;
 import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.wildfly.clustering.cache.CacheEntryMutatorFactory;
@@ -44,6 +45,7 @@ public class CoarseSessionAttributesFactory<C, V> implements SessionAttributesFa
 	private final RemoteCache<SessionAttributesKey, V> writeCache;
 	private final Marshaller<Map<String, Object>, V> marshaller;
 	private final Immutability immutability;
+	private final ToLongFunction<Object> digester;
 	private final CacheProperties properties;
 	private final CacheEntryMutatorFactory<SessionAttributesKey, V> mutatorFactory;
 	private final BiFunction<ImmutableSession, C, SessionAttributeActivationNotifier> notifierFactory;
@@ -59,6 +61,7 @@ public class CoarseSessionAttributesFactory<C, V> implements SessionAttributesFa
 		this.writeCache = hotrod.getIgnoreReturnCache();
 		this.marshaller = configuration.getMarshaller();
 		this.immutability = configuration.getImmutability();
+		this.digester = configuration.getDigester().orElse(null);
 		this.properties = hotrod.getCacheProperties();
 		this.mutatorFactory = hotrod.getCacheEntryMutatorFactory();
 		this.notifierFactory = notifierFactory;
@@ -109,7 +112,7 @@ public class CoarseSessionAttributesFactory<C, V> implements SessionAttributesFa
 		try {
 			Runnable mutator = this.mutatorFactory.createMutator(new SessionAttributesKey(id), this.marshaller.write(attributes));
 			SessionAttributeActivationNotifier notifier = this.properties.isPersistent() ? this.notifierFactory.apply(new CompositeImmutableSession(id, metaData, attributes), context) : SessionAttributeActivationNotifier.SILENT;
-			return new CoarseSessionAttributes(attributes, mutator, this.properties.isMarshalling() ? this.marshaller : Predicate.of(true), this.immutability, notifier);
+			return new CoarseSessionAttributes(attributes, mutator, this.properties.isMarshalling() ? this.marshaller : Predicate.of(true), this.immutability, this.digester, notifier);
 		} catch (IOException e) {
 			throw new IllegalStateException(e);
 		}
@@ -12,6 +12,7 @@ import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.wildfly.clustering.cache.CacheEntryMutatorFactory;
@@ -46,6 +47,7 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 	private final RemoteCache<SessionAttributesKey, Map<String, V>> writeCache;
 	private final Marshaller<Object, V> marshaller;
 	private final Immutability immutability;
+	private final ToLongFunction<Object> digester;
 	private final CacheProperties properties;
 	private final CacheEntryMutatorFactory<SessionAttributesKey, Map<String, V>> mutatorFactory;
 	private final BiFunction<ImmutableSession, C, SessionAttributeActivationNotifier> notifierFactory;
@@ -61,6 +63,7 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 		this.writeCache = hotrod.getIgnoreReturnCache();
 		this.marshaller = configuration.getMarshaller();
 		this.immutability = configuration.getImmutability();
+		this.digester = configuration.getDigester().orElse(null);
 		this.properties = hotrod.getCacheProperties();
 		this.mutatorFactory = hotrod.getCacheEntryMutatorFactory(SessionAttributeMapComputeFunction::new);
 		this.notifierFactory = notifierFactory;
@@ -115,7 +118,7 @@ public class FineSessionAttributesFactory<C, V> implements SessionAttributesFact
 	@Override
 	public SessionAttributes createSessionAttributes(String id, Map<String, Object> attributes, ImmutableSessionMetaData metaData, C context) {
 		SessionAttributeActivationNotifier notifier = this.properties.isPersistent() ? this.notifierFactory.apply(new CompositeImmutableSession(id, metaData, attributes), context) : null;
-		return new FineSessionAttributes<>(new SessionAttributesKey(id), attributes, this.mutatorFactory, this.marshaller, this.immutability, notifier);
+		return new FineSessionAttributes<>(new SessionAttributesKey(id), attributes, this.mutatorFactory, this.marshaller, this.immutability, this.digester, notifier);
 	}
 
 	@Override
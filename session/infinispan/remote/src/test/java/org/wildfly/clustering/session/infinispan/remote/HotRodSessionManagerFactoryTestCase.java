@@ -0,0 +1,92 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session.infinispan.remote;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.junit.jupiter.api.Test;
+import org.wildfly.clustering.cache.Key;
+import org.wildfly.clustering.session.infinispan.remote.attributes.SessionAttributesKey;
+import org.wildfly.clustering.session.infinispan.remote.metadata.SessionAccessMetaDataKey;
+import org.wildfly.clustering.session.infinispan.remote.metadata.SessionCreationMetaDataKey;
+
+/**
+ * Unit test for the near cache warm-up of a {@link HotRodSessionManagerFactory}.
+ * @author Paul Ferraro
+ */
+public class HotRodSessionManagerFactoryTestCase {
+
+	@Test
+	public void warmUp() {
+		RemoteCache<Key<String>, Object> cache = mock(RemoteCache.class);
+		List<String> ids = IntStream.range(0, 10).mapToObj(Integer::toString).collect(Collectors.toList());
+		int concurrency = 4;
+		Queue<CompletableFuture<MetadataValue<Object>>> reads = new ConcurrentLinkedQueue<>();
+		List<Key<String>> keys = new ArrayList<>();
+
+		doAnswer(invocation -> {
+			keys.add(invocation.getArgument(0));
+			CompletableFuture<MetadataValue<Object>> read = new CompletableFuture<>();
+			reads.add(read);
+			return read;
+		}).when(cache).getWithMetadataAsync(any());
+
+		HotRodSessionManagerFactory.warmUp(cache, ids, concurrency);
+
+		// Number of outstanding reads is bounded
+		assertThat(reads).hasSize(concurrency);
+
+		// Each completed read, successful or not, triggers the next read
+		reads.poll().complete(null);
+		assertThat(reads).hasSize(concurrency);
+		reads.poll().completeExceptionally(new Exception());
+		assertThat(reads).hasSize(concurrency);
+
+		CompletableFuture<MetadataValue<Object>> read = reads.poll();
+		while (read != null) {
+			assertThat(reads.size()).isLessThan(concurrency);
+			read.complete(null);
+			read = reads.poll();
+		}
+
+		// Each entry of each session, except for its access metadata, was read individually, exactly once
+		Set<Key<String>> expected = new HashSet<>();
+		for (String id : ids) {
+			expected.add(new SessionCreationMetaDataKey(id));
+			expected.add(new SessionAttributesKey(id));
+		}
+		assertThat(keys).hasSize(expected.size()).containsExactlyInAnyOrderElementsOf(expected);
+		// Reading access metadata would reset its max-idle expiration
+		assertThat(keys).noneMatch(SessionAccessMetaDataKey.class::isInstance);
+		verify(cache, never()).getAllAsync(any());
+	}
+
+	@Test
+	public void warmUpCompleted() {
+		RemoteCache<Key<String>, Object> cache = mock(RemoteCache.class);
+		List<String> ids = IntStream.range(0, 100).mapToObj(Integer::toString).collect(Collectors.toList());
+
+		// Reads served by the near cache complete immediately
+		doReturn(CompletableFuture.completedFuture(null)).when(cache).getWithMetadataAsync(any());
+
+		HotRodSessionManagerFactory.warmUp(cache, ids, 1);
+
+		verify(cache, times(ids.size() * 2)).getWithMetadataAsync(any());
+	}
+}
@@ -5,16 +5,16 @@
 
 package org.wildfly.clustering.session;
 
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.Arrays;
 import java.util.HexFormat;
 
 import org.wildfly.clustering.marshalling.Marshaller;
 
 /**
  * Generic strategies for marshalling a string-based session identifier.
+ * Identifiers are encoded directly to, and decoded directly from, a given buffer, without intermediate buffers or strings.
  * @author Paul Ferraro
  */
 public enum IdentifierMarshaller implements Marshaller<String, ByteBuffer> {
@@ -22,12 +22,28 @@ public enum IdentifierMarshaller implements Marshaller<String, ByteBuffer> {
 	ISO_LATIN_1() {
 		@Override
 		public String read(ByteBuffer buffer) {
-			return StandardCharsets.ISO_8859_1.decode(buffer.duplicate()).toString();
+			int position = buffer.position();
+			int length = buffer.remaining();
+			if (buffer.hasArray()) {
+				return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.ISO_8859_1);
+			}
+			byte[] bytes = new byte[length];
+			buffer.get(position, bytes);
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public int size(String id) {
+			return id.length();
 		}
 
 		@Override
-		public ByteBuffer write(String value) {
-			return ByteBuffer.wrap(value.getBytes(StandardCharsets.ISO_8859_1));
+		public void write(String id, ByteBuffer buffer) {
+			for (int i = 0; i < id.length(); ++i) {
+				char c = id.charAt(i);
+				// Consistent with String.getBytes(StandardCharsets.ISO_8859_1)
+				buffer.put((c <= 0xFF) ? (byte) c : (byte) '?');
+			}
 		}
 
 		@Override
@@ -38,91 +54,293 @@ public enum IdentifierMarshaller implements Marshaller<String, ByteBuffer> {
 	/** Marshals session identifier as a Base64-decoded string */
 	BASE64() {
 		@Override
-		public String read(ByteBuffer buffer) throws IOException {
-			return ISO_LATIN_1.read(Base64.getUrlEncoder().encode(buffer.duplicate()));
+		public String read(ByteBuffer buffer) {
+			int position = buffer.position();
+			int length = buffer.remaining();
+			byte[] chars = new byte[((length + 2) / 3) * 4];
+			int index = 0;
+			for (int i = 0; i < length; i += 3) {
+				int remaining = length - i;
+				int bits = (buffer.get(position + i) & 0xFF) << 16;
+				if (remaining > 1) {
+					bits |= (buffer.get(position + i + 1) & 0xFF) << 8;
+				}
+				if (remaining > 2) {
+					bits |= buffer.get(position + i + 2) & 0xFF;
+				}
+				chars[index++] = BASE64_ALPHABET[(bits >>> 18) & 0x3F];
+				chars[index++] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+				chars[index++] = (remaining > 1) ? BASE64_ALPHABET[(bits >>> 6) & 0x3F] : BASE64_PADDING;
+				chars[index++] = (remaining > 2) ? BASE64_ALPHABET[bits & 0x3F] : BASE64_PADDING;
+			}
+			return new String(chars, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public int size(String id) {
+			int length = unpaddedLength(id);
+			return ((length / 4) * 3) + Math.max(0, (length % 4) - 1);
 		}
 
 		@Override
-		public ByteBuffer write(String value) throws IOException {
-			return Base64.getUrlDecoder().decode(ISO_LATIN_1.write(value));
+		public void write(String id, ByteBuffer buffer) {
+			int length = unpaddedLength(id);
+			if (length % 4 == 1) {
+				throw new IllegalArgumentException(id);
+			}
+			int bits = 0;
+			int count = 0;
+			for (int i = 0; i < length; ++i) {
+				bits = (bits << 6) | base64Digit(id, i);
+				if (++count == 4) {
+					buffer.put((byte) (bits >>> 16)).put((byte) (bits >>> 8)).put((byte) bits);
+					bits = 0;
+					count = 0;
+				}
+			}
+			if (count == 2) {
+				buffer.put((byte) (bits >>> 4));
+			} else if (count == 3) {
+				buffer.put((byte) (bits >>> 10)).put((byte) (bits >>> 2));
+			}
+		}
+
+		@Override
+		public boolean validate(String id) {
+			// Identifiers are always read with padding, thus unpadded identifiers would not round-trip
+			if (id.length() % 4 != 0) {
+				return false;
+			}
+			int length = unpaddedLength(id);
+			for (int i = 0; i < length; ++i) {
+				char c = id.charAt(i);
+				if ((c >= BASE64_DIGITS.length) || (BASE64_DIGITS[c] < 0)) {
+					return false;
+				}
+			}
+			// The unused trailing bits of the last digit of a padded identifier must be zero, otherwise they would be lost
+			return switch (length % 4) {
+				case 2 -> (BASE64_DIGITS[id.charAt(length - 1)] & 0x0F) == 0;
+				case 3 -> (BASE64_DIGITS[id.charAt(length - 1)] & 0x03) == 0;
+				default -> true;
+			};
 		}
 	},
-	/** Marshals session identifier as an upper case hex-decoded string */
+	/** Marshals session identifier as an upper case hex-decoded string. Identifiers containing lower case digits are not valid, as they would be read as upper case. */
 	HEX_UPPER() {
-		private final Marshaller<String, ByteBuffer> marshaller = new HexMarshaller(HexFormat.of().withUpperCase());
+		@Override
+		public String read(ByteBuffer buffer) {
+			return readHex(buffer, UPPER_CASE_HEX);
+		}
 
 		@Override
-		public String read(ByteBuffer buffer) throws IOException {
-			return this.marshaller.read(buffer.duplicate());
+		public int size(String id) {
+			return id.length() / 2;
 		}
 
 		@Override
-		public ByteBuffer write(String value) throws IOException {
-			return this.marshaller.write(value);
+		public void write(String id, ByteBuffer buffer) {
+			writeHex(id, buffer);
+		}
+
+		@Override
+		public boolean validate(String id) {
+			return validateHex(id, 'A');
 		}
 	},
-	/** Marshals session identifier as a lower case hex-decoded string */
+	/** Marshals session identifier as a lower case hex-decoded string. Identifiers containing upper case digits are not valid, as they would be read as lower case. */
 	HEX_LOWER() {
-		private final Marshaller<String, ByteBuffer> marshaller = new HexMarshaller(HexFormat.of().withLowerCase());
+		@Override
+		public String read(ByteBuffer buffer) {
+			return readHex(buffer, LOWER_CASE_HEX);
+		}
+
+		@Override
+		public int size(String id) {
+			return id.length() / 2;
+		}
+
+		@Override
+		public void write(String id, ByteBuffer buffer) {
+			writeHex(id, buffer);
+		}
+
+		@Override
+		public boolean validate(String id) {
+			return validateHex(id, 'a');
+		}
+	},
+	/** Marshals a session identifier in the canonical form of a {@link java.util.UUID} (i.e. lower case) as its 16 raw bytes */
+	UUID() {
+		@Override
+		public String read(ByteBuffer buffer) {
+			HexFormat format = LOWER_CASE_HEX;
+			int position = buffer.position();
+			byte[] chars = new byte[UUID_LENGTH];
+			int index = 0;
+			for (int i = 0; i < 16; ++i) {
+				if (isUUIDSeparator(index)) {
+					chars[index++] = '-';
+				}
+				byte value = buffer.get(position + i);
+				chars[index++] = (byte) format.toHighHexDigit(value);
+				chars[index++] = (byte) format.toLowHexDigit(value);
+			}
+			return new String(chars, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public int size(String id) {
+			return 16;
+		}
 
 		@Override
-		public String read(ByteBuffer buffer) throws IOException {
-			return this.marshaller.read(buffer.duplicate());
+		public void write(String id, ByteBuffer buffer) {
+			if (id.length() != UUID_LENGTH) {
+				throw new IllegalArgumentException(id);
+			}
+			int index = 0;
+			while (index < UUID_LENGTH) {
+				if (isUUIDSeparator(index)) {
+					if (id.charAt(index++) != '-') {
+						throw new IllegalArgumentException(id);
+					}
+				}
+				buffer.put((byte) ((HexFormat.fromHexDigit(id.charAt(index++)) << 4) | HexFormat.fromHexDigit(id.charAt(index++))));
+			}
 		}
 
 		@Override
-		public ByteBuffer write(String value) throws IOException {
-			return this.marshaller.write(value);
+		public boolean validate(String id) {
+			if (id.length() != UUID_LENGTH) {
+				return false;
+			}
+			for (int i = 0; i < UUID_LENGTH; ++i) {
+				char c = id.charAt(i);
+				if (isUUIDSeparator(i) ? (c != '-') : !isHexDigit(c, 'a')) {
+					return false;
+				}
+			}
+			return true;
 		}
 	}
 	;
 
+	private static final HexFormat UPPER_CASE_HEX = HexFormat.of().withUpperCase();
+	private static final HexFormat LOWER_CASE_HEX = HexFormat.of().withLowerCase();
+	private static final int UUID_LENGTH = 36;
+	private static final byte[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.ISO_8859_1);
+	private static final byte BASE64_PADDING = '=';
+	private static final byte[] BASE64_DIGITS = new byte[128];
+	static {
+		Arrays.fill(BASE64_DIGITS, (byte) -1);
+		for (int i = 0; i < BASE64_ALPHABET.length; ++i) {
+			BASE64_DIGITS[BASE64_ALPHABET[i]] = (byte) i;
+		}
+	}
+
 	@Override
 	public boolean test(Object object) {
 		return object instanceof String;
 	}
 
+	@Override
+	public ByteBuffer write(String id) {
+		ByteBuffer buffer = ByteBuffer.allocate(this.size(id));
+		this.write(id, buffer);
+		return buffer.flip();
+	}
+
+	/**
+	 * Reads an identifier from the remaining bytes of the specified buffer.
+	 * The position of the specified buffer is not modified.
+	 * @param buffer a buffer containing an encoded identifier
+	 * @return the decoded identifier
+	 */
+	@Override
+	public abstract String read(ByteBuffer buffer);
+
 	/**
-	 * Indicates whether or not the specified identifier is valid for this serializer.
+	 * Returns the number of bytes required to encode the specified identifier.
+	 * @param id an identifier
+	 * @return the number of bytes required to encode the specified identifier.
+	 */
+	public abstract int size(String id);
+
+	/**
+	 * Encodes the specified identifier into the specified buffer, advancing its position by {@link #size(String)} bytes.
+	 * @param id an identifier
+	 * @param buffer the target buffer
+	 * @throws IllegalArgumentException if the specified identifier is not valid for this marshaller
+	 * @throws java.nio.BufferOverflowException if the specified buffer has insufficient space
+	 */
+	public abstract void write(String id, ByteBuffer buffer);
+
+	/**
+	 * Indicates whether or not the specified identifier is valid for this marshaller, i.e. whether it can be written and read back without loss.
+	 * Implementations scan the characters of the specified identifier and do not allocate.
 	 * @param id an identifier
 	 * @return true, if the specified identifier is valid, false otherwise.
 	 */
-	public boolean validate(String id) {
-		try {
-			this.write(id);
-			return true;
-		} catch (IOException | IllegalArgumentException e) {
-			return false;
+	public abstract boolean validate(String id);
+
+	private static int unpaddedLength(String id) {
+		int length = id.length();
+		int padding = 0;
+		while ((length > 0) && (padding < 2) && (id.charAt(length - 1) == BASE64_PADDING)) {
+			length -= 1;
+			padding += 1;
 		}
+		return length;
 	}
 
-	static class HexMarshaller implements Marshaller<String, ByteBuffer> {
-		private final HexFormat format;
-
-		HexMarshaller(HexFormat format) {
-			this.format = format;
+	private static int base64Digit(String id, int index) {
+		char c = id.charAt(index);
+		byte digit = (c < BASE64_DIGITS.length) ? BASE64_DIGITS[c] : -1;
+		if (digit < 0) {
+			throw new IllegalArgumentException(id);
 		}
+		return digit;
+	}
 
-		@Override
-		public String read(ByteBuffer buffer) {
-			boolean hasArray = buffer.hasArray();
-			int length = buffer.remaining();
-			int offset = (hasArray ? buffer.arrayOffset() : 0) + buffer.position();
-			byte[] bytes = buffer.hasArray() ? buffer.array() : new byte[length];
-			if (!hasArray) {
-				buffer.get(bytes, offset, length);
-			}
-			return this.format.formatHex(bytes, offset, offset + length);
+	private static String readHex(ByteBuffer buffer, HexFormat format) {
+		int position = buffer.position();
+		int length = buffer.remaining();
+		byte[] chars = new byte[length * 2];
+		for (int i = 0; i < length; ++i) {
+			byte value = buffer.get(position + i);
+			chars[2 * i] = (byte) format.toHighHexDigit(value);
+			chars[2 * i + 1] = (byte) format.toLowHexDigit(value);
 		}
+		return new String(chars, StandardCharsets.ISO_8859_1);
+	}
 
-		@Override
-		public ByteBuffer write(String value) {
-			return ByteBuffer.wrap(this.format.parseHex(value));
+	private static void writeHex(String id, ByteBuffer buffer) {
+		if (id.length() % 2 != 0) {
+			throw new IllegalArgumentException(id);
+		}
+		for (int i = 0; i < id.length(); i += 2) {
+			buffer.put((byte) ((HexFormat.fromHexDigit(id.charAt(i)) << 4) | HexFormat.fromHexDigit(id.charAt(i + 1))));
 		}
+	}
 
-		@Override
-		public boolean test(Object object) {
-			return object instanceof String;
+	private static boolean validateHex(String id, char alpha) {
+		if (id.length() % 2 != 0) {
+			return false;
 		}
+		for (int i = 0; i < id.length(); ++i) {
+			if (!isHexDigit(id.charAt(i), alpha)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isHexDigit(char c, char alpha) {
+		return ((c >= '0') && (c <= '9')) || ((c >= alpha) && (c < alpha + 6));
+	}
+
+	private static boolean isUUIDSeparator(int index) {
+		return (index == 8) || (index == 13) || (index == 18) || (index == 23);
 	}
 }
@@ -39,4 +39,25 @@ public interface SessionManagerFactoryConfiguration<SC> extends DeploymentConfig
 	 * @return the strategy to use for persisting session attributes.
 	 */
 	SessionAttributePersistenceStrategy getAttributePersistenceStrategy();
+
+	/**
+	 * Indicates whether mutable session attributes that were read, but not explicitly set, are replicated only if their marshalled form actually changed.
+	 * When enabled, a compact digest of the marshalled form of each mutable attribute is computed upon its first read, and compared against that of its current value on close.
+	 * This trades an additional marshalling pass per mutable attribute read for fewer replicated and persisted writes.
+	 * By default, any mutable session attribute that was read is assumed to have been modified.
+	 * @return true, if changes to mutable session attributes are detected via their marshalled form, false otherwise.
+	 */
+	default boolean isAttributeChangeDetectionEnabled() {
+		return false;
+	}
+
+	/**
+	 * Returns the fraction of the max idle duration of a session that must elapse since its last replicated access time before a subsequent access time is replicated.
+	 * The exact last access time is always retained locally, and is otherwise only replicated along with other metadata changes, or when ownership of the session changes.
+	 * By default, the last access time of a session is replicated on every request.
+	 * @return a fraction of the max idle duration within [0, 1), where 0 replicates every access.
+	 */
+	default double getLastAccessReplicationThreshold() {
+		return 0;
+	}
 }
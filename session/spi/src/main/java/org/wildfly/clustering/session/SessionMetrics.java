@@ -0,0 +1,111 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.clustering.session;
+
+/**
+ * Encapsulates the metrics recorded by a session manager.
+ * @author Paul Ferraro
+ */
+public interface SessionMetrics {
+
+	/**
+	 * Describes the distribution of a recorded value.
+	 */
+	interface Distribution {
+		/**
+		 * Returns the number of recorded values.
+		 * @return the number of recorded values.
+		 */
+		long getCount();
+
+		/**
+		 * Returns the smallest recorded value, or 0 if no values were recorded.
+		 * @return the smallest recorded value
+		 */
+		long getMin();
+
+		/**
+		 * Returns the largest recorded value, or 0 if no values were recorded.
+		 * @return the largest recorded value
+		 */
+		long getMax();
+
+		/**
+		 * Returns the mean of all recorded values, or 0 if no values were recorded.
+		 * @return the mean recorded value
+		 */
+		double getMean();
+
+		/**
+		 * Returns an upper bound of the recorded values at the specified percentile, or 0 if no values were recorded.
+		 * @param percentile a percentile between 0 and 100
+		 * @return the recorded value at the specified percentile
+		 * @throws IllegalArgumentException if the specified percentile is out of range
+		 */
+		long getValueAtPercentile(double percentile);
+	}
+
+	/**
+	 * Returns the distribution of the lifetime of expired or invalidated sessions, in milliseconds.
+	 * @return a distribution of session lifetimes.
+	 */
+	Distribution getSessionLifetime();
+
+	/**
+	 * Returns the distribution of the time between successive requests for the same session, in milliseconds.
+	 * @return a distribution of request inter-arrival times.
+	 */
+	Distribution getRequestInterArrivalTime();
+
+	/**
+	 * Returns the distribution of the number of attributes of a session, recorded when a session is closed.
+	 * @return a distribution of session attribute counts.
+	 */
+	Distribution getAttributeCount();
+
+	/**
+	 * Returns the distribution of the marshalled size of the attributes of a session, in bytes, recorded when a session is found.
+	 * Sessions whose marshalled size is not known are not recorded.
+	 * @return a distribution of session attribute sizes.
+	 */
+	Distribution getAttributeSize();
+
+	/**
+	 * Returns the distribution of the time spent locating a session, in nanoseconds.
+	 * @return a distribution of session lookup times.
+	 */
+	Distribution getFindTime();
+
+	/**
+	 * Returns the number of expired sessions.
+	 * @return the number of expired sessions.
+	 */
+	long getExpirationCount();
+
+	/**
+	 * Returns the one minute exponentially-weighted moving average of the number of sessions expired per second.
+	 * @return the rate of session expiration.
+	 */
+	double getExpirationRate();
+
+	/**
+	 * Returns the distribution of the time between the scheduled and actual expiration of a session, in milliseconds.
+	 * @return a distribution of session expiration lag.
+	 */
+	Distribution getExpirationLag();
+
+	/**
+	 * Returns the number of sessions passivated to persistent storage.
+	 * @return the number of passivated sessions.
+	 */
+	long getPassivationCount();
+
+	/**
+	 * Returns the number of sessions activated from persistent storage.
+	 * @return the number of activated sessions.
+	 */
+	long getActivationCount();
+}
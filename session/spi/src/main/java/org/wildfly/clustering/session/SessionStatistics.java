@@ -5,7 +5,9 @@
 
 package org.wildfly.clustering.session;
 
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates the statistics provided by a session manager.
@@ -25,6 +27,28 @@ public interface SessionStatistics {
 	 */
 	Set<String> getSessions();
 
+	/**
+	 * Returns a stream of the identifiers of active sessions managed by this session manager.
+	 * Unlike {@link #getActiveSessions()}, identifiers are retrieved incrementally, in pages of (at most) the specified size.
+	 * The returned stream must be closed by the caller.
+	 * @param pageSize the maximum number of identifiers to retrieve at a time
+	 * @return a stream of session identifiers.
+	 */
+	default Stream<String> streamActiveSessions(int pageSize) {
+		return this.getActiveSessions().stream();
+	}
+
+	/**
+	 * Returns a stream of the identifiers of all sessions managed by this session manager, including passive sessions.
+	 * Unlike {@link #getSessions()}, identifiers are retrieved incrementally, in pages of (at most) the specified size.
+	 * The returned stream must be closed by the caller.
+	 * @param pageSize the maximum number of identifiers to retrieve at a time
+	 * @return a stream of session identifiers.
+	 */
+	default Stream<String> streamSessions(int pageSize) {
+		return this.getSessions().stream();
+	}
+
 	/**
 	 * Returns the number of active sessions.
 	 * @return the number of active sessions.
@@ -32,4 +56,12 @@ public interface SessionStatistics {
 	default long getActiveSessionCount() {
 		return this.getActiveSessions().size();
 	}
+
+	/**
+	 * Returns the metrics recorded by this session manager, if supported.
+	 * @return optional session metrics.
+	 */
+	default Optional<SessionMetrics> getMetrics() {
+		return Optional.empty();
+	}
 }
@@ -8,6 +8,10 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -32,12 +36,71 @@ public class IdentifierMarshallerTestCase {
 	public void testBase64() throws IOException {
 		io.undertow.server.session.SessionIdGenerator generator = new SecureRandomSessionIdGenerator();
 		test(IdentifierMarshaller.BASE64, generator::createSessionId);
+		// Verify encoding matches JDK
+		for (int length = 1; length < 8; ++length) {
+			byte[] bytes = new byte[length];
+			new Random().nextBytes(bytes);
+			String id = Base64.getUrlEncoder().encodeToString(bytes);
+			assertThat(IdentifierMarshaller.BASE64.validate(id)).isTrue();
+			assertThat(IdentifierMarshaller.BASE64.write(id)).isEqualTo(ByteBuffer.wrap(bytes));
+			assertThat(IdentifierMarshaller.BASE64.read(ByteBuffer.wrap(bytes))).isEqualTo(id);
+		}
+		assertThat(IdentifierMarshaller.BASE64.validate("abc+")).isFalse();
+		assertThat(IdentifierMarshaller.BASE64.validate("abcde")).isFalse();
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdef=")).isFalse();
+		// Unpadded identifiers are read with padding
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdeQ")).isFalse();
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdefg")).isFalse();
+		// Non-zero trailing bits would be lost
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdeQ==")).isTrue();
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdeR==")).isFalse();
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdefg=")).isTrue();
+		assertThat(IdentifierMarshaller.BASE64.validate("abcdefh=")).isFalse();
+		for (String id : List.of("abcdeQ==", "abcdefg=", "abcd")) {
+			assertThat(IdentifierMarshaller.BASE64.read(IdentifierMarshaller.BASE64.write(id))).isEqualTo(id);
+		}
 	}
 
 	@Test
 	public void testHex() throws IOException {
 		org.apache.catalina.SessionIdGenerator generator = new StandardSessionIdGenerator();
 		test(IdentifierMarshaller.HEX_UPPER, generator::generateSessionId);
+		test(IdentifierMarshaller.HEX_LOWER, () -> generator.generateSessionId().toLowerCase(Locale.ROOT));
+		assertThat(IdentifierMarshaller.HEX_UPPER.validate("0A1B2C")).isTrue();
+		// Hex identifiers are case-sensitive, since they are read using the letter case of the marshaller
+		assertThat(IdentifierMarshaller.HEX_UPPER.validate("0a1b2c")).isFalse();
+		assertThat(IdentifierMarshaller.HEX_LOWER.validate("0a1b2c")).isTrue();
+		assertThat(IdentifierMarshaller.HEX_LOWER.validate("0A1B2C")).isFalse();
+		assertThat(IdentifierMarshaller.HEX_LOWER.validate("0a1b2")).isFalse();
+		assertThat(IdentifierMarshaller.HEX_LOWER.validate("0a1b2g")).isFalse();
+	}
+
+	@Test
+	public void testUUID() throws IOException {
+		test(IdentifierMarshaller.UUID, () -> UUID.randomUUID().toString());
+		UUID uuid = UUID.randomUUID();
+		ByteBuffer buffer = IdentifierMarshaller.UUID.write(uuid.toString());
+		assertThat(buffer.remaining()).isEqualTo(16);
+		assertThat(new UUID(buffer.getLong(0), buffer.getLong(8))).isEqualTo(uuid);
+		assertThat(IdentifierMarshaller.UUID.validate(uuid.toString().toUpperCase(Locale.ROOT))).isFalse();
+		assertThat(IdentifierMarshaller.UUID.validate(uuid.toString().replace('-', '_'))).isFalse();
+		assertThat(IdentifierMarshaller.UUID.validate(uuid.toString().substring(1))).isFalse();
+	}
+
+	private static void test(IdentifierMarshaller marshaller, Supplier<String> generator) throws IOException {
+		test((Marshaller<String, ByteBuffer>) marshaller, generator);
+		for (int i = 0; i < 100; ++i) {
+			String id = generator.get();
+			assertThat(marshaller.validate(id)).as(id).isTrue();
+			// Verify encoding into caller-provided buffer
+			int size = marshaller.size(id);
+			ByteBuffer buffer = ByteBuffer.allocate(size + 2).position(1);
+			marshaller.write(id, buffer);
+			assertThat(buffer.position()).isEqualTo(size + 1);
+			assertThat(marshaller.read(buffer.flip().position(1))).isEqualTo(id);
+			// Verify that read does not modify buffer position
+			assertThat(buffer.position()).isEqualTo(1);
+		}
 	}
 
 	private static void test(Marshaller<String, ByteBuffer> marshaller, Supplier<String> generator) throws IOException {
@@ -45,7 +108,6 @@ public class IdentifierMarshallerTestCase {
 			String id = generator.get();
 			ByteBuffer buffer = marshaller.write(id);
 			assertThat(marshaller.read(buffer)).isEqualTo(id);
-
 			if (buffer.hasArray()) {
 				// Verify reading from direct buffer
 				ByteBuffer directBuffer = ByteBuffer.allocateDirect(buffer.rewind().remaining());